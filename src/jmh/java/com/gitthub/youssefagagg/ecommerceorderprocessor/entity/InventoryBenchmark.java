@@ -0,0 +1,58 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures reserving stock on an in-memory {@link Inventory}.
+ *
+ * <p></p>
+ * {@code reserveAndRelease} reserves {@code amount} and releases it again, so the inventory never
+ * runs out; {@code reserveInsufficient} measures the rejection of a reservation that does not fit.
+ * The quantities are boxed, so the allocation profiler shows what every reservation costs for
+ * amounts outside the integer cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InventoryBenchmark {
+
+  @Param({"1", "1000"})
+  private int amount;
+
+  private Inventory inventory;
+  private Inventory soldOut;
+
+  @Setup
+  public void setUp() {
+    inventory = Inventory.builder()
+                         .id(1L)
+                         .quantity(1_000_000)
+                         .reservedQuantity(0)
+                         .build();
+    soldOut = Inventory.builder()
+                       .id(2L)
+                       .quantity(amount)
+                       .reservedQuantity(amount)
+                       .build();
+  }
+
+  @Benchmark
+  public boolean reserveAndRelease() {
+    boolean reserved = inventory.reserve(amount);
+    inventory.releaseReservation(amount);
+    return reserved;
+  }
+
+  @Benchmark
+  public boolean reserveInsufficient() {
+    return soldOut.reserve(amount);
+  }
+}
@@ -0,0 +1,55 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures checking and applying order status transitions.
+ *
+ * <p></p>
+ * {@code from} and {@code to} run the benchmarks over every pair of statuses, allowed or not, so a
+ * regression in either the table lookup or the rejection path shows up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderStatusBenchmark {
+
+  @Param({"PENDING", "PAID", "PROCESSING", "SHIPPED", "DELIVERED", "CANCELLED"})
+  private OrderStatus from;
+
+  @Param({"PENDING", "PAID", "PROCESSING", "SHIPPED", "DELIVERED", "CANCELLED"})
+  private OrderStatus to;
+
+  private Order order;
+
+  @Setup
+  public void setUp() {
+    order = new Order();
+    order.setId(1L);
+  }
+
+  @Benchmark
+  public boolean canTransitionTo() {
+    return from.canTransitionTo(to);
+  }
+
+  @Benchmark
+  public void updateStatus(Blackhole blackhole) {
+    order.setStatus(from);
+    blackhole.consume(order.updateStatus(to));
+  }
+
+  @Benchmark
+  public void allowedTransitions(Blackhole blackhole) {
+    blackhole.consume(from.allowedTransitions().contains(to));
+  }
+}
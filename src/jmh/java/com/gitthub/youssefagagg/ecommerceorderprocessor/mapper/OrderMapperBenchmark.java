@@ -0,0 +1,88 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.mapper;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Measures mapping an order with {@code items} items to its DTO.
+ *
+ * <p></p>
+ * The generated mappers are Spring components that reference each other, so they are taken from
+ * a context scanning the mapper package, without the rest of the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderMapperBenchmark {
+
+  @Param({"1", "10", "100"})
+  private int items;
+
+  private AnnotationConfigApplicationContext context;
+  private OrderMapper orderMapper;
+  private Order order;
+
+  @Setup
+  public void setUp() {
+    context = new AnnotationConfigApplicationContext(OrderMapper.class.getPackageName());
+    orderMapper = context.getBean(OrderMapper.class);
+
+    User user = new User();
+    user.setId(1L);
+    user.setFirstName("Test");
+    user.setLastName("User");
+
+    order = new Order();
+    order.setId(1L);
+    order.setUser(user);
+    order.setStatus(OrderStatus.PAID);
+
+    List<OrderItem> orderItems = new ArrayList<>(items);
+    BigDecimal total = BigDecimal.ZERO;
+    for (int i = 0; i < items; i++) {
+      Product product = Product.builder()
+                               .id((long) i)
+                               .name("Product " + i)
+                               .price(BigDecimal.valueOf(10 + i))
+                               .build();
+      OrderItem orderItem = new OrderItem();
+      orderItem.setId((long) i);
+      orderItem.setOrder(order);
+      orderItem.setProduct(product);
+      orderItem.setQuantity(1 + i % 5);
+      orderItem.setPrice(product.getPrice());
+      orderItems.add(orderItem);
+      total = total.add(orderItem.getSubtotal());
+    }
+    order.setOrderItems(orderItems);
+    order.setTotalAmount(total);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public OrderDTO toDto() {
+    return orderMapper.toDto(order);
+  }
+}
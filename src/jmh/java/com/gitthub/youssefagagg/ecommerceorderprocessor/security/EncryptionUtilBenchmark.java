@@ -0,0 +1,50 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.security;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Measures encrypting and decrypting {@code size} characters with {@link EncryptionUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncryptionUtilBenchmark {
+
+  @Param({"16", "1024", "16384"})
+  private int size;
+
+  private EncryptionUtil encryptionUtil;
+  private String plainText;
+  private String encryptedText;
+
+  @Setup
+  public void setUp() {
+    encryptionUtil = new EncryptionUtil();
+    Field secretKey = ReflectionUtils.findField(EncryptionUtil.class, "secretKeyString");
+    ReflectionUtils.makeAccessible(secretKey);
+    ReflectionUtils.setField(secretKey, encryptionUtil, EncryptionUtil.generateSecretKey());
+
+    plainText = "x".repeat(size);
+    encryptedText = encryptionUtil.encrypt(plainText);
+  }
+
+  @Benchmark
+  public String encrypt() {
+    return encryptionUtil.encrypt(plainText);
+  }
+
+  @Benchmark
+  public String decrypt() {
+    return encryptionUtil.decrypt(encryptedText);
+  }
+}
@@ -0,0 +1,67 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.security.jwt;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.config.JwtProperties;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Measures issuing and reading the JWT of a user with {@code authorities} authorities, which is
+ * what every authenticated request pays in the JWT filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenProviderBenchmark {
+
+  @Param({"1", "10"})
+  private int authorities;
+
+  private TokenProvider tokenProvider;
+  private Authentication authentication;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    JwtProperties jwtProperties = new JwtProperties();
+    jwtProperties.setSecret(Base64.getEncoder().encodeToString(new byte[64]));
+    jwtProperties.setExpiration(86400);
+    jwtProperties.setIssuer("ecommerce-order-processor");
+    tokenProvider = new TokenProvider(jwtProperties);
+
+    List<GrantedAuthority> grantedAuthorities =
+        IntStream.range(0, authorities)
+                 .<GrantedAuthority>mapToObj(i -> new SimpleGrantedAuthority("ROLE_" + i))
+                 .toList();
+    authentication = new UsernamePasswordAuthenticationToken("testuser", "", grantedAuthorities);
+    token = tokenProvider.createToken(authentication);
+  }
+
+  @Benchmark
+  public String createToken() {
+    return tokenProvider.createToken(authentication);
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return tokenProvider.validateToken(token);
+  }
+
+  @Benchmark
+  public Authentication getAuthentication() {
+    return tokenProvider.getAuthentication(token);
+  }
+}
@@ -0,0 +1,144 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.EcommerceOrderProcessorApplication;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.InventoryDTO;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Compares retrying inventory update conflicts in the service with retrying them in the client.
+ *
+ * <p></p>
+ * The application runs against a PostgreSQL container, and every thread updates one of
+ * {@code hotRows} inventory rows through {@link ProductService#updateInventory}, so concurrent
+ * updates of a row conflict. {@code service} retries a conflict with the application's
+ * {@code @RetryOnConflict} settings. {@code client} disables it and retries the whole call after
+ * the backoff a client would use, which starts at {@value #CLIENT_INITIAL_BACKOFF_MILLIS} ms since
+ * every retry is another request. Both make at most {@value #MAX_ATTEMPTS} attempts. The
+ * {@code updated} and {@code failed} counters split the calls by whether they were applied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class ConflictRetryBenchmark {
+
+  private static final int MAX_ATTEMPTS = 3;
+  private static final long CLIENT_INITIAL_BACKOFF_MILLIS = 100;
+
+  @Param({"service", "client"})
+  private String retry;
+
+  @Param({"1", "4"})
+  private int hotRows;
+
+  private PostgreSQLContainer<?> postgres;
+  private ConfigurableApplicationContext context;
+  private ProductService productService;
+  private List<InventoryDTO> inventories;
+
+  @Setup
+  public void setUp() {
+    postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    postgres.start();
+    context = new SpringApplicationBuilder(EcommerceOrderProcessorApplication.class)
+        .profiles("benchmark")
+        .properties("spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword(),
+                    "server.port=0",
+                    "logging.level.root=WARN",
+                    "conflict-retry.enabled=" + "service".equals(retry),
+                    "conflict-retry.max-attempts=" + MAX_ATTEMPTS)
+        .run();
+
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    jdbcTemplate.update("""
+        INSERT INTO products (name, description, price, created_by, last_modified_by)
+        SELECT 'Benchmark Product ' || n, 'Benchmark Description', 10, 'system', 'system'
+        FROM generate_series(1, ?) AS n
+        """, hotRows);
+    jdbcTemplate.update("""
+        INSERT INTO inventory (product_id, quantity, reserved_quantity, created_by,
+                               last_modified_by)
+        SELECT id, 1000, 0, 'system', 'system' FROM products
+        """);
+    inventories = jdbcTemplate.query(
+        "SELECT id, product_id FROM inventory",
+        (rs, rowNum) -> InventoryDTO.builder()
+                                    .id(rs.getLong("id"))
+                                    .productId(rs.getLong("product_id"))
+                                    .build());
+
+    productService = context.getBean(ProductService.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    postgres.stop();
+  }
+
+  @Benchmark
+  public void updateInventory(Outcomes outcomes) throws InterruptedException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    InventoryDTO row = inventories.get(random.nextInt(inventories.size()));
+    InventoryDTO update = InventoryDTO.builder()
+                                     .id(row.getId())
+                                     .productId(row.getProductId())
+                                     .quantity(1000 + random.nextInt(100))
+                                     .reservedQuantity(0)
+                                     .build();
+
+    int attempts = "client".equals(retry) ? MAX_ATTEMPTS : 1;
+    for (int attempt = 1; attempt <= attempts; attempt++) {
+      try {
+        productService.updateInventory(update);
+        outcomes.updated++;
+        return;
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt < attempts) {
+          long bound = CLIENT_INITIAL_BACKOFF_MILLIS << (attempt - 1);
+          Thread.sleep(random.nextLong(bound + 1));
+        }
+      }
+    }
+    outcomes.failed++;
+  }
+
+  /**
+   * The calls of a thread, by whether their update was applied.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Outcomes {
+
+    public long updated;
+    public long failed;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      updated = 0;
+      failed = 0;
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.EcommerceOrderProcessorApplication;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Measures the latency of order creation with the preparation steps run one after the other and
+ * run concurrently.
+ *
+ * <p></p>
+ * The application runs against a PostgreSQL container, with the simulated payment gateway and the
+ * simulated fraud, address and limits checks, each of which takes {@code validatorLatency} ms.
+ * Every call places an order for one item as the seeded {@code admin} user. {@code sequential}
+ * looks up the user, checks the idempotency key and calls the three checks one after the other on
+ * the calling thread; {@code concurrent} runs the checks on virtual threads while the calling
+ * thread does the lookups, so the preparation takes about as long as the slowest check or the
+ * lookups, whichever is longer, rather than the sum of all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderPreparationBenchmark {
+
+  private static final String USERNAME = "admin";
+
+  @Param({"sequential", "concurrent"})
+  private String preparation;
+
+  @Param({"0", "20", "50"})
+  private int validatorLatency;
+
+  private PostgreSQLContainer<?> postgres;
+  private ConfigurableApplicationContext context;
+  private OrderService orderService;
+  private long productId;
+
+  @Setup
+  public void setUp() {
+    postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    postgres.start();
+    String latency = validatorLatency + "ms";
+    context = new SpringApplicationBuilder(EcommerceOrderProcessorApplication.class)
+        .profiles("benchmark")
+        .properties("spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword(),
+                    "server.port=0",
+                    "logging.level.root=WARN",
+                    "checkout.concurrent-preparation=" + "concurrent".equals(preparation),
+                    "checkout.validation.simulator.fraud.latency=" + latency,
+                    "checkout.validation.simulator.address.latency=" + latency,
+                    "checkout.validation.simulator.limits.latency=" + latency)
+        .run();
+
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    productId = jdbcTemplate.queryForObject("""
+        INSERT INTO products (name, description, price, created_by, last_modified_by)
+        VALUES ('Benchmark Product', 'Benchmark Description', 10, 'system', 'system')
+        RETURNING id
+        """, Long.class);
+    jdbcTemplate.update("""
+        INSERT INTO inventory (product_id, quantity, reserved_quantity, created_by,
+                               last_modified_by)
+        VALUES (?, 1000000000, 0, 'system', 'system')
+        """, productId);
+
+    orderService = context.getBean(OrderService.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    postgres.stop();
+  }
+
+  @Benchmark
+  public OrderDTO createOrder(Customer customer) {
+    OrderItemDTO item = new OrderItemDTO();
+    item.setProductId(productId);
+    item.setQuantity(1);
+
+    OrderDTO order = new OrderDTO();
+    order.setOrderItems(List.of(item));
+    order.setIdempotencyKey(UUID.randomUUID().toString());
+    return orderService.createOrder(order);
+  }
+
+  /**
+   * Signs the benchmark thread in as the seeded user.
+   */
+  @State(Scope.Thread)
+  public static class Customer {
+
+    @Setup
+    public void signIn() {
+      SecurityContextHolder.getContext().setAuthentication(
+          new UsernamePasswordAuthenticationToken(
+              USERNAME, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @TearDown
+    public void signOut() {
+      SecurityContextHolder.clearContext();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.EcommerceOrderProcessorApplication;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Compares reading a catalog page through the product entities with the joined projection.
+ *
+ * <p></p>
+ * The application runs against a PostgreSQL container holding {@value #PRODUCTS} products.
+ * {@code entities} reads the page as {@link Product} entities and asks each one for its inventory,
+ * which costs a select per product; {@code projection} is the catalog path of
+ * {@link ProductService}, a single joined select. Both read the page and its count in a read-only
+ * transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductCatalogBenchmark {
+
+  private static final int PRODUCTS = 1_000;
+
+  @Param({"20", "100", "500"})
+  private int pageSize;
+
+  private PostgreSQLContainer<?> postgres;
+  private ConfigurableApplicationContext context;
+  private ProductService productService;
+  private ProductRepository productRepository;
+  private TransactionTemplate readOnlyTransaction;
+  private Pageable pageable;
+
+  @Setup
+  public void setUp() {
+    postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    postgres.start();
+    context = new SpringApplicationBuilder(EcommerceOrderProcessorApplication.class)
+        .profiles("benchmark")
+        .properties("spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword(),
+                    "server.port=0",
+                    "logging.level.root=WARN")
+        .run();
+
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    jdbcTemplate.update("""
+        INSERT INTO products (name, description, price, created_by, last_modified_by)
+        SELECT 'Benchmark Product ' || n, 'Benchmark Description', 10 + n % 90, 'system',
+               'system'
+        FROM generate_series(1, ?) AS n
+        """, PRODUCTS);
+    jdbcTemplate.update("""
+        INSERT INTO inventory (product_id, quantity, reserved_quantity, created_by,
+                               last_modified_by)
+        SELECT id, 100, id % 10, 'system', 'system' FROM products
+        """);
+
+    productService = context.getBean(ProductService.class);
+    productRepository = context.getBean(ProductRepository.class);
+    readOnlyTransaction = new TransactionTemplate(context.getBean(
+        PlatformTransactionManager.class));
+    readOnlyTransaction.setReadOnly(true);
+    pageable = PageRequest.of(0, pageSize);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+    postgres.stop();
+  }
+
+  @Benchmark
+  public void entities(Blackhole blackhole) {
+    readOnlyTransaction.executeWithoutResult(status -> {
+      for (Product product : productRepository.findAll(pageable)) {
+        blackhole.consume(product.getInventory().getAvailableQuantity());
+      }
+    });
+  }
+
+  @Benchmark
+  public void projection(Blackhole blackhole) {
+    List<ProductDTO> page = productService.findAll(pageable).data();
+    for (ProductDTO product : page) {
+      blackhole.consume(product.getAvailableQuantity());
+    }
+  }
+}
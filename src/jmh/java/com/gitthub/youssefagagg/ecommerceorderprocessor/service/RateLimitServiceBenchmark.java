@@ -0,0 +1,78 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.RateLimitConfig;
+import io.github.bucket4j.Bucket;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures resolving the rate limit bucket of a request.
+ *
+ * <p></p>
+ * Requests come from {@code clients} clients at random and go to one of {@code endpoints}
+ * configured wildcard endpoints or to an unconfigured path, which is matched against every pattern
+ * before falling back to the default limit. Buckets are created during warmup, so the measurement
+ * is the lookup every request pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitServiceBenchmark {
+
+  @Param({"1", "10000"})
+  private int clients;
+
+  @Param({"0", "20"})
+  private int endpoints;
+
+  private RateLimitService rateLimitService;
+  private String[] clientKeys;
+  private String[] paths;
+
+  @Setup
+  public void setUp() {
+    RateLimitConfig config = new RateLimitConfig();
+    for (int i = 0; i < endpoints; i++) {
+      config.getEndpoints().put("/api/v1/resource-" + i + "/*",
+                                new RateLimitConfig.EndpointLimit());
+    }
+    rateLimitService = new RateLimitService(config);
+
+    clientKeys = IntStream.range(0, clients)
+                          .mapToObj(i -> "10.0." + (i >> 8) + "." + (i & 0xff))
+                          .toArray(String[]::new);
+    // One path per endpoint and one that matches none of them
+    paths = IntStream.rangeClosed(0, endpoints)
+                     .mapToObj(i -> i < endpoints ? "/api/v1/resource-" + i + "/1"
+                                                  : "/api/v1/other")
+                     .toArray(String[]::new);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Bucket oneThread() {
+    return resolveBucket();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Bucket eightThreads() {
+    return resolveBucket();
+  }
+
+  private Bucket resolveBucket() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return rateLimitService.resolveBucket(clientKeys[random.nextInt(clientKeys.length)],
+                                          paths[random.nextInt(paths.length)]);
+  }
+}
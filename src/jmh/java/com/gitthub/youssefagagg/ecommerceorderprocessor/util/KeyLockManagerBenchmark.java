@@ -0,0 +1,99 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link KeyLockManager#withLock} with and without contention.
+ *
+ * <p></p>
+ * Every call locks one of {@code keys} keys at random and holds the lock for {@code work} units
+ * of CPU work. With a single key every thread competes for the same lock; {@code withLock} does
+ * not wait, so a contended call fails fast, and the {@code acquired} and {@code rejected} counters
+ * show how often that happens at each thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyLockManagerBenchmark {
+
+  @Param({"1", "64"})
+  private int keys;
+
+  @Param({"0", "500"})
+  private long work;
+
+  private KeyLockManager keyLockManager;
+  private String[] keyNames;
+
+  /**
+   * Outcomes of the calls of one thread.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Outcomes {
+
+    public long acquired;
+    public long rejected;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      acquired = 0;
+      rejected = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    keyLockManager = new KeyLockManager();
+    keyNames = IntStream.range(0, keys)
+                        .mapToObj(i -> "order-" + i)
+                        .toArray(String[]::new);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void oneThread(Outcomes outcomes, Blackhole blackhole) {
+    withLock(outcomes, blackhole);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void fourThreads(Outcomes outcomes, Blackhole blackhole) {
+    withLock(outcomes, blackhole);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void sixteenThreads(Outcomes outcomes, Blackhole blackhole) {
+    withLock(outcomes, blackhole);
+  }
+
+  private void withLock(Outcomes outcomes, Blackhole blackhole) {
+    String key = keyNames[ThreadLocalRandom.current().nextInt(keyNames.length)];
+    try {
+      blackhole.consume(keyLockManager.withLock(key, () -> {
+        Blackhole.consumeCPU(work);
+        return key;
+      }));
+      outcomes.acquired++;
+    } catch (CustomException e) {
+      blackhole.consume(e);
+      outcomes.rejected++;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and errors of one endpoint, or of one scenario.
+ *
+ * <p></p>
+ * Latencies go into an HDR histogram with microsecond resolution and three significant digits, so
+ * the tail percentiles are exact to within 0.1% whatever the distribution. Recording is lock-free,
+ * so any number of virtual threads can record at once.
+ */
+final class EndpointMetrics {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+  private final String name;
+  private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+  private final LongAdder errors = new LongAdder();
+
+  EndpointMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Record one call.
+   *
+   * @param elapsedNanos how long the call took
+   * @param success      whether the call succeeded
+   */
+  void record(long elapsedNanos, boolean success) {
+    recorder.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 0),
+                                  HIGHEST_TRACKABLE_MICROS));
+    if (!success) {
+      errors.increment();
+    }
+  }
+
+  /**
+   * Forget everything recorded so far, such as the calls of the warmup.
+   */
+  void reset() {
+    recorder.reset();
+    errors.reset();
+  }
+
+  /**
+   * Summarize the calls recorded since the last reset.
+   *
+   * @param seconds the length of the measurement
+   * @return the summary
+   */
+  LoadTestReport.Endpoint snapshot(double seconds) {
+    Histogram histogram = recorder.getIntervalHistogram();
+    long count = histogram.getTotalCount();
+    long failed = errors.sum();
+    return new LoadTestReport.Endpoint(
+        name,
+        count,
+        failed,
+        count == 0 ? 0 : (double) failed / count,
+        count / seconds,
+        millis(histogram.getValueAtPercentile(50)),
+        millis(histogram.getValueAtPercentile(90)),
+        millis(histogram.getValueAtPercentile(99)),
+        millis(histogram.getValueAtPercentile(99.9)),
+        millis(histogram.getMaxValue()));
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,105 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the requests of the Postman collection to the application under test and records the
+ * latency and outcome of every request under the request's name.
+ */
+final class LoadClient {
+
+  private final HttpClient httpClient;
+  private final PostmanCollection collection;
+  private final URI baseUrl;
+  private final ObjectMapper objectMapper;
+  private final Map<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+
+  LoadClient(HttpClient httpClient, PostmanCollection collection, URI baseUrl,
+             ObjectMapper objectMapper) {
+    this.httpClient = httpClient;
+    this.collection = collection;
+    this.baseUrl = baseUrl;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * The response of a request.
+   *
+   * @param status the HTTP status, or {@code 0} if no response arrived
+   * @param body   the parsed body, missing if there was none or it was not JSON
+   */
+  record Response(int status, JsonNode body) {
+
+    boolean ok() {
+      return status >= 200 && status < 300;
+    }
+  }
+
+  /**
+   * Send a request of the collection.
+   *
+   * @param name      the name of the request in the collection
+   * @param variables the values of the placeholders of the request
+   * @param token     the bearer token, or {@code null} to send the request anonymously
+   * @return the response
+   */
+  Response send(String name, Map<String, String> variables, String token) {
+    HttpRequest request = collection.request(name, baseUrl, variables, token);
+    EndpointMetrics endpoint = metrics(name);
+    long start = System.nanoTime();
+    HttpResponse<byte[]> response;
+    try {
+      response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    } catch (IOException e) {
+      endpoint.record(System.nanoTime() - start, false);
+      return new Response(0, MissingNode.getInstance());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      endpoint.record(System.nanoTime() - start, false);
+      return new Response(0, MissingNode.getInstance());
+    }
+    long elapsed = System.nanoTime() - start;
+    Response result = new Response(response.statusCode(), parse(response.body()));
+    endpoint.record(elapsed, result.ok());
+    return result;
+  }
+
+  /**
+   * The metrics recorded under a name, created on first use.
+   *
+   * @param name the endpoint or scenario name
+   * @return the metrics
+   */
+  EndpointMetrics metrics(String name) {
+    return metrics.computeIfAbsent(name, EndpointMetrics::new);
+  }
+
+  Collection<EndpointMetrics> allMetrics() {
+    return metrics.values();
+  }
+
+  URI baseUrl() {
+    return baseUrl;
+  }
+
+  private JsonNode parse(byte[] body) {
+    if (body.length == 0) {
+      return MissingNode.getInstance();
+    }
+    try {
+      return objectMapper.readTree(body);
+    } catch (IOException e) {
+      return MissingNode.getInstance();
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.EcommerceOrderProcessorApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * End-to-end load test of the whole application.
+ *
+ * <p></p>
+ * Starts PostgreSQL in a container and the application on a random port with the
+ * {@code loadtest} profile, seeds a catalog and customer accounts, connects the WebSocket
+ * subscribers and replays the weighted scenarios over HTTP for the warmup and then for the
+ * measured duration. The report is printed, written as JSON, and compared with the baseline
+ * report if there is one; the process exits with status 1 if the run regressed.
+ *
+ * <p></p>
+ * Run it with {@code ./gradlew loadTest}; see {@link LoadTestSettings} for the options.
+ */
+public final class LoadTest {
+
+  private LoadTest() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+    ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    LoadTestReport report;
+    try (PostgreSQLContainer<?> postgres =
+             new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"))) {
+      postgres.start();
+      try (ConfigurableApplicationContext context =
+               new SpringApplicationBuilder(EcommerceOrderProcessorApplication.class)
+                   .profiles("loadtest")
+                   .properties("spring.datasource.url=" + postgres.getJdbcUrl(),
+                               "spring.datasource.username=" + postgres.getUsername(),
+                               "spring.datasource.password=" + postgres.getPassword(),
+                               "server.port=0")
+                   .run(args)) {
+        report = run(settings, context, objectMapper);
+      }
+    }
+
+    report.print(System.out);
+    Files.createDirectories(settings.results().toAbsolutePath().getParent());
+    objectMapper.writeValue(settings.results().toFile(), report);
+    System.out.println("\nReport written to " + settings.results());
+
+    if (Files.exists(settings.baseline())) {
+      LoadTestReport baseline =
+          objectMapper.readValue(settings.baseline().toFile(), LoadTestReport.class);
+      List<String> regressions = report.regressionsAgainst(baseline, settings.tolerance());
+      if (!regressions.isEmpty()) {
+        System.out.printf("%nRegressions against %s beyond %.0f%%:%n", settings.baseline(),
+                          settings.tolerance());
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        System.exit(1);
+      }
+      System.out.println("No regressions against " + settings.baseline());
+    }
+  }
+
+  private static LoadTestReport run(LoadTestSettings settings,
+                                    ConfigurableApplicationContext context,
+                                    ObjectMapper objectMapper) throws IOException {
+    URI baseUrl = URI.create("http://localhost:"
+                             + context.getEnvironment().getProperty("local.server.port"));
+    HttpClient httpClient = HttpClient.newBuilder()
+                                      .version(HttpClient.Version.HTTP_1_1)
+                                      .connectTimeout(Duration.ofSeconds(10))
+                                      .executor(Executors.newVirtualThreadPerTaskExecutor())
+                                      .build();
+    LoadClient client = new LoadClient(
+        httpClient, PostmanCollection.load(settings.collection(), objectMapper), baseUrl,
+        objectMapper);
+    LoadTestData data = LoadTestData.seed(context, settings);
+
+    try (WebSocketSubscribers subscribers = new WebSocketSubscribers()) {
+      subscribers.connect(client, data, settings.subscribers());
+      Workload workload = new Workload(settings, client, data);
+
+      workload.run(settings.warmup().toNanos());
+      client.allMetrics().forEach(EndpointMetrics::reset);
+      subscribers.takeFrames();
+
+      long start = System.nanoTime();
+      workload.run(settings.duration().toNanos());
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      return LoadTestReport.of(settings.model(), seconds,
+                               client.allMetrics()
+                                     .stream()
+                                     .map(metrics -> metrics.snapshot(seconds))
+                                     .toList(),
+                               subscribers.connected(), subscribers.takeFrames());
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.CreateProductDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.CreateUserRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.LoginRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.AuthService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.ProductService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * The catalog and accounts the scenarios run against, and the orders waiting for the admin
+ * scenario to move them on.
+ *
+ * @param productIds the IDs of the seeded products
+ * @param customers  the seeded customers
+ * @param admin      the administrator
+ * @param openOrders placed orders that have not been delivered yet
+ */
+record LoadTestData(List<Long> productIds, List<Customer> customers, Customer admin,
+                    Queue<OpenOrder> openOrders) {
+
+  private static final String PASSWORD = "loadtest-password";
+  private static final int OPEN_ORDERS_CAPACITY = 10_000;
+  // Enough stock that checkouts never run out during a run
+  private static final int STOCK = 100_000_000;
+
+  /**
+   * An account with a valid access token.
+   *
+   * @param username the username
+   * @param token    the access token
+   */
+  record Customer(String username, String token) {
+  }
+
+  /**
+   * A placed order and the status it was last seen in.
+   *
+   * @param id     the order ID
+   * @param status the order status
+   */
+  record OpenOrder(String id, OrderStatus status) {
+  }
+
+  /**
+   * Create the products and customers through the application's services. Seeding is not part of
+   * the measurement, so it does not go through HTTP.
+   *
+   * @param context  the application under test
+   * @param settings the settings of the run
+   * @return the seeded data
+   */
+  static LoadTestData seed(ApplicationContext context, LoadTestSettings settings) {
+    ProductService productService = context.getBean(ProductService.class);
+    AuthService authService = context.getBean(AuthService.class);
+
+    List<Long> productIds = new ArrayList<>(settings.products());
+    for (int i = 0; i < settings.products(); i++) {
+      productIds.add(productService.save(CreateProductDTO.builder()
+                                                         .name("Load Test Product " + i)
+                                                         .description("Seeded by the load test")
+                                                         .price(BigDecimal.valueOf(5 + i % 95))
+                                                         .quantity(STOCK)
+                                                         .build())
+                                   .getId());
+    }
+
+    List<Customer> customers = new ArrayList<>(settings.customers());
+    for (int i = 0; i < settings.customers(); i++) {
+      String username = "loadtest-" + i;
+      authService.register(CreateUserRequest.builder()
+                                            .firstName("Load")
+                                            .lastName("Test " + i)
+                                            .username(username)
+                                            .email(username + "@example.com")
+                                            .phone(String.format("+2010%08d", i))
+                                            .password(PASSWORD)
+                                            .build());
+      customers.add(login(authService, username, PASSWORD));
+    }
+
+    return new LoadTestData(List.copyOf(productIds), List.copyOf(customers),
+                            login(authService, "admin", "admin"),
+                            new ArrayBlockingQueue<>(OPEN_ORDERS_CAPACITY));
+  }
+
+  private static Customer login(AuthService authService, String username, String password) {
+    return new Customer(username, authService.login(new LoginRequest(username, password))
+                                             .getAccessToken());
+  }
+
+  /**
+   * Pick a product at random.
+   *
+   * @param random the source of the choice
+   * @return the product ID, as a request variable
+   */
+  String randomProductId(Random random) {
+    return String.valueOf(productIds.get(random.nextInt(productIds.size())));
+  }
+}
@@ -0,0 +1,124 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The result of a load test run, written as JSON so a later run can be compared with it.
+ *
+ * @param model       the workload model
+ * @param seconds     the length of the measurement
+ * @param requests    the HTTP requests sent
+ * @param errors      the HTTP requests that failed
+ * @param throughput  the HTTP requests per second
+ * @param endpoints   the metrics of every request and scenario, by name
+ * @param subscribers the WebSocket subscribers connected at the end of the run
+ * @param frames      the WebSocket frames received
+ */
+public record LoadTestReport(
+    Workload.Model model,
+    double seconds,
+    long requests,
+    long errors,
+    double throughput,
+    List<Endpoint> endpoints,
+    int subscribers,
+    long frames) {
+
+  /**
+   * Latency percentiles, in milliseconds, throughput and errors of one request or scenario.
+   *
+   * @param name       the request name in the collection, or the scenario name
+   * @param count      the calls
+   * @param errors     the failed calls
+   * @param errorRate  the share of failed calls
+   * @param throughput the calls per second
+   * @param p50        the median latency
+   * @param p90        the 90th percentile latency
+   * @param p99        the 99th percentile latency
+   * @param p999       the 99.9th percentile latency
+   * @param max        the highest latency
+   */
+  public record Endpoint(String name, long count, long errors, double errorRate,
+                         double throughput, double p50, double p90, double p99, double p999,
+                         double max) {
+  }
+
+  static LoadTestReport of(Workload.Model model, double seconds, List<Endpoint> endpoints,
+                           int subscribers, long frames) {
+    List<Endpoint> sorted = endpoints.stream()
+                                     .sorted(Comparator.comparing(LoadTestReport::isScenario)
+                                                       .thenComparing(Endpoint::name))
+                                     .toList();
+    List<Endpoint> requests = sorted.stream().filter(endpoint -> !isScenario(endpoint)).toList();
+    long count = requests.stream().mapToLong(Endpoint::count).sum();
+    long errors = requests.stream().mapToLong(Endpoint::errors).sum();
+    return new LoadTestReport(model, seconds, count, errors, count / seconds, sorted, subscribers,
+                              frames);
+  }
+
+  private static boolean isScenario(Endpoint endpoint) {
+    return endpoint.name().startsWith("scenario ");
+  }
+
+  /**
+   * Compare the run with a baseline run. An endpoint regresses when its 99th percentile latency
+   * grows, or its throughput shrinks, by more than the tolerance, or when its error rate grows by
+   * more than one percentage point. Endpoints the baseline does not have are not compared.
+   *
+   * @param baseline  the baseline run
+   * @param tolerance the tolerated change, in percent
+   * @return a description of every regression, empty if there is none
+   */
+  List<String> regressionsAgainst(LoadTestReport baseline, double tolerance) {
+    Map<String, Endpoint> before = baseline.endpoints()
+                                           .stream()
+                                           .collect(Collectors.toMap(Endpoint::name,
+                                                                     Function.identity()));
+    double factor = 1 + tolerance / 100;
+    List<String> regressions = new ArrayList<>();
+    for (Endpoint endpoint : endpoints) {
+      Endpoint old = before.get(endpoint.name());
+      if (old == null) {
+        continue;
+      }
+      if (endpoint.p99() > old.p99() * factor) {
+        regressions.add(String.format("%s: p99 %.1f ms -> %.1f ms", endpoint.name(), old.p99(),
+                                      endpoint.p99()));
+      }
+      if (endpoint.throughput() < old.throughput() / factor) {
+        regressions.add(String.format("%s: throughput %.1f/s -> %.1f/s", endpoint.name(),
+                                      old.throughput(), endpoint.throughput()));
+      }
+      if (endpoint.errorRate() > old.errorRate() + 0.01) {
+        regressions.add(String.format("%s: error rate %.2f%% -> %.2f%%", endpoint.name(),
+                                      old.errorRate() * 100, endpoint.errorRate() * 100));
+      }
+    }
+    return regressions;
+  }
+
+  /**
+   * Print the report as a table.
+   *
+   * @param out where to print
+   */
+  void print(PrintStream out) {
+    out.printf("%n%s workload, %.0f s: %d requests, %.1f/s, %d errors, %d subscribers, "
+               + "%d frames%n%n", model, seconds, requests, throughput, errors, subscribers,
+               frames);
+    out.printf("%-32s %9s %8s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors",
+               "per sec", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    for (Endpoint endpoint : endpoints) {
+      out.printf("%-32s %9d %7.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint.name(),
+                 endpoint.count(), endpoint.errorRate() * 100, endpoint.throughput(),
+                 endpoint.p50(), endpoint.p90(), endpoint.p99(), endpoint.p999(),
+                 endpoint.max());
+    }
+  }
+}
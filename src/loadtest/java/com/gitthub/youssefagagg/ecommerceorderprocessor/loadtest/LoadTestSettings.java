@@ -0,0 +1,99 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties.
+ *
+ * @param model       the workload model
+ * @param users       the number of virtual users of the closed model
+ * @param rate        the scenarios started per second by the open model
+ * @param warmup      how long to run before measuring
+ * @param duration    how long to measure
+ * @param thinkTime   the pause of a closed-model user between two scenarios
+ * @param subscribers the number of WebSocket subscribers
+ * @param customers   the number of customer accounts the scenarios run as
+ * @param products    the number of products in the catalog
+ * @param seed        the seed of the scenario choices, so a run can be replayed
+ * @param mix         the relative weight of every scenario
+ * @param tolerance   how much worse than the baseline a run may be, in percent
+ * @param collection  the Postman collection the requests are taken from
+ * @param results     where to write the report
+ * @param baseline    the report to compare the run with, if it exists
+ */
+public record LoadTestSettings(
+    Workload.Model model,
+    int users,
+    double rate,
+    Duration warmup,
+    Duration duration,
+    Duration thinkTime,
+    int subscribers,
+    int customers,
+    int products,
+    long seed,
+    Map<Scenario, Integer> mix,
+    double tolerance,
+    Path collection,
+    Path results,
+    Path baseline) {
+
+  private static final String DEFAULT_MIX = "browse:40,search:20,checkout:20,cancel:10,admin:10";
+
+  /**
+   * Read the settings from the system properties, falling back to a short closed-model run.
+   *
+   * @return the settings
+   */
+  public static LoadTestSettings fromSystemProperties() {
+    return new LoadTestSettings(
+        Workload.Model.valueOf(property("model", "closed").toUpperCase(Locale.ROOT)),
+        Integer.parseInt(property("users", "50")),
+        Double.parseDouble(property("rate", "100")),
+        DurationStyle.detectAndParse(property("warmup", "10s")),
+        DurationStyle.detectAndParse(property("duration", "60s")),
+        DurationStyle.detectAndParse(property("think-time", "100ms")),
+        Integer.parseInt(property("subscribers", "20")),
+        Integer.parseInt(property("customers", "50")),
+        Integer.parseInt(property("products", "200")),
+        Long.parseLong(property("seed", "42")),
+        parseMix(property("mix", DEFAULT_MIX)),
+        Double.parseDouble(property("tolerance", "10")),
+        Path.of(property("collection", "E-commerce.postman_collection.json")),
+        Path.of(property("results", "build/results/loadtest/results.json")),
+        Path.of(property("baseline", "src/loadtest/baseline.json")));
+  }
+
+  private static String property(String name, String defaultValue) {
+    return System.getProperty("loadtest." + name, defaultValue);
+  }
+
+  /**
+   * Parse a scenario mix such as {@code browse:40,checkout:20}. Scenarios left out do not run.
+   */
+  private static Map<Scenario, Integer> parseMix(String mix) {
+    Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+    Arrays.stream(mix.split(","))
+          .map(String::trim)
+          .filter(entry -> !entry.isEmpty())
+          .forEach(entry -> {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+              throw new IllegalArgumentException("Invalid scenario weight: " + entry);
+            }
+            weights.put(Scenario.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)),
+                        Integer.parseInt(parts[1].trim()));
+          });
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("The scenario mix has no positive weight: " + mix);
+    }
+    return Collections.unmodifiableMap(weights);
+  }
+}
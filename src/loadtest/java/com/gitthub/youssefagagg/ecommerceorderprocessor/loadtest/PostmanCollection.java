@@ -0,0 +1,126 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The requests of the Postman collection shipped with the repository, looked up by name.
+ *
+ * <p></p>
+ * The load test sends exactly the requests the collection documents, so the two cannot drift
+ * apart. {@code {{name}}} placeholders are bound from the variables passed in, with
+ * {@code {{baseUrl}}} bound to the application under test and {@code {{$randomUUID}}} to a new
+ * UUID, as Postman does. Requests using bearer authentication get the token passed in.
+ */
+final class PostmanCollection {
+
+  private static final Pattern VARIABLE = Pattern.compile("\\{\\{([^}]+)}}");
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  private final Map<String, JsonNode> requests;
+
+  private PostmanCollection(Map<String, JsonNode> requests) {
+    this.requests = requests;
+  }
+
+  /**
+   * Load a collection.
+   *
+   * @param path         the collection file
+   * @param objectMapper the mapper to parse it with
+   * @return the collection
+   * @throws IOException if the file cannot be read
+   */
+  static PostmanCollection load(Path path, ObjectMapper objectMapper) throws IOException {
+    Map<String, JsonNode> requests = new HashMap<>();
+    collect(objectMapper.readTree(path.toFile()).path("item"), requests);
+    return new PostmanCollection(requests);
+  }
+
+  private static void collect(JsonNode items, Map<String, JsonNode> requests) {
+    for (JsonNode item : items) {
+      if (item.has("item")) {
+        collect(item.get("item"), requests);
+      } else {
+        requests.putIfAbsent(item.path("name").asText(), item.get("request"));
+      }
+    }
+  }
+
+  /**
+   * Build the named request.
+   *
+   * @param name      the name of the request in the collection
+   * @param baseUrl   the application under test
+   * @param variables the values of the placeholders of the request
+   * @param token     the bearer token, or {@code null} to send the request anonymously
+   * @return the request
+   * @throws IllegalArgumentException if there is no such request or a placeholder is unbound
+   */
+  HttpRequest request(String name, URI baseUrl, Map<String, String> variables, String token) {
+    JsonNode request = requests.get(name);
+    if (request == null) {
+      throw new IllegalArgumentException("No request named '" + name + "' in the collection");
+    }
+
+    String url = render(request.path("url").path("raw").asText(), variables,
+                        value -> URLEncoder.encode(value, StandardCharsets.UTF_8))
+        .replace("{{baseUrl}}", baseUrl.toString());
+    JsonNode body = request.path("body").path("raw");
+    HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.noBody();
+    if (body.isTextual()) {
+      publisher = HttpRequest.BodyPublishers.ofString(
+          render(body.asText(), variables, UnaryOperator.identity()));
+    }
+
+    HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                                             .timeout(REQUEST_TIMEOUT)
+                                             .method(request.path("method").asText(), publisher);
+    for (JsonNode header : request.path("header")) {
+      builder.header(header.path("key").asText(),
+                     render(header.path("value").asText(), variables, UnaryOperator.identity()));
+    }
+    if (token != null && "bearer".equals(request.path("auth").path("type").asText())) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Bind the placeholders of a template, leaving {@code {{baseUrl}}} for the caller.
+   */
+  private static String render(String template, Map<String, String> variables,
+                               UnaryOperator<String> encoder) {
+    Matcher matcher = VARIABLE.matcher(template);
+    StringBuilder result = new StringBuilder();
+    while (matcher.find()) {
+      String variable = matcher.group(1);
+      String value;
+      if ("baseUrl".equals(variable)) {
+        value = matcher.group();
+      } else if ("$randomUUID".equals(variable)) {
+        value = UUID.randomUUID().toString();
+      } else if (variables.containsKey(variable)) {
+        value = encoder.apply(variables.get(variable));
+      } else {
+        throw new IllegalArgumentException("Unbound variable {{" + variable + "}} in " + template);
+      }
+      matcher.appendReplacement(result, Matcher.quoteReplacement(value));
+    }
+    matcher.appendTail(result);
+    return result.toString();
+  }
+}
@@ -0,0 +1,118 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The user journeys the load test replays, each a short sequence of collection requests.
+ */
+enum Scenario {
+
+  /**
+   * Page through the catalog, then look at one product and its stock.
+   */
+  BROWSE {
+    @Override
+    void run(LoadClient client, LoadTestData data, LoadTestData.Customer customer, Random random) {
+      Map<String, String> product = Map.of("productId", data.randomProductId(random));
+      client.send("Get All Products", Map.of(), null);
+      client.send("Get Product By ID", product, null);
+      client.send("Get Product Inventory", product, null);
+    }
+  },
+
+  /**
+   * Search the catalog by name.
+   */
+  SEARCH {
+    @Override
+    void run(LoadClient client, LoadTestData data, LoadTestData.Customer customer, Random random) {
+      client.send("Get Products By Name",
+                  Map.of("searchProductName", "Product " + random.nextInt(100)), null);
+    }
+  },
+
+  /**
+   * Place and pay an order, then poll its status. The order is handed to the admin scenario.
+   */
+  CHECKOUT {
+    @Override
+    void run(LoadClient client, LoadTestData data, LoadTestData.Customer customer, Random random) {
+      LoadClient.Response order = placeOrder(client, data, customer, random);
+      if (order.ok()) {
+        String orderId = order.body().path("id").asText();
+        client.send("Get Order Status", Map.of("orderId", orderId), customer.token());
+        data.openOrders().offer(new LoadTestData.OpenOrder(
+            orderId, OrderStatus.valueOf(order.body().path("status").asText())));
+      }
+    }
+  },
+
+  /**
+   * Place an order and cancel it again.
+   */
+  CANCEL {
+    @Override
+    void run(LoadClient client, LoadTestData data, LoadTestData.Customer customer, Random random) {
+      LoadClient.Response order = placeOrder(client, data, customer, random);
+      if (order.ok()) {
+        client.send("Cancel Order", Map.of("orderId", order.body().path("id").asText()),
+                    customer.token());
+      }
+    }
+  },
+
+  /**
+   * Move a placed order one step towards delivery, or list the orders if none is waiting.
+   */
+  ADMIN {
+    @Override
+    void run(LoadClient client, LoadTestData data, LoadTestData.Customer customer, Random random) {
+      String token = data.admin().token();
+      LoadTestData.OpenOrder order = data.openOrders().poll();
+      if (order == null) {
+        client.send("Get All Orders (Admin)", Map.of(), token);
+        return;
+      }
+      OrderStatus next = switch (order.status()) {
+        case PROCESSING -> OrderStatus.SHIPPED;
+        case SHIPPED -> OrderStatus.DELIVERED;
+        default -> OrderStatus.PROCESSING;
+      };
+      LoadClient.Response response = client.send(
+          "Update Order Status (Admin)",
+          Map.of("orderId", order.id(), "newOrderStatus", next.name()), token);
+      if (response.ok() && !next.isTerminal()) {
+        data.openOrders().offer(new LoadTestData.OpenOrder(order.id(), next));
+      }
+    }
+  };
+
+  /**
+   * Run the scenario once.
+   *
+   * @param client   the client to send the requests with
+   * @param data     the seeded catalog and accounts
+   * @param customer the customer to act as
+   * @param random   the source of the scenario's choices
+   */
+  abstract void run(LoadClient client, LoadTestData data, LoadTestData.Customer customer,
+                    Random random);
+
+  /**
+   * The name the end-to-end latency of the scenario is recorded under.
+   *
+   * @return the metric name
+   */
+  String metricName() {
+    return "scenario " + name().toLowerCase(Locale.ROOT);
+  }
+
+  private static LoadClient.Response placeOrder(LoadClient client, LoadTestData data,
+                                                LoadTestData.Customer customer, Random random) {
+    return client.send("Create Order", Map.of("productId", data.randomProductId(random)),
+                       customer.token());
+  }
+}
@@ -0,0 +1,116 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * STOMP subscribers that stay connected for the whole run, as browser tabs would.
+ *
+ * <p></p>
+ * Every customer subscriber listens to its own order updates and to the inventory broadcast, which
+ * every order changes, so the broker fans out to all of them. One subscriber listens as the
+ * administrator to the order status events. Connecting is recorded like an endpoint; the frames
+ * received are counted.
+ */
+final class WebSocketSubscribers implements AutoCloseable {
+
+  private static final String CONNECT = "WebSocket connect";
+
+  private final WebSocketStompClient stompClient =
+      new WebSocketStompClient(new StandardWebSocketClient());
+  private final List<StompSession> sessions = new ArrayList<>();
+  private final LongAdder frames = new LongAdder();
+  private final FrameCounter frameCounter = new FrameCounter();
+
+  /**
+   * Connect the subscribers.
+   *
+   * @param client the client whose metrics the connections are recorded in
+   * @param data   the accounts to connect as
+   * @param count  the number of customer subscribers
+   */
+  void connect(LoadClient client, LoadTestData data, int count) {
+    if (count <= 0) {
+      return;
+    }
+    String url = "ws://" + client.baseUrl().getAuthority() + "/ws?token={token}";
+    for (int i = 0; i < count; i++) {
+      LoadTestData.Customer customer = data.customers().get(i % data.customers().size());
+      StompSession session = connect(client, url, customer);
+      if (session != null) {
+        session.subscribe("/topic/orders/" + customer.username(), frameCounter);
+        session.subscribe("/topic/inventory", frameCounter);
+      }
+    }
+    StompSession admin = connect(client, url, data.admin());
+    if (admin != null) {
+      admin.subscribe("/topic/admin/orders/status", frameCounter);
+    }
+  }
+
+  private StompSession connect(LoadClient client, String url, LoadTestData.Customer customer) {
+    long start = System.nanoTime();
+    try {
+      StompSession session = stompClient
+          .connectAsync(url, new StompSessionHandlerAdapter() { }, customer.token())
+          .get(10, TimeUnit.SECONDS);
+      client.metrics(CONNECT).record(System.nanoTime() - start, true);
+      sessions.add(session);
+      return session;
+    } catch (ExecutionException | TimeoutException e) {
+      client.metrics(CONNECT).record(System.nanoTime() - start, false);
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  /**
+   * The number of connected sessions.
+   *
+   * @return the session count
+   */
+  int connected() {
+    return (int) sessions.stream().filter(StompSession::isConnected).count();
+  }
+
+  /**
+   * The frames received since the last call.
+   *
+   * @return the frame count
+   */
+  long takeFrames() {
+    return frames.sumThenReset();
+  }
+
+  @Override
+  public void close() {
+    sessions.forEach(StompSession::disconnect);
+    stompClient.stop();
+  }
+
+  private final class FrameCounter implements StompFrameHandler {
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+      return byte[].class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+      frames.increment();
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.loadtest;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the scenarios against the application on virtual threads.
+ *
+ * <p></p>
+ * The closed model runs a fixed number of users, each starting its next scenario a think time
+ * after the previous one finished, so the load adapts to how fast the application answers. The
+ * open model starts scenarios at a fixed rate whatever the application does, the way independent
+ * clients arrive, and measures every scenario from the moment it was due to start. A slow response
+ * then shows up in the latency of every scenario that was waiting for it instead of lowering the
+ * offered load, which would hide it.
+ *
+ * <p></p>
+ * The choices of every user come from a random generator seeded from the run's seed, so a run can
+ * be replayed with the same sequence of scenarios.
+ */
+final class Workload {
+
+  /**
+   * How scenarios are started.
+   */
+  enum Model {
+    CLOSED,
+    OPEN
+  }
+
+  private final LoadTestSettings settings;
+  private final LoadClient client;
+  private final LoadTestData data;
+  private final Scenario[] scenarios;
+  private final int[] cumulativeWeights;
+
+  Workload(LoadTestSettings settings, LoadClient client, LoadTestData data) {
+    this.settings = settings;
+    this.client = client;
+    this.data = data;
+    this.scenarios = settings.mix().keySet().toArray(Scenario[]::new);
+    this.cumulativeWeights = new int[scenarios.length];
+    int total = 0;
+    for (int i = 0; i < scenarios.length; i++) {
+      total += settings.mix().get(scenarios[i]);
+      cumulativeWeights[i] = total;
+    }
+  }
+
+  /**
+   * Offer load for the given time and wait for the scenarios in flight to finish.
+   *
+   * @param durationNanos how long to offer load
+   */
+  void run(long durationNanos) {
+    long deadline = System.nanoTime() + durationNanos;
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      if (settings.model() == Model.CLOSED) {
+        startUsers(executor, deadline);
+      } else {
+        startArrivals(executor, deadline);
+      }
+    }
+  }
+
+  private void startUsers(ExecutorService executor, long deadline) {
+    long thinkTime = settings.thinkTime().toNanos();
+    for (int i = 0; i < settings.users(); i++) {
+      int user = i;
+      executor.submit(() -> {
+        Random random = new Random(settings.seed() + user);
+        LoadTestData.Customer customer = data.customers().get(user % data.customers().size());
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+          runScenario(pick(random), customer, random, System.nanoTime());
+          LockSupport.parkNanos(thinkTime);
+        }
+      });
+    }
+  }
+
+  private void startArrivals(ExecutorService executor, long deadline) {
+    long interval = (long) (1_000_000_000L / settings.rate());
+    Random random = new Random(settings.seed());
+    for (long due = System.nanoTime(); due < deadline; due += interval) {
+      long wait = due - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      long intendedStart = due;
+      Scenario scenario = pick(random);
+      LoadTestData.Customer customer =
+          data.customers().get(random.nextInt(data.customers().size()));
+      long seed = random.nextLong();
+      executor.submit(
+          () -> runScenario(scenario, customer, new Random(seed), intendedStart));
+    }
+  }
+
+  private void runScenario(Scenario scenario, LoadTestData.Customer customer, Random random,
+                           long startNanos) {
+    boolean success = true;
+    try {
+      scenario.run(client, data, customer, random);
+    } catch (RuntimeException e) {
+      success = false;
+    }
+    client.metrics(scenario.metricName()).record(System.nanoTime() - startNanos, success);
+  }
+
+  private Scenario pick(Random random) {
+    int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    for (int i = 0; i < cumulativeWeights.length; i++) {
+      if (value < cumulativeWeights[i]) {
+        return scenarios[i];
+      }
+    }
+    throw new IllegalStateException("No scenario for weight " + value);
+  }
+}
@@ -0,0 +1,65 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * Splits a line-oriented file into contiguous ranges of records.
+ *
+ * <p></p>
+ * Each partition gets the index of its first record ({@link #MIN_ITEM}, inclusive) and of the
+ * record after its last ({@link #MAX_ITEM}, exclusive). A reader opened with these as its current
+ * and maximum item count skips the earlier lines without mapping them and stops at the end of its
+ * range. Because the reader saves its position in the partition's execution context, a restarted
+ * partition continues after its last committed chunk.
+ */
+@RequiredArgsConstructor
+public class LineRangePartitioner implements Partitioner {
+
+  /**
+   * Execution context key of the first record of a partition.
+   */
+  public static final String MIN_ITEM = "minItem";
+
+  /**
+   * Execution context key of the record after the last record of a partition.
+   */
+  public static final String MAX_ITEM = "maxItem";
+
+  private final Path file;
+  private final int headerLines;
+
+  @Override
+  public Map<String, ExecutionContext> partition(int gridSize) {
+    int records = countRecords();
+    int partitionSize = Math.max(1, (records + gridSize - 1) / Math.max(1, gridSize));
+
+    Map<String, ExecutionContext> partitions = new HashMap<>();
+    int start = 0;
+    do {
+      int end = Math.min(records, start + partitionSize);
+      ExecutionContext context = new ExecutionContext();
+      context.putInt(MIN_ITEM, start);
+      context.putInt(MAX_ITEM, end);
+      partitions.put("partition" + partitions.size(), context);
+      start = end;
+    } while (start < records);
+    return partitions;
+  }
+
+  private int countRecords() {
+    try (Stream<String> lines = Files.lines(file)) {
+      return (int) Math.max(0, lines.count() - headerLines);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read import file " + file, e);
+    }
+  }
+}
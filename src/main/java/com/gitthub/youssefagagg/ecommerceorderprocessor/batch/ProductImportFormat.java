@@ -0,0 +1,81 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.CreateProductDTO;
+import java.util.Locale;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+
+/**
+ * File formats accepted by the product import, chosen by file extension.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ProductImportFormat {
+
+  /**
+   * Comma separated values with a header line: {@code name,description,price,quantity}.
+   */
+  CSV(1),
+
+  /**
+   * One JSON object per line with the fields {@code name}, {@code description}, {@code price} and
+   * {@code quantity}.
+   */
+  JSON_LINES(0);
+
+  /**
+   * Number of lines before the first record.
+   */
+  private final int headerLines;
+
+  /**
+   * Determine the format of a file from its extension.
+   *
+   * @param fileName the file name
+   * @return the format
+   * @throws IllegalArgumentException if the extension is not supported
+   */
+  public static ProductImportFormat fromFileName(String fileName) {
+    String lowerCase = fileName.toLowerCase(Locale.ROOT);
+    if (lowerCase.endsWith(".csv")) {
+      return CSV;
+    }
+    if (lowerCase.endsWith(".jsonl") || lowerCase.endsWith(".ndjson")) {
+      return JSON_LINES;
+    }
+    throw new IllegalArgumentException(
+        "Unsupported import file type, expected .csv, .jsonl or .ndjson: " + fileName);
+  }
+
+  /**
+   * Create the mapper turning one line of this format into a product.
+   *
+   * @param objectMapper the JSON mapper
+   * @return the line mapper
+   */
+  public LineMapper<CreateProductDTO> lineMapper(ObjectMapper objectMapper) {
+    if (this == JSON_LINES) {
+      return (line, lineNumber) -> objectMapper.readValue(line, CreateProductDTO.class);
+    }
+
+    DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+    tokenizer.setNames("name", "description", "price", "quantity");
+
+    DefaultLineMapper<CreateProductDTO> lineMapper = new DefaultLineMapper<>();
+    lineMapper.setLineTokenizer(tokenizer);
+    lineMapper.setFieldSetMapper(fieldSet -> CreateProductDTO.builder()
+                                                             .name(fieldSet.readString("name"))
+                                                             .description(fieldSet.readString(
+                                                                 "description"))
+                                                             .price(fieldSet.readBigDecimal(
+                                                                 "price"))
+                                                             .quantity(fieldSet.readInt(
+                                                                 "quantity"))
+                                                             .build());
+    return lineMapper;
+  }
+}
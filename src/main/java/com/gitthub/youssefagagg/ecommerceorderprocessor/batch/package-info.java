@@ -0,0 +1,5 @@
+/**
+ * Spring Batch jobs.
+ */
+
+package com.gitthub.youssefagagg.ecommerceorderprocessor.batch;
@@ -0,0 +1,17 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.checkout;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import java.util.List;
+
+/**
+ * An order about to be checked out, as requested by the customer.
+ *
+ * @param username       the username of the customer
+ * @param idempotencyKey the idempotency key of the order, may be {@code null}
+ * @param items          the requested items, not yet priced or reserved
+ */
+public record CheckoutRequest(
+    String username,
+    String idempotencyKey,
+    List<OrderItemDTO> items) {
+}
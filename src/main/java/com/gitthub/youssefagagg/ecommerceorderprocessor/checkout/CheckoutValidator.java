@@ -0,0 +1,33 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.checkout;
+
+/**
+ * Service provider interface for checks an order must pass before it is checked out, such as fraud
+ * screening, address verification or purchase limits.
+ *
+ * <p></p>
+ * Every {@code CheckoutValidator} bean is called for every new order before it is priced: before
+ * anything is written for an order placed directly, and by the submission worker for an order
+ * submitted for asynchronous processing. Validators run concurrently with each other and with the
+ * reads of the order, each on its own virtual thread, so they may block on remote calls. When one
+ * of them rejects the order or fails, the others are interrupted and should give up promptly; as
+ * an interrupt closes a JDBC connection the thread is blocked on, validators should not use the
+ * application's connection pools. A rejection is a normal verdict, not an exception; an exception
+ * fails the order as well.
+ */
+public interface CheckoutValidator {
+
+  /**
+   * The name of the check, used in metrics and rejection messages.
+   *
+   * @return the name
+   */
+  String getName();
+
+  /**
+   * Check an order.
+   *
+   * @param request the order about to be checked out
+   * @return whether the order may be checked out
+   */
+  CheckoutVerdict validate(CheckoutRequest request);
+}
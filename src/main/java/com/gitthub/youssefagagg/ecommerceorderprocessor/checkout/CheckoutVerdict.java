@@ -0,0 +1,31 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.checkout;
+
+/**
+ * The outcome of a checkout validation.
+ *
+ * @param approved whether the order may be checked out
+ * @param reason   why the order was rejected, when it was not approved
+ */
+public record CheckoutVerdict(
+    boolean approved,
+    String reason) {
+
+  /**
+   * An approving verdict.
+   *
+   * @return the verdict
+   */
+  public static CheckoutVerdict approved() {
+    return new CheckoutVerdict(true, null);
+  }
+
+  /**
+   * A rejecting verdict.
+   *
+   * @param reason why the order was rejected
+   * @return the verdict
+   */
+  public static CheckoutVerdict rejected(String reason) {
+    return new CheckoutVerdict(false, reason);
+  }
+}
@@ -0,0 +1,59 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.checkout;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.CheckoutConfig;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link CheckoutValidator} that approves orders locally, for development and load tests.
+ *
+ * <p></p>
+ * Every check sleeps for the configured latency plus a random jitter and rejects orders at the
+ * configured rejection rate, so the cost of remote checks and the cancellation of the others on a
+ * rejection can be exercised without real services.
+ */
+@Slf4j
+public class SimulatedCheckoutValidator implements CheckoutValidator {
+
+  private final String name;
+  private final CheckoutConfig.SimulatorProperties config;
+
+  /**
+   * Create a simulated check.
+   *
+   * @param name   the name of the check
+   * @param config the latency and rejection rate of the check
+   */
+  public SimulatedCheckoutValidator(String name, CheckoutConfig.SimulatorProperties config) {
+    this.name = name;
+    this.config = config;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public CheckoutVerdict validate(CheckoutRequest request) {
+    long latency = config.getLatency().toMillis();
+    long jitter = config.getLatencyJitter().toMillis();
+    if (jitter > 0) {
+      latency += ThreadLocalRandom.current().nextLong(jitter + 1);
+    }
+    if (latency > 0) {
+      try {
+        Thread.sleep(Duration.ofMillis(latency));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Simulated " + name + " check was interrupted", e);
+      }
+    }
+    if (ThreadLocalRandom.current().nextDouble() < config.getRejectionRate()) {
+      log.debug("Simulated {} check rejected the order of {}", name, request.username());
+      return CheckoutVerdict.rejected("Rejected by the simulated " + name + " check");
+    }
+    return CheckoutVerdict.approved();
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Validation of orders before checkout.
+ */
+
+package com.gitthub.youssefagagg.ecommerceorderprocessor.checkout;
@@ -1,6 +1,9 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
 
-import java.util.concurrent.Executor;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceContextHolder;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.BulkheadExecutor;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -8,30 +11,44 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskDecorator;
 import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * Configuration class for enabling and customizing asynchronous processing in the application.
  *
  * <p></p>
- * This class is marked as a Spring configuration class using the {@code @Configuration} annotation
- * and enables Spring's asynchronous method execution capability with the {@code @EnableAsync}
- * annotation. It provides a custom task executor and a task decorator to support asynchronous
- * operations with enhanced configurations.
+ * Each kind of background work gets its own {@link BulkheadExecutor}, so a burst in one workload
+ * (for example audit logging) cannot starve another (for example notification delivery). Every
+ * executor runs its tasks on virtual threads and limits how many run at once. Unless configured
+ * otherwise, the audit, notification and import executors each get half of the background
+ * connection pool, the reporting executor gets the reporting pool, and the default executor gets a
+ * quarter of the OLTP pool.
+ *
+ * <p></p>
+ * Tasks of the executors listed in {@code request-deadline.propagate-to-executors} keep the
+ * {@link RequestDeadline} of the thread that submitted them.
+ *
+ * <p></p>
+ * Use the bean names with {@code @Async}, e.g. {@code @Async("auditExecutor")}. Unqualified
+ * {@code @Async} methods run on the {@code taskExecutor} bean.
  */
 @Configuration
 @EnableAsync
 @RequiredArgsConstructor
 public class AsyncConfiguration {
 
-  @Value("${async.core-pool-size:5}")
-  private int corePoolSize;
+  private static final int DEFAULT_NON_DATABASE_CONCURRENCY = 32;
+
+  private final AsyncExecutorsConfig asyncExecutorsConfig;
+  private final RequestDeadlineConfig requestDeadlineConfig;
 
-  @Value("${async.max-pool-size:10}")
-  private int maxPoolSize;
+  @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+  private int oltpPoolSize;
 
-  @Value("${async.queue-capacity:100}")
-  private int queueCapacity;
+  @Value("${datasource.pools.background.hikari.maximum-pool-size:10}")
+  private int backgroundPoolSize;
+
+  @Value("${datasource.pools.reporting.hikari.maximum-pool-size:10}")
+  private int reportingPoolSize;
 
   /**
    * Decorator to propagate the context to the async threads.
@@ -44,20 +61,99 @@ public class AsyncConfiguration {
   }
 
   /**
-   * Defines a bean named "taskExecutor" to provide a custom thread pool task executor for
-   * asynchronous operations in the application. The executor is configured with properties from
-   * the application configuration.
+   * Executor for unqualified {@code @Async} methods.
    *
-   * @return an {@link Executor} instance configured as a thread pool task executor.
+   * @param decorator the context propagating decorator
+   * @return the default executor
    */
   @Bean(name = "taskExecutor")
-  public Executor taskExecutor() {
-    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-    executor.setCorePoolSize(corePoolSize);
-    executor.setMaxPoolSize(maxPoolSize);
-    executor.setQueueCapacity(queueCapacity);
-    executor.setThreadNamePrefix("Async-");
-    executor.initialize();
-    return executor;
+  public BulkheadExecutor taskExecutor(TaskDecorator decorator) {
+    return createExecutor("default", Math.max(1, oltpPoolSize / 4), decorator);
+  }
+
+  /**
+   * Executor for audit log writes.
+   *
+   * @param decorator the context propagating decorator
+   * @return the audit executor
+   */
+  @Bean(name = "auditExecutor")
+  public BulkheadExecutor auditExecutor(TaskDecorator decorator) {
+    return createExecutor("audit", Math.max(1, backgroundPoolSize / 2), decorator);
+  }
+
+  /**
+   * Executor for notification batch writes.
+   *
+   * @param decorator the context propagating decorator
+   * @return the notification executor
+   */
+  @Bean(name = "notificationExecutor")
+  public BulkheadExecutor notificationExecutor(TaskDecorator decorator) {
+    return createExecutor("notification", Math.max(1, backgroundPoolSize / 2), decorator);
+  }
+
+  /**
+   * Executor for WebSocket fan-out. It does not use the database.
+   *
+   * @param decorator the context propagating decorator
+   * @return the WebSocket executor
+   */
+  @Bean(name = "websocketExecutor")
+  public BulkheadExecutor websocketExecutor(TaskDecorator decorator) {
+    return createExecutor("websocket", DEFAULT_NON_DATABASE_CONCURRENCY, decorator);
+  }
+
+  /**
+   * Executor for long-running reports and backfills.
+   *
+   * @param decorator the context propagating decorator
+   * @return the reporting executor
+   */
+  @Bean(name = "reportingExecutor")
+  public BulkheadExecutor reportingExecutor(TaskDecorator decorator) {
+    return createExecutor("reporting", reportingPoolSize, decorator);
+  }
+
+  /**
+   * Executor for payment gateway calls. It does not use the database; its bulkhead limits how many
+   * gateway calls are in flight.
+   *
+   * @param decorator the context propagating decorator
+   * @return the payment executor
+   */
+  @Bean(name = "paymentExecutor")
+  public BulkheadExecutor paymentExecutor(TaskDecorator decorator) {
+    return createExecutor("payment", DEFAULT_NON_DATABASE_CONCURRENCY, decorator);
+  }
+
+  /**
+   * Executor for the partitions of bulk import jobs. Its tasks use the background pool.
+   *
+   * @param decorator the context propagating decorator
+   * @return the import executor
+   */
+  @Bean(name = "importExecutor")
+  public BulkheadExecutor importExecutor(TaskDecorator decorator) {
+    TaskDecorator backgroundPool = task -> decorator.decorate(
+        () -> DataSourceContextHolder.runWith(DataSourcePool.BACKGROUND, task));
+    return createExecutor("import", Math.max(1, backgroundPoolSize / 2), backgroundPool);
+  }
+
+  private BulkheadExecutor createExecutor(String workload, int defaultConcurrency,
+                                          TaskDecorator decorator) {
+    AsyncExecutorsConfig.ExecutorProperties properties =
+        asyncExecutorsConfig.getExecutors()
+                            .getOrDefault(workload, new AsyncExecutorsConfig.ExecutorProperties());
+    int maxConcurrency = properties.getMaxConcurrency() != null
+                         ? properties.getMaxConcurrency() : defaultConcurrency;
+    TaskDecorator taskDecorator = decorator;
+    if (requestDeadlineConfig.getPropagateToExecutors().contains(workload)) {
+      taskDecorator = task -> decorator.decorate(RequestDeadline.propagating(task));
+    }
+
+    return new BulkheadExecutor(workload, maxConcurrency, properties.getQueueCapacity(),
+                                properties.getOutboxCapacity(), properties.getRejectionPolicy(),
+                                taskDecorator);
   }
 }
@@ -0,0 +1,52 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.BulkheadExecutor.RejectionPolicy;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the per-workload async executors.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "async")
+@Data
+public class AsyncExecutorsConfig {
+
+  /**
+   * Executor configurations. Key is the workload name ({@code default}, {@code audit},
+   * {@code notification}, {@code websocket}, {@code reporting}, {@code payment} or
+   * {@code import}), value is the configuration.
+   */
+  private Map<String, ExecutorProperties> executors = new HashMap<>();
+
+  /**
+   * Configuration for a single workload executor.
+   */
+  @Data
+  public static class ExecutorProperties {
+    /**
+     * Maximum number of tasks running at once. When unset, executors that use the database get a
+     * share of their connection pool and the others get a fixed default.
+     */
+    private Integer maxConcurrency;
+
+    /**
+     * Maximum number of tasks waiting for a bulkhead permit.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * What to do with a task submitted while the queue is full.
+     */
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+    /**
+     * Maximum number of tasks spilled to the outbox by {@code spill-to-outbox}. Once it is full,
+     * the submitting thread runs the task.
+     */
+    private int outboxCapacity = 1000;
+  }
+}
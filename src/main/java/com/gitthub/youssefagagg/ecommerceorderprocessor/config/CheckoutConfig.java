@@ -0,0 +1,70 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutValidator;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the preparation of an order before checkout.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "checkout")
+@Data
+public class CheckoutConfig {
+
+  /**
+   * Whether the {@link CheckoutValidator}s run concurrently, with each other and with the user
+   * lookup and the idempotency key check on the request thread. When disabled they run one after
+   * the other on the request thread.
+   */
+  private boolean concurrentPreparation = true;
+
+  private ValidationProperties validation = new ValidationProperties();
+
+  /**
+   * Configuration for the checkout validators.
+   */
+  @Data
+  public static class ValidationProperties {
+    /**
+     * The validator implementation. Only {@code simulator} is built in; any other value leaves
+     * the validation to the {@link CheckoutValidator} beans of the deployment.
+     */
+    private String provider = "simulator";
+
+    private SimulatorChecks simulator = new SimulatorChecks();
+  }
+
+  /**
+   * The checks of the built-in simulator.
+   */
+  @Data
+  public static class SimulatorChecks {
+    private SimulatorProperties fraud = new SimulatorProperties();
+    private SimulatorProperties address = new SimulatorProperties();
+    private SimulatorProperties limits = new SimulatorProperties();
+  }
+
+  /**
+   * Configuration for one simulated check.
+   */
+  @Data
+  public static class SimulatorProperties {
+    /**
+     * Fixed latency added to every check.
+     */
+    private Duration latency = Duration.ZERO;
+
+    /**
+     * Maximum random latency added on top of {@code latency}.
+     */
+    private Duration latencyJitter = Duration.ZERO;
+
+    /**
+     * Fraction of orders, between 0 and 1, that the check rejects.
+     */
+    private double rejectionRate;
+  }
+}
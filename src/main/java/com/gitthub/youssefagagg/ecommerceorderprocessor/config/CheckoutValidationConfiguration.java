@@ -0,0 +1,55 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutValidator;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.SimulatedCheckoutValidator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class registering the simulated fraud, address and limits checks, unless another
+ * checkout validation provider is configured.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "checkout.validation",
+                       name = "provider",
+                       havingValue = "simulator",
+                       matchIfMissing = true)
+public class CheckoutValidationConfiguration {
+
+  /**
+   * Simulated fraud screening.
+   *
+   * @param config the checkout settings
+   * @return the fraud check
+   */
+  @Bean
+  public CheckoutValidator fraudCheck(CheckoutConfig config) {
+    return new SimulatedCheckoutValidator(
+        "fraud", config.getValidation().getSimulator().getFraud());
+  }
+
+  /**
+   * Simulated address verification.
+   *
+   * @param config the checkout settings
+   * @return the address check
+   */
+  @Bean
+  public CheckoutValidator addressCheck(CheckoutConfig config) {
+    return new SimulatedCheckoutValidator(
+        "address", config.getValidation().getSimulator().getAddress());
+  }
+
+  /**
+   * Simulated purchase limits.
+   *
+   * @param config the checkout settings
+   * @return the limits check
+   */
+  @Bean
+  public CheckoutValidator limitsCheck(CheckoutConfig config) {
+    return new SimulatedCheckoutValidator(
+        "limits", config.getValidation().getSimulator().getLimits());
+  }
+}
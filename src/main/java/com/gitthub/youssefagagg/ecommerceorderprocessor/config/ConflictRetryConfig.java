@@ -0,0 +1,101 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.retry.RetryOnConflict;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for retrying {@link RetryOnConflict} operations after an optimistic
+ * locking conflict.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "conflict-retry")
+@Data
+public class ConflictRetryConfig {
+
+  /**
+   * Whether conflicting operations are retried at all.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Attempts per call, including the first one.
+   */
+  private int maxAttempts = 3;
+
+  /**
+   * Upper bound of the wait before the first retry. The actual wait is drawn uniformly between
+   * zero and the bound, so conflicting callers do not retry in lockstep.
+   */
+  private Duration initialBackoff = Duration.ofMillis(10);
+
+  /**
+   * Factor the bound grows by with every retry.
+   */
+  private double multiplier = 2.0;
+
+  /**
+   * Largest bound of the wait before a retry.
+   */
+  private Duration maxBackoff = Duration.ofMillis(200);
+
+  /**
+   * Retries each operation may make per call, on average. Under sustained contention an operation
+   * retries at most this share of its calls, so retries cannot multiply the load.
+   */
+  private double budgetRatio = 0.2;
+
+  /**
+   * Retries each operation may make in a burst before its budget is earned back by calls.
+   */
+  private int budgetCapacity = 10;
+
+  /**
+   * Overrides per operation, keyed by the name given in {@link RetryOnConflict}.
+   */
+  private Map<String, OperationRetry> operations = new HashMap<>();
+
+  /**
+   * The attempts per call of an operation.
+   *
+   * @param operation the operation name
+   * @return the operation's attempts, or the default
+   */
+  public int maxAttemptsOf(String operation) {
+    OperationRetry override = operations.get(operation);
+    return override != null && override.getMaxAttempts() != null ? override.getMaxAttempts()
+                                                                 : maxAttempts;
+  }
+
+  /**
+   * The budget ratio of an operation.
+   *
+   * @param operation the operation name
+   * @return the operation's ratio, or the default
+   */
+  public double budgetRatioOf(String operation) {
+    OperationRetry override = operations.get(operation);
+    return override != null && override.getBudgetRatio() != null ? override.getBudgetRatio()
+                                                                 : budgetRatio;
+  }
+
+  /**
+   * Retry settings of one operation. Unset values fall back to the defaults.
+   */
+  @Data
+  public static class OperationRetry {
+    /**
+     * Attempts per call, including the first one.
+     */
+    private Integer maxAttempts;
+
+    /**
+     * Retries the operation may make per call, on average.
+     */
+    private Double budgetRatio;
+  }
+}
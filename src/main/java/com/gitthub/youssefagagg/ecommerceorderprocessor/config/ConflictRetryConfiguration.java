@@ -0,0 +1,41 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.retry.ConflictRetryInterceptor;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.retry.RetryOnConflict;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration class applying {@link RetryOnConflict} to annotated service methods.
+ */
+@Configuration
+public class ConflictRetryConfiguration {
+
+  /**
+   * Retries {@link RetryOnConflict} methods after an optimistic locking conflict. It is ordered
+   * ahead of the data source routing and transaction advisors, so every attempt runs in a new
+   * transaction on the pool its method selects.
+   *
+   * @param config        the retry settings, resolved on the first call
+   * @param meterRegistry the registry of the retry metrics, resolved on the first call
+   * @return the retry advisor
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor conflictRetryAdvisor(ObjectProvider<ConflictRetryConfig> config,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+    DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+        AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class),
+        new ConflictRetryInterceptor(config, meterRegistry));
+    advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+    return advisor;
+  }
+}
@@ -0,0 +1,222 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DeadlineAwareJpaTransactionManager;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DeadlineQueryTimeoutDataSource;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceRoutingInterceptor;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.ReadReplicaRouter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.RoutingDataSource;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.StatementCountingDataSource;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.UseDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * Configuration class partitioning database connections into separate Hikari pools.
+ *
+ * <p></p>
+ * The OLTP pool serves request handling and order creation, the background pool serves audit and
+ * notification writes, and the reporting pool serves reads and reports and may point at a read
+ * replica. Each pool is a named {@link HikariDataSource}, so Spring Boot publishes its
+ * {@code hikaricp.connections.*} meters, including the {@code hikaricp.connections.acquire}
+ * wait-time timer, tagged with the pool name.
+ *
+ * <p></p>
+ * The primary {@link DataSource} routes to one of the pools based on the {@link UseDataSource}
+ * annotation of the service method being called. Without an annotation, read-only transactions
+ * are sent to the reporting pool while {@code datasource.read-routing} is enabled, the replica is
+ * within its lag limit and the current user has not written recently; everything else uses the
+ * OLTP pool. The routing data source is wrapped in a {@link LazyConnectionDataSourceProxy} so the
+ * physical connection is only fetched once the transaction's read-only flag is known, and the
+ * connections it hands out count their statements per thread with a
+ * {@link StatementCountingDataSource}.
+ *
+ * <p></p>
+ * Statements and transactions started on behalf of a request are bounded by the time left until
+ * its deadline, through a {@link DeadlineQueryTimeoutDataSource} and a
+ * {@link DeadlineAwareJpaTransactionManager}.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+  /**
+   * The OLTP pool, configured with the standard {@code spring.datasource.*} properties.
+   *
+   * @param properties        the datasource properties
+   * @param connectionDetails connection details contributed by service connections, if any
+   * @return the OLTP pool
+   */
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource oltpDataSource(DataSourceProperties properties,
+                                         ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+    return createPool("oltp", null, properties, connectionDetails.getIfAvailable());
+  }
+
+  /**
+   * The pool for background writes.
+   *
+   * @param poolsConfig       the secondary pool settings
+   * @param properties        the datasource properties
+   * @param connectionDetails connection details contributed by service connections, if any
+   * @return the background pool
+   */
+  @Bean
+  @ConfigurationProperties("datasource.pools.background.hikari")
+  public HikariDataSource backgroundDataSource(
+      DataSourcePoolsConfig poolsConfig,
+      DataSourceProperties properties,
+      ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+    return createPool("background", poolsConfig.getBackground(), properties,
+                      connectionDetails.getIfAvailable());
+  }
+
+  /**
+   * The pool for reads and reports.
+   *
+   * @param poolsConfig       the secondary pool settings
+   * @param properties        the datasource properties
+   * @param connectionDetails connection details contributed by service connections, if any
+   * @return the reporting pool
+   */
+  @Bean
+  @ConfigurationProperties("datasource.pools.reporting.hikari")
+  public HikariDataSource reportingDataSource(
+      DataSourcePoolsConfig poolsConfig,
+      DataSourceProperties properties,
+      ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+    return createPool("reporting", poolsConfig.getReporting(), properties,
+                      connectionDetails.getIfAvailable());
+  }
+
+  /**
+   * The application's primary data source, routing to the pool selected for the current call.
+   *
+   * @param oltpDataSource       the OLTP pool
+   * @param backgroundDataSource the background pool
+   * @param reportingDataSource  the reporting pool
+   * @param readReplicaRouter    decides whether read-only transactions use the replica
+   * @return the routing data source, fetching connections lazily, counting their statements and
+   *     bounding them by the request deadline
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("oltpDataSource") DataSource oltpDataSource,
+      @Qualifier("backgroundDataSource") DataSource backgroundDataSource,
+      @Qualifier("reportingDataSource") DataSource reportingDataSource,
+      ReadReplicaRouter readReplicaRouter) {
+    Map<DataSourcePool, DataSource> pools = new EnumMap<>(DataSourcePool.class);
+    pools.put(DataSourcePool.OLTP, oltpDataSource);
+    pools.put(DataSourcePool.BACKGROUND, backgroundDataSource);
+    pools.put(DataSourcePool.REPORTING, reportingDataSource);
+    RoutingDataSource routingDataSource = new RoutingDataSource(pools, readReplicaRouter);
+    routingDataSource.afterPropertiesSet();
+
+    LazyConnectionDataSourceProxy lazyDataSource =
+        new LazyConnectionDataSourceProxy(new DeadlineQueryTimeoutDataSource(
+            new StatementCountingDataSource(routingDataSource)));
+    lazyDataSource.setDefaultAutoCommit(true);
+    lazyDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    return lazyDataSource;
+  }
+
+  /**
+   * The JPA transaction manager, replacing Spring Boot's so transactions are bounded by the request
+   * deadline.
+   *
+   * @param transactionManagerCustomizers customizers applying the {@code spring.transaction.*}
+   *                                      properties
+   * @return the transaction manager
+   */
+  @Bean
+  public PlatformTransactionManager transactionManager(
+      ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+    JpaTransactionManager transactionManager = new DeadlineAwareJpaTransactionManager();
+    transactionManagerCustomizers.ifAvailable(
+        customizers -> customizers.customize(transactionManager));
+    return transactionManager;
+  }
+
+  /**
+   * Applies {@link UseDataSource} routing to annotated beans. It is ordered ahead of the
+   * transaction advisor so the pool is selected before a transaction acquires its connection.
+   *
+   * @return the routing advisor
+   */
+  @Bean
+  @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+  public static Advisor dataSourceRoutingAdvisor() {
+    ComposablePointcut pointcut =
+        new ComposablePointcut(new AnnotationMatchingPointcut(UseDataSource.class, true))
+            .union(AnnotationMatchingPointcut.forMethodAnnotation(UseDataSource.class));
+    DefaultPointcutAdvisor advisor =
+        new DefaultPointcutAdvisor(pointcut, new DataSourceRoutingInterceptor());
+    advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+    return advisor;
+  }
+
+  private static HikariDataSource createPool(String poolName,
+                                             DataSourcePoolsConfig.PoolConnection override,
+                                             DataSourceProperties properties,
+                                             JdbcConnectionDetails connectionDetails) {
+    String url;
+    String username;
+    String password;
+    String driverClassName;
+    if (connectionDetails != null) {
+      url = connectionDetails.getJdbcUrl();
+      username = connectionDetails.getUsername();
+      password = connectionDetails.getPassword();
+      driverClassName = connectionDetails.getDriverClassName();
+    } else {
+      url = properties.determineUrl();
+      username = properties.determineUsername();
+      password = properties.determinePassword();
+      driverClassName = properties.determineDriverClassName();
+    }
+
+    if (override != null && StringUtils.hasText(override.getUrl())) {
+      url = override.getUrl();
+    }
+    if (override != null && StringUtils.hasText(override.getUsername())) {
+      username = override.getUsername();
+    }
+    if (override != null && StringUtils.hasText(override.getPassword())) {
+      password = override.getPassword();
+    }
+
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName(poolName);
+    dataSource.setJdbcUrl(url);
+    dataSource.setUsername(username);
+    dataSource.setPassword(password);
+    if (StringUtils.hasText(driverClassName)) {
+      dataSource.setDriverClassName(driverClassName);
+    }
+    return dataSource;
+  }
+}
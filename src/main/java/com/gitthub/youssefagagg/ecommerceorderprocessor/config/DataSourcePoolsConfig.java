@@ -0,0 +1,47 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the secondary connection pools. The OLTP pool is configured with
+ * the standard {@code spring.datasource.*} properties. Hikari settings of the secondary pools are
+ * bound from {@code datasource.pools.<pool>.hikari.*}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "datasource.pools")
+@Data
+public class DataSourcePoolsConfig {
+
+  /**
+   * Pool for background writes (audit logs, notifications).
+   */
+  private PoolConnection background = new PoolConnection();
+
+  /**
+   * Pool for reads and reports.
+   */
+  private PoolConnection reporting = new PoolConnection();
+
+  /**
+   * Connection settings of a secondary pool. Unset values fall back to the primary datasource.
+   */
+  @Data
+  public static class PoolConnection {
+    /**
+     * JDBC URL, e.g. of a read replica.
+     */
+    private String url;
+
+    /**
+     * Login username.
+     */
+    private String username;
+
+    /**
+     * Login password.
+     */
+    private String password;
+  }
+}
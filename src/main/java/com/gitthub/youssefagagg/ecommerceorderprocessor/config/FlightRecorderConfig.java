@@ -0,0 +1,42 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for JDK Flight Recorder recordings and their bridge into Micrometer.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "diagnostics.flight-recorder")
+@Data
+public class FlightRecorderConfig {
+
+  /**
+   * Whether the application's Flight Recorder events are streamed into Micrometer meters.
+   */
+  private boolean metricsBridge = true;
+
+  /**
+   * The Flight Recorder configuration a recording uses when none is requested, {@code default}
+   * for continuous recording or {@code profile} for more detail at a higher overhead.
+   */
+  private String defaultSettings = "default";
+
+  /**
+   * How long a recording keeps its oldest data when started without a maximum age.
+   */
+  private Duration maxAge = Duration.ofMinutes(30);
+
+  /**
+   * How much data a recording keeps on disk when started without a maximum size.
+   */
+  private DataSize maxSize = DataSize.ofMegabytes(256);
+
+  /**
+   * How many recordings started through the admin API may exist at once.
+   */
+  private int maxRecordings = 4;
+}
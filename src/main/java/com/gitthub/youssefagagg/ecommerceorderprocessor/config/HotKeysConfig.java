@@ -0,0 +1,48 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for hot-key detection: the heavy-hitter sketches tracking the most
+ * frequent clients, products, inventory conflicts and idempotency keys.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "hot-keys")
+@Data
+public class HotKeysConfig {
+
+  /**
+   * Number of rows of each Count-Min sketch. More rows make an overestimate less likely.
+   */
+  private int depth = 4;
+
+  /**
+   * Number of counters per row of each Count-Min sketch. Estimates overcount by at most
+   * {@code 2 / width} of the traffic of their category.
+   */
+  private int width = 2048;
+
+  /**
+   * Number of most frequent keys kept per category.
+   */
+  private int topK = 20;
+
+  /**
+   * Half-life of the counts: every interval all counts are halved.
+   */
+  private Duration halfLife = Duration.ofMinutes(1);
+
+  /**
+   * Share of the decayed traffic of its category from which a key is hot.
+   */
+  private double hotShare = 0.05;
+
+  /**
+   * Decayed count a key needs before it can be hot, so a quiet category does not make every key
+   * hot.
+   */
+  private long minCount = 100;
+}
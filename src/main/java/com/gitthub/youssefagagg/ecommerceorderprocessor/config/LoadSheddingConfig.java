@@ -0,0 +1,116 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the adaptive concurrency limit in front of the API and the
+ * priorities by which requests are shed when it is reached.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "load-shedding")
+@Data
+public class LoadSheddingConfig {
+
+  /**
+   * Whether API requests are admitted against the adaptive concurrency limit.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Concurrency limit the application starts with.
+   */
+  private int initialLimit = 50;
+
+  /**
+   * Lowest the limit may drop to under overload.
+   */
+  private int minLimit = 10;
+
+  /**
+   * Highest the limit may grow to.
+   */
+  private int maxLimit = 400;
+
+  /**
+   * Factor the limit is multiplied with when a request misses its latency target.
+   */
+  private double backoffRatio = 0.9;
+
+  /**
+   * Seconds clients are asked to wait before retrying a shed request.
+   */
+  private int retryAfterSeconds = 1;
+
+  /**
+   * Share of the limit and latency target of each request priority.
+   */
+  private Map<Priority, PriorityLimit> priorities = defaultPriorities();
+
+  /**
+   * The settings of a priority, falling back to its defaults.
+   *
+   * @param priority the priority
+   * @return its settings
+   */
+  public PriorityLimit limitOf(Priority priority) {
+    PriorityLimit limit = priorities.get(priority);
+    return limit != null ? limit : defaultPriorities().get(priority);
+  }
+
+  private static Map<Priority, PriorityLimit> defaultPriorities() {
+    Map<Priority, PriorityLimit> defaults = new EnumMap<>(Priority.class);
+    defaults.put(Priority.CHECKOUT, new PriorityLimit(1.0, Duration.ofSeconds(2)));
+    defaults.put(Priority.STANDARD, new PriorityLimit(0.9, Duration.ofMillis(500)));
+    defaults.put(Priority.CATALOG, new PriorityLimit(0.7, Duration.ofMillis(300)));
+    defaults.put(Priority.ADMIN, new PriorityLimit(0.5, Duration.ofSeconds(5)));
+    return defaults;
+  }
+
+  /**
+   * Request priorities, highest first.
+   */
+  public enum Priority {
+    /**
+     * Placing orders, which takes their payment.
+     */
+    CHECKOUT,
+    /**
+     * The signed-in user's account, orders and authentication.
+     */
+    STANDARD,
+    /**
+     * Browsing the product catalog.
+     */
+    CATALOG,
+    /**
+     * Admin operations and reports.
+     */
+    ADMIN
+  }
+
+  /**
+   * Limits of a request priority.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class PriorityLimit {
+    /**
+     * Share of the concurrency limit requests of this priority may fill. Once that many requests
+     * of any priority are in flight, requests of this priority are shed.
+     */
+    private double share = 1.0;
+
+    /**
+     * Latency above which a request of this priority counts as a sign of overload.
+     */
+    private Duration latencyTarget = Duration.ofMillis(500);
+  }
+}
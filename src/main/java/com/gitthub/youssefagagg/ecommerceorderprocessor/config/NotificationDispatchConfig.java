@@ -0,0 +1,30 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the batched notification pipeline.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "notification.dispatch")
+@Data
+public class NotificationDispatchConfig {
+
+  /**
+   * Maximum number of notifications waiting to be written. When the queue is full the caller
+   * writes its own notification synchronously and the overflow counter is incremented.
+   */
+  private int queueCapacity = 10_000;
+
+  /**
+   * Maximum number of notifications written by a single multi-row insert.
+   */
+  private int maxBatchSize = 500;
+
+  /**
+   * Delay in milliseconds between two flushes of the queue.
+   */
+  private long flushIntervalMs = 200;
+}
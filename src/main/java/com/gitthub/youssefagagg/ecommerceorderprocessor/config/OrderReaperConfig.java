@@ -0,0 +1,35 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the reaper cancelling orders whose payment never completed.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "order.reaper")
+@Data
+public class OrderReaperConfig {
+
+  /**
+   * Whether expired orders are cancelled.
+   */
+  private boolean enabled = true;
+
+  /**
+   * How long an order may stay PENDING before its reservations are released.
+   */
+  private Duration pendingTtl = Duration.ofMinutes(30);
+
+  /**
+   * Number of orders cancelled per transaction.
+   */
+  private int batchSize = 500;
+
+  /**
+   * Maximum number of batches per run, so one node does not hold the scheduler thread for long.
+   */
+  private int maxBatchesPerRun = 20;
+}
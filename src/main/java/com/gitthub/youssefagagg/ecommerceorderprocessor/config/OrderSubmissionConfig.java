@@ -0,0 +1,36 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the asynchronous order submission queue.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "order.submission")
+@Data
+public class OrderSubmissionConfig {
+
+  /**
+   * Maximum number of submissions processed at once on this node.
+   */
+  private int workers = 4;
+
+  /**
+   * Number of attempts before a submission failing with an unexpected error is rejected.
+   */
+  private int maxAttempts = 3;
+
+  /**
+   * Delay before a failed attempt is retried; doubled for every further attempt.
+   */
+  private Duration retryBackoff = Duration.ofSeconds(5);
+
+  /**
+   * How long a claimed submission is hidden from other workers. Must exceed the time it takes to
+   * process an order, including payment gateway retries.
+   */
+  private Duration lease = Duration.ofMinutes(1);
+}
@@ -0,0 +1,97 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for payment gateway calls.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "payment.gateway")
+@Data
+public class PaymentGatewayConfig {
+
+  /**
+   * The gateway implementation. Only {@code simulator} is built in.
+   */
+  private String provider = "simulator";
+
+  /**
+   * Maximum time to wait for one gateway call once it has started; time spent waiting for a
+   * bulkhead permit is not included.
+   */
+  private Duration timeout = Duration.ofSeconds(2);
+
+  /**
+   * Number of attempts for a call that fails without an answer from the gateway.
+   */
+  private int maxAttempts = 3;
+
+  /**
+   * Delay before the second attempt; doubled for every further attempt.
+   */
+  private Duration retryBackoff = Duration.ofMillis(100);
+
+  private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+  private SimulatorProperties simulator = new SimulatorProperties();
+
+  /**
+   * Configuration for the circuit breaker in front of the gateway.
+   */
+  @Data
+  public static class CircuitBreakerProperties {
+    /**
+     * Percentage of failed calls in the sliding window that opens the breaker.
+     */
+    private int failureRateThreshold = 50;
+
+    /**
+     * Number of most recent calls the failure rate is computed over.
+     */
+    private int slidingWindowSize = 20;
+
+    /**
+     * Number of calls needed in the window before the failure rate is evaluated.
+     */
+    private int minimumCalls = 10;
+
+    /**
+     * How long the breaker stays open before it lets trial calls through.
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /**
+     * Number of trial calls that must succeed to close the breaker again.
+     */
+    private int halfOpenCalls = 3;
+  }
+
+  /**
+   * Configuration for the built-in gateway simulator.
+   */
+  @Data
+  public static class SimulatorProperties {
+    /**
+     * Fixed latency added to every call.
+     */
+    private Duration latency = Duration.ZERO;
+
+    /**
+     * Maximum random latency added on top of {@code latency}.
+     */
+    private Duration latencyJitter = Duration.ZERO;
+
+    /**
+     * Fraction of calls, between 0 and 1, that fail with a gateway error.
+     */
+    private double failureRate;
+
+    /**
+     * Fraction of authorizations, between 0 and 1, that are declined.
+     */
+    private double declineRate;
+  }
+}
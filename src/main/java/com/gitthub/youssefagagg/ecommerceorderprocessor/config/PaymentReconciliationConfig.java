@@ -0,0 +1,31 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the reconciler settling payments that checkout did not see through.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "payment.reconciliation")
+@Data
+public class PaymentReconciliationConfig {
+
+  /**
+   * Whether abandoned payments are settled.
+   */
+  private boolean enabled = true;
+
+  /**
+   * How long a payment must have been left unchanged before it is settled. Longer than a checkout
+   * takes to finish paying, including the gateway timeouts and retries.
+   */
+  private Duration grace = Duration.ofMinutes(5);
+
+  /**
+   * Maximum number of payments settled per run.
+   */
+  private int batchSize = 100;
+}
@@ -0,0 +1,36 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the bulk product import job.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "product-import")
+@Data
+public class ProductImportConfig {
+
+  /**
+   * Directory the import files are read from. File names passed to the import endpoint are
+   * resolved against it and may not point outside of it.
+   */
+  private String directory = "import";
+
+  /**
+   * Number of products written per transaction.
+   */
+  private int chunkSize = 500;
+
+  /**
+   * Number of partitions the file is split into. How many of them run at once is limited by the
+   * {@code import} executor.
+   */
+  private int gridSize = 4;
+
+  /**
+   * Number of unreadable or invalid lines a partition may skip before the import fails.
+   */
+  private int skipLimit = 1000;
+}
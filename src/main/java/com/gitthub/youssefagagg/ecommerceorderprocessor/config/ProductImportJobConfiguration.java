@@ -0,0 +1,161 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.batch.LineRangePartitioner;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.batch.ProductImportFormat;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.batch.ProductImportWriter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.CreateProductDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.AuditLogRepository;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.validator.BeanValidatingItemProcessor;
+import org.springframework.batch.item.validator.ValidationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+/**
+ * Configuration of the bulk product import job.
+ *
+ * <p></p>
+ * The job has a single partitioned step: the import file is split into contiguous line ranges
+ * that are processed in parallel on the {@code importExecutor}. Every partition reads its range,
+ * validates each product like the admin API does, and upserts chunks of
+ * {@code product-import.chunk-size} products with JDBC batches. Unreadable or invalid lines are
+ * skipped and counted. A failed job can be restarted with the same parameters and resumes every
+ * partition after its last committed chunk.
+ *
+ * <p></p>
+ * Job parameters: {@code file} (absolute path, identifying), {@code requestedAt} (identifying,
+ * so the same file can be imported again) and {@code requestedBy}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ProductImportJobConfiguration {
+
+  /**
+   * Name of the import job.
+   */
+  public static final String JOB_NAME = "productImportJob";
+
+  /**
+   * Name of the step processing one partition of the file.
+   */
+  public static final String WORKER_STEP_NAME = "productImportWorkerStep";
+
+  private final ProductImportConfig productImportConfig;
+
+  @Bean
+  public Job productImportJob(JobRepository jobRepository,
+                              @Qualifier("productImportStep") Step productImportStep) {
+    return new JobBuilder(JOB_NAME, jobRepository)
+        .start(productImportStep)
+        .build();
+  }
+
+  @Bean
+  public Step productImportStep(JobRepository jobRepository,
+                                @Qualifier("productImportWorkerStep") Step workerStep,
+                                LineRangePartitioner productImportPartitioner,
+                                @Qualifier("importExecutor") TaskExecutor importExecutor) {
+    return new StepBuilder("productImportStep", jobRepository)
+        .partitioner(WORKER_STEP_NAME, productImportPartitioner)
+        .step(workerStep)
+        .gridSize(productImportConfig.getGridSize())
+        .taskExecutor(importExecutor)
+        .build();
+  }
+
+  @Bean
+  public Step productImportWorkerStep(JobRepository jobRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      FlatFileItemReader<CreateProductDTO> productImportReader,
+                                      ItemProcessor<CreateProductDTO, CreateProductDTO>
+                                          productImportProcessor,
+                                      ProductImportWriter productImportWriter) {
+    return new StepBuilder(WORKER_STEP_NAME, jobRepository)
+        .<CreateProductDTO, CreateProductDTO>chunk(productImportConfig.getChunkSize(),
+                                                   transactionManager)
+        .reader(productImportReader)
+        .processor(productImportProcessor)
+        .writer(productImportWriter)
+        .faultTolerant()
+        .skipLimit(productImportConfig.getSkipLimit())
+        .skip(FlatFileParseException.class)
+        .skip(ValidationException.class)
+        .build();
+  }
+
+  @Bean
+  @StepScope
+  public LineRangePartitioner productImportPartitioner(
+      @Value("#{jobParameters['file']}") String file) {
+    return new LineRangePartitioner(Path.of(file),
+                                    ProductImportFormat.fromFileName(file).getHeaderLines());
+  }
+
+  @Bean
+  @StepScope
+  public FlatFileItemReader<CreateProductDTO> productImportReader(
+      @Value("#{jobParameters['file']}") String file,
+      @Value("#{stepExecutionContext['" + LineRangePartitioner.MIN_ITEM + "']}") Integer minItem,
+      @Value("#{stepExecutionContext['" + LineRangePartitioner.MAX_ITEM + "']}") Integer maxItem,
+      ObjectMapper objectMapper) {
+    ProductImportFormat format = ProductImportFormat.fromFileName(file);
+    FlatFileItemReader<CreateProductDTO> reader =
+        new FlatFileItemReaderBuilder<CreateProductDTO>()
+            .name("productImportReader")
+            .resource(new FileSystemResource(file))
+            .linesToSkip(format.getHeaderLines())
+            .lineMapper(format.lineMapper(objectMapper))
+            .currentItemCount(minItem)
+            .maxItemCount(maxItem)
+            .build();
+    // Every line is a record, so the partition ranges computed from the line count stay exact
+    reader.setComments(new String[0]);
+    return reader;
+  }
+
+  @Bean
+  public ItemProcessor<CreateProductDTO, CreateProductDTO> productImportProcessor(
+      LocalValidatorFactoryBean validator) throws Exception {
+    BeanValidatingItemProcessor<CreateProductDTO> validatingProcessor =
+        new BeanValidatingItemProcessor<>(validator);
+    validatingProcessor.afterPropertiesSet();
+    return item -> {
+      item.setId(null);
+      if (item.getName() != null) {
+        item.setName(item.getName().trim());
+      }
+      return validatingProcessor.process(item);
+    };
+  }
+
+  @Bean
+  @StepScope
+  public ProductImportWriter productImportWriter(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      AuditLogRepository auditLogRepository,
+      @Value("#{stepExecution.jobExecutionId}") Long jobExecutionId,
+      @Value("#{jobParameters['file']}") String file,
+      @Value("#{jobParameters['requestedBy'] ?: 'system'}") String requestedBy) {
+    return new ProductImportWriter(jdbcTemplate, auditLogRepository, jobExecutionId,
+                                   Path.of(file).getFileName().toString(), requestedBy);
+  }
+}
@@ -0,0 +1,35 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for routing read-only transactions to the reporting pool.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "datasource.read-routing")
+@Data
+public class ReadRoutingConfig {
+
+  /**
+   * Whether {@code @Transactional(readOnly = true)} work is sent to the reporting pool.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Maximum replication lag tolerated before reads fall back to the primary.
+   */
+  private Duration maxLag = Duration.ofSeconds(5);
+
+  /**
+   * How long a user's reads stay on the primary after one of their transactions writes.
+   */
+  private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+  /**
+   * Delay in milliseconds between two replication lag checks.
+   */
+  private long lagCheckIntervalMs = 2000;
+}
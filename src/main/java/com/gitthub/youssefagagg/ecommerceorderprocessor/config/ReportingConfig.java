@@ -0,0 +1,66 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for sales reporting and its rollup tables.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "reporting")
+@Data
+public class ReportingConfig {
+
+  /**
+   * Time zone in which orders are bucketed into sales days. Use a region ID such as
+   * {@code Europe/Berlin} or {@code UTC}.
+   */
+  private ZoneId zone = ZoneId.of("UTC");
+
+  /**
+   * Number of days rebuilt per transaction by the rollup backfill.
+   */
+  private int backfillChunkDays = 31;
+
+  /**
+   * Whether an empty rollup is backfilled from the order history when the application starts.
+   */
+  private boolean backfillOnStartup = true;
+
+  /**
+   * Number of recorded status changes folded into the rollups per transaction.
+   */
+  private int deltaBatchSize = 1000;
+
+  /**
+   * The reporting zone as understood by PostgreSQL's {@code AT TIME ZONE}.
+   *
+   * @return the zone ID, with a zero offset mapped to {@code UTC}
+   */
+  public String sqlZoneId() {
+    return toSqlZoneId(zone);
+  }
+
+  /**
+   * Convert a zone to an ID understood by PostgreSQL's {@code AT TIME ZONE}. PostgreSQL reads
+   * numeric offsets such as {@code +02:00} as POSIX zones with the sign inverted, so only region
+   * IDs and the zero offset are accepted.
+   *
+   * @param zone the zone
+   * @return the zone ID, with a zero offset mapped to {@code UTC}
+   * @throws IllegalArgumentException if the zone is a non-zero fixed offset
+   */
+  public static String toSqlZoneId(ZoneId zone) {
+    ZoneId normalized = zone.normalized();
+    if (normalized instanceof ZoneOffset offset) {
+      if (offset.getTotalSeconds() != 0) {
+        throw new IllegalArgumentException("Use a region ID instead of the offset " + zone);
+      }
+      return "UTC";
+    }
+    return zone.getId();
+  }
+}
@@ -0,0 +1,84 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the deadlines given to API requests.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "request-deadline")
+@Data
+public class RequestDeadlineConfig {
+
+  /**
+   * Whether API requests are given a deadline.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Request header in which clients send how many milliseconds they will wait for the response.
+   */
+  private String header = "X-Request-Timeout";
+
+  /**
+   * Timeout of requests that neither send the header nor match an endpoint.
+   */
+  private Duration defaultTimeout = Duration.ofSeconds(10);
+
+  /**
+   * Longest timeout a client may ask for with the header.
+   */
+  private Duration maxTimeout = Duration.ofSeconds(60);
+
+  /**
+   * Default timeouts of endpoints, the first matching one applies.
+   */
+  private List<EndpointTimeout> endpoints = defaultEndpoints();
+
+  /**
+   * Async executors whose tasks keep the deadline of the request that submitted them. Executors
+   * running work that must finish even when the client has gone, such as audit writes and
+   * backfills, are left out.
+   */
+  private Set<String> propagateToExecutors = Set.of("default", "payment");
+
+  private static List<EndpointTimeout> defaultEndpoints() {
+    List<EndpointTimeout> defaults = new ArrayList<>();
+    defaults.add(new EndpointTimeout("POST", "/api/v1/orders", Duration.ofSeconds(15)));
+    defaults.add(new EndpointTimeout(null, "/api/v1/admin/reports/**", Duration.ofSeconds(30)));
+    defaults.add(new EndpointTimeout(null, "/api/v1/admin/**", Duration.ofSeconds(20)));
+    defaults.add(new EndpointTimeout("GET", "/api/v1/products/**", Duration.ofSeconds(3)));
+    return defaults;
+  }
+
+  /**
+   * The default timeout of the requests to an endpoint.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class EndpointTimeout {
+    /**
+     * HTTP method of the requests, or {@code null} for any method.
+     */
+    private String method;
+
+    /**
+     * Ant-style pattern of the request paths.
+     */
+    private String path;
+
+    /**
+     * Timeout of the requests.
+     */
+    private Duration timeout;
+  }
+}
@@ -0,0 +1,13 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's scheduled task execution for periodic background work such as flushing the
+ * notification queue.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,80 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link DataSourcePool} selected for the current thread.
+ */
+public final class DataSourceContextHolder {
+
+  private static final ThreadLocal<DataSourcePool> CURRENT_POOL = new ThreadLocal<>();
+
+  private DataSourceContextHolder() {
+  }
+
+  /**
+   * Get the pool selected for the current thread.
+   *
+   * @return the selected pool, or {@code null} if none was selected
+   */
+  public static DataSourcePool getCurrentPool() {
+    return CURRENT_POOL.get();
+  }
+
+  /**
+   * Select a pool for the current thread.
+   *
+   * @param pool the pool to select
+   * @return the previously selected pool, to be passed to {@link #restore(DataSourcePool)}
+   */
+  public static DataSourcePool select(DataSourcePool pool) {
+    DataSourcePool previous = CURRENT_POOL.get();
+    CURRENT_POOL.set(pool);
+    return previous;
+  }
+
+  /**
+   * Restore the pool that was selected before {@link #select(DataSourcePool)}.
+   *
+   * @param previous the previously selected pool, may be {@code null}
+   */
+  public static void restore(DataSourcePool previous) {
+    if (previous == null) {
+      CURRENT_POOL.remove();
+    } else {
+      CURRENT_POOL.set(previous);
+    }
+  }
+
+  /**
+   * Run an action with the given pool selected.
+   *
+   * @param pool   the pool to select
+   * @param action the action to run
+   * @param <T>    the result type
+   * @return the result of the action
+   */
+  public static <T> T callWith(DataSourcePool pool, Supplier<T> action) {
+    DataSourcePool previous = select(pool);
+    try {
+      return action.get();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /**
+   * Run an action with the given pool selected.
+   *
+   * @param pool   the pool to select
+   * @param action the action to run
+   */
+  public static void runWith(DataSourcePool pool, Runnable action) {
+    DataSourcePool previous = select(pool);
+    try {
+      action.run();
+    } finally {
+      restore(previous);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+/**
+ * The connection pools the application routes work to.
+ */
+public enum DataSourcePool {
+  /**
+   * Request handling, order creation and anything not routed elsewhere.
+   */
+  OLTP,
+  /**
+   * Background writes such as audit logs and notifications.
+   */
+  BACKGROUND,
+  /**
+   * Reads and reports. May point at a read replica.
+   */
+  REPORTING
+}
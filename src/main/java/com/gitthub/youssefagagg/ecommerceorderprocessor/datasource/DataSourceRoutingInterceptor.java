@@ -0,0 +1,46 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import java.lang.reflect.Method;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+
+/**
+ * Selects the pool declared by {@link UseDataSource} for the duration of the intercepted call.
+ *
+ * <p></p>
+ * The interceptor must run outside the transaction interceptor, so that the pool is selected
+ * before the transaction acquires its connection.
+ */
+public class DataSourceRoutingInterceptor implements MethodInterceptor {
+
+  @Override
+  public Object invoke(@NonNull MethodInvocation invocation) throws Throwable {
+    UseDataSource route = findRoute(invocation);
+    if (route == null) {
+      return invocation.proceed();
+    }
+
+    DataSourcePool previous = DataSourceContextHolder.select(route.value());
+    try {
+      return invocation.proceed();
+    } finally {
+      DataSourceContextHolder.restore(previous);
+    }
+  }
+
+  private UseDataSource findRoute(MethodInvocation invocation) {
+    Object target = invocation.getThis();
+    Class<?> targetClass = target != null ? AopUtils.getTargetClass(target)
+                                          : invocation.getMethod().getDeclaringClass();
+    Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+    UseDataSource route = AnnotatedElementUtils.findMergedAnnotation(method, UseDataSource.class);
+    if (route == null) {
+      route = AnnotatedElementUtils.findMergedAnnotation(targetClass, UseDataSource.class);
+    }
+    return route;
+  }
+}
@@ -0,0 +1,36 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * {@link JpaTransactionManager} bounding every transaction by the {@link RequestDeadline} of the
+ * thread starting it.
+ *
+ * <p></p>
+ * The timeout of a transaction is the smaller of its own and the whole seconds left until the
+ * deadline. Hibernate applies the time left of a transaction as the query timeout of each of its
+ * statements, and so does {@code JdbcTemplate}, so a query cannot keep its connection busy after
+ * the client has given up. A transaction is not started at all once the deadline has passed.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+  @Override
+  protected int determineTimeout(TransactionDefinition definition) {
+    int timeout = super.determineTimeout(definition);
+    RequestDeadline deadline = RequestDeadline.current();
+    if (deadline == null) {
+      return timeout;
+    }
+    int remaining = deadline.remainingSeconds();
+    if (remaining <= 0) {
+      throw new TransactionTimedOutException(
+          "Request deadline of " + deadline.getTimeout().toMillis()
+          + " ms exceeded before the transaction started");
+    }
+    return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining
+                                                            : Math.min(timeout, remaining);
+  }
+}
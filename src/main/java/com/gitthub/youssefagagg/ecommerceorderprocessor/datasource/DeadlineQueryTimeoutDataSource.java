@@ -0,0 +1,79 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} giving every statement created on its connections the time left until the
+ * {@link RequestDeadline} of the current thread as its query timeout.
+ *
+ * <p></p>
+ * Inside a transaction, Hibernate and {@code JdbcTemplate} set the statement timeout from the
+ * transaction timeout, which the {@link DeadlineAwareJpaTransactionManager} already bounds by the
+ * deadline; this covers the statements sent outside one. A statement is refused with a
+ * {@link SQLTimeoutException} once the deadline has passed. Threads without a deadline are not
+ * affected.
+ */
+public class DeadlineQueryTimeoutDataSource extends DelegatingDataSource {
+
+  private static final Set<String> STATEMENT_METHODS =
+      Set.of("prepareStatement", "createStatement", "prepareCall");
+
+  /**
+   * Create a deadline-aware data source.
+   *
+   * @param targetDataSource the data source handing out the connections
+   */
+  public DeadlineQueryTimeoutDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return deadlineConnection(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return deadlineConnection(super.getConnection(username, password));
+  }
+
+  private static Connection deadlineConnection(Connection target) {
+    return (Connection) Proxy.newProxyInstance(
+        DeadlineQueryTimeoutDataSource.class.getClassLoader(), new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          if ("equals".equals(method.getName())) {
+            return proxy == args[0];
+          }
+          if ("hashCode".equals(method.getName())) {
+            return System.identityHashCode(proxy);
+          }
+          RequestDeadline deadline = RequestDeadline.current();
+          boolean statement = STATEMENT_METHODS.contains(method.getName());
+          if (statement && deadline != null && deadline.isExpired()) {
+            throw new SQLTimeoutException("Request deadline of "
+                                          + deadline.getTimeout().toMillis()
+                                          + " ms exceeded before the statement was sent");
+          }
+          Object result;
+          try {
+            result = method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+          if (statement && deadline != null) {
+            // A timeout of 0 would mean no timeout at all
+            ((Statement) result).setQueryTimeout(Math.max(1, deadline.remainingSeconds()));
+          }
+          return result;
+        });
+  }
+}
@@ -0,0 +1,72 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReadRoutingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Decides whether the current read-only transaction may be served by the replica.
+ *
+ * <p></p>
+ * A read-only transaction goes to the replica when read routing is enabled, the replica is within
+ * its lag limit, and the current user has not written within the read-your-writes window.
+ * Everything else stays on the primary.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadReplicaRouter implements MeterBinder {
+
+  private final ReadRoutingConfig config;
+  private final ReplicaLagMonitor lagMonitor;
+  private final ReadYourWritesTracker readYourWritesTracker;
+
+  private final LongAdder replicaReads = new LongAdder();
+  private final LongAdder lagFallbacks = new LongAdder();
+  private final LongAdder pinnedFallbacks = new LongAdder();
+
+  /**
+   * Whether the current transaction should use the replica.
+   *
+   * @return {@code true} to route to the replica, {@code false} to use the primary
+   */
+  public boolean routeToReplica() {
+    if (!config.isEnabled() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return false;
+    }
+    if (!lagMonitor.isReplicaUsable()) {
+      lagFallbacks.increment();
+      return false;
+    }
+    Optional<String> username = SecurityUtils.getCurrentUserUserName();
+    if (username.isPresent() && readYourWritesTracker.isPinned(username.get())) {
+      pinnedFallbacks.increment();
+      return false;
+    }
+    replicaReads.increment();
+    return true;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    FunctionCounter.builder("datasource.read.routing", replicaReads, LongAdder::sum)
+                   .tags("target", "replica", "reason", "read-only")
+                   .description("Read-only transactions routed by the read replica router")
+                   .register(registry);
+    FunctionCounter.builder("datasource.read.routing", lagFallbacks, LongAdder::sum)
+                   .tags("target", "primary", "reason", "replica-lag")
+                   .description("Read-only transactions routed by the read replica router")
+                   .register(registry);
+    FunctionCounter.builder("datasource.read.routing", pinnedFallbacks, LongAdder::sum)
+                   .tags("target", "primary", "reason", "read-your-writes")
+                   .description("Read-only transactions routed by the read replica router")
+                   .register(registry);
+  }
+}
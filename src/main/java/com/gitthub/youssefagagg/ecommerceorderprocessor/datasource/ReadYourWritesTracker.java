@@ -0,0 +1,59 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReadRoutingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Pins a user's reads to the primary for a short window after one of their transactions writes,
+ * so they never read a replica that has not caught up with their own changes yet.
+ *
+ * <p></p>
+ * Registered with the transaction manager as a {@link TransactionExecutionListener}: every
+ * successfully committed read-write transaction pins the current user.
+ */
+@Component
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+  private final Cache<String, Boolean> pinnedUsers;
+
+  public ReadYourWritesTracker(ReadRoutingConfig config) {
+    this.pinnedUsers = Caffeine.newBuilder()
+                               .expireAfterWrite(config.getReadYourWritesWindow())
+                               .maximumSize(100_000)
+                               .build();
+  }
+
+  @Override
+  public void afterCommit(@NonNull TransactionExecution transaction,
+                          @Nullable Throwable commitFailure) {
+    if (commitFailure == null && !transaction.isReadOnly()) {
+      SecurityUtils.getCurrentUserUserName().ifPresent(this::pin);
+    }
+  }
+
+  /**
+   * Pin a user to the primary for the read-your-writes window.
+   *
+   * @param username the username
+   */
+  public void pin(String username) {
+    pinnedUsers.put(username, Boolean.TRUE);
+  }
+
+  /**
+   * Whether a user's reads must currently go to the primary.
+   *
+   * @param username the username
+   * @return {@code true} if the user wrote within the read-your-writes window
+   */
+  public boolean isPinned(String username) {
+    return pinnedUsers.getIfPresent(username) != null;
+  }
+}
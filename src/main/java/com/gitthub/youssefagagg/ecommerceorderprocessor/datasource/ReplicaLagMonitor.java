@@ -0,0 +1,90 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReadRoutingConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically measures the replication lag of the reporting pool.
+ *
+ * <p></p>
+ * A node that is not in recovery (not a standby), or a standby that has replayed everything it
+ * received, reports no lag. Otherwise the lag is the age of the last replayed transaction. The
+ * replica is considered usable while the last check succeeded and the lag is within
+ * {@code datasource.read-routing.max-lag}.
+ */
+@Component
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder {
+
+  private static final String LAG_QUERY =
+      "SELECT CASE WHEN NOT pg_is_in_recovery() "
+      + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+      + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+  private final JdbcTemplate replicaJdbcTemplate;
+  private final ReadRoutingConfig config;
+
+  private volatile double lagSeconds = Double.NaN;
+  private volatile boolean usable;
+
+  public ReplicaLagMonitor(@Qualifier("reportingDataSource") DataSource reportingDataSource,
+                           ReadRoutingConfig config) {
+    this.replicaJdbcTemplate = new JdbcTemplate(reportingDataSource);
+    this.config = config;
+  }
+
+  /**
+   * Measure the current replication lag.
+   */
+  @Scheduled(fixedDelayString = "${datasource.read-routing.lag-check-interval-ms:2000}")
+  public void checkLag() {
+    if (!config.isEnabled()) {
+      return;
+    }
+    try {
+      Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+      lagSeconds = lag != null ? lag : 0;
+      boolean withinLimit = lagSeconds * 1000 <= config.getMaxLag().toMillis();
+      if (usable && !withinLimit) {
+        log.warn("Replica lag of {}s exceeds {}, routing reads to the primary", lagSeconds,
+                 config.getMaxLag());
+      }
+      usable = withinLimit;
+    } catch (RuntimeException e) {
+      if (usable) {
+        log.warn("Replica lag check failed, routing reads to the primary", e);
+      }
+      lagSeconds = Double.NaN;
+      usable = false;
+    }
+  }
+
+  /**
+   * Whether read-only transactions may currently be sent to the replica.
+   *
+   * @return {@code true} if the last check succeeded within the lag limit
+   */
+  public boolean isReplicaUsable() {
+    return usable;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+         .baseUnit("seconds")
+         .description("Replication lag of the reporting pool")
+         .register(registry);
+    Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+         .description("Whether read-only transactions are routed to the replica")
+         .register(registry);
+  }
+}
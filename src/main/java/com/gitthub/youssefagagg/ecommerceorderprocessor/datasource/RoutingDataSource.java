@@ -0,0 +1,52 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * {@link DataSource} that hands out connections from the pool selected in
+ * {@link DataSourceContextHolder}. Without an explicit selection, read-only transactions go to the
+ * {@link DataSourcePool#REPORTING} pool when the {@link ReadReplicaRouter} allows it, and
+ * everything else falls back to {@link DataSourcePool#OLTP}.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+  private final ReadReplicaRouter readReplicaRouter;
+
+  /**
+   * Create a routing data source over the given pools without read-replica routing.
+   *
+   * @param pools the target data source of every pool
+   */
+  public RoutingDataSource(Map<DataSourcePool, DataSource> pools) {
+    this(pools, null);
+  }
+
+  /**
+   * Create a routing data source over the given pools.
+   *
+   * @param pools             the target data source of every pool
+   * @param readReplicaRouter decides whether read-only transactions use the replica, may be
+   *                          {@code null}
+   */
+  public RoutingDataSource(Map<DataSourcePool, DataSource> pools,
+                           ReadReplicaRouter readReplicaRouter) {
+    this.readReplicaRouter = readReplicaRouter;
+    setTargetDataSources(Map.copyOf(pools));
+    setDefaultTargetDataSource(pools.get(DataSourcePool.OLTP));
+    setLenientFallback(false);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    DataSourcePool pool = DataSourceContextHolder.getCurrentPool();
+    if (pool != null) {
+      return pool;
+    }
+    if (readReplicaRouter != null && readReplicaRouter.routeToReplica()) {
+      return DataSourcePool.REPORTING;
+    }
+    return DataSourcePool.OLTP;
+  }
+}
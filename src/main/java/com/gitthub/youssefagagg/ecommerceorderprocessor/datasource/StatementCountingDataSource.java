@@ -0,0 +1,75 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} that counts the statements each thread prepares or creates on its
+ * connections, whether they come from Hibernate or from a {@code JdbcTemplate}.
+ *
+ * <p></p>
+ * The count of a thread only ever grows; callers take {@link #currentThreadCount()} before and
+ * after a piece of work and record the difference, which is the number of database round trips
+ * the work made on that thread.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+  private static final Set<String> STATEMENT_METHODS =
+      Set.of("prepareStatement", "createStatement", "prepareCall");
+
+  private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+  /**
+   * Create a counting data source.
+   *
+   * @param targetDataSource the data source handing out the connections
+   */
+  public StatementCountingDataSource(DataSource targetDataSource) {
+    super(targetDataSource);
+  }
+
+  /**
+   * The number of statements the current thread has sent so far.
+   *
+   * @return the statement count
+   */
+  public static long currentThreadCount() {
+    return COUNT.get()[0];
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return countingConnection(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return countingConnection(super.getConnection(username, password));
+  }
+
+  private static Connection countingConnection(Connection target) {
+    return (Connection) Proxy.newProxyInstance(
+        StatementCountingDataSource.class.getClassLoader(), new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          if ("equals".equals(method.getName())) {
+            return proxy == args[0];
+          }
+          if ("hashCode".equals(method.getName())) {
+            return System.identityHashCode(proxy);
+          }
+          if (STATEMENT_METHODS.contains(method.getName())) {
+            COUNT.get()[0]++;
+          }
+          try {
+            return method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+        });
+  }
+}
@@ -0,0 +1,30 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the connections used by the annotated method, or by every method of the annotated class,
+ * to the given {@link DataSourcePool}.
+ *
+ * <p></p>
+ * The pool is chosen when a connection is acquired. A method that joins a transaction or
+ * persistence context which already holds a connection keeps using that connection, so the
+ * annotation is meant for methods that start their own unit of work: {@code @Async} tasks,
+ * scheduled jobs and top-level service calls.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UseDataSource {
+
+  /**
+   * The pool to route to.
+   *
+   * @return the pool
+   */
+  DataSourcePool value();
+}
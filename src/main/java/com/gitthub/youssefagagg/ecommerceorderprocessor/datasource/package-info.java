@@ -0,0 +1,5 @@
+/**
+ * Connection pool partitioning and routing.
+ */
+
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
@@ -0,0 +1,54 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a task leaving the queue of a
+ * {@link com.gitthub.youssefagagg.ecommerceorderprocessor.util.BulkheadExecutor}.
+ *
+ * <p></p>
+ * The task waited on the submitting thread and runs on another one, so the wait is recorded as a
+ * field of an instant event committed when the task starts rather than as the event's duration.
+ */
+@Name(ExecutorQueueWaitEvent.NAME)
+@Label("Executor Queue Wait")
+@Category({"E-commerce", "Executors"})
+@Description("Time an asynchronous task spent queued before a bulkhead permit let it run")
+@StackTrace(false)
+public class ExecutorQueueWaitEvent extends Event {
+
+  public static final String NAME = "ecommerce.ExecutorQueueWait";
+
+  @Label("Executor")
+  String executor;
+
+  @Label("Queue Wait")
+  @Timespan(Timespan.NANOSECONDS)
+  long queueWait;
+
+  @Label("Still Queued")
+  int queued;
+
+  /**
+   * Record the queue wait of a task that is about to run.
+   *
+   * @param executor  the name of the executor
+   * @param queueWait the time the task was queued, in nanoseconds
+   * @param queued    the number of tasks still waiting
+   */
+  public static void record(String executor, long queueWait, int queued) {
+    ExecutorQueueWaitEvent event = new ExecutorQueueWaitEvent();
+    if (event.isEnabled()) {
+      event.executor = executor;
+      event.queueWait = queueWait;
+      event.queued = queued;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.FlightRecorderConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams the application's Flight Recorder events into Micrometer meters.
+ *
+ * <p></p>
+ * A {@link RecordingStream} enables the events of this package, without stack traces, and turns
+ * each one into a meter: {@code jfr.keylock.held} and {@code jfr.keylock.rejections},
+ * {@code jfr.inventory.conflicts}, {@code jfr.executor.queue.wait} tagged with the executor and
+ * {@code jfr.websocket.send} tagged with the topic. Product IDs, key hashes and destinations stay
+ * in the recordings, where their cardinality does no harm. The stream delivers events in batches
+ * about once a second, so the meters trail the events slightly.
+ *
+ * <p></p>
+ * The stream keeps only a few seconds of data and is closed when the application shuts down. It
+ * does not start when {@code diagnostics.flight-recorder.metrics-bridge} is {@code false}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FlightRecorderMetricsBridge implements SmartLifecycle {
+
+  private static final Duration STREAM_MAX_AGE = Duration.ofSeconds(10);
+
+  private final FlightRecorderConfig flightRecorderConfig;
+  private final MeterRegistry meterRegistry;
+
+  private volatile RecordingStream stream;
+
+  @Override
+  public synchronized void start() {
+    if (!flightRecorderConfig.isMetricsBridge() || stream != null) {
+      return;
+    }
+    RecordingStream recordingStream = new RecordingStream();
+    recordingStream.enable(KeyLockEvent.NAME).withoutStackTrace();
+    recordingStream.enable(InventoryConflictEvent.NAME).withoutStackTrace();
+    recordingStream.enable(ExecutorQueueWaitEvent.NAME).withoutStackTrace();
+    recordingStream.enable(WebSocketSendEvent.NAME).withoutStackTrace();
+    recordingStream.setMaxAge(STREAM_MAX_AGE);
+    recordingStream.onEvent(KeyLockEvent.NAME, this::onKeyLock);
+    recordingStream.onEvent(InventoryConflictEvent.NAME, this::onInventoryConflict);
+    recordingStream.onEvent(ExecutorQueueWaitEvent.NAME, this::onExecutorQueueWait);
+    recordingStream.onEvent(WebSocketSendEvent.NAME, this::onWebSocketSend);
+    recordingStream.onError(e -> log.warn("Flight recorder metrics stream failed", e));
+    recordingStream.startAsync();
+    stream = recordingStream;
+    log.info("Streaming flight recorder events into metrics");
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return stream != null;
+  }
+
+  void onKeyLock(RecordedEvent event) {
+    if (event.getBoolean("acquired")) {
+      Timer.builder("jfr.keylock.held")
+           .description("Time key locks were held, from flight recorder events")
+           .register(meterRegistry)
+           .record(event.getDuration());
+    } else {
+      Counter.builder("jfr.keylock.rejections")
+             .description("Key locks rejected because the key was locked, from flight recorder "
+                          + "events")
+             .register(meterRegistry)
+             .increment();
+    }
+  }
+
+  void onInventoryConflict(RecordedEvent event) {
+    Counter.builder("jfr.inventory.conflicts")
+           .description("Order items that could not reserve stock, from flight recorder events")
+           .register(meterRegistry)
+           .increment();
+  }
+
+  void onExecutorQueueWait(RecordedEvent event) {
+    Timer.builder("jfr.executor.queue.wait")
+         .description("Time asynchronous tasks spent queued, from flight recorder events")
+         .tag("name", event.getString("executor"))
+         .register(meterRegistry)
+         .record(event.getDuration("queueWait"));
+  }
+
+  void onWebSocketSend(RecordedEvent event) {
+    Timer.builder("jfr.websocket.send")
+         .description("Time taken to send WebSocket messages, from flight recorder events")
+         .tag("topic", event.getString("topic"))
+         .register(meterRegistry)
+         .record(event.getDuration());
+  }
+}
@@ -0,0 +1,47 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an order item whose product could not be reserved.
+ */
+@Name(InventoryConflictEvent.NAME)
+@Label("Inventory Reservation Conflict")
+@Category({"E-commerce", "Orders"})
+@Description("An order item rejected because its product did not have enough stock to reserve")
+@StackTrace(false)
+public class InventoryConflictEvent extends Event {
+
+  public static final String NAME = "ecommerce.InventoryConflict";
+
+  @Label("Product ID")
+  long productId;
+
+  @Label("Requested Quantity")
+  int requested;
+
+  @Label("Available Quantity")
+  int available;
+
+  /**
+   * Record a reservation conflict.
+   *
+   * @param productId the ID of the product
+   * @param requested the quantity the order item asked for
+   * @param available the quantity that was available
+   */
+  public static void record(long productId, int requested, int available) {
+    InventoryConflictEvent event = new InventoryConflictEvent();
+    if (event.isEnabled()) {
+      event.productId = productId;
+      event.requested = requested;
+      event.available = available;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a key lock taken by
+ * {@link com.gitthub.youssefagagg.ecommerceorderprocessor.util.KeyLockManager}.
+ *
+ * <p></p>
+ * The event lasts from the attempt to take the lock until it is released, so its duration is how
+ * long the key was held; a rejected attempt is committed at once. Keys may carry user data, so only
+ * their hash is recorded.
+ */
+@Name(KeyLockEvent.NAME)
+@Label("Key Lock")
+@Category({"E-commerce", "Locks"})
+@Description("A key lock held or rejected because the key was already locked")
+@StackTrace(false)
+public class KeyLockEvent extends Event {
+
+  public static final String NAME = "ecommerce.KeyLock";
+
+  @Label("Key Hash")
+  int keyHash;
+
+  @Label("Acquired")
+  boolean acquired;
+
+  /**
+   * Start the event for an attempt to lock a key.
+   *
+   * @param key the key
+   * @return the started event
+   */
+  public static KeyLockEvent start(String key) {
+    KeyLockEvent event = new KeyLockEvent();
+    event.keyHash = key.hashCode();
+    event.begin();
+    return event;
+  }
+
+  /**
+   * Commit the event for a lock that was held and has now been released.
+   */
+  public void released() {
+    acquired = true;
+    commit();
+  }
+
+  /**
+   * Commit the event for a lock that was not taken because the key was already locked.
+   */
+  public void rejected() {
+    acquired = false;
+    commit();
+  }
+}
@@ -0,0 +1,46 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a message sent to a WebSocket destination.
+ *
+ * <p></p>
+ * The topic is the destination with the username left out, so events of all users of a topic can
+ * be grouped.
+ */
+@Name(WebSocketSendEvent.NAME)
+@Label("WebSocket Send")
+@Category({"E-commerce", "WebSocket"})
+@Description("A message converted and handed to the broker for a WebSocket destination")
+@StackTrace(false)
+public class WebSocketSendEvent extends Event {
+
+  public static final String NAME = "ecommerce.WebSocketSend";
+
+  @Label("Topic")
+  String topic;
+
+  @Label("Destination")
+  String destination;
+
+  /**
+   * Start the event for a message about to be sent.
+   *
+   * @param topic       the destination without the username
+   * @param destination the destination
+   * @return the started event
+   */
+  public static WebSocketSendEvent start(String topic, String destination) {
+    WebSocketSendEvent event = new WebSocketSendEvent();
+    event.topic = topic;
+    event.destination = destination;
+    event.begin();
+    return event;
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * JDK Flight Recorder events, recordings and their bridge into Micrometer.
+ */
+
+package com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics;
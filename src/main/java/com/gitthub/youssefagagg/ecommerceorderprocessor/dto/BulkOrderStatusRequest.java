@@ -0,0 +1,31 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to move several orders to the same status.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequest {
+
+  /**
+   * Maximum number of orders updated by one request.
+   */
+  public static final int MAX_ORDERS = 1000;
+
+  @NotEmpty
+  @Size(max = MAX_ORDERS)
+  private List<@NotNull Long> orderIds;
+
+  @NotNull
+  private OrderStatus status;
+}
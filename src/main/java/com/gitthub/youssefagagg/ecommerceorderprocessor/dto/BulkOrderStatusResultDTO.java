@@ -0,0 +1,51 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStatusResultDTO.Outcome;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Report of a bulk order status update, with one result per requested order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusResultDTO {
+
+  private OrderStatus status;
+  private int updated;
+  private int unchanged;
+  private int rejected;
+  private int notFound;
+  private List<OrderStatusResultDTO> results;
+
+  /**
+   * Summarize per-order results.
+   *
+   * @param status  the requested status
+   * @param results the per-order results
+   * @return the report
+   */
+  public static BulkOrderStatusResultDTO of(OrderStatus status,
+                                            List<OrderStatusResultDTO> results) {
+    return BulkOrderStatusResultDTO.builder()
+                                   .status(status)
+                                   .updated(count(results, Outcome.UPDATED))
+                                   .unchanged(count(results, Outcome.UNCHANGED))
+                                   .rejected(count(results, Outcome.REJECTED))
+                                   .notFound(count(results, Outcome.NOT_FOUND))
+                                   .results(results)
+                                   .build();
+  }
+
+  private static int count(List<OrderStatusResultDTO> results, Outcome outcome) {
+    return (int) results.stream()
+                        .filter(result -> result.getOutcome() == outcome)
+                        .count();
+  }
+}
@@ -0,0 +1,27 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a JDK Flight Recorder recording started through the admin API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightRecordingDTO {
+  private Long id;
+  private String name;
+  private String state;
+  private String settings;
+  private Instant startTime;
+  private Instant stopTime;
+  private Duration maxAge;
+  private long maxSize;
+  private long size;
+}
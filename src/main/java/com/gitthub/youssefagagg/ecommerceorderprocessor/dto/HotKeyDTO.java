@@ -0,0 +1,20 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one of the most frequent keys of a hot-key category.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotKeyDTO {
+  private String key;
+  private long count;
+  private double share;
+  private boolean hot;
+}
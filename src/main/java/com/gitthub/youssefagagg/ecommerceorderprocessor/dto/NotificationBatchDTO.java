@@ -0,0 +1,24 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a coalesced WebSocket frame carrying every notification written for a user in one flush,
+ * together with the user's unread count after the flush.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationBatchDTO {
+
+  private Long userId;
+
+  private List<NotificationDTO> notifications;
+
+  private Long unreadCount;
+}
@@ -1,6 +1,7 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
 
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
@@ -35,4 +36,6 @@ public class OrderItemDTO {
   private BigDecimal price;
 
   private BigDecimal subtotal;
+
+  private OrderItemStatus status;
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to move items of one order to new statuses, for example when part of an order ships.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemStatusRequest {
+
+  @NotEmpty
+  private List<@Valid @NotNull ItemStatus> items;
+
+  /**
+   * The new status of one item.
+   */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class ItemStatus {
+
+    @NotNull
+    private Long itemId;
+
+    @NotNull
+    private OrderItemStatus status;
+  }
+}
@@ -0,0 +1,58 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.util.List;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Description of the order lifecycle.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStateMachineDTO {
+
+  private List<State> states;
+
+  /**
+   * Names of the hooks that run after every transition.
+   */
+  private List<String> transitionHooks;
+
+  /**
+   * One order status and how orders enter and leave it.
+   */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class State {
+
+    private OrderStatus status;
+
+    /**
+     * Whether orders in this status can no longer change.
+     */
+    private boolean terminal;
+
+    /**
+     * The statuses an order in this status can move to.
+     */
+    private Set<OrderStatus> transitions;
+
+    /**
+     * Names of the conditions checked before an order enters this status.
+     */
+    private List<String> guards;
+
+    /**
+     * Names of the actions run when an order enters this status.
+     */
+    private List<String> hooks;
+  }
+}
@@ -0,0 +1,43 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a status change for one order of a bulk update.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusResultDTO {
+
+  private Long orderId;
+
+  /**
+   * The status before the update, {@code null} when the order does not exist.
+   */
+  private OrderStatus previousStatus;
+
+  /**
+   * The status after the update.
+   */
+  private OrderStatus status;
+
+  private Outcome outcome;
+
+  private String message;
+
+  /**
+   * What happened to the order.
+   */
+  public enum Outcome {
+    UPDATED,
+    UNCHANGED,
+    REJECTED,
+    NOT_FOUND
+  }
+}
@@ -0,0 +1,22 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
+import java.time.Instant;
+
+/**
+ * A notification accepted by the dispatcher but not yet written to the database.
+ *
+ * @param userId    the recipient ID
+ * @param username  the recipient username, used as the WebSocket destination
+ * @param type      the notification type
+ * @param content   the notification content
+ * @param createdBy the auditor captured when the notification was enqueued
+ * @param createdAt the time the notification was enqueued
+ */
+public record PendingNotification(Long userId,
+                                  String username,
+                                  NotificationType type,
+                                  String content,
+                                  String createdBy,
+                                  Instant createdAt) {
+}
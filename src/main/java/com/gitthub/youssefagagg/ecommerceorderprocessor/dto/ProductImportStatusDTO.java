@@ -0,0 +1,27 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the progress and outcome of a product import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportStatusDTO {
+  private Long executionId;
+  private String file;
+  private String status;
+  private String exitCode;
+  private String exitDescription;
+  private long readCount;
+  private long writeCount;
+  private long skipCount;
+  private LocalDateTime startTime;
+  private LocalDateTime endTime;
+}
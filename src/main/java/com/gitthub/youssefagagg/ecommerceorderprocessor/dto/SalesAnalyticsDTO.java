@@ -0,0 +1,25 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one row of a sales analytics result.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesAnalyticsDTO {
+  private OffsetDateTime periodStart;
+  private String key;
+  private String label;
+  private long orderCount;
+  private long units;
+  private BigDecimal revenue;
+  private BigDecimal averageOrderValue;
+}
@@ -0,0 +1,24 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+/**
+ * Breakdown of a sales analytics result within each period.
+ */
+public enum SalesDimension {
+  /**
+   * One row per period.
+   */
+  NONE,
+  /**
+   * One row per product and period. Order count and revenue cover the orders containing the
+   * product and the product's share of them.
+   */
+  PRODUCT,
+  /**
+   * One row per order status and period.
+   */
+  STATUS,
+  /**
+   * One row per customer cohort (the month the customer registered, {@code yyyy-MM}) and period.
+   */
+  COHORT
+}
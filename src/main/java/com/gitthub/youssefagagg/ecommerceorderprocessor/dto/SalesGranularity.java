@@ -0,0 +1,21 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Period length of a sales analytics result.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SalesGranularity {
+  HOUR("hour"),
+  DAY("day"),
+  WEEK("week"),
+  MONTH("month");
+
+  /**
+   * The matching PostgreSQL {@code date_trunc} field.
+   */
+  private final String truncField;
+}
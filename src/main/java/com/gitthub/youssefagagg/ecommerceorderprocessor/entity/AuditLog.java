@@ -89,6 +89,23 @@ public class AuditLog extends AbstractAuditingEntity {
                    .build();
   }
 
+  /**
+   * Create an audit log summarizing part of a bulk import.
+   *
+   * @param entityType the type of import
+   * @param entityId   the ID of the import run
+   * @param changes    the summary of the imported data
+   * @return the audit log
+   */
+  public static AuditLog importLog(String entityType, Long entityId, String changes) {
+    return AuditLog.builder()
+                   .entityType(entityType)
+                   .entityId(entityId)
+                   .action("IMPORT")
+                   .changes(changes)
+                   .build();
+  }
+
   /**
    * Create an audit log for a delete action.
    *
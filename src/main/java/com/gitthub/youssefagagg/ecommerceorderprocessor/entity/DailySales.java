@@ -0,0 +1,44 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Daily sales rollup: the revenue and number of counted orders per sales day. Rows are maintained
+ * incrementally as orders enter or leave the counted statuses, so they are only written through
+ * set-based upserts and never through the entity.
+ */
+@Entity
+@Table(name = "daily_sales")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class DailySales {
+
+  @Id
+  @Column(name = "sales_date")
+  private LocalDate salesDate;
+
+  @Column(name = "total_sales",
+          nullable = false,
+          precision = 14,
+          scale = 2)
+  private BigDecimal totalSales;
+
+  @Column(name = "order_count",
+          nullable = false)
+  private Long orderCount;
+}
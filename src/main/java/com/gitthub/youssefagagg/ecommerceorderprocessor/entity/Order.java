@@ -17,6 +17,7 @@ import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -76,39 +77,65 @@ public class Order extends AbstractAuditingEntity {
   private String idempotencyKey;
 
   /**
-   * Update order status and trigger appropriate actions.
+   * Move the order to a new status, if the lifecycle allows it.
    *
    * @param newStatus the new status
+   * @return {@code true} if the status was changed, {@code false} if the transition is not allowed
    */
-  public void updateStatus(OrderStatus newStatus) {
-    // Don't allow status changes from CANCELLED
-    if (this.status == OrderStatus.CANCELLED) {
-      return;
+  public boolean updateStatus(OrderStatus newStatus) {
+    if (!isTransitionAllowed(this.status, newStatus)) {
+      return false;
     }
-
-    // Don't allow going back to earlier statuses
-    if (isStatusRegression(newStatus)) {
-      return;
-    }
-
     this.status = newStatus;
+    return true;
   }
 
-  private boolean isStatusRegression(OrderStatus newStatus) {
-    // Define the order of statuses
-    List<OrderStatus> statusOrder = List.of(
-        OrderStatus.PENDING,
-        OrderStatus.PAID,
-        OrderStatus.PROCESSING,
-        OrderStatus.SHIPPED,
-        OrderStatus.DELIVERED
-                                           );
+  /**
+   * Whether an order may move from one status to another.
+   *
+   * @param currentStatus the current status
+   * @param newStatus     the new status
+   * @return {@code true} if {@link #updateStatus(OrderStatus)} would apply the new status
+   * @see OrderStatus#canTransitionTo(OrderStatus)
+   */
+  public static boolean isTransitionAllowed(OrderStatus currentStatus, OrderStatus newStatus) {
+    return currentStatus != null && currentStatus.canTransitionTo(newStatus);
+  }
 
-    int currentIndex = statusOrder.indexOf(this.status);
-    int newIndex = statusOrder.indexOf(newStatus);
+  /**
+   * The status the items of this order put it in. The order is cancelled once every item is
+   * cancelled; otherwise it is delivered once every remaining item is delivered, shipped once every
+   * remaining item has shipped, and processing once any item has been picked.
+   *
+   * @return the status, or empty if the order has no items or none has moved past
+   *     {@link OrderItemStatus#RESERVED}
+   */
+  public Optional<OrderStatus> statusFromItems() {
+    boolean allCancelled = !orderItems.isEmpty();
+    boolean allDelivered = true;
+    boolean allShipped = true;
+    boolean anyMoved = false;
+    for (OrderItem item : orderItems) {
+      OrderItemStatus itemStatus = item.getStatus();
+      if (itemStatus == OrderItemStatus.CANCELLED) {
+        continue;
+      }
+      allCancelled = false;
+      allDelivered &= itemStatus == OrderItemStatus.DELIVERED;
+      allShipped &= itemStatus.isShipped();
+      anyMoved |= itemStatus != OrderItemStatus.RESERVED;
+    }
 
-    // If either status is not in the list or new status comes before current
-    return currentIndex == -1 || newIndex == -1 || newIndex < currentIndex;
+    if (allCancelled) {
+      return Optional.of(OrderStatus.CANCELLED);
+    }
+    if (!anyMoved) {
+      return Optional.empty();
+    }
+    if (allDelivered) {
+      return Optional.of(OrderStatus.DELIVERED);
+    }
+    return Optional.of(allShipped ? OrderStatus.SHIPPED : OrderStatus.PROCESSING);
   }
 
   public Order cloneObject() {
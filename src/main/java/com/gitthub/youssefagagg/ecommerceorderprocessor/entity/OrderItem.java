@@ -3,6 +3,8 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -14,6 +16,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -64,6 +67,19 @@ public class OrderItem extends AbstractAuditingEntity {
           scale = 2)
   private BigDecimal price;
 
+  /**
+   * Fulfilment status of the item. It is written when the item is created and changed only by the
+   * set-based updates of {@code OrderItemRepository}, which move the inventory in the same
+   * statement, so Hibernate never writes it back.
+   */
+  @NotNull
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status",
+          nullable = false,
+          updatable = false)
+  @Builder.Default
+  private OrderItemStatus status = OrderItemStatus.RESERVED;
+
   /**
    * Calculate the subtotal for this order item.
    *
@@ -0,0 +1,114 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Enumeration of order item statuses.
+ *
+ * <p></p>
+ * Every item of an order moves on its own, so an order can be shipped in several parts. A new item
+ * is {@code RESERVED} and moves forward through {@code PICKED} and {@code SHIPPED} to
+ * {@code DELIVERED}, possibly skipping steps, and can be cancelled until it has shipped. The item
+ * holds its inventory reservation until it is delivered, which ships the reserved stock, or
+ * cancelled, which releases it. Like {@link OrderStatus}, the allowed transitions are computed once
+ * into a table indexed by ordinal.
+ */
+public enum OrderItemStatus {
+  RESERVED,
+  PICKED,
+  SHIPPED,
+  DELIVERED,
+  CANCELLED;
+
+  private static final OrderItemStatus[] VALUES = values();
+
+  /**
+   * {@code TRANSITIONS[from.ordinal()][to.ordinal()]} tells whether {@code from} may move to
+   * {@code to}.
+   */
+  private static final boolean[][] TRANSITIONS = new boolean[VALUES.length][VALUES.length];
+
+  private static final List<Set<OrderItemStatus>> ALLOWED_TRANSITIONS;
+
+  static {
+    allow(RESERVED, PICKED, SHIPPED, DELIVERED, CANCELLED);
+    allow(PICKED, SHIPPED, DELIVERED, CANCELLED);
+    allow(SHIPPED, DELIVERED);
+
+    ALLOWED_TRANSITIONS = Arrays.stream(VALUES)
+                                .map(from -> {
+                                  Set<OrderItemStatus> targets =
+                                      EnumSet.noneOf(OrderItemStatus.class);
+                                  for (OrderItemStatus to : VALUES) {
+                                    if (TRANSITIONS[from.ordinal()][to.ordinal()]) {
+                                      targets.add(to);
+                                    }
+                                  }
+                                  return Collections.unmodifiableSet(targets);
+                                })
+                                .toList();
+  }
+
+  private static void allow(OrderItemStatus from, OrderItemStatus... targets) {
+    for (OrderItemStatus to : targets) {
+      TRANSITIONS[from.ordinal()][to.ordinal()] = true;
+    }
+  }
+
+  /**
+   * Whether an item in this status may move to the given status. Staying in the same status is not
+   * a transition.
+   *
+   * @param target the new status
+   * @return {@code true} if the transition is allowed
+   */
+  public boolean canTransitionTo(OrderItemStatus target) {
+    return target != null && TRANSITIONS[ordinal()][target.ordinal()];
+  }
+
+  /**
+   * The statuses an item in this status may move to.
+   *
+   * @return the allowed target statuses, empty for terminal statuses
+   */
+  public Set<OrderItemStatus> allowedTransitions() {
+    return ALLOWED_TRANSITIONS.get(ordinal());
+  }
+
+  /**
+   * Whether items in this status still hold their inventory reservation.
+   *
+   * @return {@code true} until the item is delivered or cancelled
+   */
+  public boolean holdsReservation() {
+    return this == RESERVED || this == PICKED || this == SHIPPED;
+  }
+
+  /**
+   * Whether items in this status have left the warehouse.
+   *
+   * @return {@code true} for {@code SHIPPED} and {@code DELIVERED}
+   */
+  public boolean isShipped() {
+    return this == SHIPPED || this == DELIVERED;
+  }
+
+  /**
+   * The status the items of an order take when the whole order enters the given status.
+   *
+   * @param status the order status
+   * @return the item status, or {@code null} if the order status does not move its items
+   */
+  public static OrderItemStatus forOrderStatus(OrderStatus status) {
+    return switch (status) {
+      case SHIPPED -> SHIPPED;
+      case DELIVERED -> DELIVERED;
+      case CANCELLED -> CANCELLED;
+      default -> null;
+    };
+  }
+}
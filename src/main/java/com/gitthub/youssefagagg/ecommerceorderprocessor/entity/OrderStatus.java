@@ -1,7 +1,20 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Enumeration of order statuses.
+ *
+ * <p></p>
+ * The statuses form the order lifecycle: an order moves forward from {@code PENDING} through
+ * {@code PAID}, {@code PROCESSING} and {@code SHIPPED} to {@code DELIVERED}, possibly skipping
+ * steps, and can be cancelled until it has shipped. {@code DELIVERED} and {@code CANCELLED} are
+ * terminal. The allowed transitions are computed once into a table indexed by ordinal, so checking
+ * a transition does not allocate.
  */
 public enum OrderStatus {
   PENDING,
@@ -9,5 +22,100 @@ public enum OrderStatus {
   PROCESSING,
   SHIPPED,
   DELIVERED,
-  CANCELLED
-}
\ No newline at end of file
+  CANCELLED;
+
+  private static final OrderStatus[] VALUES = values();
+
+  /**
+   * {@code TRANSITIONS[from.ordinal()][to.ordinal()]} tells whether {@code from} may move to
+   * {@code to}.
+   */
+  private static final boolean[][] TRANSITIONS = new boolean[VALUES.length][VALUES.length];
+
+  private static final List<Set<OrderStatus>> ALLOWED_TRANSITIONS;
+
+  static {
+    allow(PENDING, PAID, PROCESSING, SHIPPED, DELIVERED, CANCELLED);
+    allow(PAID, PROCESSING, SHIPPED, DELIVERED, CANCELLED);
+    allow(PROCESSING, SHIPPED, DELIVERED, CANCELLED);
+    allow(SHIPPED, DELIVERED);
+
+    ALLOWED_TRANSITIONS = Arrays.stream(VALUES)
+                                .map(from -> {
+                                  Set<OrderStatus> targets = EnumSet.noneOf(OrderStatus.class);
+                                  for (OrderStatus to : VALUES) {
+                                    if (TRANSITIONS[from.ordinal()][to.ordinal()]) {
+                                      targets.add(to);
+                                    }
+                                  }
+                                  return Collections.unmodifiableSet(targets);
+                                })
+                                .toList();
+  }
+
+  private static void allow(OrderStatus from, OrderStatus... targets) {
+    for (OrderStatus to : targets) {
+      TRANSITIONS[from.ordinal()][to.ordinal()] = true;
+    }
+  }
+
+  /**
+   * Whether an order in this status may move to the given status. Staying in the same status is not
+   * a transition.
+   *
+   * @param target the new status
+   * @return {@code true} if the transition is allowed
+   */
+  public boolean canTransitionTo(OrderStatus target) {
+    return target != null && TRANSITIONS[ordinal()][target.ordinal()];
+  }
+
+  /**
+   * The statuses an order in this status may move to.
+   *
+   * @return the allowed target statuses, empty for terminal statuses
+   */
+  public Set<OrderStatus> allowedTransitions() {
+    return ALLOWED_TRANSITIONS.get(ordinal());
+  }
+
+  /**
+   * Whether orders in this status can no longer change.
+   *
+   * @return {@code true} for {@code DELIVERED} and {@code CANCELLED}
+   */
+  public boolean isTerminal() {
+    return allowedTransitions().isEmpty();
+  }
+
+  /**
+   * Whether orders in this status count towards sales reports.
+   *
+   * @return {@code true} for paid orders that have not been cancelled
+   */
+  public boolean isCountedAsSale() {
+    return this == PAID || this == PROCESSING || this == SHIPPED || this == DELIVERED;
+  }
+
+  /**
+   * The statuses counted towards sales reports.
+   *
+   * @return the statuses
+   */
+  public static List<OrderStatus> countedAsSale() {
+    return Arrays.stream(values())
+                 .filter(OrderStatus::isCountedAsSale)
+                 .toList();
+  }
+
+  /**
+   * Names of the statuses counted towards sales reports, for use in native queries.
+   *
+   * @return the status names
+   */
+  public static List<String> countedAsSaleNames() {
+    return countedAsSale().stream()
+                          .map(Enum::name)
+                          .toList();
+  }
+}
@@ -0,0 +1,66 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * An order accepted through the asynchronous submission mode and waiting to be processed. The
+ * order itself already exists in PENDING status; the row holds the requested items until a worker
+ * claims it and is deleted once the order has been processed or rejected.
+ */
+@Entity
+@Table(name = "order_submissions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class OrderSubmission {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "order_id",
+          nullable = false,
+          unique = true)
+  private Long orderId;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(name = "items",
+          nullable = false)
+  private List<OrderItemDTO> items;
+
+  @Builder.Default
+  @Column(name = "attempts",
+          nullable = false)
+  private int attempts = 0;
+
+  @Column(name = "available_at",
+          nullable = false)
+  private Instant availableAt;
+
+  @Column(name = "last_error",
+          length = 500)
+  private String lastError;
+
+  @Column(name = "created_date",
+          nullable = false)
+  private Instant createdDate;
+}
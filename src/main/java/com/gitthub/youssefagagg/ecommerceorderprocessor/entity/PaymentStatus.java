@@ -1,10 +1,16 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.entity;
 
 /**
- * Enumeration of payment statuses.
+ * Enumeration of payment statuses. A payment moves from PENDING to AUTHORIZED once the gateway holds
+ * the amount, and to COMPLETED once it is captured. When its order is cancelled before the payment
+ * was applied to it, the payment moves to REFUND_PENDING until the gateway has returned the amount,
+ * and then to REFUNDED.
  */
 public enum PaymentStatus {
   PENDING,
+  AUTHORIZED,
   COMPLETED,
-  FAILED
-}
\ No newline at end of file
+  FAILED,
+  REFUND_PENDING,
+  REFUNDED
+}
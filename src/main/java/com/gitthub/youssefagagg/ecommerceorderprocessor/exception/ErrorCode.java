@@ -4,6 +4,7 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.exception;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
@@ -84,6 +85,15 @@ public enum ErrorCode {
   OPTIMISTIC_LOCKING_ERROR("409001",
                            "error.optimistic.locking",
                            CONFLICT),
+  INVALID_STATUS_TRANSITION("409002",
+                            "error.invalid.status.transition",
+                            CONFLICT),
+  DUPLICATE_ORDER("409003",
+                  "error.duplicate.order",
+                  CONFLICT),
+  CHECKOUT_REJECTED("409004",
+                    "error.checkout.rejected",
+                    CONFLICT),
 
   // global error
   GLOBAL_ERROR("500001",
@@ -92,6 +102,9 @@ public enum ErrorCode {
   ENTITY_NOT_FOUND("500002",
                    "error.entity.not.found",
                    NOT_FOUND),
+  DEADLINE_EXCEEDED("504001",
+                    "error.deadline.exceeded",
+                    GATEWAY_TIMEOUT),
 
   // custom errors
 
@@ -0,0 +1,40 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.exception.handler;
+
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.response.ApiErrorResponse;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Handles the timeouts raised when a request runs out of time in the database, either a
+ * {@link TransactionTimedOutException} or a {@link QueryTimeoutException}, by implementing the
+ * {@link ApiExceptionHandler} interface.
+ *
+ * <p></p>
+ * Transactions and statements are bounded by the {@link RequestDeadline} of the request, so these
+ * timeouts usually mean the client is no longer waiting. They are answered with a
+ * {@link ErrorCode#DEADLINE_EXCEEDED} error, the same as pipeline stages refused after the deadline.
+ */
+@Component
+public class DeadlineExceededApiExceptionHandler implements ApiExceptionHandler {
+
+
+  @Override
+  public boolean canHandle(Throwable exception) {
+    return exception instanceof TransactionTimedOutException
+           || exception instanceof QueryTimeoutException;
+  }
+
+  @Override
+  public ApiErrorResponse handle(Throwable exception) {
+    var errorCode = ErrorCode.DEADLINE_EXCEEDED;
+    return new ApiErrorResponse(errorCode.getHttpCode(),
+                                errorCode.getCode(),
+                                errorCode.name(),
+                                errorCode.getMessage(),
+                                exception.getMessage());
+  }
+}
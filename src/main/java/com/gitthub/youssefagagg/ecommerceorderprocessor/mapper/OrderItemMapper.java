@@ -37,6 +37,8 @@ public interface OrderItemMapper extends EntityMapper<OrderItemDTO, OrderItem> {
            ignore = true)
   @Mapping(target = "product",
            ignore = true)
+  @Mapping(target = "status",
+           ignore = true)
   OrderItem toEntity(OrderItemDTO orderItemDTO);
 
   /**
@@ -52,6 +54,8 @@ public interface OrderItemMapper extends EntityMapper<OrderItemDTO, OrderItem> {
            ignore = true)
   @Mapping(target = "product",
            ignore = true)
+  @Mapping(target = "status",
+           ignore = true)
   void partialUpdate(@MappingTarget OrderItem orderItem, OrderItemDTO orderItemDTO);
 
   /**
@@ -0,0 +1,34 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
+
+/**
+ * The outcome of a payment gateway call.
+ *
+ * @param approved  whether the gateway approved the call
+ * @param reference the gateway's reference for the authorization or capture, when approved
+ * @param message   why the call was declined, when it was not approved
+ */
+public record GatewayResponse(
+    boolean approved,
+    String reference,
+    String message) {
+
+  /**
+   * An approved response.
+   *
+   * @param reference the gateway reference
+   * @return the response
+   */
+  public static GatewayResponse approved(String reference) {
+    return new GatewayResponse(true, reference, null);
+  }
+
+  /**
+   * A declined response.
+   *
+   * @param message why the call was declined
+   * @return the response
+   */
+  public static GatewayResponse declined(String message) {
+    return new GatewayResponse(false, null, message);
+  }
+}
@@ -0,0 +1,16 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
+
+import java.math.BigDecimal;
+
+/**
+ * A request to authorize a payment.
+ *
+ * @param idempotencyKey identifies the payment at the gateway, so a retried call is not charged twice
+ * @param amount         the amount to authorize
+ * @param paymentMethod  the payment method
+ */
+public record PaymentAuthorization(
+    String idempotencyKey,
+    BigDecimal amount,
+    String paymentMethod) {
+}
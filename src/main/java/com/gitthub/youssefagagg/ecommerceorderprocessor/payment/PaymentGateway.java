@@ -0,0 +1,56 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
+
+import java.math.BigDecimal;
+
+/**
+ * Service provider interface for payment gateways.
+ *
+ * <p></p>
+ * Payments are taken in two phases: the amount is first authorized (held on the customer's payment
+ * method) and then captured. Implementations must be safe to call again with the same arguments:
+ * {@link PaymentGatewayClient} retries calls that fail with a {@link PaymentGatewayException}, so an
+ * authorization is identified by its idempotency key and a capture, void or refund by the
+ * authorization reference. A declined payment is a normal response, not an exception, and is never
+ * retried.
+ */
+public interface PaymentGateway {
+
+  /**
+   * Hold the amount on the customer's payment method.
+   *
+   * @param authorization the authorization request
+   * @return the response, whose reference identifies the authorization when approved
+   * @throws PaymentGatewayException if the gateway could not be reached or failed
+   */
+  GatewayResponse authorize(PaymentAuthorization authorization);
+
+  /**
+   * Capture a previously authorized amount.
+   *
+   * @param authorizationReference the reference returned by {@link #authorize}
+   * @param amount                 the amount to capture
+   * @return the response, whose reference identifies the capture when approved
+   * @throws PaymentGatewayException if the gateway could not be reached or failed
+   */
+  GatewayResponse capture(String authorizationReference, BigDecimal amount);
+
+  /**
+   * Release a previously authorized amount that will not be captured.
+   *
+   * @param authorizationReference the reference returned by {@link #authorize}
+   * @return the response
+   * @throws PaymentGatewayException if the gateway could not be reached or failed
+   */
+  GatewayResponse voidAuthorization(String authorizationReference);
+
+  /**
+   * Return the amount of an authorization to the customer: a captured amount is refunded and an
+   * amount that was only authorized is released.
+   *
+   * @param authorizationReference the reference returned by {@link #authorize}
+   * @param amount                 the amount to return
+   * @return the response
+   * @throws PaymentGatewayException if the gateway could not be reached or failed
+   */
+  GatewayResponse refund(String authorizationReference, BigDecimal amount);
+}
@@ -0,0 +1,287 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.PaymentGatewayConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.CircuitBreaker;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calls the configured {@link PaymentGateway} with timeouts, retries and a circuit breaker.
+ *
+ * <p></p>
+ * Each call runs on the payment executor, whose bulkhead limits how many gateway calls are in
+ * flight, and the caller waits at most {@code payment.gateway.timeout} from the moment the call
+ * starts. Time spent queued for the bulkhead does not count towards the timeout; it is bounded by
+ * the request deadline, if any, and a call abandoned in the queue is never made. When the bulkhead
+ * queue is full the call fails at once. A call that fails or times out is retried with exponential
+ * backoff up to {@code max-attempts}; the gateway's idempotency keys make this safe. Every call
+ * that reached the gateway is reported to a circuit breaker, and while the breaker is open calls
+ * fail immediately. Callers must not hold a database transaction while calling the gateway.
+ */
+@Component
+@Slf4j
+public class PaymentGatewayClient {
+
+  private final PaymentGateway gateway;
+  private final Executor executor;
+  private final CircuitBreaker circuitBreaker;
+  private final Duration timeout;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final MeterRegistry meterRegistry;
+  private final Counter retriesCounter;
+
+  public PaymentGatewayClient(
+      PaymentGateway gateway,
+      PaymentGatewayConfig config,
+      MeterRegistry meterRegistry,
+      @Qualifier("paymentExecutor") Executor executor) {
+    this.gateway = gateway;
+    this.executor = executor;
+    this.timeout = config.getTimeout();
+    this.maxAttempts = Math.max(1, config.getMaxAttempts());
+    this.retryBackoff = config.getRetryBackoff();
+    this.meterRegistry = meterRegistry;
+
+    PaymentGatewayConfig.CircuitBreakerProperties breaker = config.getCircuitBreaker();
+    this.circuitBreaker = new CircuitBreaker("payment-gateway",
+                                             breaker.getFailureRateThreshold(),
+                                             breaker.getSlidingWindowSize(),
+                                             breaker.getMinimumCalls(),
+                                             breaker.getOpenDuration(),
+                                             breaker.getHalfOpenCalls());
+    this.circuitBreaker.bindTo(meterRegistry);
+    this.retriesCounter = Counter.builder("payment.gateway.retries")
+                                 .description("Gateway calls attempted again after a failure")
+                                 .register(meterRegistry);
+  }
+
+  /**
+   * Authorize a payment.
+   *
+   * @param authorization the authorization request
+   * @return the gateway response
+   * @throws PaymentGatewayException if every attempt failed or the circuit breaker is open
+   */
+  public GatewayResponse authorize(PaymentAuthorization authorization) {
+    return call("authorize", () -> gateway.authorize(authorization));
+  }
+
+  /**
+   * Capture an authorized payment.
+   *
+   * @param authorizationReference the authorization reference
+   * @param amount                 the amount to capture
+   * @return the gateway response
+   * @throws PaymentGatewayException if every attempt failed or the circuit breaker is open
+   */
+  public GatewayResponse capture(String authorizationReference, BigDecimal amount) {
+    return call("capture", () -> gateway.capture(authorizationReference, amount));
+  }
+
+  /**
+   * Release an authorized payment.
+   *
+   * @param authorizationReference the authorization reference
+   * @return the gateway response
+   * @throws PaymentGatewayException if every attempt failed or the circuit breaker is open
+   */
+  public GatewayResponse voidAuthorization(String authorizationReference) {
+    return call("void", () -> gateway.voidAuthorization(authorizationReference));
+  }
+
+  /**
+   * Return the amount of an authorization to the customer.
+   *
+   * @param authorizationReference the authorization reference
+   * @param amount                 the amount to return
+   * @return the gateway response
+   * @throws PaymentGatewayException if every attempt failed or the circuit breaker is open
+   */
+  public GatewayResponse refund(String authorizationReference, BigDecimal amount) {
+    return call("refund", () -> gateway.refund(authorizationReference, amount));
+  }
+
+  /**
+   * The breaker guarding the gateway.
+   *
+   * @return the circuit breaker
+   */
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  private GatewayResponse call(String operation, Supplier<GatewayResponse> call) {
+    PaymentGatewayException failure = null;
+    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+      if (attempt > 1) {
+        retriesCounter.increment();
+        backoff(attempt - 1, failure);
+      }
+      if (!circuitBreaker.tryAcquirePermission()) {
+        record(operation, "not-permitted", 0);
+        throw new PaymentGatewayException(
+            "Payment gateway is unavailable, circuit breaker is " + circuitBreaker.getState());
+      }
+
+      Attempt task = new Attempt(call);
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        circuitBreaker.releasePermission();
+        record(operation, "rejected", 0);
+        throw new PaymentGatewayException(
+            "Payment gateway " + operation + " rejected, too many calls in flight", e);
+      }
+      try {
+        if (!task.awaitStart(RequestDeadline.current())) {
+          circuitBreaker.releasePermission();
+          record(operation, "rejected", 0);
+          throw new PaymentGatewayException(
+              "Payment gateway " + operation + " still queued at the request deadline");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        if (task.abandon()) {
+          circuitBreaker.releasePermission();
+        } else {
+          circuitBreaker.onFailure();
+        }
+        throw new PaymentGatewayException("Interrupted while waiting for the payment gateway", e);
+      }
+
+      long start = task.startedAt();
+      try {
+        GatewayResponse response = task.result().get(
+            Math.max(0, start + timeout.toNanos() - System.nanoTime()), TimeUnit.NANOSECONDS);
+        circuitBreaker.onSuccess();
+        String outcome = response.approved() ? "approved" : "declined";
+        record(operation, outcome, System.nanoTime() - start);
+        return response;
+      } catch (TimeoutException e) {
+        circuitBreaker.onFailure();
+        record(operation, "timeout", System.nanoTime() - start);
+        failure = new PaymentGatewayException(
+            "Payment gateway " + operation + " timed out after " + timeout, e);
+      } catch (ExecutionException e) {
+        circuitBreaker.onFailure();
+        record(operation, "error", System.nanoTime() - start);
+        failure = e.getCause() instanceof PaymentGatewayException gatewayException
+                  ? gatewayException
+                  : new PaymentGatewayException("Payment gateway " + operation + " failed",
+                                                e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        circuitBreaker.onFailure();
+        throw new PaymentGatewayException("Interrupted while waiting for the payment gateway", e);
+      }
+      log.warn("Payment gateway {} attempt {} of {} failed: {}", operation, attempt, maxAttempts,
+               failure.getMessage());
+    }
+    throw failure;
+  }
+
+  private void backoff(int retry, PaymentGatewayException failure) {
+    try {
+      Thread.sleep(retryBackoff.multipliedBy(1L << (retry - 1)));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw failure;
+    }
+  }
+
+  private void record(String operation, String outcome, long durationNanos) {
+    Timer.builder("payment.gateway.calls")
+         .description("Payment gateway calls")
+         .tag("operation", operation)
+         .tag("outcome", outcome)
+         .register(meterRegistry)
+         .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * One attempt at a gateway call, which records when it leaves the bulkhead queue and is skipped
+   * if the caller has abandoned it by then.
+   */
+  private static final class Attempt implements Runnable {
+
+    private final Supplier<GatewayResponse> call;
+    private final CompletableFuture<GatewayResponse> result = new CompletableFuture<>();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile long startedAt;
+
+    Attempt(Supplier<GatewayResponse> call) {
+      this.call = call;
+    }
+
+    @Override
+    public void run() {
+      if (!claimed.compareAndSet(false, true)) {
+        return;
+      }
+      startedAt = System.nanoTime();
+      started.countDown();
+      try {
+        result.complete(call.get());
+      } catch (Throwable e) {
+        result.completeExceptionally(e);
+      }
+    }
+
+    /**
+     * Wait until the call has started, or abandon it once the deadline has passed.
+     *
+     * @param deadline the deadline, or {@code null} to wait until the call starts
+     * @return {@code true} if the call has started, {@code false} if it was abandoned
+     */
+    boolean awaitStart(RequestDeadline deadline) throws InterruptedException {
+      if (deadline == null) {
+        started.await();
+        return true;
+      }
+      if (started.await(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)) {
+        return true;
+      }
+      if (abandon()) {
+        return false;
+      }
+      // The call started just as the deadline passed
+      started.await();
+      return true;
+    }
+
+    /**
+     * Abandon the call if it has not started.
+     *
+     * @return {@code true} if the call will never be made
+     */
+    boolean abandon() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    long startedAt() {
+      return startedAt;
+    }
+
+    CompletableFuture<GatewayResponse> result() {
+      return result;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
+
+/**
+ * Thrown when a payment gateway call fails without an answer from the gateway, for example because
+ * it timed out, the gateway returned a server error or the circuit breaker is open. The outcome of
+ * the call is unknown, so it may be retried.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+  public PaymentGatewayException(String message) {
+    super(message);
+  }
+
+  public PaymentGatewayException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
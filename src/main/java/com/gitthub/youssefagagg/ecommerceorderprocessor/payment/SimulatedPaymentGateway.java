@@ -0,0 +1,81 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.PaymentGatewayConfig;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * A {@link PaymentGateway} that approves payments locally, for development and load tests.
+ *
+ * <p></p>
+ * Every call sleeps for the configured latency plus a random jitter, fails with a
+ * {@link PaymentGatewayException} at the configured failure rate, and authorizations are declined
+ * at the configured decline rate, so timeouts, retries and the circuit breaker can be exercised
+ * without a real gateway.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.gateway",
+                       name = "provider",
+                       havingValue = "simulator",
+                       matchIfMissing = true)
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+  private final PaymentGatewayConfig.SimulatorProperties config;
+
+  public SimulatedPaymentGateway(PaymentGatewayConfig config) {
+    this.config = config.getSimulator();
+  }
+
+  @Override
+  public GatewayResponse authorize(PaymentAuthorization authorization) {
+    simulateCall("authorize");
+    if (ThreadLocalRandom.current().nextDouble() < config.getDeclineRate()) {
+      log.debug("Simulated gateway declined payment {}", authorization.idempotencyKey());
+      return GatewayResponse.declined("Payment declined by the issuer");
+    }
+    return GatewayResponse.approved("auth_" + UUID.randomUUID());
+  }
+
+  @Override
+  public GatewayResponse capture(String authorizationReference, BigDecimal amount) {
+    simulateCall("capture");
+    return GatewayResponse.approved("capture_" + UUID.randomUUID());
+  }
+
+  @Override
+  public GatewayResponse voidAuthorization(String authorizationReference) {
+    simulateCall("void");
+    return GatewayResponse.approved(authorizationReference);
+  }
+
+  @Override
+  public GatewayResponse refund(String authorizationReference, BigDecimal amount) {
+    simulateCall("refund");
+    return GatewayResponse.approved("refund_" + UUID.randomUUID());
+  }
+
+  private void simulateCall(String operation) {
+    long latency = config.getLatency().toMillis();
+    long jitter = config.getLatencyJitter().toMillis();
+    if (jitter > 0) {
+      latency += ThreadLocalRandom.current().nextLong(jitter + 1);
+    }
+    if (latency > 0) {
+      try {
+        Thread.sleep(Duration.ofMillis(latency));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new PaymentGatewayException("Simulated " + operation + " was interrupted", e);
+      }
+    }
+    if (ThreadLocalRandom.current().nextDouble() < config.getFailureRate()) {
+      throw new PaymentGatewayException("Simulated gateway failure during " + operation);
+    }
+  }
+}
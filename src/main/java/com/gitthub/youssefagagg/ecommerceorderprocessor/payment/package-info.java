@@ -0,0 +1,5 @@
+/**
+ * Payment gateway integration.
+ */
+
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
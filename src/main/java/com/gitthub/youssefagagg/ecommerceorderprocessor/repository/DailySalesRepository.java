@@ -0,0 +1,118 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.DailySales;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link DailySales} rollup.
+ *
+ * <p></p>
+ * Orders are bucketed by the date of their {@code created_date} in the reporting zone.
+ * {@code created_date} is stored without a time zone in the session's zone, so it is converted with
+ * {@code CAST(created_date AS timestamptz) AT TIME ZONE :zone} before taking the date.
+ */
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+  /**
+   * Find the rollup rows of a date range that have counted orders.
+   *
+   * @param startDate  the first day, inclusive
+   * @param endDate    the last day, inclusive
+   * @param orderCount rows with at most this many orders are skipped
+   * @return the rows ordered by day
+   */
+  List<DailySales> findBySalesDateBetweenAndOrderCountGreaterThanOrderBySalesDateAsc(
+      LocalDate startDate, LocalDate endDate, Long orderCount);
+
+  /**
+   * Add (or, with a negative sign, subtract) the given orders to their sales days. Pending changes
+   * are flushed first so the current amounts of the orders are used.
+   *
+   * @param orderIds the order IDs
+   * @param sign     {@code 1} to add the orders, {@code -1} to remove them
+   * @param zone     the reporting zone ID
+   * @return the number of rollup rows touched
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "INSERT INTO daily_sales (sales_date, total_sales, order_count) "
+                 + "SELECT CAST(CAST(o.created_date AS timestamptz) AT TIME ZONE :zone AS date), "
+                 + "       :sign * SUM(o.total_amount), :sign * COUNT(*) "
+                 + "FROM orders o WHERE o.id IN (:orderIds) "
+                 + "GROUP BY 1 "
+                 + "ON CONFLICT (sales_date) DO UPDATE "
+                 + "SET total_sales = daily_sales.total_sales + EXCLUDED.total_sales, "
+                 + "    order_count = daily_sales.order_count + EXCLUDED.order_count",
+         nativeQuery = true)
+  int applyDelta(@Param("orderIds") Collection<Long> orderIds,
+                 @Param("sign") int sign,
+                 @Param("zone") String zone);
+
+  /**
+   * Block incremental updates of the rollup until the current transaction ends, so a rebuild does
+   * not race with status changes being folded in concurrently.
+   */
+  @Modifying
+  @Query(value = "LOCK TABLE daily_sales IN SHARE ROW EXCLUSIVE MODE",
+         nativeQuery = true)
+  void lockForRebuild();
+
+  /**
+   * Block incremental updates of the rollup until the current transaction ends, unless another
+   * transaction already does.
+   *
+   * @throws org.springframework.dao.PessimisticLockingFailureException if the rollup is locked
+   */
+  @Modifying
+  @Query(value = "LOCK TABLE daily_sales IN SHARE ROW EXCLUSIVE MODE NOWAIT",
+         nativeQuery = true)
+  void tryLockForRebuild();
+
+  /**
+   * Delete the rollup rows of a date range.
+   *
+   * @param startDate the first day, inclusive
+   * @param endDate   the last day, inclusive
+   * @return the number of deleted rows
+   */
+  @Modifying
+  @Query(value = "DELETE FROM daily_sales WHERE sales_date BETWEEN :startDate AND :endDate",
+         nativeQuery = true)
+  int deleteBetween(@Param("startDate") LocalDate startDate,
+                    @Param("endDate") LocalDate endDate);
+
+  /**
+   * Recompute the rollup rows of a date range from the orders table. The raw {@code created_date}
+   * range is widened by a day on each side so the index on it can be used whatever the zone.
+   *
+   * @param startDate the first day, inclusive
+   * @param endDate   the last day, inclusive
+   * @param statuses  the statuses counted as sales
+   * @param zone      the reporting zone ID
+   * @return the number of rows written
+   */
+  @Modifying
+  @Query(value = "INSERT INTO daily_sales (sales_date, total_sales, order_count) "
+                 + "SELECT d.sales_date, SUM(d.total_amount), COUNT(*) FROM ("
+                 + "  SELECT CAST(CAST(o.created_date AS timestamptz) AT TIME ZONE :zone AS date) "
+                 + "         AS sales_date, o.total_amount "
+                 + "  FROM orders o "
+                 + "  WHERE o.status IN (:statuses) "
+                 + "    AND o.created_date >= CAST(:startDate AS date) - 1 "
+                 + "    AND o.created_date < CAST(:endDate AS date) + 2"
+                 + ") d "
+                 + "WHERE d.sales_date BETWEEN :startDate AND :endDate "
+                 + "GROUP BY d.sales_date",
+         nativeQuery = true)
+  int rebuildBetween(@Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate,
+                     @Param("statuses") Collection<String> statuses,
+                     @Param("zone") String zone);
+}
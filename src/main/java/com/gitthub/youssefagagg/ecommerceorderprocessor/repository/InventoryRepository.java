@@ -2,11 +2,15 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
 
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -40,4 +44,102 @@ public interface InventoryRepository
    */
   @Query("SELECT i FROM Inventory i WHERE (i.quantity - i.reservedQuantity) < :threshold")
   List<Inventory> findLowStock(int threshold);
-}
\ No newline at end of file
+
+  /**
+   * Cancel the items of the given orders that have not shipped yet and release the quantities they
+   * reserved, with a single statement.
+   *
+   * @param orderIds the order IDs
+   * @param user     the auditor
+   * @param now      the modification date
+   * @return the number of inventory rows updated
+   */
+  @Modifying
+  @Query(value = "WITH items AS ("
+                 + "  UPDATE order_items SET status = 'CANCELLED', last_modified_by = :user, "
+                 + "         last_modified_date = :now "
+                 + "  WHERE order_id IN (:orderIds) AND status IN ('RESERVED', 'PICKED') "
+                 + "  RETURNING product_id, quantity) "
+                 + "UPDATE inventory i "
+                 + "SET reserved_quantity = GREATEST(0, i.reserved_quantity - r.quantity), "
+                 + "    version = i.version + 1, last_modified_by = :user, "
+                 + "    last_modified_date = :now "
+                 + "FROM (SELECT product_id, SUM(quantity) AS quantity FROM items "
+                 + "      GROUP BY product_id) r "
+                 + "WHERE i.product_id = r.product_id",
+         nativeQuery = true)
+  int releaseReservationsForOrders(@Param("orderIds") Collection<Long> orderIds,
+                                   @Param("user") String user, @Param("now") Instant now);
+
+  /**
+   * Lock the inventory of the products in the given orders, in product order, and find the orders
+   * with an open item of a product that has less reserved than the given orders need together.
+   * Without those orders, {@link #fulfillReservationsForOrders} cannot fall short.
+   *
+   * @param orderIds the order IDs
+   * @return the IDs of the orders that touch a product short of reserved stock
+   */
+  @Query(value = "WITH items AS ("
+                 + "  SELECT order_id, product_id, quantity FROM order_items "
+                 + "  WHERE order_id IN (:orderIds) "
+                 + "    AND status IN ('RESERVED', 'PICKED', 'SHIPPED')"
+                 + "), locked AS ("
+                 + "  SELECT product_id, reserved_quantity FROM inventory "
+                 + "  WHERE product_id IN (SELECT product_id FROM items) "
+                 + "  ORDER BY product_id FOR UPDATE"
+                 + "), short AS ("
+                 + "  SELECT r.product_id FROM items r "
+                 + "  LEFT JOIN locked l ON l.product_id = r.product_id "
+                 + "  GROUP BY r.product_id, l.reserved_quantity "
+                 + "  HAVING COALESCE(l.reserved_quantity, 0) < SUM(r.quantity)"
+                 + ") "
+                 + "SELECT DISTINCT r.order_id FROM items r "
+                 + "JOIN short s ON s.product_id = r.product_id",
+         nativeQuery = true)
+  List<Long> findOrderIdsShortOfReservation(@Param("orderIds") Collection<Long> orderIds);
+
+  /**
+   * Deliver the items of the given orders that are still open and ship the quantities they
+   * reserved, with a single statement aggregated per product. Like {@link Inventory#fulfill(int)},
+   * a product is left untouched when less is reserved than the orders need; the items are
+   * delivered regardless, so the caller must roll back when any product falls short.
+   *
+   * @param orderIds the order IDs
+   * @param user     the auditor
+   * @param now      the modification date
+   * @return the number of products with less reserved than the orders need
+   */
+  @Query(value = "WITH items AS ("
+                 + "  UPDATE order_items SET status = 'DELIVERED', last_modified_by = :user, "
+                 + "         last_modified_date = :now "
+                 + "  WHERE order_id IN (:orderIds) "
+                 + "    AND status IN ('RESERVED', 'PICKED', 'SHIPPED') "
+                 + "  RETURNING product_id, quantity"
+                 + "), needed AS ("
+                 + "  SELECT product_id, SUM(quantity) AS quantity FROM items GROUP BY product_id"
+                 + "), stock AS ("
+                 + "  UPDATE inventory i "
+                 + "  SET quantity = i.quantity - r.quantity, "
+                 + "      reserved_quantity = i.reserved_quantity - r.quantity, "
+                 + "      version = i.version + 1, last_modified_by = :user, "
+                 + "      last_modified_date = :now "
+                 + "  FROM needed r "
+                 + "  WHERE i.product_id = r.product_id AND i.reserved_quantity >= r.quantity "
+                 + "  RETURNING i.product_id"
+                 + ") "
+                 + "SELECT count(*) FROM needed r "
+                 + "WHERE NOT EXISTS (SELECT 1 FROM stock s WHERE s.product_id = r.product_id)",
+         nativeQuery = true)
+  long fulfillReservationsForOrders(@Param("orderIds") Collection<Long> orderIds,
+                                    @Param("user") String user, @Param("now") Instant now);
+
+  /**
+   * Find the inventory of every product in the given orders.
+   *
+   * @param orderIds the order IDs
+   * @return the inventory records
+   */
+  @Query("SELECT i FROM Inventory i JOIN FETCH i.product WHERE i.product.id IN "
+         + "(SELECT oi.product.id FROM OrderItem oi WHERE oi.order.id IN :orderIds)")
+  List<Inventory> findAllByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
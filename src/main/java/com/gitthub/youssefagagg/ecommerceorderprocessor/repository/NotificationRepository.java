@@ -3,6 +3,8 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Notification;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,7 +18,8 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface NotificationRepository
-    extends JpaRepository<Notification, Long>, JpaSpecificationExecutor<Notification> {
+    extends JpaRepository<Notification, Long>, JpaSpecificationExecutor<Notification>,
+    NotificationRepositoryCustom {
 
   /**
    * Find notifications by user.
@@ -54,6 +57,16 @@ public interface NotificationRepository
    */
   long countByUserAndIsReadFalse(User user);
 
+  /**
+   * Count unread notifications for several users at once.
+   *
+   * @param userIds the user IDs
+   * @return rows of {@code [userId, unreadCount]} for users having unread notifications
+   */
+  @Query("SELECT n.user.id, COUNT(n) FROM Notification n "
+         + "WHERE n.user.id IN :userIds AND n.isRead = false GROUP BY n.user.id")
+  List<Object[]> countUnreadByUserIds(Collection<Long> userIds);
+
   /**
    * Mark all notifications as read for a user.
    *
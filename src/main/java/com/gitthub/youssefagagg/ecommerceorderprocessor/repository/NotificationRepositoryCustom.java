@@ -0,0 +1,19 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PendingNotification;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Notification;
+import java.util.List;
+
+/**
+ * Custom bulk operations for the {@link Notification} entity.
+ */
+public interface NotificationRepositoryCustom {
+
+  /**
+   * Insert all notifications with a single multi-row statement.
+   *
+   * @param notifications the notifications to insert
+   * @return the generated IDs, in the same order as the given notifications
+   */
+  List<Long> insertAll(List<PendingNotification> notifications);
+}
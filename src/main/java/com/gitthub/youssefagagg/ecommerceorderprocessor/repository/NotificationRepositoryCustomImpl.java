@@ -0,0 +1,55 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PendingNotification;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link NotificationRepositoryCustom}.
+ *
+ * <p></p>
+ * Notifications use identity IDs, which prevents Hibernate from batching their inserts. The rows
+ * are therefore written with one {@code INSERT ... VALUES (...), (...) RETURNING id} statement.
+ */
+@RequiredArgsConstructor
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+  private static final String INSERT_PREFIX =
+      "INSERT INTO notifications (user_id, type, content, is_read, created_by, created_date, "
+      + "last_modified_by, last_modified_date, version) VALUES ";
+
+  private static final String ROW_VALUES = "(?, ?, ?, false, ?, ?, ?, ?, 0)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<Long> insertAll(List<PendingNotification> notifications) {
+    if (notifications.isEmpty()) {
+      return List.of();
+    }
+
+    StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+    List<Object> args = new ArrayList<>(notifications.size() * 7);
+    for (int i = 0; i < notifications.size(); i++) {
+      PendingNotification notification = notifications.get(i);
+      Timestamp createdAt = Timestamp.from(notification.createdAt());
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(ROW_VALUES);
+      args.add(notification.userId());
+      args.add(notification.type().name());
+      args.add(notification.content());
+      args.add(notification.createdBy());
+      args.add(createdAt);
+      args.add(notification.createdBy());
+      args.add(createdAt);
+    }
+    sql.append(" RETURNING id");
+
+    return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+  }
+}
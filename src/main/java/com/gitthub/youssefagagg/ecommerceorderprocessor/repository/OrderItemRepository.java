@@ -3,9 +3,14 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,7 +18,8 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface OrderItemRepository
-    extends JpaRepository<OrderItem, Long>, JpaSpecificationExecutor<OrderItem> {
+    extends JpaRepository<OrderItem, Long>, JpaSpecificationExecutor<OrderItem>,
+    OrderItemRepositoryCustom {
 
   /**
    * Find order items by order.
@@ -37,4 +43,21 @@ public interface OrderItemRepository
    * @param order the order
    */
   void deleteByOrder(Order order);
-}
\ No newline at end of file
+
+  /**
+   * Mark the items of the given orders that have not shipped yet as shipped, with a single update.
+   * Shipped items keep their reservation until they are delivered.
+   *
+   * @param orderIds the order IDs
+   * @param user     the auditor
+   * @param now      the modification date
+   * @return the number of items updated
+   */
+  @Modifying
+  @Query(value = "UPDATE order_items SET status = 'SHIPPED', last_modified_by = :user, "
+                 + "last_modified_date = :now "
+                 + "WHERE order_id IN (:orderIds) AND status IN ('RESERVED', 'PICKED')",
+         nativeQuery = true)
+  int shipItemsForOrders(@Param("orderIds") Collection<Long> orderIds,
+                         @Param("user") String user, @Param("now") Instant now);
+}
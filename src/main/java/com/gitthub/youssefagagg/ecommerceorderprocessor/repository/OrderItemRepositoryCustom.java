@@ -0,0 +1,28 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
+import java.util.Map;
+
+/**
+ * Set-based status changes for the {@link OrderItem} entity.
+ */
+public interface OrderItemRepositoryCustom {
+
+  /**
+   * Move order items to new statuses and move the inventory they hold, with one statement.
+   *
+   * <p></p>
+   * Items that are delivered ship their reserved quantity and items that are cancelled release
+   * it, aggregated per product. Each item is only updated if it is still in the status it has in
+   * memory, and the given items receive their new status.
+   *
+   * @param changes the items, as loaded, and their new statuses
+   * @throws org.springframework.dao.OptimisticLockingFailureException if an item changed status
+   *                                                                   concurrently
+   * @throws com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException
+   *     with {@code INVALID_STATUS_TRANSITION} if less stock is reserved than the delivered items
+   *     need
+   */
+  void updateStatuses(Map<OrderItem, OrderItemStatus> changes);
+}
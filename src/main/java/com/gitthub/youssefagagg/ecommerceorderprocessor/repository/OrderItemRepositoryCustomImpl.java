@@ -0,0 +1,111 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link OrderItemRepositoryCustom}.
+ *
+ * <p></p>
+ * Moving items one by one through JPA loads and saves the inventory of every item separately. The
+ * statement here updates the items from arrays of IDs and statuses and, in a data-modifying
+ * {@code WITH}, updates the inventory of every affected product once. Items are compared on their
+ * status rather than their version, so the items held by the persistence context stay current;
+ * the inventory rows it changes are evicted from the persistence context instead. Like
+ * {@link Inventory#fulfill(int)}, a product is not shipped when less is reserved than its
+ * delivered items need; the statement reports the products that fell short, and the change is
+ * rejected so that the transaction rolls back the items it moved.
+ */
+@RequiredArgsConstructor
+public class OrderItemRepositoryCustomImpl implements OrderItemRepositoryCustom {
+
+  private static final String UPDATE_STATUSES =
+      "WITH changes (item_id, from_status, to_status) AS ("
+      + "  SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[])"
+      + "), items AS ("
+      + "  UPDATE order_items oi SET status = c.to_status, last_modified_by = ?, "
+      + "         last_modified_date = ? "
+      + "  FROM changes c "
+      + "  WHERE oi.id = c.item_id AND oi.status = c.from_status "
+      + "  RETURNING oi.product_id, oi.quantity, c.to_status"
+      + "), moved AS ("
+      + "  SELECT product_id, "
+      + "         COALESCE(SUM(quantity) FILTER (WHERE to_status = 'DELIVERED'), 0) AS shipped, "
+      + "         SUM(quantity) AS released "
+      + "  FROM items WHERE to_status IN ('DELIVERED', 'CANCELLED') GROUP BY product_id"
+      + "), stock AS ("
+      + "  UPDATE inventory i SET quantity = i.quantity - m.shipped, "
+      + "         reserved_quantity = GREATEST(0, i.reserved_quantity - m.released), "
+      + "         version = i.version + 1, last_modified_by = ?, last_modified_date = ? "
+      + "  FROM moved m WHERE i.product_id = m.product_id AND i.reserved_quantity >= m.shipped "
+      + "  RETURNING i.product_id"
+      + ") "
+      + "SELECT (SELECT count(*) FROM items), "
+      + "       (SELECT count(*) FROM moved m WHERE m.shipped > 0 "
+      + "          AND NOT EXISTS (SELECT 1 FROM stock s WHERE s.product_id = m.product_id))";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
+
+  @Override
+  public void updateStatuses(Map<OrderItem, OrderItemStatus> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    Long[] ids = new Long[changes.size()];
+    String[] fromStatuses = new String[changes.size()];
+    String[] toStatuses = new String[changes.size()];
+    int i = 0;
+    for (Map.Entry<OrderItem, OrderItemStatus> change : changes.entrySet()) {
+      ids[i] = change.getKey().getId();
+      fromStatuses[i] = change.getKey().getStatus().name();
+      toStatuses[i] = change.getValue().name();
+      i++;
+    }
+
+    // The statement reads the reservations, so pending changes to them must be written first
+    entityManager.flush();
+
+    String auditor = SecurityUtils.getCurrentUserUserName().orElse("system");
+    Timestamp now = Timestamp.from(Instant.now());
+    long[] counts = jdbcTemplate.queryForObject(
+        UPDATE_STATUSES, (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)},
+        ids, fromStatuses, toStatuses, auditor, now, auditor, now);
+    List<Long> itemIds = changes.keySet().stream().map(OrderItem::getId).toList();
+    if (counts == null || counts[0] != changes.size()) {
+      throw new OptimisticLockingFailureException(
+          "Order items " + itemIds + " were updated concurrently");
+    }
+    if (counts[1] > 0) {
+      throw new CustomException(ErrorCode.INVALID_STATUS_TRANSITION,
+                                "Cannot deliver order items " + itemIds
+                                + ": less stock is reserved than they need");
+    }
+
+    changes.forEach((item, status) -> {
+      item.setStatus(status);
+      if (!status.holdsReservation()) {
+        evict(item.getProduct().getInventory());
+      }
+    });
+  }
+
+  private void evict(Inventory inventory) {
+    if (inventory != null && entityManager.contains(inventory)) {
+      entityManager.detach(inventory);
+    }
+  }
+}
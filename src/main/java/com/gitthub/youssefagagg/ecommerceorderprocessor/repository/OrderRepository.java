@@ -4,12 +4,15 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -48,18 +51,77 @@ public interface OrderRepository
   Page<Order> findByUserAndStatus(User user, OrderStatus status, Pageable pageable);
 
   /**
-   * Get daily sales report.
+   * Check whether an order was already placed with an idempotency key.
    *
-   * @param startDate the start date
-   * @param endDate   the end date
-   * @return the list of orders with total amount
+   * @param idempotencyKey the idempotency key
+   * @return {@code true} if such an order exists
    */
-  @Query(value = "SELECT CAST(created_date AS DATE) as order_date, SUM(total_amount) as total " +
-                 "FROM orders " +
-                 "WHERE status IN ('PAID', 'PROCESSING', 'SHIPPED', 'DELIVERED') AND created_date BETWEEN ?1 AND ?2 "
-                 +
-                 "GROUP BY CAST(created_date AS DATE) " +
-                 "ORDER BY order_date",
+  boolean existsByIdempotencyKey(String idempotencyKey);
+
+  /**
+   * Find the creation date of the oldest order in one of the given statuses.
+   *
+   * @param statuses the statuses
+   * @return the oldest creation date, or {@code null} when there is no such order
+   */
+  @Query("SELECT MIN(o.createdDate) FROM Order o WHERE o.status IN :statuses")
+  Instant findFirstCreatedDateByStatusIn(@Param("statuses") Collection<OrderStatus> statuses);
+
+  /**
+   * Lock a batch of orders that have been PENDING since before the cutoff, oldest first, leaving
+   * out orders still queued for asynchronous processing and orders with an authorized or captured
+   * payment, which the payment reconciler settles instead. Rows locked by another transaction are
+   * skipped, so several nodes can reap concurrently without waiting on each other.
+   *
+   * @param cutoff the creation date before which an order is expired
+   * @param limit  the maximum number of orders
+   * @return the IDs of the locked orders
+   */
+  @Query(value = "SELECT id FROM orders o WHERE status = 'PENDING' AND created_date < :cutoff "
+                 + "AND NOT EXISTS (SELECT 1 FROM order_submissions s WHERE s.order_id = o.id) "
+                 + "AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.order_id = o.id "
+                 + "AND p.status IN ('AUTHORIZED', 'COMPLETED')) "
+                 + "ORDER BY created_date LIMIT :limit FOR UPDATE SKIP LOCKED",
+         nativeQuery = true)
+  List<Long> lockExpiredPendingOrderIds(@Param("cutoff") Instant cutoff,
+                                        @Param("limit") int limit);
+
+  /**
+   * Lock orders and read their current status, in ID order so that concurrent callers locking
+   * overlapping sets cannot deadlock, and the distinct statuses of their items.
+   *
+   * @param ids the order IDs
+   * @return rows of {@code [id, status, userId, itemStatuses]} for the orders that exist, where
+   *     {@code itemStatuses} is a comma-separated list, or {@code null} if the order has no items
+   */
+  @Query(value = "SELECT o.id, o.status, o.user_id, (SELECT string_agg(DISTINCT i.status, ',') "
+                 + "FROM order_items i WHERE i.order_id = o.id) AS item_statuses "
+                 + "FROM orders o WHERE o.id IN (:ids) ORDER BY o.id FOR UPDATE OF o",
          nativeQuery = true)
-  List<Object[]> getDailySalesReport(Instant startDate, Instant endDate);
+  List<Object[]> lockStatusesByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Set the status of orders with a single update.
+   *
+   * @param ids    the order IDs
+   * @param status the new status name
+   * @param user   the auditor
+   * @param now    the modification date
+   * @return the number of updated orders
+   */
+  @Modifying
+  @Query(value = "UPDATE orders SET status = :status, version = version + 1, "
+                 + "last_modified_by = :user, last_modified_date = :now WHERE id IN (:ids)",
+         nativeQuery = true)
+  int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                         @Param("user") String user, @Param("now") Instant now);
+
+  /**
+   * Find orders by IDs with their user loaded.
+   *
+   * @param ids the order IDs
+   * @return the orders
+   */
+  @Query("SELECT o FROM Order o JOIN FETCH o.user WHERE o.id IN :ids")
+  List<Order> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
 }
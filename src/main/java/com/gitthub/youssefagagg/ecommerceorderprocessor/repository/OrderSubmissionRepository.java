@@ -0,0 +1,52 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderSubmission;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link OrderSubmission} entity.
+ */
+@Repository
+public interface OrderSubmissionRepository extends JpaRepository<OrderSubmission, Long> {
+
+  /**
+   * Lock the oldest submission that is due. Submissions locked by another worker are skipped, so
+   * workers on every node can drain the queue concurrently.
+   *
+   * @param now the current time
+   * @return the locked submission, if any is due
+   */
+  @Query(value = "SELECT * FROM order_submissions WHERE available_at <= :now "
+                 + "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED",
+         nativeQuery = true)
+  Optional<OrderSubmission> claimNext(@Param("now") Instant now);
+
+  /**
+   * Put a submission back in the queue after a failed attempt.
+   *
+   * @param id          the submission ID
+   * @param availableAt when the submission may be retried
+   * @param lastError   the failure message
+   * @return the number of updated rows
+   */
+  @Modifying
+  @Query(value = "UPDATE order_submissions SET attempts = attempts + 1, "
+                 + "available_at = :availableAt, last_error = :lastError WHERE id = :id",
+         nativeQuery = true)
+  int reschedule(@Param("id") Long id, @Param("availableAt") Instant availableAt,
+                 @Param("lastError") String lastError);
+
+  /**
+   * Creation date of the oldest queued submission.
+   *
+   * @return the oldest creation date, or {@code null} when the queue is empty
+   */
+  @Query("SELECT MIN(s.createdDate) FROM OrderSubmission s")
+  Instant findOldestCreatedDate();
+}
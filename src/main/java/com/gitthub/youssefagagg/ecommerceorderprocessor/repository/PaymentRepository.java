@@ -3,10 +3,16 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Payment;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,7 +20,8 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface PaymentRepository
-    extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
+    extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment>,
+    PaymentRepositoryCustom {
 
   /**
    * Find payments by order.
@@ -56,4 +63,38 @@ public interface PaymentRepository
    * @return the payment if found, empty otherwise
    */
   Optional<Payment> findTopByOrderOrderByCreatedDateDesc(Order order);
+
+  /**
+   * Find payments the checkout did not see through, oldest first: payments authorized or captured
+   * for an order that is still PENDING, and payments waiting for a refund. Only payments last
+   * changed before the cutoff are returned, so payments still in progress are left alone.
+   *
+   * @param cutoff the modification date before which a payment is considered abandoned
+   * @param limit  the maximum number of payments
+   * @return the payments, with their order and its user loaded
+   */
+  @Query("SELECT p FROM Payment p JOIN FETCH p.order o JOIN FETCH o.user "
+         + "WHERE p.lastModifiedDate < :cutoff AND (p.status = REFUND_PENDING "
+         + "OR (p.status IN (AUTHORIZED, COMPLETED) AND o.status = PENDING)) "
+         + "ORDER BY p.lastModifiedDate")
+  List<Payment> findUnsettled(@Param("cutoff") Instant cutoff, Limit limit);
+
+  /**
+   * Mark the payments of orders that were cancelled while PENDING for a refund, with a single
+   * update. Payments that are in progress are included, so a concurrent checkout fails its next
+   * version-checked update instead of completing the payment of a cancelled order.
+   *
+   * @param orderIds the order IDs
+   * @param user     the auditor
+   * @param now      the modification date
+   * @return the number of payments marked
+   */
+  @Modifying
+  @Query(value = "UPDATE payments SET status = 'REFUND_PENDING', version = version + 1, "
+                 + "last_modified_by = :user, last_modified_date = :now "
+                 + "WHERE order_id IN (:orderIds) "
+                 + "AND status IN ('PENDING', 'AUTHORIZED', 'COMPLETED')",
+         nativeQuery = true)
+  int markForRefundByOrderIdIn(@Param("orderIds") Collection<Long> orderIds,
+                               @Param("user") String user, @Param("now") Instant now);
 }
@@ -0,0 +1,35 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Payment;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
+
+/**
+ * Single-statement writes for the {@link Payment} entity, used on the checkout path.
+ */
+public interface PaymentRepositoryCustom {
+
+  /**
+   * Insert a new payment, or load the payment already recorded under its idempotency key.
+   *
+   * <p></p>
+   * The insert relies on the unique idempotency key index to detect duplicates, so a new payment
+   * costs one statement. The given payment receives the generated ID and version.
+   *
+   * @param payment the payment to insert, with its order, amount, status, payment method and
+   *                idempotency key set
+   * @return the given payment if it was inserted, otherwise the existing payment, attached to the
+   *     same order
+   */
+  Payment insertOrGet(Payment payment);
+
+  /**
+   * Write the status and transaction ID of the payment with one version-checked update, and
+   * increment the version of the given payment.
+   *
+   * @param payment the payment, with its ID, version and transaction ID set
+   * @param status  the new status
+   * @throws org.springframework.dao.OptimisticLockingFailureException if the payment was changed
+   *                                                                   concurrently
+   */
+  void updateStatus(Payment payment, PaymentStatus status);
+}
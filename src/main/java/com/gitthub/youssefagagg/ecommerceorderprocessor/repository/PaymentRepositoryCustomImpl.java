@@ -0,0 +1,103 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Payment;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link PaymentRepositoryCustom}.
+ *
+ * <p></p>
+ * Saving a detached payment through JPA merges it, which reads the row before updating it, and
+ * guarding the insert against duplicates takes another query. These statements write the row
+ * directly: the insert lets the unique idempotency key index detect duplicates with
+ * {@code ON CONFLICT DO NOTHING}, and updates check the version themselves. The payments they
+ * return are never managed by the persistence context.
+ */
+@RequiredArgsConstructor
+public class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+
+  private static final String INSERT =
+      "INSERT INTO payments (order_id, amount, status, payment_method, transaction_id, "
+      + "idempotency_key, created_by, created_date, last_modified_by, last_modified_date, version) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0) "
+      + "ON CONFLICT (idempotency_key) DO NOTHING RETURNING id";
+
+  private static final String SELECT_BY_IDEMPOTENCY_KEY =
+      "SELECT id, amount, status, payment_method, transaction_id, version FROM payments "
+      + "WHERE idempotency_key = ?";
+
+  private static final String UPDATE_STATUS =
+      "UPDATE payments SET status = ?, transaction_id = ?, last_modified_by = ?, "
+      + "last_modified_date = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public Payment insertOrGet(Payment payment) {
+    String auditor = currentAuditor();
+    Timestamp now = Timestamp.from(Instant.now());
+    List<Long> ids = jdbcTemplate.queryForList(
+        INSERT, Long.class,
+        payment.getOrder().getId(),
+        payment.getAmount(),
+        payment.getStatus().name(),
+        payment.getPaymentMethod(),
+        payment.getTransactionId(),
+        payment.getIdempotencyKey(),
+        auditor, now, auditor, now);
+
+    if (!ids.isEmpty()) {
+      payment.setId(ids.getFirst());
+      payment.setVersion(0);
+      return payment;
+    }
+
+    try {
+      return jdbcTemplate.queryForObject(SELECT_BY_IDEMPOTENCY_KEY, (rs, rowNum) -> {
+        Payment existing = new Payment();
+        existing.setId(rs.getLong("id"));
+        existing.setOrder(payment.getOrder());
+        existing.setAmount(rs.getBigDecimal("amount"));
+        existing.setStatus(PaymentStatus.valueOf(rs.getString("status")));
+        existing.setPaymentMethod(rs.getString("payment_method"));
+        existing.setTransactionId(rs.getString("transaction_id"));
+        existing.setIdempotencyKey(payment.getIdempotencyKey());
+        existing.setVersion(rs.getInt("version"));
+        return existing;
+      }, payment.getIdempotencyKey());
+    } catch (EmptyResultDataAccessException e) {
+      // The conflicting row was deleted between the two statements
+      throw new OptimisticLockingFailureException(
+          "Payment with idempotency key " + payment.getIdempotencyKey() + " disappeared", e);
+    }
+  }
+
+  @Override
+  public void updateStatus(Payment payment, PaymentStatus status) {
+    int updated = jdbcTemplate.update(UPDATE_STATUS,
+                                      status.name(),
+                                      payment.getTransactionId(),
+                                      currentAuditor(),
+                                      Timestamp.from(Instant.now()),
+                                      payment.getId(),
+                                      payment.getVersion());
+    if (updated == 0) {
+      throw new OptimisticLockingFailureException(
+          "Payment " + payment.getId() + " was updated concurrently");
+    }
+    payment.setStatus(status);
+    payment.setVersion(payment.getVersion() + 1);
+  }
+
+  private static String currentAuditor() {
+    return SecurityUtils.getCurrentUserUserName().orElse("system");
+  }
+}
@@ -1,5 +1,6 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
 import java.util.List;
 import java.util.Optional;
@@ -35,13 +36,40 @@ public interface ProductRepository
   boolean existsByNameIgnoreCase(String name);
 
   /**
-   * Find products by name containing the given text.
+   * Find a page of the catalog with the available quantity of every product.
+   *
+   * <p></p>
+   * {@link Product#getInventory()} is the inverse side of a one-to-one, which Hibernate loads with
+   * a separate select per product. Joining the inventory into a DTO projection reads the page with
+   * a single select, plus the count query.
+   *
+   * @param pageable the pagination information
+   * @return the page of products
+   */
+  @Query(value = "SELECT new com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductDTO("
+                 + "p.id, p.name, p.description, p.price, i.quantity - i.reservedQuantity) "
+                 + "FROM Product p LEFT JOIN p.inventory i",
+         countQuery = "SELECT count(p) FROM Product p")
+  Page<ProductDTO> findCatalog(Pageable pageable);
+
+  /**
+   * Find a page of the catalog whose product names contain the given text, ignoring case, with
+   * the available quantity of every product.
    *
    * @param name     the name to search for
    * @param pageable the pagination information
-   * @return the list of products
+   * @return the page of products
+   * @see #findCatalog(Pageable)
    */
-  Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+  @Query(value = "SELECT new com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductDTO("
+                 + "p.id, p.name, p.description, p.price, i.quantity - i.reservedQuantity) "
+                 + "FROM Product p LEFT JOIN p.inventory i "
+                 + "WHERE lower(p.name) LIKE lower(concat('%', :#{escape(#name)}, '%')) "
+                 + "ESCAPE :#{escapeCharacter()}",
+         countQuery = "SELECT count(p) FROM Product p "
+                      + "WHERE lower(p.name) LIKE lower(concat('%', :#{escape(#name)}, '%')) "
+                      + "ESCAPE :#{escapeCharacter()}")
+  Page<ProductDTO> findCatalogByNameContaining(@Param("name") String name, Pageable pageable);
 
   /**
    * Find products by IDs with their inventory loaded.
@@ -0,0 +1,255 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesAnalyticsDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesDimension;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesGranularity;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC repository for the sales analytics cubes.
+ *
+ * <p></p>
+ * Both cubes hold 15-minute buckets on absolute time ({@code timestamptz}), which line up with
+ * hour boundaries in every real time zone, so any zone and any coarser granularity can be
+ * answered by re-bucketing cube rows instead of orders:
+ * <ul>
+ *   <li>{@code sales_cube_orders}: orders, units and revenue by status and customer cohort</li>
+ *   <li>{@code sales_cube_products}: orders, units and revenue by product and status</li>
+ * </ul>
+ * Orders are placed in the bucket of their {@code created_date} and move between status cells
+ * through signed deltas as their status changes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesCubeRepository {
+
+  private static final String BUCKET =
+      "date_bin('15 minutes', CAST(o.created_date AS timestamptz), "
+      + "TIMESTAMPTZ '2000-01-01 00:00:00+00')";
+
+  private static final String COHORT =
+      "to_char(CAST(u.created_date AS timestamptz) AT TIME ZONE :zone, 'YYYY-MM')";
+
+  private static final String UPSERT_ORDERS =
+      "INSERT INTO sales_cube_orders (bucket_start, status, cohort, order_count, units, revenue) "
+      + "SELECT " + BUCKET + ", %s, " + COHORT + ", "
+      + "       %s * COUNT(*), %s * COALESCE(SUM(i.units), 0), %s * SUM(o.total_amount) "
+      + "FROM orders o "
+      + "JOIN users u ON u.id = o.user_id "
+      + "LEFT JOIN (SELECT order_id, SUM(quantity) AS units FROM order_items "
+      + "           WHERE order_id IN (SELECT id FROM orders o WHERE %s) GROUP BY order_id) i "
+      + "       ON i.order_id = o.id "
+      + "WHERE %s "
+      + "GROUP BY %s "
+      + "ON CONFLICT (bucket_start, status, cohort) DO UPDATE "
+      + "SET order_count = sales_cube_orders.order_count + EXCLUDED.order_count, "
+      + "    units = sales_cube_orders.units + EXCLUDED.units, "
+      + "    revenue = sales_cube_orders.revenue + EXCLUDED.revenue";
+
+  private static final String UPSERT_PRODUCTS =
+      "INSERT INTO sales_cube_products (bucket_start, product_id, status, order_count, units, "
+      + "revenue) "
+      + "SELECT " + BUCKET + ", i.product_id, %s, "
+      + "       %s * COUNT(DISTINCT o.id), %s * SUM(i.quantity), %s * SUM(i.price * i.quantity) "
+      + "FROM orders o "
+      + "JOIN order_items i ON i.order_id = o.id "
+      + "WHERE %s "
+      + "GROUP BY %s "
+      + "ON CONFLICT (bucket_start, product_id, status) DO UPDATE "
+      + "SET order_count = sales_cube_products.order_count + EXCLUDED.order_count, "
+      + "    units = sales_cube_products.units + EXCLUDED.units, "
+      + "    revenue = sales_cube_products.revenue + EXCLUDED.revenue";
+
+  /**
+   * Raw {@code created_date} bounds widened by a day on each side so the index on it can be used
+   * whatever the session zone; the exact bounds are applied to the converted value.
+   */
+  private static final String RANGE_FILTER =
+      "o.created_date >= CAST(:fromDay AS date) - 1 AND o.created_date < CAST(:toDay AS date) + 1 "
+      + "AND CAST(o.created_date AS timestamptz) >= :from "
+      + "AND CAST(o.created_date AS timestamptz) < :to";
+
+  /**
+   * Submitted orders still waiting to be given their items are left out of the cubes: they are
+   * recorded once priced, so their amounts never change while they are in a cell.
+   */
+  private static final String PRICED_FILTER =
+      "(o.status <> 'PENDING' OR EXISTS (SELECT 1 FROM order_items oi WHERE oi.order_id = o.id))";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * Add (or, with a negative sign, subtract) the given orders to the cube cells of a status. The
+   * orders and their items must have been flushed.
+   *
+   * @param orderIds the order IDs
+   * @param status   the status cell to update
+   * @param sign     {@code 1} to add the orders, {@code -1} to remove them
+   * @param zone     the zone in which customer cohorts are taken
+   */
+  public void applyDelta(Collection<Long> orderIds, OrderStatus status, int sign, String zone) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("orderIds", orderIds)
+        .addValue("status", status.name())
+        .addValue("sign", sign)
+        .addValue("zone", zone);
+    String filter = "o.id IN (:orderIds)";
+    jdbcTemplate.update(UPSERT_ORDERS.formatted(":status", ":sign", ":sign", ":sign", filter,
+                                                filter, "1, 3"), params);
+    jdbcTemplate.update(UPSERT_PRODUCTS.formatted(":status", ":sign", ":sign", ":sign", filter,
+                                                  "1, 2"), params);
+  }
+
+  /**
+   * Whether the cubes hold no data yet.
+   *
+   * @return {@code true} if the order cube is empty
+   */
+  public boolean isEmpty() {
+    return Boolean.TRUE.equals(jdbcTemplate.getJdbcOperations().queryForObject(
+        "SELECT NOT EXISTS (SELECT 1 FROM sales_cube_orders)", Boolean.class));
+  }
+
+  /**
+   * Block incremental updates of the cubes until the current transaction ends.
+   */
+  public void lockForRebuild() {
+    jdbcTemplate.getJdbcOperations().execute(
+        "LOCK TABLE sales_cube_orders, sales_cube_products IN SHARE ROW EXCLUSIVE MODE");
+  }
+
+  /**
+   * Block incremental updates of the cubes until the current transaction ends, unless another
+   * transaction already does.
+   *
+   * @throws org.springframework.dao.PessimisticLockingFailureException if the cubes are locked
+   */
+  public void tryLockForRebuild() {
+    jdbcTemplate.getJdbcOperations().execute(
+        "LOCK TABLE sales_cube_orders, sales_cube_products IN SHARE ROW EXCLUSIVE MODE NOWAIT");
+  }
+
+  /**
+   * Recompute the cube buckets of a time range from the orders table, leaving out submitted orders
+   * that have not been priced yet. The bounds must fall on bucket boundaries.
+   *
+   * @param from the start of the range, inclusive
+   * @param to   the end of the range, exclusive
+   * @param zone the zone in which customer cohorts are taken
+   */
+  public void rebuildBetween(Instant from, Instant to, String zone) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("from", from.atOffset(ZoneOffset.UTC))
+        .addValue("to", to.atOffset(ZoneOffset.UTC))
+        .addValue("fromDay", LocalDate.ofInstant(from, ZoneOffset.UTC))
+        .addValue("toDay", LocalDate.ofInstant(to, ZoneOffset.UTC).plusDays(1))
+        .addValue("zone", zone);
+
+    jdbcTemplate.update("DELETE FROM sales_cube_orders WHERE bucket_start >= :from "
+                        + "AND bucket_start < :to", params);
+    jdbcTemplate.update("DELETE FROM sales_cube_products WHERE bucket_start >= :from "
+                        + "AND bucket_start < :to", params);
+    String filter = RANGE_FILTER + " AND " + PRICED_FILTER;
+    jdbcTemplate.update(UPSERT_ORDERS.formatted("o.status", "1", "1", "1", filter, filter,
+                                                "1, 2, 3"), params);
+    jdbcTemplate.update(UPSERT_PRODUCTS.formatted("o.status", "1", "1", "1", RANGE_FILTER,
+                                                  "1, 2, 3"), params);
+  }
+
+  /**
+   * Aggregate the cubes into periods of a zone.
+   *
+   * @param from        the start of the range, inclusive
+   * @param to          the end of the range, exclusive
+   * @param granularity the period length
+   * @param zone        the zone in which periods start
+   * @param sqlZone     the zone ID as understood by PostgreSQL
+   * @param dimension   the breakdown within each period
+   * @param statuses    the order statuses to include
+   * @return the rows ordered by period and key
+   */
+  public List<SalesAnalyticsDTO> aggregate(Instant from, Instant to, SalesGranularity granularity,
+                                           ZoneId zone, String sqlZone, SalesDimension dimension,
+                                           Collection<OrderStatus> statuses) {
+    String keyColumn;
+    String labelColumn;
+    String groupBy;
+    String source;
+    switch (dimension) {
+      case PRODUCT -> {
+        keyColumn = "CAST(c.product_id AS varchar)";
+        labelColumn = "p.name";
+        groupBy = "1, c.product_id, p.name";
+        source = "sales_cube_products c JOIN products p ON p.id = c.product_id";
+      }
+      case STATUS -> {
+        keyColumn = "c.status";
+        labelColumn = "c.status";
+        groupBy = "1, c.status";
+        source = "sales_cube_orders c";
+      }
+      case COHORT -> {
+        keyColumn = "c.cohort";
+        labelColumn = "c.cohort";
+        groupBy = "1, c.cohort";
+        source = "sales_cube_orders c";
+      }
+      default -> {
+        keyColumn = "CAST(NULL AS varchar)";
+        labelColumn = "CAST(NULL AS varchar)";
+        groupBy = "1";
+        source = "sales_cube_orders c";
+      }
+    }
+
+    String sql = "SELECT date_trunc(:field, c.bucket_start AT TIME ZONE :zone) AS period, "
+                 + keyColumn + " AS dimension_key, " + labelColumn + " AS label, "
+                 + "SUM(c.order_count) AS order_count, SUM(c.units) AS units, "
+                 + "SUM(c.revenue) AS revenue "
+                 + "FROM " + source + " "
+                 + "WHERE c.bucket_start >= :from AND c.bucket_start < :to "
+                 + "AND c.status IN (:statuses) "
+                 + "GROUP BY " + groupBy + " "
+                 + "HAVING SUM(c.order_count) <> 0 "
+                 + "ORDER BY 1, 2";
+
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("field", granularity.getTruncField())
+        .addValue("zone", sqlZone)
+        .addValue("from", from.atOffset(ZoneOffset.UTC))
+        .addValue("to", to.atOffset(ZoneOffset.UTC))
+        .addValue("statuses", statuses.stream().map(Enum::name).toList());
+
+    return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+      long orderCount = rs.getLong("order_count");
+      BigDecimal revenue = rs.getBigDecimal("revenue");
+      return SalesAnalyticsDTO.builder()
+                              .periodStart(rs.getObject("period", LocalDateTime.class)
+                                             .atZone(zone)
+                                             .toOffsetDateTime())
+                              .key(rs.getString("dimension_key"))
+                              .label(rs.getString("label"))
+                              .orderCount(orderCount)
+                              .units(rs.getLong("units"))
+                              .revenue(revenue)
+                              .averageOrderValue(orderCount != 0
+                                                 ? revenue.divide(BigDecimal.valueOf(orderCount),
+                                                                  2, RoundingMode.HALF_UP)
+                                                 : BigDecimal.ZERO)
+                              .build();
+    });
+  }
+}
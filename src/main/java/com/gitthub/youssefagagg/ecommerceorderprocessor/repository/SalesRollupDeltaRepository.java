@@ -0,0 +1,117 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.repository;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC repository for the {@code sales_rollup_deltas} table, the status changes waiting to be
+ * folded into the sales rollups.
+ *
+ * <p></p>
+ * Rows are only ever inserted by the transactions changing an order's status, so recording a
+ * change does not touch any row shared with other orders. The rollup folder reads the oldest rows,
+ * applies them and deletes them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupDeltaRepository {
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  /**
+   * Record that some orders moved from one status to another.
+   *
+   * @param orderIds  the order IDs
+   * @param oldStatus the previous status, {@code null} for new orders
+   * @param newStatus the new status
+   */
+  public void append(Collection<Long> orderIds, OrderStatus oldStatus, OrderStatus newStatus) {
+    SqlParameterSource[] batch = orderIds.stream()
+        .map(orderId -> new MapSqlParameterSource()
+            .addValue("orderId", orderId)
+            .addValue("oldStatus", name(oldStatus), Types.VARCHAR)
+            .addValue("newStatus", name(newStatus), Types.VARCHAR))
+        .toArray(SqlParameterSource[]::new);
+    jdbcTemplate.batchUpdate("INSERT INTO sales_rollup_deltas (order_id, old_status, new_status) "
+                             + "VALUES (:orderId, :oldStatus, :newStatus)", batch);
+  }
+
+  /**
+   * Find the oldest status changes, in the order they were recorded.
+   *
+   * @param limit the maximum number of changes
+   * @return the changes
+   */
+  public List<Delta> findOldest(int limit) {
+    return jdbcTemplate.query(
+        "SELECT id, order_id, old_status, new_status FROM sales_rollup_deltas "
+        + "ORDER BY id LIMIT :limit",
+        new MapSqlParameterSource("limit", limit),
+        (rs, rowNum) -> new Delta(rs.getLong("id"),
+                                  rs.getLong("order_id"),
+                                  status(rs.getString("old_status")),
+                                  status(rs.getString("new_status"))));
+  }
+
+  /**
+   * Delete status changes that have been applied.
+   *
+   * @param ids the IDs of the changes
+   * @return the number of deleted rows
+   */
+  public int deleteByIdIn(Collection<Long> ids) {
+    return jdbcTemplate.update("DELETE FROM sales_rollup_deltas WHERE id IN (:ids)",
+                               new MapSqlParameterSource("ids", ids));
+  }
+
+  /**
+   * Delete the status changes of the orders created in a time range, once a rebuild has read the
+   * current status of those orders.
+   *
+   * @param from the start of the range, inclusive
+   * @param to   the end of the range, exclusive
+   * @return the number of deleted rows
+   */
+  public int deleteForOrdersCreatedBetween(Instant from, Instant to) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("from", from.atOffset(ZoneOffset.UTC))
+        .addValue("to", to.atOffset(ZoneOffset.UTC))
+        .addValue("fromDay", LocalDate.ofInstant(from, ZoneOffset.UTC))
+        .addValue("toDay", LocalDate.ofInstant(to, ZoneOffset.UTC).plusDays(1));
+    return jdbcTemplate.update(
+        "DELETE FROM sales_rollup_deltas d USING orders o WHERE o.id = d.order_id "
+        + "AND o.created_date >= CAST(:fromDay AS date) - 1 "
+        + "AND o.created_date < CAST(:toDay AS date) + 1 "
+        + "AND CAST(o.created_date AS timestamptz) >= :from "
+        + "AND CAST(o.created_date AS timestamptz) < :to", params);
+  }
+
+  private static String name(OrderStatus status) {
+    return status != null ? status.name() : null;
+  }
+
+  private static OrderStatus status(String name) {
+    return name != null ? OrderStatus.valueOf(name) : null;
+  }
+
+  /**
+   * A recorded status change of one order.
+   *
+   * @param id        the ID of the change, increasing in the order changes were recorded
+   * @param orderId   the order ID
+   * @param oldStatus the previous status, {@code null} for a new order
+   * @param newStatus the new status
+   */
+  public record Delta(long id, long orderId, OrderStatus oldStatus, OrderStatus newStatus) {
+  }
+}
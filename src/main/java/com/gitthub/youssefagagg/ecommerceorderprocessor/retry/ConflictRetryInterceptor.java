@@ -0,0 +1,163 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.retry;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ConflictRetryConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Runs {@link RetryOnConflict} methods again after an optimistic locking conflict.
+ *
+ * <p></p>
+ * The interceptor must run outside the transaction interceptor, so every attempt gets a new
+ * transaction. Before a retry it waits a random time between zero and a bound that starts at
+ * {@code conflict-retry.initial-backoff} and grows by {@code multiplier} up to {@code max-backoff}
+ * ("full jitter"), which spreads out callers that conflicted with each other. A call gives up and
+ * rethrows the conflict once it has made {@code max-attempts} attempts, once its operation's
+ * {@link RetryBudget} is spent, or when the wait would outlast the {@link RequestDeadline}.
+ *
+ * <p></p>
+ * Per operation, calls are counted in {@code conflict.retry.calls} by outcome ({@code success},
+ * {@code recovered}, {@code exhausted}, {@code budget-exhausted} or {@code deadline}), retries in
+ * {@code conflict.retry.attempts} and the remaining budget is published as
+ * {@code conflict.retry.budget}.
+ */
+@Slf4j
+public class ConflictRetryInterceptor implements MethodInterceptor {
+
+  private final SingletonSupplier<ConflictRetryConfig> config;
+  private final SingletonSupplier<MeterRegistry> meterRegistry;
+  private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+  /**
+   * Create an interceptor. Its collaborators are resolved on the first call, since advisors are
+   * created before most other beans.
+   *
+   * @param config        the retry settings
+   * @param meterRegistry the registry of the retry metrics
+   */
+  public ConflictRetryInterceptor(ObjectFactory<ConflictRetryConfig> config,
+                                  ObjectFactory<MeterRegistry> meterRegistry) {
+    this.config = SingletonSupplier.of(config::getObject);
+    this.meterRegistry = SingletonSupplier.of(meterRegistry::getObject);
+  }
+
+  @Override
+  public Object invoke(@NonNull MethodInvocation invocation) throws Throwable {
+    RetryOnConflict retry = findRetry(invocation);
+    ConflictRetryConfig settings = config.obtain();
+    if (retry == null || !settings.isEnabled()
+        || !(invocation instanceof ProxyMethodInvocation proxyInvocation)
+        || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return invocation.proceed();
+    }
+
+    String name = retry.value();
+    Operation operation = operations.computeIfAbsent(name, this::createOperation);
+    operation.budget().onCall();
+    int maxAttempts = Math.max(1, settings.maxAttemptsOf(name));
+
+    for (int attempt = 1; ; attempt++) {
+      try {
+        Object result = proxyInvocation.invocableClone().proceed();
+        record(name, attempt == 1 ? "success" : "recovered");
+        return result;
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= maxAttempts) {
+          record(name, "exhausted");
+          throw e;
+        }
+        long backoffNanos = backoffNanos(settings, attempt);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null && deadline.remaining().toNanos() <= backoffNanos) {
+          record(name, "deadline");
+          throw e;
+        }
+        if (!operation.budget().tryRetry()) {
+          record(name, "budget-exhausted");
+          throw e;
+        }
+
+        log.debug("Retrying {} after a conflict, attempt {} of {}: {}", name, attempt + 1,
+                  maxAttempts, e.getMessage());
+        operation.retries().increment();
+        sleep(backoffNanos, e);
+      }
+    }
+  }
+
+  /**
+   * The wait before the retry following the given attempt: uniformly random up to a bound growing
+   * exponentially with the attempt.
+   */
+  static long backoffNanos(ConflictRetryConfig settings, int attempt) {
+    double bound = settings.getInitialBackoff().toNanos()
+                   * Math.pow(settings.getMultiplier(), attempt - 1);
+    long cappedBound = (long) Math.min(bound, settings.getMaxBackoff().toNanos());
+    return cappedBound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cappedBound + 1);
+  }
+
+  private static void sleep(long nanos, OptimisticLockingFailureException conflict) {
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw conflict;
+    }
+  }
+
+  private Operation createOperation(String name) {
+    ConflictRetryConfig settings = config.obtain();
+    RetryBudget budget = new RetryBudget(settings.budgetRatioOf(name),
+                                         settings.getBudgetCapacity());
+    MeterRegistry registry = meterRegistry.obtain();
+    Gauge.builder("conflict.retry.budget", budget, RetryBudget::getBalance)
+         .tag("operation", name)
+         .description("Retries the operation may still make after a conflict")
+         .register(registry);
+    Counter retries = Counter.builder("conflict.retry.attempts")
+                             .tag("operation", name)
+                             .description("Attempts made again after an optimistic locking "
+                                          + "conflict")
+                             .register(registry);
+    return new Operation(budget, retries);
+  }
+
+  private void record(String operation, String outcome) {
+    Counter.builder("conflict.retry.calls")
+           .tag("operation", operation)
+           .tag("outcome", outcome)
+           .description("Calls of operations retried on conflict, by outcome")
+           .register(meterRegistry.obtain())
+           .increment();
+  }
+
+  private RetryOnConflict findRetry(MethodInvocation invocation) {
+    Object target = invocation.getThis();
+    Class<?> targetClass = target != null ? AopUtils.getTargetClass(target)
+                                          : invocation.getMethod().getDeclaringClass();
+    Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+    return AnnotatedElementUtils.findMergedAnnotation(method, RetryOnConflict.class);
+  }
+
+  private record Operation(RetryBudget budget, Counter retries) {
+  }
+}
@@ -0,0 +1,34 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Runs the annotated method again when it fails with an {@link OptimisticLockingFailureException},
+ * after a jittered exponential backoff, within the retry budget of its operation.
+ *
+ * <p></p>
+ * The retry wraps the method's transaction, so each attempt reads the current state in a new
+ * transaction. It only applies to calls that start their own transaction: a call that joins a
+ * caller's transaction is not retried, since that transaction is already marked for rollback.
+ * Annotate only operations that may safely run again, i.e. whose effects are undone by the
+ * rollback of a failed attempt or are idempotent, and flush their changes before publishing
+ * anything outside the transaction, so a conflict surfaces before a message is sent.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+
+  /**
+   * The name of the operation, used for its retry budget, its settings under
+   * {@code conflict-retry.operations} and its metric tags.
+   *
+   * @return the operation name
+   */
+  String value();
+}
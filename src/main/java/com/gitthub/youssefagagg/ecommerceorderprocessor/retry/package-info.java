@@ -0,0 +1,5 @@
+/**
+ * Service-level retry of operations that lost an optimistic locking conflict.
+ */
+
+package com.gitthub.youssefagagg.ecommerceorderprocessor.retry;
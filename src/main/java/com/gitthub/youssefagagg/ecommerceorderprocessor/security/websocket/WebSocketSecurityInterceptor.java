@@ -28,7 +28,7 @@ public class WebSocketSecurityInterceptor implements ChannelInterceptor {
 
   // Valid topic patterns
   private static final Pattern USER_TOPIC_PATTERN = Pattern.compile(
-      "/topic/(?:orders|notifications)/([a-zA-Z0-9_-]+)");
+      "/topic/(?:orders|notifications|notifications/batch)/([a-zA-Z0-9_-]+)");
   private static final Pattern ADMIN_TOPIC_PATTERN = Pattern.compile("/topic/admin/.*");
   private static final Pattern INVENTORY_TOPIC_PATTERN = Pattern.compile("/topic/inventory");
 
@@ -3,6 +3,7 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.AuditLogDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.AuditLog;
+import java.util.Map;
 import org.springframework.data.domain.Pageable;
 
 /**
@@ -70,6 +71,14 @@ public interface AuditService {
   void updateLogAsync(String entityType, Long entityId, String message, Object oldValue,
                       Object newValue);
 
+  /**
+   * Asynchronously create one update audit log per entity, written in a single transaction.
+   *
+   * @param entityType        the type of entity
+   * @param changesByEntityId the change message of each entity, keyed by entity ID
+   */
+  void updateLogsAsync(String entityType, Map<Long, String> changesByEntityId);
+
   /**
    * Asynchronously create an audit log for a delete action.
    *
@@ -0,0 +1,54 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.FlightRecordingDTO;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.core.io.Resource;
+
+/**
+ * Service Interface for JDK Flight Recorder recordings started on demand.
+ */
+public interface FlightRecordingService {
+
+  /**
+   * Get the recordings started through this service that have not been closed.
+   *
+   * @return the recordings
+   */
+  List<FlightRecordingDTO> getRecordings();
+
+  /**
+   * Start a recording that keeps its data on disk, bounded by its maximum age and size.
+   *
+   * @param name     the name of the recording, or {@code null} for a generated one
+   * @param settings the Flight Recorder configuration, {@code default} or {@code profile}, or
+   *                 {@code null} for the configured default
+   * @param maxAge   how long the recording keeps its oldest data, or {@code null} for the
+   *                 configured default
+   * @return the started recording
+   */
+  FlightRecordingDTO startRecording(String name, String settings, Duration maxAge);
+
+  /**
+   * Stop a recording. Its data stays available for dumping until it is closed.
+   *
+   * @param id the ID of the recording
+   * @return the stopped recording
+   */
+  FlightRecordingDTO stopRecording(Long id);
+
+  /**
+   * Dump the data of a running or stopped recording to a {@code .jfr} file.
+   *
+   * @param id the ID of the recording
+   * @return the dump, deleted once its stream is closed
+   */
+  Resource dumpRecording(Long id);
+
+  /**
+   * Close a recording and release its data.
+   *
+   * @param id the ID of the recording
+   */
+  void closeRecording(Long id);
+}
@@ -0,0 +1,243 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.HotKeysConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.HotKeyDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.HeavyHitters;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.HeavyHitters.HeavyHitter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Detects the keys that dominate traffic: client IPs, ordered products, products whose stock ran
+ * out under an order and idempotency keys.
+ *
+ * <p></p>
+ * Each {@link Category} counts its keys in a {@link HeavyHitters} sketch, so memory stays constant
+ * however many distinct keys are seen. Counts are halved every {@code hot-keys.half-life}. A key
+ * is hot while its decayed count is at least {@code hot-keys.min-count} and
+ * {@code hot-keys.hot-share} of its category's traffic; the hot keys are recomputed every
+ * {@code hot-keys.refresh-interval-ms}, and a {@link HotKeyEvent} is published for every key that
+ * has become hot, so other components can react to a hot product without polling.
+ *
+ * <p></p>
+ * Per category, the tracker publishes the decayed traffic, the number of hot keys and the share of
+ * the hottest key as {@code hotkeys.*} meters. The keys themselves are only listed through the
+ * admin API, keeping client IPs and product IDs out of metric tags.
+ */
+@Service
+@Slf4j
+public class HotKeyTracker {
+
+  /**
+   * The kinds of keys tracked.
+   */
+  public enum Category {
+    CLIENT,
+    PRODUCT,
+    INVENTORY_CONFLICT,
+    IDEMPOTENCY_KEY;
+
+    private final String tag = name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+
+  private final HotKeysConfig config;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Map<Category, HeavyHitters> sketches = new EnumMap<>(Category.class);
+  private volatile Map<Category, Set<String>> hotKeys = emptyHotKeys();
+  private final Map<Category, Counter> detectedCounters = new EnumMap<>(Category.class);
+  private long lastDecay = System.nanoTime();
+
+  public HotKeyTracker(HotKeysConfig config,
+                       ApplicationEventPublisher eventPublisher,
+                       MeterRegistry meterRegistry) {
+    this.config = config;
+    this.eventPublisher = eventPublisher;
+    for (Category category : Category.values()) {
+      HeavyHitters sketch = new HeavyHitters(config.getDepth(), config.getWidth(),
+                                             config.getTopK());
+      sketches.put(category, sketch);
+
+      Gauge.builder("hotkeys.traffic", sketch, HeavyHitters::total)
+           .tag("category", category.tag)
+           .description("Decayed count of all keys of the category")
+           .register(meterRegistry);
+      Gauge.builder("hotkeys.hot", this, tracker -> tracker.hotKeys.get(category).size())
+           .tag("category", category.tag)
+           .description("Keys of the category that are currently hot")
+           .register(meterRegistry);
+      Gauge.builder("hotkeys.top.share", this, tracker -> tracker.topShare(category))
+           .tag("category", category.tag)
+           .description("Share of the category's decayed traffic taken by its most frequent key")
+           .register(meterRegistry);
+      detectedCounters.put(category, Counter.builder("hotkeys.detected")
+                                            .tag("category", category.tag)
+                                            .description("Keys of the category that became hot")
+                                            .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Count a request from a client.
+   *
+   * @param clientIp the client IP address
+   */
+  public void recordClient(String clientIp) {
+    record(Category.CLIENT, clientIp);
+  }
+
+  /**
+   * Count an order item for a product.
+   *
+   * @param productId the product ID
+   */
+  public void recordProduct(Long productId) {
+    record(Category.PRODUCT, String.valueOf(productId));
+  }
+
+  /**
+   * Count an order item rejected because its product did not have enough stock.
+   *
+   * @param productId the product ID
+   */
+  public void recordInventoryConflict(Long productId) {
+    record(Category.INVENTORY_CONFLICT, String.valueOf(productId));
+  }
+
+  /**
+   * Count an order submitted with an idempotency key.
+   *
+   * @param idempotencyKey the idempotency key
+   */
+  public void recordIdempotencyKey(String idempotencyKey) {
+    record(Category.IDEMPOTENCY_KEY, idempotencyKey);
+  }
+
+  private void record(Category category, String key) {
+    if (key != null) {
+      sketches.get(category).add(key);
+    }
+  }
+
+  /**
+   * Whether a key was hot at the last refresh.
+   *
+   * @param category the category of the key
+   * @param key      the key
+   * @return {@code true} if the key is hot
+   */
+  public boolean isHot(Category category, String key) {
+    return hotKeys.get(category).contains(key);
+  }
+
+  /**
+   * Whether a product was hot at the last refresh, either ordered or out of stock more than others.
+   *
+   * @param productId the product ID
+   * @return {@code true} if the product is hot
+   */
+  public boolean isHotProduct(Long productId) {
+    String key = String.valueOf(productId);
+    return isHot(Category.PRODUCT, key) || isHot(Category.INVENTORY_CONFLICT, key);
+  }
+
+  /**
+   * Get the most frequent keys of a category, most frequent first.
+   *
+   * @param category the category
+   * @return at most {@code hot-keys.top-k} keys with their decayed counts and shares
+   */
+  public List<HotKeyDTO> getHotKeys(Category category) {
+    HeavyHitters sketch = sketches.get(category);
+    long total = sketch.total();
+    return sketch.top().stream()
+                 .map(hitter -> HotKeyDTO.builder()
+                                         .key(hitter.key())
+                                         .count(hitter.count())
+                                         .share(share(hitter.count(), total))
+                                         .hot(isHot(hitter, total))
+                                         .build())
+                 .toList();
+  }
+
+  /**
+   * Recompute the hot keys of every category, publish the keys that became hot and halve the
+   * counts once per half-life.
+   */
+  @Scheduled(fixedDelayString = "${hot-keys.refresh-interval-ms:5000}")
+  public synchronized void refresh() {
+    Map<Category, Set<String>> refreshed = new EnumMap<>(Category.class);
+    for (Category category : Category.values()) {
+      HeavyHitters sketch = sketches.get(category);
+      long total = sketch.total();
+      Set<String> previous = hotKeys.get(category);
+      Set<String> current = new HashSet<>();
+      for (HeavyHitter hitter : sketch.top()) {
+        if (!isHot(hitter, total)) {
+          continue;
+        }
+        current.add(hitter.key());
+        if (!previous.contains(hitter.key())) {
+          double share = share(hitter.count(), total);
+          log.info("Hot {} key detected: {} with {}% of the traffic", category.tag, hitter.key(),
+                   Math.round(share * 100));
+          detectedCounters.get(category).increment();
+          eventPublisher.publishEvent(new HotKeyEvent(category, hitter.key(), hitter.count(),
+                                                      share));
+        }
+      }
+      refreshed.put(category, Set.copyOf(current));
+    }
+    hotKeys = refreshed;
+
+    long now = System.nanoTime();
+    if (now - lastDecay >= config.getHalfLife().toNanos()) {
+      sketches.values().forEach(HeavyHitters::decay);
+      lastDecay = now;
+    }
+  }
+
+  private static Map<Category, Set<String>> emptyHotKeys() {
+    Map<Category, Set<String>> empty = new EnumMap<>(Category.class);
+    for (Category category : Category.values()) {
+      empty.put(category, Set.of());
+    }
+    return empty;
+  }
+
+  private boolean isHot(HeavyHitter hitter, long total) {
+    return hitter.count() >= config.getMinCount()
+           && share(hitter.count(), total) >= config.getHotShare();
+  }
+
+  private double topShare(Category category) {
+    HeavyHitters sketch = sketches.get(category);
+    List<HeavyHitter> top = sketch.top();
+    return top.isEmpty() ? 0 : share(top.getFirst().count(), sketch.total());
+  }
+
+  private static double share(long count, long total) {
+    return total == 0 ? 0 : Math.min(1.0, (double) count / total);
+  }
+
+  /**
+   * Published when a key becomes hot.
+   *
+   * @param category the category of the key
+   * @param key      the key
+   * @param count    its decayed count
+   * @param share    its share of the category's decayed traffic
+   */
+  public record HotKeyEvent(Category category, String key, long count, double share) {
+  }
+}
@@ -0,0 +1,197 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.NotificationDispatchConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceContextHolder;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.NotificationBatchDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.NotificationDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PendingNotification;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.NotificationRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Batches notification writes and coalesces the matching WebSocket frames per user.
+ *
+ * <p></p>
+ * Notifications are placed on a bounded in-memory queue and flushed periodically. The flush cuts
+ * the queue into batches of at most {@code maxBatchSize} and hands each batch to the notification
+ * executor, which writes it with one multi-row insert, fetches the unread counts of all affected
+ * users with one grouped query, and queues a single frame per user, containing the new
+ * notifications and the updated unread count, on the WebSocket executor. When the queue is full
+ * the caller writes its own notification synchronously, so notifications are never dropped.
+ */
+@Service
+@Slf4j
+public class NotificationDispatcher {
+
+  private final NotificationRepository notificationRepository;
+  private final WebSocketService webSocketService;
+  private final Executor notificationExecutor;
+  private final Executor websocketExecutor;
+  private final int maxBatchSize;
+  private final BlockingQueue<PendingNotification> queue;
+
+  private final Counter enqueuedCounter;
+  private final Counter overflowCounter;
+  private final Counter writtenCounter;
+  private final Counter failedCounter;
+  private final Timer flushTimer;
+
+  public NotificationDispatcher(
+      NotificationRepository notificationRepository,
+      WebSocketService webSocketService,
+      NotificationDispatchConfig config,
+      MeterRegistry meterRegistry,
+      @Qualifier("notificationExecutor") Executor notificationExecutor,
+      @Qualifier("websocketExecutor") Executor websocketExecutor) {
+    this.notificationRepository = notificationRepository;
+    this.webSocketService = webSocketService;
+    this.notificationExecutor = notificationExecutor;
+    this.websocketExecutor = websocketExecutor;
+    this.maxBatchSize = config.getMaxBatchSize();
+    this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+
+    Gauge.builder("notification.dispatch.queue.size", queue, BlockingQueue::size)
+         .description("Notifications waiting to be written")
+         .register(meterRegistry);
+    this.enqueuedCounter = Counter.builder("notification.dispatch.enqueued")
+                                  .description("Notifications accepted by the dispatcher")
+                                  .register(meterRegistry);
+    this.overflowCounter = Counter.builder("notification.dispatch.overflow")
+                                  .description("Notifications written by the caller because "
+                                               + "the queue was full")
+                                  .register(meterRegistry);
+    this.writtenCounter = Counter.builder("notification.dispatch.written")
+                                 .description("Notifications written to the database")
+                                 .register(meterRegistry);
+    this.failedCounter = Counter.builder("notification.dispatch.failed")
+                                .description("Notifications lost because their batch failed")
+                                .register(meterRegistry);
+    this.flushTimer = Timer.builder("notification.dispatch.flush")
+                           .description("Time spent writing and publishing one batch")
+                           .register(meterRegistry);
+  }
+
+  /**
+   * Accept a notification for batched delivery.
+   *
+   * @param user    the recipient
+   * @param type    the notification type
+   * @param content the notification content
+   */
+  public void enqueue(User user, NotificationType type, String content) {
+    PendingNotification notification = new PendingNotification(
+        user.getId(),
+        user.getUsername(),
+        type,
+        content,
+        SecurityUtils.getCurrentUserUserName().orElse("system"),
+        Instant.now());
+
+    enqueuedCounter.increment();
+    if (!queue.offer(notification)) {
+      overflowCounter.increment();
+      log.warn("Notification queue is full, writing notification for user ID: {} synchronously",
+               user.getId());
+      dispatch(List.of(notification));
+    }
+  }
+
+  /**
+   * Drain the queue and hand it to the notification executor in batches of at most
+   * {@code maxBatchSize}.
+   */
+  @Scheduled(fixedDelayString = "${notification.dispatch.flush-interval-ms:200}")
+  public void flush() {
+    while (!queue.isEmpty()) {
+      List<PendingNotification> batch = new ArrayList<>(maxBatchSize);
+      if (queue.drainTo(batch, maxBatchSize) == 0) {
+        return;
+      }
+      notificationExecutor.execute(
+          () -> DataSourceContextHolder.runWith(DataSourcePool.BACKGROUND, () -> dispatch(batch)));
+    }
+  }
+
+  /**
+   * Write whatever is left in the queue on the calling thread before the application stops.
+   */
+  @PreDestroy
+  public void shutdown() {
+    List<PendingNotification> batch = new ArrayList<>(maxBatchSize);
+    while (queue.drainTo(batch, maxBatchSize) > 0) {
+      dispatch(batch);
+      batch.clear();
+    }
+  }
+
+  private void dispatch(List<PendingNotification> batch) {
+    Timer.Sample sample = Timer.start();
+    try {
+      List<Long> ids = notificationRepository.insertAll(batch);
+      writtenCounter.increment(batch.size());
+
+      Map<Long, List<NotificationDTO>> notificationsByUser = new LinkedHashMap<>();
+      Map<Long, String> usernames = new HashMap<>();
+      for (int i = 0; i < batch.size(); i++) {
+        PendingNotification pending = batch.get(i);
+        usernames.putIfAbsent(pending.userId(), pending.username());
+        notificationsByUser.computeIfAbsent(pending.userId(), id -> new ArrayList<>())
+                           .add(toDto(ids.get(i), pending));
+      }
+
+      Map<Long, Long> unreadCounts = new HashMap<>();
+      for (Object[] row : notificationRepository.countUnreadByUserIds(
+          notificationsByUser.keySet())) {
+        unreadCounts.put((Long) row[0], (Long) row[1]);
+      }
+
+      notificationsByUser.forEach((userId, notifications) -> {
+        NotificationBatchDTO frame = NotificationBatchDTO.builder()
+                                                         .userId(userId)
+                                                         .notifications(notifications)
+                                                         .unreadCount(unreadCounts.getOrDefault(
+                                                             userId, 0L))
+                                                         .build();
+        websocketExecutor.execute(
+            () -> webSocketService.sendNotificationBatch(usernames.get(userId), frame));
+      });
+    } catch (RuntimeException e) {
+      failedCounter.increment(batch.size());
+      log.error("Failed to dispatch batch of {} notifications", batch.size(), e);
+    } finally {
+      sample.stop(flushTimer);
+    }
+  }
+
+  private NotificationDTO toDto(Long id, PendingNotification pending) {
+    return NotificationDTO.builder()
+                          .id(id)
+                          .userId(pending.userId())
+                          .userName(pending.username())
+                          .type(pending.type())
+                          .content(pending.content())
+                          .isRead(false)
+                          .build();
+  }
+}
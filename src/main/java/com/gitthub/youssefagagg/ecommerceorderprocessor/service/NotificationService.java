@@ -6,7 +6,6 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Notification;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
 import org.springframework.data.domain.Pageable;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Interface for managing
@@ -37,7 +36,14 @@ public interface NotificationService {
    */
   int markAllAsRead();
 
-  @Transactional
+  /**
+   * Create a notification for a user. Delivery is batched, so the notification is persisted and
+   * pushed to the user shortly after this method returns.
+   *
+   * @param user    the recipient
+   * @param type    the notification type
+   * @param content the notification content
+   */
   void createNotification(User user, NotificationType type, String content);
 
   /**
@@ -0,0 +1,248 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutValidator;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutVerdict;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.StatementCountingDataSource;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times the stages of order creation.
+ *
+ * <p></p>
+ * The whole pipeline is an {@code order.create} observation and every stage a child
+ * {@code order.create.stage} observation tagged with its stage, so each one becomes a timer and,
+ * through the tracing bridge, a span under the request's span. Both are tagged with the bucket of
+ * the order's item count and the outcome: {@code success}, {@code deadline} when the request
+ * deadline passed, {@code rejected} for another {@link CustomException}, {@code conflict} for an
+ * optimistic locking failure or {@code error}.
+ * The number of statements each stage sends is recorded in the
+ * {@code order.create.stage.statements} summary; writes Hibernate defers to the commit of a
+ * transaction are not part of any stage, nor are the reads the {@code prepare} stage runs on other
+ * threads. Each {@link CheckoutValidator} call is timed in {@code order.checkout.validation},
+ * tagged with the validator and its outcome: {@code approved}, {@code rejected}, {@code cancelled}
+ * when another step failed first, or {@code error}.
+ *
+ * <p></p>
+ * The stages up to and including the payment are not started once the {@link RequestDeadline} of
+ * the request has passed; the stages after the payment always run, since money may have moved.
+ *
+ * <p></p>
+ * Inventory shortages, optimistic locking failures and orders rejected because their idempotency
+ * key is locked by a concurrent request are counted separately.
+ */
+@Component
+public class OrderPipelineMetrics {
+
+  /**
+   * The stages of order creation, in order.
+   */
+  public enum Stage {
+    PREPARE(true),
+    INITIALIZE(true),
+    ADD_ITEMS(true),
+    PAYMENT(true),
+    STATUS_UPDATE(false),
+    NOTIFY_AUDIT(false),
+    MAP(false),
+    PUBLISH(false);
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+    private final boolean abortable;
+
+    Stage(boolean abortable) {
+      this.abortable = abortable;
+    }
+  }
+
+  private final ObservationRegistry observationRegistry;
+  private final MeterRegistry meterRegistry;
+  private final Counter inventoryShortages;
+  private final Counter optimisticLockFailures;
+  private final Counter lockRejections;
+
+  public OrderPipelineMetrics(ObservationRegistry observationRegistry,
+                              MeterRegistry meterRegistry) {
+    this.observationRegistry = observationRegistry;
+    this.meterRegistry = meterRegistry;
+    this.inventoryShortages = Counter.builder("order.inventory.shortages")
+                                     .description("Order items rejected for lack of stock")
+                                     .register(meterRegistry);
+    this.optimisticLockFailures = Counter.builder("order.optimistic.lock.failures")
+                                         .description("Orders that failed on a concurrent change")
+                                         .register(meterRegistry);
+    this.lockRejections = Counter.builder("order.idempotency.lock.rejections")
+                                 .description("Orders rejected because a request with the same "
+                                              + "idempotency key was in progress")
+                                 .register(meterRegistry);
+  }
+
+  /**
+   * Observe the whole order creation pipeline.
+   *
+   * @param itemCount the number of items of the order
+   * @param pipeline  the pipeline
+   * @param <T>       the type of the result
+   * @return the result of the pipeline
+   */
+  public <T> T observeOrder(int itemCount, Supplier<T> pipeline) {
+    Observation observation = Observation.createNotStarted("order.create", observationRegistry)
+                                         .contextualName("order create")
+                                         .lowCardinalityKeyValue("items", itemBucket(itemCount));
+    try {
+      return observe(observation, pipeline);
+    } catch (OptimisticLockingFailureException e) {
+      optimisticLockFailures.increment();
+      throw e;
+    }
+  }
+
+  /**
+   * Observe one stage of order creation and count the statements it sends. A stage before the
+   * payment fails with {@link ErrorCode#DEADLINE_EXCEEDED} instead of starting once the request
+   * deadline has passed.
+   *
+   * @param stage     the stage
+   * @param itemCount the number of items of the order
+   * @param body      the work of the stage
+   * @param <T>       the type of the result
+   * @return the result of the stage
+   */
+  public <T> T observeStage(Stage stage, int itemCount, Supplier<T> body) {
+    String items = itemBucket(itemCount);
+    Observation observation =
+        Observation.createNotStarted("order.create.stage", observationRegistry)
+                   .contextualName("order create " + stage.tag)
+                   .lowCardinalityKeyValue("stage", stage.tag)
+                   .lowCardinalityKeyValue("items", items);
+    long statementsBefore = StatementCountingDataSource.currentThreadCount();
+    try {
+      return observe(observation, () -> {
+        if (stage.abortable) {
+          RequestDeadline.checkCurrent("order stage " + stage.tag);
+        }
+        return body.get();
+      });
+    } finally {
+      DistributionSummary.builder("order.create.stage.statements")
+                         .description("Database statements sent by a stage of order creation")
+                         .tag("stage", stage.tag)
+                         .tag("items", items)
+                         .register(meterRegistry)
+                         .record(StatementCountingDataSource.currentThreadCount()
+                                 - statementsBefore);
+    }
+  }
+
+  /**
+   * Observe one stage of order creation that has no result.
+   *
+   * @param stage     the stage
+   * @param itemCount the number of items of the order
+   * @param body      the work of the stage
+   */
+  public void observeStage(Stage stage, int itemCount, Runnable body) {
+    observeStage(stage, itemCount, () -> {
+      body.run();
+      return null;
+    });
+  }
+
+  /**
+   * Time one checkout validation of an order.
+   *
+   * @param validator the name of the validator
+   * @param check     the validation
+   * @return the verdict of the validator
+   */
+  public CheckoutVerdict observeValidation(String validator, Supplier<CheckoutVerdict> check) {
+    long start = System.nanoTime();
+    String outcome = "error";
+    try {
+      CheckoutVerdict verdict = check.get();
+      outcome = verdict.approved() ? "approved" : "rejected";
+      return verdict;
+    } catch (RuntimeException e) {
+      outcome = Thread.currentThread().isInterrupted() ? "cancelled" : "error";
+      throw e;
+    } finally {
+      Timer.builder("order.checkout.validation")
+           .description("Checkout validations of new orders")
+           .tag("validator", validator)
+           .tag("outcome", outcome)
+           .register(meterRegistry)
+           .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Count an order item rejected for lack of stock.
+   */
+  public void inventoryShortage() {
+    inventoryShortages.increment();
+  }
+
+  /**
+   * Count an order rejected because its idempotency key was locked.
+   */
+  public void lockRejected() {
+    lockRejections.increment();
+  }
+
+  private static <T> T observe(Observation observation, Supplier<T> body) {
+    observation.start();
+    try (Observation.Scope scope = observation.openScope()) {
+      T result = body.get();
+      observation.lowCardinalityKeyValue("outcome", "success");
+      return result;
+    } catch (RuntimeException e) {
+      observation.lowCardinalityKeyValue("outcome", outcome(e));
+      observation.error(e);
+      throw e;
+    } finally {
+      observation.stop();
+    }
+  }
+
+  private static String outcome(RuntimeException e) {
+    if (e instanceof OptimisticLockingFailureException) {
+      return "conflict";
+    }
+    if (e instanceof CustomException customException) {
+      return customException.getErrorCode() == ErrorCode.DEADLINE_EXCEEDED ? "deadline"
+                                                                            : "rejected";
+    }
+    return "error";
+  }
+
+  /**
+   * The bucket of an item count, keeping the number of tag values small.
+   *
+   * @param itemCount the number of items
+   * @return the bucket
+   */
+  static String itemBucket(int itemCount) {
+    if (itemCount <= 1) {
+      return "1";
+    }
+    if (itemCount <= 5) {
+      return "2-5";
+    }
+    if (itemCount <= 20) {
+      return "6-20";
+    }
+    return "21+";
+  }
+}
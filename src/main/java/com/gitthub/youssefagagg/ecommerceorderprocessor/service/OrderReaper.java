@@ -0,0 +1,155 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.OrderReaperConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceContextHolder;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cancels orders that stayed PENDING longer than {@code order.reaper.pending-ttl} and releases the
+ * inventory they reserved.
+ *
+ * <p></p>
+ * Each run locks batches of expired orders with {@code FOR UPDATE SKIP LOCKED}, so several nodes
+ * can reap at the same time without blocking on, or double-processing, each other's rows. A batch
+ * releases its reservations and cancels its orders with one set-based update each, in a single
+ * transaction on the background pool; cancellation notifications are queued after it commits. A
+ * run stops once a batch comes back short or after {@code max-batches-per-run} batches.
+ */
+@Service
+@Slf4j
+public class OrderReaper {
+
+  static final String REAPER_USER = "system";
+
+  private final OrderRepository orderRepository;
+  private final InventoryRepository inventoryRepository;
+  private final SalesRollupService salesRollupService;
+  private final NotificationService notificationService;
+  private final OrderReaperConfig config;
+  private final TransactionTemplate transactionTemplate;
+
+  private final Counter cancelledCounter;
+  private final Counter inventoryReleasedCounter;
+  private final Timer batchTimer;
+
+  public OrderReaper(
+      OrderRepository orderRepository,
+      InventoryRepository inventoryRepository,
+      SalesRollupService salesRollupService,
+      NotificationService notificationService,
+      OrderReaperConfig config,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.orderRepository = orderRepository;
+    this.inventoryRepository = inventoryRepository;
+    this.salesRollupService = salesRollupService;
+    this.notificationService = notificationService;
+    this.config = config;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+    this.cancelledCounter = Counter.builder("order.reaper.cancelled")
+                                   .description("Expired pending orders cancelled")
+                                   .register(meterRegistry);
+    this.inventoryReleasedCounter = Counter.builder("order.reaper.inventory.released")
+                                           .description("Inventory rows whose reservations "
+                                                        + "were released")
+                                           .register(meterRegistry);
+    this.batchTimer = Timer.builder("order.reaper.batch")
+                           .description("Time spent reaping one batch")
+                           .register(meterRegistry);
+    Gauge.builder("order.reaper.lag", this, OrderReaper::lagSeconds)
+         .description("Seconds the oldest pending order is past its TTL")
+         .baseUnit("seconds")
+         .register(meterRegistry);
+  }
+
+  /**
+   * Cancel expired pending orders in batches until none are left or the per-run limit is hit.
+   */
+  @Scheduled(fixedDelayString = "${order.reaper.interval-ms:60000}")
+  public void reapExpiredOrders() {
+    if (!config.isEnabled()) {
+      return;
+    }
+    DataSourceContextHolder.runWith(DataSourcePool.BACKGROUND, () -> {
+      int total = 0;
+      for (int i = 0; i < config.getMaxBatchesPerRun(); i++) {
+        int reaped = reapBatch();
+        total += reaped;
+        if (reaped < config.getBatchSize()) {
+          break;
+        }
+      }
+      if (total > 0) {
+        log.info("Cancelled {} pending orders older than {}", total, config.getPendingTtl());
+      }
+    });
+  }
+
+  /**
+   * Lock, release and cancel one batch of expired orders in a single transaction.
+   *
+   * @return the number of cancelled orders
+   */
+  int reapBatch() {
+    Timer.Sample sample = Timer.start();
+    try {
+      List<Order> cancelled = transactionTemplate.execute(status -> {
+        Instant now = Instant.now();
+        List<Long> ids = orderRepository.lockExpiredPendingOrderIds(
+            now.minus(config.getPendingTtl()), config.getBatchSize());
+        if (ids.isEmpty()) {
+          return List.of();
+        }
+        int released = inventoryRepository.releaseReservationsForOrders(ids, REAPER_USER, now);
+        orderRepository.updateStatusByIdIn(ids, OrderStatus.CANCELLED.name(), REAPER_USER, now);
+        salesRollupService.recordStatusChange(ids, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        inventoryReleasedCounter.increment(released);
+        return orderRepository.findAllWithUserByIdIn(ids);
+      });
+      if (cancelled == null || cancelled.isEmpty()) {
+        return 0;
+      }
+
+      cancelledCounter.increment(cancelled.size());
+      for (Order order : cancelled) {
+        notificationService.createNotification(
+            order.getUser(),
+            NotificationType.ORDER_CANCELLATION,
+            "Your order #" + order.getId()
+            + " has been cancelled because payment was not completed.");
+      }
+      return cancelled.size();
+    } finally {
+      sample.stop(batchTimer);
+    }
+  }
+
+  private double lagSeconds() {
+    Instant oldest = DataSourceContextHolder.callWith(
+        DataSourcePool.BACKGROUND,
+        () -> orderRepository.findFirstCreatedDateByStatusIn(List.of(OrderStatus.PENDING)));
+    if (oldest == null) {
+      return 0;
+    }
+    Duration lag = Duration.between(oldest.plus(config.getPendingTtl()), Instant.now());
+    return Math.max(0, lag.toSeconds());
+  }
+}
@@ -1,12 +1,18 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStateMachineDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaymentDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +30,49 @@ public interface OrderService {
    */
   OrderDTO createOrder(OrderDTO orderDTO);
 
+  /**
+   * Accept an order for asynchronous processing. The order is created in PENDING status and queued;
+   * it is then processed by the submission worker with the same steps as
+   * {@link #createOrder(OrderDTO)}.
+   *
+   * @param orderDTO the order to submit
+   * @return the pending order
+   */
+  OrderDTO submitOrder(OrderDTO orderDTO);
+
+  /**
+   * Process a queued order: reserve its items, take the payment and notify the user. Called by the
+   * submission worker. If an earlier attempt reserved the items and failed afterward, the order is
+   * completed with them.
+   *
+   * @param orderId    the ID of the pending order
+   * @param orderItems the requested items
+   * @return the processed order
+   */
+  OrderDTO processSubmittedOrder(Long orderId, List<OrderItemDTO> orderItems);
+
+  /**
+   * Cancel a queued order that could not be processed and tell the user why. An order whose items
+   * an earlier attempt reserved is cancelled through its lifecycle, releasing them. Does nothing
+   * when the order was cancelled or processed in the meantime. Called by the submission worker.
+   *
+   * @param orderId the ID of the pending order
+   * @param reason  why the order could not be processed
+   * @return {@code true} if the order was cancelled, {@code false} if it was no longer pending
+   */
+  boolean rejectSubmittedOrder(Long orderId, String reason);
+
+  /**
+   * Complete a PENDING order whose payment was captured after checkout gave up on it: mark it paid,
+   * move it to processing and notify the user. Does nothing when the order is no longer PENDING.
+   * Called by the payment reconciler.
+   *
+   * @param orderId the ID of the pending order
+   * @param payment the completed payment of the order
+   * @return the completed order, or {@code null} if it was no longer PENDING
+   */
+  OrderDTO completePaidOrder(Long orderId, PaymentDTO payment);
+
   /**
    * Get all orders for the current user with pagination.
    *
@@ -71,6 +120,8 @@ public interface OrderService {
    *
    * @param id the order ID
    * @return the updated order
+   * @throws com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException with
+   *     {@code INVALID_STATUS_TRANSITION} if the order has already shipped or been cancelled
    */
   OrderDTO cancelOrder(Long id);
 
@@ -80,11 +131,46 @@ public interface OrderService {
    * @param id     the order ID
    * @param status the new status
    * @return the updated order
+   * @throws com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException with
+   *     {@code INVALID_STATUS_TRANSITION} if the order cannot move to the new status
    */
   OrderDTO updateOrderStatus(Long id, OrderStatus status);
 
   /**
-   * Get order status.
+   * Move several orders to the same status (admin only). Every order is checked against the
+   * transitions allowed by {@link OrderStatus}; orders that cannot move are reported and left as
+   * they are, the rest are updated together. The guards of the order state machine need the full
+   * order and are not evaluated here.
+   *
+   * @param orderIds the order IDs
+   * @param status   the new status
+   * @return the outcome for every requested order
+   */
+  BulkOrderStatusResultDTO updateOrderStatuses(List<Long> orderIds, OrderStatus status);
+
+  /**
+   * Move items of one order to new statuses (admin only), for example when part of an order ships.
+   * The items and the inventory they hold are updated with one statement, and the order then moves
+   * to the status its items put it in, if the lifecycle allows it.
+   *
+   * @param id       the order ID
+   * @param statuses the new status of every item to change, by item ID
+   * @return the updated order
+   * @throws com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException with
+   *     {@code ENTITY_NOT_FOUND} if an item does not belong to the order, or
+   *     {@code INVALID_STATUS_TRANSITION} if an item cannot move to its new status
+   */
+  OrderDTO updateOrderItemStatuses(Long id, Map<Long, OrderItemStatus> statuses);
+
+  /**
+   * Describe the order lifecycle: the allowed transitions and the guards and hooks of every status.
+   *
+   * @return the description
+   */
+  OrderStateMachineDTO describeStateMachine();
+
+  /**
+   * Get order status. Users can only see the status of their own orders; admins can see any.
    *
    * @param id the order ID
    * @return the order status
@@ -0,0 +1,228 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStateMachineDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The order lifecycle: which status changes are allowed, what an order must satisfy to make them
+ * and what they trigger.
+ *
+ * <p></p>
+ * The allowed transitions come from the table in {@link OrderStatus}. On top of it, guards reject a
+ * transition the order does not qualify for, and hooks run the side effects of entering a status,
+ * such as releasing or shipping inventory and notifying the customer, in the order they were
+ * registered. Hooks registered with {@link Builder#onTransition} run after every transition, once
+ * the status-specific hooks have run. A transition that is not allowed is rejected with a
+ * {@link CustomException} instead of being ignored.
+ */
+public final class OrderStateMachine {
+
+  private final Map<OrderStatus, List<Guard>> guards;
+  private final Map<OrderStatus, List<Hook>> hooks;
+  private final List<Hook> transitionHooks;
+
+  private OrderStateMachine(Builder builder) {
+    this.guards = new EnumMap<>(OrderStatus.class);
+    this.hooks = new EnumMap<>(OrderStatus.class);
+    for (OrderStatus status : OrderStatus.values()) {
+      guards.put(status, List.copyOf(builder.guards.get(status)));
+      hooks.put(status, List.copyOf(builder.hooks.get(status)));
+    }
+    this.transitionHooks = List.copyOf(builder.transitionHooks);
+  }
+
+  /**
+   * Create a builder for a state machine.
+   *
+   * @return the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Move an order to a new status and run the hooks of the transition.
+   *
+   * @param order  the order
+   * @param target the new status
+   * @return the previous status
+   * @throws CustomException with {@link ErrorCode#INVALID_STATUS_TRANSITION} if the lifecycle or a
+   *                         guard does not allow the transition
+   */
+  public OrderStatus transition(Order order, OrderStatus target) {
+    OrderStatus previous = order.getStatus();
+    Optional<String> rejection = rejectionReason(order, target);
+    if (rejection.isPresent()) {
+      throw new CustomException(ErrorCode.INVALID_STATUS_TRANSITION, rejection.get());
+    }
+
+    order.updateStatus(target);
+    for (Hook hook : hooks.get(target)) {
+      hook.action().accept(order, previous);
+    }
+    for (Hook hook : transitionHooks) {
+      hook.action().accept(order, previous);
+    }
+    return previous;
+  }
+
+  /**
+   * Why an order cannot move to a new status.
+   *
+   * @param order  the order
+   * @param target the new status
+   * @return the reason, or empty if the transition is allowed
+   */
+  public Optional<String> rejectionReason(Order order, OrderStatus target) {
+    OrderStatus current = order.getStatus();
+    if (!Order.isTransitionAllowed(current, target)) {
+      return Optional.of("Cannot change status from " + current + " to " + target);
+    }
+    for (Guard guard : guards.get(target)) {
+      if (!guard.condition().test(order)) {
+        return Optional.of("Cannot change status from " + current + " to " + target + ": "
+                           + guard.message());
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Describe the lifecycle: every status with the statuses it can move to, and the guards and hooks
+   * of entering it.
+   *
+   * @return the description
+   */
+  public OrderStateMachineDTO describe() {
+    return OrderStateMachineDTO.builder()
+                               .states(Arrays.stream(OrderStatus.values())
+                                             .map(this::describe)
+                                             .toList())
+                               .transitionHooks(transitionHooks.stream().map(Hook::name).toList())
+                               .build();
+  }
+
+  private OrderStateMachineDTO.State describe(OrderStatus status) {
+    return OrderStateMachineDTO.State.builder()
+                                     .status(status)
+                                     .terminal(status.isTerminal())
+                                     .transitions(status.allowedTransitions())
+                                     .guards(guards.get(status).stream().map(Guard::name).toList())
+                                     .hooks(hooks.get(status).stream().map(Hook::name).toList())
+                                     .build();
+  }
+
+  /**
+   * A condition an order must meet to enter a status.
+   *
+   * @param name      the guard name, as reported by {@link #describe()}
+   * @param condition the condition
+   * @param message   why the transition is rejected when the condition does not hold
+   */
+  public record Guard(String name, Predicate<Order> condition, String message) {
+  }
+
+  /**
+   * A side effect of a transition.
+   *
+   * @param name   the hook name, as reported by {@link #describe()}
+   * @param action the action, given the order in its new status and its previous status
+   */
+  public record Hook(String name, BiConsumer<Order, OrderStatus> action) {
+  }
+
+  /**
+   * Builder for {@link OrderStateMachine}.
+   */
+  public static final class Builder {
+
+    private final Map<OrderStatus, List<Guard>> guards = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, List<Hook>> hooks = new EnumMap<>(OrderStatus.class);
+    private final List<Hook> transitionHooks = new ArrayList<>();
+
+    private Builder() {
+      for (OrderStatus status : OrderStatus.values()) {
+        guards.put(status, new ArrayList<>());
+        hooks.put(status, new ArrayList<>());
+      }
+    }
+
+    /**
+     * Require a condition before an order enters any of the given statuses.
+     *
+     * @param name      the guard name
+     * @param condition the condition
+     * @param message   why the transition is rejected when the condition does not hold
+     * @param targets   the statuses the guard applies to
+     * @return this builder
+     */
+    public Builder guard(String name, Predicate<Order> condition, String message,
+                         OrderStatus... targets) {
+      Guard guard = new Guard(name, condition, message);
+      for (OrderStatus target : targets) {
+        guards.get(target).add(guard);
+      }
+      return this;
+    }
+
+    /**
+     * Run an action when an order enters a status.
+     *
+     * @param target the status
+     * @param name   the hook name
+     * @param action the action, given the order in its new status
+     * @return this builder
+     */
+    public Builder onEnter(OrderStatus target, String name, Consumer<Order> action) {
+      hooks.get(target).add(new Hook(name, (order, previous) -> action.accept(order)));
+      return this;
+    }
+
+    /**
+     * Run an action when an order enters a status, for actions that depend on the status it left.
+     *
+     * @param target the status
+     * @param name   the hook name
+     * @param action the action, given the order in its new status and its previous status
+     * @return this builder
+     */
+    public Builder onEnter(OrderStatus target, String name,
+                           BiConsumer<Order, OrderStatus> action) {
+      hooks.get(target).add(new Hook(name, action));
+      return this;
+    }
+
+    /**
+     * Run an action after every transition.
+     *
+     * @param name   the hook name
+     * @param action the action, given the order in its new status and its previous status
+     * @return this builder
+     */
+    public Builder onTransition(String name, BiConsumer<Order, OrderStatus> action) {
+      transitionHooks.add(new Hook(name, action));
+      return this;
+    }
+
+    /**
+     * Build the state machine.
+     *
+     * @return the state machine
+     */
+    public OrderStateMachine build() {
+      return new OrderStateMachine(this);
+    }
+  }
+}
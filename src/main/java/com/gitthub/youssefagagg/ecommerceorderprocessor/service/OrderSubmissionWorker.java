@@ -0,0 +1,221 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.OrderSubmissionConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceContextHolder;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderSubmission;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderSubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the asynchronous order submission queue.
+ *
+ * <p></p>
+ * Each submission is claimed with {@code FOR UPDATE SKIP LOCKED} and leased for {@code lease}
+ * before it is processed, so workers on every node share the queue without holding a transaction
+ * (and a database connection) while the payment gateway is called. The row is deleted once the
+ * order is processed; if the worker dies, the lease expires and the submission is picked up again.
+ * A poll starts one worker when the queue is idle; every worker that finds work starts another, up
+ * to {@code workers}.
+ *
+ * <p></p>
+ * Business failures, such as insufficient stock, reject the order at once. Unexpected errors are
+ * retried with exponential backoff and reject the order after {@code max-attempts}. A retry of an
+ * order whose items were already reserved resumes with the payment.
+ */
+@Service
+@Slf4j
+public class OrderSubmissionWorker {
+
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  private final OrderSubmissionRepository orderSubmissionRepository;
+  private final OrderService orderService;
+  private final OrderSubmissionConfig config;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor executor;
+  private final AtomicInteger activeWorkers = new AtomicInteger();
+
+  private final Counter completedCounter;
+  private final Counter rejectedCounter;
+  private final Counter retriedCounter;
+  private final Timer processingTimer;
+  private final Timer latencyTimer;
+
+  public OrderSubmissionWorker(
+      OrderSubmissionRepository orderSubmissionRepository,
+      OrderService orderService,
+      OrderSubmissionConfig config,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Qualifier("taskExecutor") Executor executor) {
+    this.orderSubmissionRepository = orderSubmissionRepository;
+    this.orderService = orderService;
+    this.config = config;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.executor = executor;
+
+    Gauge.builder("order.submission.queue.depth", this, OrderSubmissionWorker::queueDepth)
+         .description("Submitted orders waiting to be processed")
+         .register(meterRegistry);
+    Gauge.builder("order.submission.lag", this, OrderSubmissionWorker::lagSeconds)
+         .description("Age of the oldest submitted order waiting to be processed")
+         .baseUnit("seconds")
+         .register(meterRegistry);
+    this.completedCounter = Counter.builder("order.submission.completed")
+                                   .description("Submitted orders processed")
+                                   .register(meterRegistry);
+    this.rejectedCounter = Counter.builder("order.submission.rejected")
+                                  .description("Submitted orders cancelled because they could "
+                                               + "not be processed")
+                                  .register(meterRegistry);
+    this.retriedCounter = Counter.builder("order.submission.retried")
+                                 .description("Failed attempts put back in the queue")
+                                 .register(meterRegistry);
+    this.processingTimer = Timer.builder("order.submission.processing")
+                                .description("Time spent processing one submitted order")
+                                .register(meterRegistry);
+    this.latencyTimer = Timer.builder("order.submission.latency")
+                             .description("Time from submission until the order was processed")
+                             .register(meterRegistry);
+  }
+
+  /**
+   * Start a worker if none is running.
+   */
+  @Scheduled(fixedDelayString = "${order.submission.poll-interval-ms:200}")
+  public void poll() {
+    if (activeWorkers.get() == 0) {
+      startWorker();
+    }
+  }
+
+  private void startWorker() {
+    int active;
+    do {
+      active = activeWorkers.get();
+      if (active >= config.getWorkers()) {
+        return;
+      }
+    } while (!activeWorkers.compareAndSet(active, active + 1));
+
+    try {
+      executor.execute(this::drain);
+    } catch (RuntimeException e) {
+      activeWorkers.decrementAndGet();
+      throw e;
+    }
+  }
+
+  private void drain() {
+    try {
+      while (processNext()) {
+        // There is work, let another worker help
+        startWorker();
+      }
+    } finally {
+      activeWorkers.decrementAndGet();
+    }
+  }
+
+  /**
+   * Claim and process the oldest due submission.
+   *
+   * @return {@code true} if a submission was claimed
+   */
+  private boolean processNext() {
+    OrderSubmission submission;
+    try {
+      submission = transactionTemplate.execute(status -> claimNext());
+    } catch (RuntimeException e) {
+      log.error("Failed to claim a submitted order", e);
+      return false;
+    }
+    if (submission == null) {
+      return false;
+    }
+
+    Timer.Sample sample = Timer.start();
+    try {
+      orderService.processSubmittedOrder(submission.getOrderId(), submission.getItems());
+      transactionTemplate.executeWithoutResult(
+          status -> orderSubmissionRepository.deleteById(submission.getId()));
+      completedCounter.increment();
+      latencyTimer.record(Duration.between(submission.getCreatedDate(), Instant.now()));
+    } catch (RuntimeException e) {
+      handleFailure(submission, e);
+    } finally {
+      sample.stop(processingTimer);
+    }
+    return true;
+  }
+
+  /**
+   * Lock the oldest due submission and lease it, so other workers skip it while it is processed.
+   */
+  private OrderSubmission claimNext() {
+    Instant now = Instant.now();
+    return orderSubmissionRepository.claimNext(now)
+                                    .map(submission -> {
+                                      submission.setAvailableAt(now.plus(config.getLease()));
+                                      return submission;
+                                    })
+                                    .orElse(null);
+  }
+
+  private void handleFailure(OrderSubmission submission, RuntimeException e) {
+    String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    boolean retryable = !(e instanceof CustomException)
+                        && submission.getAttempts() + 1 < config.getMaxAttempts();
+
+    if (retryable) {
+      Duration backoff = config.getRetryBackoff().multipliedBy(1L << submission.getAttempts());
+      log.warn("Processing submitted order {} failed, retrying in {}", submission.getOrderId(),
+               backoff, e);
+      transactionTemplate.executeWithoutResult(status -> orderSubmissionRepository.reschedule(
+          submission.getId(), Instant.now().plus(backoff), truncate(reason)));
+      retriedCounter.increment();
+      return;
+    }
+
+    log.info("Rejecting submitted order {}: {}", submission.getOrderId(), reason);
+    Boolean rejected = transactionTemplate.execute(status -> {
+      orderSubmissionRepository.deleteById(submission.getId());
+      return orderService.rejectSubmittedOrder(submission.getOrderId(), reason);
+    });
+    if (Boolean.TRUE.equals(rejected)) {
+      rejectedCounter.increment();
+    } else {
+      log.info("Submitted order {} was already cancelled or processed", submission.getOrderId());
+    }
+  }
+
+  private double queueDepth() {
+    return DataSourceContextHolder.callWith(DataSourcePool.BACKGROUND,
+                                            orderSubmissionRepository::count);
+  }
+
+  private double lagSeconds() {
+    Instant oldest = DataSourceContextHolder.callWith(
+        DataSourcePool.BACKGROUND, orderSubmissionRepository::findOldestCreatedDate);
+    return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis() / 1000.0;
+  }
+
+  private static String truncate(String reason) {
+    return reason.length() <= MAX_ERROR_LENGTH ? reason : reason.substring(0, MAX_ERROR_LENGTH);
+  }
+}
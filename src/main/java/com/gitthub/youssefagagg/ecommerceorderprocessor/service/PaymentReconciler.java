@@ -0,0 +1,123 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.PaymentReconciliationConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceContextHolder;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaymentDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Payment;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Settles payments that checkout took at the gateway but did not see through.
+ *
+ * <p></p>
+ * Checkout commits its order before calling the gateway and applies the payment in a second
+ * transaction, so a capture whose outcome is unknown leaves the payment AUTHORIZED, and a failure
+ * after the capture leaves it COMPLETED, while the order stays PENDING. The order reaper leaves
+ * such orders alone. Every run, this reconciler captures the AUTHORIZED payments again and
+ * completes the orders of the captured ones. It also refunds the payments marked REFUND_PENDING
+ * because their order was cancelled while PENDING, e.g. during the gateway call.
+ *
+ * <p></p>
+ * Only payments unchanged for {@code payment.reconciliation.grace} are picked up, so a checkout in
+ * progress is not overtaken. Several nodes may settle the same payment: the gateway deduplicates
+ * captures and refunds by the authorization reference, and the version-checked updates let only
+ * one of them record the outcome.
+ */
+@Service
+@Slf4j
+public class PaymentReconciler {
+
+  private final PaymentRepository paymentRepository;
+  private final PaymentService paymentService;
+  private final OrderService orderService;
+  private final PaymentReconciliationConfig config;
+  private final MeterRegistry meterRegistry;
+
+  public PaymentReconciler(
+      PaymentRepository paymentRepository,
+      PaymentService paymentService,
+      OrderService orderService,
+      PaymentReconciliationConfig config,
+      MeterRegistry meterRegistry) {
+    this.paymentRepository = paymentRepository;
+    this.paymentService = paymentService;
+    this.orderService = orderService;
+    this.config = config;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Settle one batch of abandoned payments, oldest first.
+   */
+  @Scheduled(fixedDelayString = "${payment.reconciliation.interval-ms:60000}")
+  public void reconcilePayments() {
+    if (!config.isEnabled()) {
+      return;
+    }
+    DataSourceContextHolder.runWith(DataSourcePool.BACKGROUND, () -> {
+      List<Payment> payments = paymentRepository.findUnsettled(
+          Instant.now().minus(config.getGrace()), Limit.of(config.getBatchSize()));
+      for (Payment payment : payments) {
+        String outcome;
+        try {
+          outcome = reconcile(payment);
+        } catch (RuntimeException e) {
+          // Another node or a cancellation changed the payment or its order; retried next run
+          log.warn("Could not settle payment ID {} of order ID {}: {}", payment.getId(),
+                   payment.getOrder().getId(), e.getMessage());
+          outcome = "error";
+        }
+        record(outcome);
+      }
+      if (!payments.isEmpty()) {
+        log.info("Reconciled {} abandoned payments", payments.size());
+      }
+    });
+  }
+
+  /**
+   * Settle one payment.
+   *
+   * @return the outcome, for the metrics
+   */
+  String reconcile(Payment payment) {
+    if (payment.getStatus() == PaymentStatus.REFUND_PENDING) {
+      PaymentDTO refunded = paymentService.refundPayment(payment);
+      return outcomeOf(refunded.getStatus());
+    }
+
+    PaymentDTO settled = paymentService.resumePayment(payment);
+    if (settled.getStatus() != PaymentStatus.COMPLETED) {
+      return outcomeOf(settled.getStatus());
+    }
+    orderService.completePaidOrder(payment.getOrder().getId(), settled);
+    return "completed";
+  }
+
+  private static String outcomeOf(PaymentStatus status) {
+    return switch (status) {
+      case COMPLETED -> "completed";
+      case REFUNDED -> "refunded";
+      case FAILED -> "failed";
+      default -> "unknown";
+    };
+  }
+
+  private void record(String outcome) {
+    Counter.builder("payment.reconciliation.payments")
+           .description("Abandoned payments settled by the reconciler")
+           .tag("outcome", outcome)
+           .register(meterRegistry)
+           .increment();
+  }
+}
@@ -1,7 +1,9 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
 
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaymentDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Payment;
+import java.util.Collection;
 
 /**
  * Service Interface for managing
@@ -10,11 +12,50 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Payment;
 public interface PaymentService {
 
   /**
-   * Process a payment for an order.
+   * Process a payment for an order: authorize the amount at the payment gateway and capture it.
+   * Call it outside a transaction, so no database connection is held while the gateway is called.
    *
    * @param paymentDTO the payment to process
    * @return the processed payment
    */
   PaymentDTO processPayment(PaymentDTO paymentDTO);
 
+  /**
+   * Process the payment of an order that the caller has just created. The order is neither loaded
+   * nor authorized again and its total is charged as is, so this is for internal use on the
+   * checkout path only. Call it outside a transaction.
+   *
+   * @param order          the order to pay, already loaded and authorized
+   * @param paymentMethod  the payment method
+   * @param idempotencyKey the idempotency key of the payment
+   * @return the processed payment
+   */
+  PaymentDTO processOrderPayment(Order order, String paymentMethod, String idempotencyKey);
+
+  /**
+   * Finish a payment that was left AUTHORIZED, e.g. because the outcome of its capture was unknown,
+   * by capturing it again. A COMPLETED payment is returned as is. Call it outside a transaction.
+   *
+   * @param payment the payment, with its order loaded
+   * @return the payment after the capture
+   */
+  PaymentDTO resumePayment(Payment payment);
+
+  /**
+   * Return the amount of a payment marked for a refund to the customer. The payment stays
+   * REFUND_PENDING when the gateway could not be reached, so it can be refunded again later. Call
+   * it outside a transaction.
+   *
+   * @param payment the payment, with its order loaded
+   * @return the payment after the refund
+   */
+  PaymentDTO refundPayment(Payment payment);
+
+  /**
+   * Mark the payments of orders that were cancelled while PENDING for a refund, including payments
+   * still in progress. Call it in the transaction that cancels the orders.
+   *
+   * @param orderIds the IDs of the cancelled orders
+   */
+  void requestRefunds(Collection<Long> orderIds);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductImportStatusDTO;
+
+/**
+ * Service Interface for bulk product and inventory imports.
+ */
+public interface ProductImportService {
+
+  /**
+   * Start importing a file from the import directory in the background.
+   *
+   * @param fileName the file name, relative to the import directory
+   * @return the status of the started import
+   */
+  ProductImportStatusDTO startImport(String fileName);
+
+  /**
+   * Restart a failed or stopped import in the background. Partitions continue after their last
+   * committed chunk.
+   *
+   * @param executionId the execution ID of the failed import
+   * @return the status of the restarted import
+   */
+  ProductImportStatusDTO restartImport(Long executionId);
+
+  /**
+   * Get the progress of an import.
+   *
+   * @param executionId the execution ID
+   * @return the status of the import
+   */
+  ProductImportStatusDTO getImportStatus(Long executionId);
+}
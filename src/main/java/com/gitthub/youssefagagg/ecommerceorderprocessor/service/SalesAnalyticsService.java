@@ -0,0 +1,30 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesAnalyticsDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesDimension;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesGranularity;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Service Interface for sales analytics served from the pre-aggregated sales cubes.
+ */
+public interface SalesAnalyticsService {
+
+  /**
+   * Get order count, units, revenue and average order value per period.
+   *
+   * @param startDate   the first day, inclusive, in the given zone; defaults to today
+   * @param endDate     the last day, inclusive, in the given zone; defaults to today
+   * @param granularity the period length, defaults to {@link SalesGranularity#DAY}
+   * @param zone        the zone ID in which days and periods start, defaults to the reporting zone
+   * @param dimension   the breakdown within each period, defaults to {@link SalesDimension#NONE}
+   * @param statuses    the order statuses to include, defaults to the statuses counted as sales
+   * @return the rows ordered by period and breakdown key
+   */
+  List<SalesAnalyticsDTO> getSalesAnalytics(LocalDate startDate, LocalDate endDate,
+                                            SalesGranularity granularity, String zone,
+                                            SalesDimension dimension,
+                                            List<OrderStatus> statuses);
+}
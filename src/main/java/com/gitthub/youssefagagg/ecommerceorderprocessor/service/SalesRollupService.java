@@ -0,0 +1,62 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.DailySales;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service Interface for maintaining the sales rollups ({@link DailySales} and the sales analytics
+ * cubes) and reading the daily sales.
+ */
+public interface SalesRollupService {
+
+  /**
+   * Record a status change of some orders for the rollups. The change is only queued, in the
+   * transaction that changes the status, and applied by {@link #applyPendingDeltas()}: the orders
+   * move between the status cells of the analytics cubes; orders entering a counted status are also
+   * added to their sales day and orders leaving one are removed.
+   *
+   * @param orderIds  the IDs of the orders that changed status
+   * @param oldStatus the previous status, {@code null} for new orders
+   * @param newStatus the new status
+   */
+  void recordStatusChange(Collection<Long> orderIds, OrderStatus oldStatus, OrderStatus newStatus);
+
+  /**
+   * Apply the oldest recorded status changes to the rollups, in a transaction on the background
+   * pool. The orders and their items must have been committed.
+   *
+   * @return the number of status changes applied, less than the batch size once none are left
+   */
+  int applyPendingDeltas();
+
+  /**
+   * Get the sales of every day in a range that has any, read from the rollup.
+   *
+   * @param startDate the first day, inclusive, defaults to today in the reporting zone
+   * @param endDate   the last day, inclusive, defaults to today in the reporting zone
+   * @return the daily sales ordered by day
+   */
+  List<DailySalesReportDTO> getDailySales(LocalDate startDate, LocalDate endDate);
+
+  /**
+   * Rebuild the rollups of a date range from the orders table on the calling thread.
+   *
+   * @param startDate the first day, inclusive
+   * @param endDate   the last day, inclusive
+   * @return the number of rollup rows written
+   */
+  int backfill(LocalDate startDate, LocalDate endDate);
+
+  /**
+   * Start rebuilding the rollups of a date range on the reporting executor. Only one backfill runs
+   * at a time.
+   *
+   * @param startDate the first day, inclusive
+   * @param endDate   the last day, inclusive
+   */
+  void startBackfill(LocalDate startDate, LocalDate endDate);
+}
@@ -1,9 +1,12 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.service;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics.WebSocketSendEvent;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.InventoryDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.NotificationBatchDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.NotificationDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -11,6 +14,9 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service for sending real-time updates via WebSocket.
+ *
+ * <p></p>
+ * Every send is recorded as a {@link WebSocketSendEvent}.
  */
 @Service
 @Slf4j
@@ -26,7 +32,7 @@ public class WebSocketService {
    */
   public void sendInventoryUpdate(InventoryDTO inventoryDTO) {
     log.debug("Sending inventory update for product ID: {}", inventoryDTO.getProductId());
-    messagingTemplate.convertAndSend("/topic/inventory", inventoryDTO);
+    send("/topic/inventory", inventoryDTO);
   }
 
   /**
@@ -38,7 +44,7 @@ public class WebSocketService {
   public void sendOrderStatusUpdate(String username, OrderDTO orderDTO) {
     log.debug("Sending order status update for order ID: {} to user ID: {}", orderDTO.getId(),
               username);
-    messagingTemplate.convertAndSend("/topic/orders/" + username, orderDTO);
+    send("/topic/orders", "/topic/orders/" + username, orderDTO);
   }
 
   /**
@@ -49,7 +55,21 @@ public class WebSocketService {
    */
   public void sendNotification(String username, NotificationDTO notificationDTO) {
     log.debug("Sending notification to user ID: {}", username);
-    messagingTemplate.convertAndSend("/topic/notifications/" + username, notificationDTO);
+    send("/topic/notifications", "/topic/notifications/" + username, notificationDTO);
+  }
+
+  /**
+   * Send a coalesced batch of notifications to a specific user. Batches have their own
+   * destination, so subscribers of {@link #sendNotification} only ever receive single
+   * notifications.
+   *
+   * @param username the username of the recipient
+   * @param batch    the notifications and the resulting unread count
+   */
+  public void sendNotificationBatch(String username, NotificationBatchDTO batch) {
+    log.debug("Sending {} notifications to user ID: {}", batch.getNotifications().size(),
+              username);
+    send("/topic/notifications/batch", "/topic/notifications/batch/" + username, batch);
   }
 
   /**
@@ -62,8 +82,17 @@ public class WebSocketService {
   public void sendOrderStatusChangeEvent(Long orderId, OrderStatus oldStatus,
                                          OrderStatus newStatus) {
     log.debug("Sending order status change event for order ID: {}", orderId);
-    messagingTemplate.convertAndSend("/topic/admin/orders/status",
-                                     new OrderStatusChangeEvent(orderId, oldStatus, newStatus));
+    send("/topic/admin/orders/status", new OrderStatusChangeEvent(orderId, oldStatus, newStatus));
+  }
+
+  /**
+   * Send the status changes of a bulk update to the admin dashboard as a single frame.
+   *
+   * @param events the status changes
+   */
+  public void sendOrderStatusChangeEvents(List<OrderStatusChangeEvent> events) {
+    log.debug("Sending {} order status change events", events.size());
+    send("/topic/admin/orders/status/bulk", events);
   }
 
   /**
@@ -73,7 +102,27 @@ public class WebSocketService {
    */
   public void sendLowStockAlert(InventoryDTO inventoryDTO) {
     log.debug("Sending low stock alert for product ID: {}", inventoryDTO.getProductId());
-    messagingTemplate.convertAndSend("/topic/admin/inventory/low-stock", inventoryDTO);
+    send("/topic/admin/inventory/low-stock", inventoryDTO);
+  }
+
+  private void send(String destination, Object payload) {
+    send(destination, destination, payload);
+  }
+
+  /**
+   * Convert and send a payload, recording how long the send took.
+   *
+   * @param topic       the destination without the username
+   * @param destination the destination
+   * @param payload     the payload
+   */
+  private void send(String topic, String destination, Object payload) {
+    WebSocketSendEvent event = WebSocketSendEvent.start(topic, destination);
+    try {
+      messagingTemplate.convertAndSend(destination, payload);
+    } finally {
+      event.commit();
+    }
   }
 
   /**
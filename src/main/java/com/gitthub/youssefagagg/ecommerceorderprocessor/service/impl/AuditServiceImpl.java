@@ -1,6 +1,8 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.UseDataSource;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.AuditLogDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.AuditLog;
@@ -11,6 +13,8 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.AuditLogRepos
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.AuditService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.BaseService;
+import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -41,6 +45,7 @@ public class AuditServiceImpl extends BaseService implements AuditService {
   }
 
   @Override
+  @UseDataSource(DataSourcePool.REPORTING)
   @Transactional(readOnly = true)
   public PaginationResponse<AuditLogDTO> getAuditLogsForEntity(String entityType, Long entityId,
                                                                Pageable pageable) {
@@ -55,6 +60,7 @@ public class AuditServiceImpl extends BaseService implements AuditService {
   }
 
   @Override
+  @UseDataSource(DataSourcePool.REPORTING)
   @Transactional(readOnly = true)
   public PaginationResponse<AuditLogDTO> getAuditLogsByEntityType(String entityType,
                                                                   Pageable pageable) {
@@ -67,6 +73,7 @@ public class AuditServiceImpl extends BaseService implements AuditService {
   }
 
   @Override
+  @UseDataSource(DataSourcePool.REPORTING)
   @Transactional(readOnly = true)
   public PaginationResponse<AuditLogDTO> getAuditLogsByAction(String action, Pageable pageable) {
     log.debug("Request to get AuditLogs by action: {}", action);
@@ -78,6 +85,7 @@ public class AuditServiceImpl extends BaseService implements AuditService {
   }
 
   @Override
+  @UseDataSource(DataSourcePool.REPORTING)
   @Transactional(readOnly = true)
   public AuditLogDTO getAuditLog(Long id) {
     log.debug("Request to get AuditLog : {}", id);
@@ -90,7 +98,8 @@ public class AuditServiceImpl extends BaseService implements AuditService {
 
 
   @Override
-  @Async("taskExecutor")
+  @Async("auditExecutor")
+  @UseDataSource(DataSourcePool.BACKGROUND)
   @Transactional
   public void createLogAsync(String entityType, Long entityId, Object entity) {
     log.debug("Request to asynchronously create audit log for entity type: {} and entity ID: {}",
@@ -105,7 +114,8 @@ public class AuditServiceImpl extends BaseService implements AuditService {
   }
 
   @Override
-  @Async("taskExecutor")
+  @Async("auditExecutor")
+  @UseDataSource(DataSourcePool.BACKGROUND)
   @Transactional
   public void updateLogAsync(String entityType, Long entityId, String message, Object oldValue,
                              Object newValue) {
@@ -137,7 +147,27 @@ public class AuditServiceImpl extends BaseService implements AuditService {
   }
 
   @Override
-  @Async("taskExecutor")
+  @Async("auditExecutor")
+  @UseDataSource(DataSourcePool.BACKGROUND)
+  @Transactional
+  public void updateLogsAsync(String entityType, Map<Long, String> changesByEntityId) {
+    log.debug("Request to asynchronously create {} update audit logs for entity type: {}",
+              changesByEntityId.size(), entityType);
+    try {
+      List<AuditLog> auditLogs = changesByEntityId.entrySet().stream()
+                                                  .map(entry -> AuditLog.updateLog(
+                                                      entityType, entry.getKey(),
+                                                      entry.getValue()))
+                                                  .toList();
+      auditLogRepository.saveAll(auditLogs);
+    } catch (Exception e) {
+      log.error("Error creating update audit logs", e);
+    }
+  }
+
+  @Override
+  @Async("auditExecutor")
+  @UseDataSource(DataSourcePool.BACKGROUND)
   @Transactional
   public void deleteLogAsync(String entityType, Long entityId) {
     log.debug(
@@ -0,0 +1,154 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.FlightRecorderConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.FlightRecordingDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.FlightRecordingService;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service Implementation for JDK Flight Recorder recordings started on demand.
+ *
+ * <p></p>
+ * Only recordings started through this service are listed and can be stopped, dumped or closed;
+ * recordings started with {@code -XX:StartFlightRecording} or {@code jcmd} are left alone. The
+ * number of recordings is capped, and recordings still open when the application shuts down are
+ * closed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FlightRecordingServiceImpl implements FlightRecordingService {
+
+  private final FlightRecorderConfig flightRecorderConfig;
+  private final Map<Long, ManagedRecording> recordings = new ConcurrentHashMap<>();
+
+  @Override
+  public List<FlightRecordingDTO> getRecordings() {
+    return recordings.values().stream()
+                     .map(FlightRecordingServiceImpl::toDto)
+                     .sorted(Comparator.comparing(FlightRecordingDTO::getId))
+                     .toList();
+  }
+
+  @Override
+  public synchronized FlightRecordingDTO startRecording(String name, String settings,
+                                                        Duration maxAge) {
+    if (recordings.size() >= flightRecorderConfig.getMaxRecordings()) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "At most " + flightRecorderConfig.getMaxRecordings()
+                                + " recordings can be open, close one first");
+    }
+    String settingsName = settings != null ? settings : flightRecorderConfig.getDefaultSettings();
+    Recording recording = new Recording(loadConfiguration(settingsName));
+    recording.setName(name != null ? name : "ecommerce-" + Instant.now());
+    recording.setToDisk(true);
+    recording.setMaxAge(maxAge != null ? maxAge : flightRecorderConfig.getMaxAge());
+    recording.setMaxSize(flightRecorderConfig.getMaxSize().toBytes());
+    recording.start();
+    recordings.put(recording.getId(), new ManagedRecording(recording, settingsName));
+    log.info("Started flight recording {} ({}) with settings {}", recording.getId(),
+             recording.getName(), settingsName);
+    return toDto(recordings.get(recording.getId()));
+  }
+
+  @Override
+  public FlightRecordingDTO stopRecording(Long id) {
+    ManagedRecording managed = findRecording(id);
+    if (managed.recording().getState() != RecordingState.RUNNING) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Only running recordings can be stopped");
+    }
+    managed.recording().stop();
+    log.info("Stopped flight recording {}", id);
+    return toDto(managed);
+  }
+
+  @Override
+  public Resource dumpRecording(Long id) {
+    ManagedRecording managed = findRecording(id);
+    try {
+      Path dump = Files.createTempFile("recording-" + id + "-", ".jfr");
+      managed.recording().dump(dump);
+      return new InputStreamResource(
+          Files.newInputStream(dump, StandardOpenOption.DELETE_ON_CLOSE));
+    } catch (IOException e) {
+      log.error("Failed to dump flight recording {}", id, e);
+      throw new CustomException(ErrorCode.GLOBAL_ERROR, "Failed to dump the recording");
+    }
+  }
+
+  @Override
+  public void closeRecording(Long id) {
+    ManagedRecording managed = recordings.remove(id);
+    if (managed == null) {
+      throw new CustomException(ErrorCode.ENTITY_NOT_FOUND, "Flight recording not found");
+    }
+    managed.recording().close();
+    log.info("Closed flight recording {}", id);
+  }
+
+  /**
+   * Close the recordings still open, so their repository files are removed.
+   */
+  @PreDestroy
+  public void closeAll() {
+    recordings.values().forEach(managed -> managed.recording().close());
+    recordings.clear();
+  }
+
+  private static Configuration loadConfiguration(String settings) {
+    try {
+      return Configuration.getConfiguration(settings);
+    } catch (IOException | ParseException e) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Unknown flight recorder settings: " + settings);
+    }
+  }
+
+  private ManagedRecording findRecording(Long id) {
+    ManagedRecording managed = recordings.get(id);
+    if (managed == null) {
+      throw new CustomException(ErrorCode.ENTITY_NOT_FOUND, "Flight recording not found");
+    }
+    return managed;
+  }
+
+  private static FlightRecordingDTO toDto(ManagedRecording managed) {
+    Recording recording = managed.recording();
+    return FlightRecordingDTO.builder()
+                             .id(recording.getId())
+                             .name(recording.getName())
+                             .state(recording.getState().name())
+                             .settings(managed.settings())
+                             .startTime(recording.getStartTime())
+                             .stopTime(recording.getStopTime())
+                             .maxAge(recording.getMaxAge())
+                             .maxSize(recording.getMaxSize())
+                             .size(recording.getSize())
+                             .build();
+  }
+
+  private record ManagedRecording(Recording recording, String settings) {
+  }
+}
@@ -12,12 +12,12 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.NotificationR
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.BaseService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationDispatcher;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.WebSocketService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,16 +31,19 @@ public class NotificationServiceImpl extends BaseService implements Notification
   private final NotificationRepository notificationRepository;
   private final NotificationMapper notificationMapper;
   private final WebSocketService webSocketService;
+  private final NotificationDispatcher notificationDispatcher;
 
   public NotificationServiceImpl(
       UserRepository userRepository,
       NotificationRepository notificationRepository,
       NotificationMapper notificationMapper,
-      WebSocketService webSocketService) {
+      WebSocketService webSocketService,
+      NotificationDispatcher notificationDispatcher) {
     super(userRepository);
     this.notificationRepository = notificationRepository;
     this.notificationMapper = notificationMapper;
     this.webSocketService = webSocketService;
+    this.notificationDispatcher = notificationDispatcher;
   }
 
   @Override
@@ -113,39 +116,18 @@ public class NotificationServiceImpl extends BaseService implements Notification
   }
 
   /**
-   * Create a notification for a user.
+   * Create a notification for a user. The notification is handed to the
+   * {@link NotificationDispatcher}, which writes it and publishes it to the user in a later batch.
    *
    * @param user    the user
    * @param type    the notification type
    * @param content the notification content
-   * @return the created notification DTO
    */
-  @Transactional
-  @Async("taskExecutor")
   @Override
   public void createNotification(User user, NotificationType type, String content) {
     log.debug("Creating notification for user ID: {}, type: {}", user.getId(), type);
 
-    Notification notification = Notification.builder()
-                                            .user(user)
-                                            .type(type)
-                                            .content(content)
-                                            .isRead(false)
-                                            .build();
-
-    notification = notificationRepository.save(notification);
-
-    // Convert to DTO
-    NotificationDTO notificationDTO = notificationMapper.toDto(notification);
-
-    // Send real-time update
-    webSocketService.sendNotification(user.getUsername(), notificationDTO);
-
-    // Also send an update for the unread count
-    long unreadCount = notificationRepository.countByUserAndIsReadFalse(user);
-    webSocketService.sendNotification(user.getUsername(),
-                                      createCountNotification(user.getId(), unreadCount));
-
+    notificationDispatcher.enqueue(user, type, content);
   }
 
   /**
@@ -1,15 +1,29 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutValidator;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutVerdict;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.CheckoutConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.UseDataSource;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics.InventoryConflictEvent;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.InventoryDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStateMachineDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaymentDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderSubmission;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
@@ -20,37 +34,77 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.mapper.OrderMapper;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderItemRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderSubmissionRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.retry.RetryOnConflict;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.security.AuthoritiesRole;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.AuditService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.BaseService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderPipelineMetrics;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderPipelineMetrics.Stage;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderStateMachine;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.PaymentService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.WebSocketService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.AfterCommit;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.FailFastTaskScope;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.util.KeyLockManager;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link Order}.
+ *
+ * <p></p>
+ * Orders are created in two transactions: the first saves the order and reserves its items, the
+ * second applies the payment outcome, so no database connection is held while the payment gateway
+ * is called in between. Before the first one, the {@link CheckoutValidator}s are called
+ * concurrently on virtual threads, the first one to fail cancelling the others, while the calling
+ * thread looks up the current user and checks the idempotency key; the database reads stay on the
+ * calling thread, since interrupting a thread blocked on JDBC closes its pooled connection. Orders
+ * submitted for asynchronous processing are validated by the worker, before they are priced. The
+ * products and their inventory are read in the first transaction, since the stock reserved must be
+ * the stock that transaction commits against. An order whose payment does not complete stays
+ * PENDING until it is paid or cancelled by the reaper. Every stage of order creation is timed,
+ * traced and has its statements counted by {@link OrderPipelineMetrics}.
+ *
+ * <p></p>
+ * Status changes made by users and admins go through an {@link OrderStateMachine}, which rejects
+ * transitions the lifecycle does not allow and runs the inventory, notification and audit side
+ * effects of the new status. Every item has its own status, so an order can ship in parts: the
+ * items of an order that changes status as a whole follow it, and an order whose items are moved
+ * individually follows its items. Items and the inventory they hold are always moved together with
+ * one set-based statement. Checkout moves a new order to PAID and PROCESSING directly, since the
+ * payment service already confirms the payment and the order is confirmed as a whole.
  */
 @Service
 @Slf4j
@@ -67,6 +121,15 @@ public class OrderServiceImpl extends BaseService implements OrderService {
   private final PaymentService paymentService;
   private final NotificationService notificationService;
   private final KeyLockManager keyLockManager;
+  private final SalesRollupService salesRollupService;
+  private final OrderSubmissionRepository orderSubmissionRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final OrderStateMachine stateMachine;
+  private final OrderPipelineMetrics pipelineMetrics;
+  private final HotKeyTracker hotKeyTracker;
+  private final List<CheckoutValidator> checkoutValidators;
+  private final CheckoutConfig checkoutConfig;
+  private final TaskDecorator taskDecorator;
 
   public OrderServiceImpl(
       UserRepository userRepository,
@@ -80,7 +143,15 @@ public class OrderServiceImpl extends BaseService implements OrderService {
       AuditService auditService,
       PaymentService paymentService,
       NotificationService notificationService,
-      KeyLockManager keyLockManager) {
+      KeyLockManager keyLockManager,
+      SalesRollupService salesRollupService,
+      OrderSubmissionRepository orderSubmissionRepository,
+      PlatformTransactionManager transactionManager,
+      OrderPipelineMetrics pipelineMetrics,
+      HotKeyTracker hotKeyTracker,
+      List<CheckoutValidator> checkoutValidators,
+      CheckoutConfig checkoutConfig,
+      TaskDecorator taskDecorator) {
     super(userRepository);
     this.orderRepository = orderRepository;
     this.productRepository = productRepository;
@@ -93,46 +164,379 @@ public class OrderServiceImpl extends BaseService implements OrderService {
     this.paymentService = paymentService;
     this.notificationService = notificationService;
     this.keyLockManager = keyLockManager;
+    this.salesRollupService = salesRollupService;
+    this.orderSubmissionRepository = orderSubmissionRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.stateMachine = buildStateMachine();
+    this.pipelineMetrics = pipelineMetrics;
+    this.hotKeyTracker = hotKeyTracker;
+    this.checkoutValidators = checkoutValidators;
+    this.checkoutConfig = checkoutConfig;
+    this.taskDecorator = taskDecorator;
+  }
+
+  /**
+   * The order lifecycle, with the side effects of entering each status. Changes to the database
+   * run in the transaction; notifications and audit entries wait for its commit, so an attempt
+   * that is rolled back and retried after a conflict does not send them twice
+   */
+  private OrderStateMachine buildStateMachine() {
+    return OrderStateMachine.builder()
+                            .guard("has-items", order -> !order.getOrderItems().isEmpty(),
+                                   "the order has no items",
+                                   OrderStatus.SHIPPED, OrderStatus.DELIVERED)
+                            .guard("nothing-shipped",
+                                   order -> order.getOrderItems().stream()
+                                                 .noneMatch(item -> item.getStatus().isShipped()),
+                                   "part of the order has already shipped",
+                                   OrderStatus.CANCELLED)
+                            .onEnter(OrderStatus.PAID, "payment-confirmation-notification",
+                                     order -> AfterCommit.run(
+                                         () -> createPaymentConfirmationNotification(
+                                             order.getUser(), order.getId())))
+                            .onEnter(OrderStatus.PROCESSING, "processing-notification",
+                                     order -> AfterCommit.run(
+                                         () -> createProcessingNotification(order.getUser(),
+                                                                            order.getId())))
+                            .onEnter(OrderStatus.SHIPPED, "item-shipment",
+                                     order -> moveOpenItems(order, OrderItemStatus.SHIPPED))
+                            .onEnter(OrderStatus.SHIPPED, "shipping-notification",
+                                     order -> AfterCommit.run(
+                                         () -> createShippingNotification(order.getUser(),
+                                                                          order.getId())))
+                            .onEnter(OrderStatus.DELIVERED, "item-delivery",
+                                     order -> moveOpenItems(order, OrderItemStatus.DELIVERED))
+                            .onEnter(OrderStatus.CANCELLED, "item-cancellation",
+                                     order -> moveOpenItems(order, OrderItemStatus.CANCELLED))
+                            .onEnter(OrderStatus.CANCELLED, "payment-refund",
+                                     (order, previous) -> requestRefund(order, previous))
+                            .onEnter(OrderStatus.CANCELLED, "cancellation-notification",
+                                     order -> AfterCommit.run(
+                                         () -> createCancellationNotification(order.getUser(),
+                                                                              order.getId())))
+                            .onTransition("audit", this::auditOrderStatusChange)
+                            .build();
   }
 
   @Override
-  @Transactional
   public OrderDTO createOrder(OrderDTO orderDTO) {
     log.debug("Request to create Order : {}", orderDTO);
+    int itemCount = orderDTO.getOrderItems() == null ? 0 : orderDTO.getOrderItems().size();
+    hotKeyTracker.recordIdempotencyKey(orderDTO.getIdempotencyKey());
+    return pipelineMetrics.observeOrder(itemCount, () -> keyLockManager.withLock(
+        orderDTO.getIdempotencyKey(), () -> {
+
+          // Look up the user, check the idempotency key and validate before anything is written
+          User user = pipelineMetrics.observeStage(Stage.PREPARE, itemCount,
+                                                   () -> prepareOrder(orderDTO));
+
+          // Steps 1-2: Initialize order for the user and reserve its items
+          Order order = transactionTemplate.execute(status -> {
+            Order initialized = pipelineMetrics.observeStage(
+                Stage.INITIALIZE, itemCount, () -> initializeOrder(orderDTO, user));
+            return pipelineMetrics.observeStage(
+                Stage.ADD_ITEMS, itemCount,
+                () -> reserveOrder(initialized, orderDTO.getOrderItems()));
+          });
+
+          return completeOrder(order);
+        }, pipelineMetrics::lockRejected));
+  }
+
+  @Override
+  @Transactional
+  public OrderDTO submitOrder(OrderDTO orderDTO) {
+    log.debug("Request to submit Order : {}", orderDTO);
     return keyLockManager.withLock(orderDTO.getIdempotencyKey(), () -> {
+      // Not recorded in the sales rollups until it has been priced
+      Order order = initializeOrder(orderDTO, getCurrentUser());
+
+      Instant now = Instant.now();
+      orderSubmissionRepository.save(OrderSubmission.builder()
+                                                    .orderId(order.getId())
+                                                    .items(orderDTO.getOrderItems())
+                                                    .availableAt(now)
+                                                    .createdDate(now)
+                                                    .build());
+      return orderMapper.toDto(order);
+    });
+  }
 
-      // Step 1: Initialize order with current user
-      Order order = initializeOrder(orderDTO);
+  @Override
+  public OrderDTO processSubmittedOrder(Long orderId, List<OrderItemDTO> orderItems) {
+    log.debug("Request to process submitted Order : {}", orderId);
+    Order submitted = transactionTemplate.execute(status -> {
+      Order order = findOrder(orderId);
+      Hibernate.initialize(order.getUser());
+      Hibernate.initialize(order.getOrderItems());
+      return order;
+    });
+    if (isReserved(submitted)) {
+      // An earlier attempt reserved the items and failed afterward: resume with the payment
+      log.debug("Submitted order {} was reserved by an earlier attempt, completing it", orderId);
+      return completeOrder(submitted);
+    }
+    requireAwaitingProcessing(submitted);
+    CheckoutRequest request = new CheckoutRequest(submitted.getUser().getUsername(),
+                                                  submitted.getIdempotencyKey(), orderItems);
+
+    // Validated outside the transaction, as the validators may call remote services
+    validateCheckout(request);
+    Order order = transactionTemplate.execute(
+        status -> reserveOrder(findSubmittedOrder(orderId), orderItems));
+    return completeOrder(order);
+  }
 
-      // Step 2: Validate and add order items
-      order = addOrderItems(order, orderDTO.getOrderItems());
+  @Override
+  @Transactional
+  public boolean rejectSubmittedOrder(Long orderId, String reason) {
+    log.debug("Request to reject submitted Order : {}, {}", orderId, reason);
+    Order order = orderRepository.findById(orderId).orElse(null);
+    if (order != null && isReserved(order)) {
+      // An earlier attempt reserved the items: the state machine releases them, requests a refund
+      // of any payment taken and notifies the user
+      OrderStatus oldStatus = stateMachine.transition(order, OrderStatus.CANCELLED);
+      order = orderRepository.save(order);
+      recordStatusChange(order, oldStatus);
+      sendStatusUpdateNotifications(order, oldStatus, orderMapper.toDto(order));
+      return true;
+    }
+    if (order == null || !isAwaitingProcessing(order)) {
+      log.debug("Submitted order {} was already cancelled or processed", orderId);
+      return false;
+    }
+    OrderStatus oldStatus = order.getStatus();
 
-      // Step 3: Process payment
-      order = processPayment(order);
+    // Cancelled without the lifecycle hooks: nothing was reserved and the user gets the reason
+    order.updateStatus(OrderStatus.CANCELLED);
+    order = orderRepository.save(order);
+    // It was never recorded in the sales rollups, as it was never priced
+    recordStatusChange(order, null);
 
-      // Step 4: Update order status based on payment
-      order = updateOrderAfterPayment(order);
+    User user = order.getUser();
+    String message = "Your order #" + order.getId() + " could not be placed: " + reason;
+    OrderDTO result = orderMapper.toDto(order);
+    AfterCommit.run(() -> {
+      notificationService.createNotification(user, NotificationType.ORDER_CANCELLATION, message);
+      webSocketService.sendOrderStatusUpdate(user.getUsername(), result);
+    });
+    auditOrderStatusChange(order, oldStatus);
+    return true;
+  }
 
-      // Step 5: Send notifications and create audit logs
-      notifyAndAudit(order);
+  /**
+   * Find a submitted order that has not been processed yet
+   */
+  private Order findSubmittedOrder(Long orderId) {
+    Order order = findOrder(orderId);
+    requireAwaitingProcessing(order);
+    return order;
+  }
+
+  /**
+   * Find an order by ID
+   */
+  private Order findOrder(Long orderId) {
+    return orderRepository.findById(orderId)
+                          .orElseThrow(() -> new CustomException(ErrorCode.ENTITY_NOT_FOUND,
+                                                                 "Order not found"));
+  }
 
-      // Convert to DTO and send real-time updates
-      OrderDTO result = orderMapper.toDto(order);
-      webSocketService.sendOrderStatusUpdate(order.getUser().getUsername(), result);
+  /**
+   * Reject a submitted order that has been processed or cancelled meanwhile
+   */
+  private void requireAwaitingProcessing(Order order) {
+    if (!isAwaitingProcessing(order)) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Order #" + order.getId()
+                                + " is no longer waiting to be processed");
+    }
+  }
 
-      return result;
+  /**
+   * Whether a submitted order is still PENDING and has not been given its items yet
+   */
+  private boolean isAwaitingProcessing(Order order) {
+    return order.getStatus() == OrderStatus.PENDING && order.getOrderItems().isEmpty();
+  }
+
+  /**
+   * Whether a submitted order is still PENDING but has its items reserved, by an attempt that
+   * failed before it was completed
+   */
+  private boolean isReserved(Order order) {
+    return order.getStatus() == OrderStatus.PENDING && !order.getOrderItems().isEmpty();
+  }
+
+  /**
+   * Add the items to an initialized order and record it in the sales rollups as PENDING
+   */
+  private Order reserveOrder(Order order, List<OrderItemDTO> orderItems) {
+    // Step 2: Validate and add order items
+    order = addOrderItems(order, orderItems);
+
+    recordStatusChange(order, null);
+    return order;
+  }
+
+  @Override
+  public OrderDTO completePaidOrder(Long orderId, PaymentDTO payment) {
+    log.debug("Request to complete paid Order : {}", orderId);
+    Order order = transactionTemplate.execute(status -> {
+      Order pending = orderRepository.findAllWithUserByIdIn(List.of(orderId)).stream()
+                                     .findFirst()
+                                     .orElseThrow(() -> new CustomException(
+                                         ErrorCode.ENTITY_NOT_FOUND, "Order not found"));
+      if (pending.getStatus() != OrderStatus.PENDING) {
+        return null;
+      }
+      Hibernate.initialize(pending.getOrderItems());
+      return pending;
     });
+    if (order == null) {
+      log.debug("Order {} is no longer pending, its payment is not applied", orderId);
+      return null;
+    }
+    return completePaidOrder(order, payment, order.getOrderItems().size());
+  }
+
+  /**
+   * Take the payment for a reserved order and run the remaining order creation steps. The payment
+   * gateway is called outside any transaction. The payment is not started once the request
+   * deadline has passed, but once started it and the remaining steps run without the deadline, so
+   * a payment taken at the gateway is always recorded. If the order cannot be completed, e.g.
+   * because it was cancelled meanwhile, the payment reconciler completes the order or refunds the
+   * payment later.
+   */
+  private OrderDTO completeOrder(Order order) {
+    int itemCount = order.getOrderItems().size();
+
+    // Step 3: Process payment
+    PaymentDTO payment = pipelineMetrics.observeStage(
+        Stage.PAYMENT, itemCount,
+        () -> RequestDeadline.callWith(null, () -> processPayment(order)));
+
+    return RequestDeadline.callWith(null, () -> completePaidOrder(order, payment, itemCount));
+  }
+
+  /**
+   * Apply the payment outcome to an order, notify, audit and publish it
+   */
+  private OrderDTO completePaidOrder(Order order, PaymentDTO payment, int itemCount) {
+    OrderDTO result = transactionTemplate.execute(status -> {
+      Order paid = pipelineMetrics.observeStage(Stage.STATUS_UPDATE, itemCount, () -> {
+        // Step 4: Update order status based on payment
+        Order updated = applyPayment(order, payment);
+        updated = updateOrderAfterPayment(updated);
+
+        // Step 5: Record the new status in the sales rollups
+        if (updated.getStatus() != OrderStatus.PENDING) {
+          recordStatusChange(updated, OrderStatus.PENDING);
+        }
+        return updated;
+      });
+
+      // Step 6: Send notifications and create audit logs
+      pipelineMetrics.observeStage(Stage.NOTIFY_AUDIT, itemCount, () -> notifyAndAudit(paid));
+      return pipelineMetrics.observeStage(Stage.MAP, itemCount, () -> orderMapper.toDto(paid));
+    });
+
+    // Send real-time updates
+    pipelineMetrics.observeStage(Stage.PUBLISH, itemCount, () -> webSocketService
+        .sendOrderStatusUpdate(order.getUser().getUsername(), result));
+
+    return result;
+  }
+
+  /**
+   * Run the steps of order creation that only read: look up the current user, check that no order
+   * was placed with the idempotency key and call the checkout validators. Unless
+   * {@code checkout.concurrent-preparation} is disabled the validators run on virtual threads
+   * while this thread does the lookups, and the first failure interrupts the validators. The
+   * lookups are never interrupted, as that would close their database connection.
+   *
+   * @param orderDTO the order to create
+   * @return the current user
+   */
+  private User prepareOrder(OrderDTO orderDTO) {
+    CheckoutRequest request = new CheckoutRequest(
+        SecurityUtils.getCurrentUserUserName().orElse(null), orderDTO.getIdempotencyKey(),
+        orderDTO.getOrderItems());
+
+    if (!checkoutConfig.isConcurrentPreparation()) {
+      User currentUser = getCurrentUser();
+      checkIdempotencyKey(orderDTO.getIdempotencyKey());
+      checkoutValidators.forEach(validator -> validateCheckout(validator, request));
+      return currentUser;
+    }
+
+    try (FailFastTaskScope scope = new FailFastTaskScope("order-prepare", taskDecorator)) {
+      forkValidators(scope, request);
+      User currentUser = getCurrentUser();
+      checkIdempotencyKey(orderDTO.getIdempotencyKey());
+      scope.join();
+      return currentUser;
+    }
+  }
+
+  /**
+   * Call every checkout validator, concurrently unless {@code checkout.concurrent-preparation} is
+   * disabled
+   */
+  private void validateCheckout(CheckoutRequest request) {
+    if (!checkoutConfig.isConcurrentPreparation()) {
+      checkoutValidators.forEach(validator -> validateCheckout(validator, request));
+      return;
+    }
+    try (FailFastTaskScope scope = new FailFastTaskScope("order-validate", taskDecorator)) {
+      forkValidators(scope, request);
+      scope.join();
+    }
+  }
+
+  private void forkValidators(FailFastTaskScope scope, CheckoutRequest request) {
+    for (CheckoutValidator validator : checkoutValidators) {
+      scope.fork(() -> {
+        validateCheckout(validator, request);
+        return null;
+      });
+    }
   }
 
   /**
-   * Initialize a new order with the current user and idempotency key if provided
+   * Reject an order whose idempotency key was already used by a placed order
+   */
+  private void checkIdempotencyKey(String idempotencyKey) {
+    if (idempotencyKey != null && !idempotencyKey.isBlank()
+        && orderRepository.existsByIdempotencyKey(idempotencyKey)) {
+      throw new CustomException(ErrorCode.DUPLICATE_ORDER,
+                                "An order with idempotency key " + idempotencyKey
+                                + " has already been placed");
+    }
+  }
+
+  /**
+   * Reject an order its checkout validator does not approve
+   */
+  private void validateCheckout(CheckoutValidator validator, CheckoutRequest request) {
+    CheckoutVerdict verdict = pipelineMetrics.observeValidation(
+        validator.getName(), () -> validator.validate(request));
+    if (!verdict.approved()) {
+      throw new CustomException(ErrorCode.CHECKOUT_REJECTED,
+                                "Order rejected by the " + validator.getName() + " check: "
+                                + verdict.reason());
+    }
+  }
+
+  /**
+   * Initialize a new order for a user, with the idempotency key if provided
    *
-   * @param orderDTO the order DTO containing optional idempotency key
+   * @param orderDTO    the order DTO containing optional idempotency key
+   * @param currentUser the user placing the order
    * @return the initialized order
    */
-  private Order initializeOrder(OrderDTO orderDTO) {
+  private Order initializeOrder(OrderDTO orderDTO, User currentUser) {
     log.debug("Initializing new order");
-    User currentUser = getCurrentUser();
 
     Order order = new Order();
     order.setUser(currentUser);
@@ -171,6 +575,7 @@ public class OrderServiceImpl extends BaseService implements OrderService {
         throw new CustomException(ErrorCode.ENTITY_NOT_FOUND,
                                   "Product not found: " + itemDTO.getProductId());
       }
+      hotKeyTracker.recordProduct(product.getId());
 
       Inventory inventory = getInventory(itemDTO,
                                          product);
@@ -193,6 +598,10 @@ public class OrderServiceImpl extends BaseService implements OrderService {
 
     // Check if enough inventory is available
     if (inventory.getAvailableQuantity() < itemDTO.getQuantity()) {
+      pipelineMetrics.inventoryShortage();
+      InventoryConflictEvent.record(product.getId(), itemDTO.getQuantity(),
+                                    inventory.getAvailableQuantity());
+      hotKeyTracker.recordInventoryConflict(product.getId());
       throw new CustomException(ErrorCode.INVALID_REQUEST,
                                 "Not enough inventory for product: " + product.getName() +
                                 ". Available: " + inventory.getAvailableQuantity() +
@@ -201,6 +610,10 @@ public class OrderServiceImpl extends BaseService implements OrderService {
 
     // Reserve inventory
     if (!inventory.reserve(itemDTO.getQuantity())) {
+      pipelineMetrics.inventoryShortage();
+      InventoryConflictEvent.record(product.getId(), itemDTO.getQuantity(),
+                                    inventory.getAvailableQuantity());
+      hotKeyTracker.recordInventoryConflict(product.getId());
       throw new CustomException(ErrorCode.INVALID_REQUEST,
                                 "Failed to reserve inventory for product: " + product.getName());
     }
@@ -226,7 +639,7 @@ public class OrderServiceImpl extends BaseService implements OrderService {
   /**
    * Process payment for an order
    */
-  private Order processPayment(Order order) {
+  private PaymentDTO processPayment(Order order) {
     log.debug("Processing payment for order: {}", order.getId());
 
     // Use the client-provided idempotency key if available, or generate one if not
@@ -241,22 +654,20 @@ public class OrderServiceImpl extends BaseService implements OrderService {
                 idempotencyKey);
     }
 
-    PaymentDTO paymentDTO = PaymentDTO.builder()
-                                      .orderId(order.getId())
-                                      .amount(order.getTotalAmount())
-                                      .paymentMethod("Credit Card") // Default payment method
-                                      .status(PaymentStatus.PENDING)
-                                      .idempotencyKey(idempotencyKey) // Include the idempotency key
-                                      .build();
-
-    PaymentDTO processedPayment = paymentService.processPayment(paymentDTO);
+    // The order was created and authorized by this request, so the payment skips both checks
+    return paymentService.processOrderPayment(order, "Credit Card", idempotencyKey);
+  }
 
-    if (processedPayment.getStatus() == PaymentStatus.COMPLETED) {
+  /**
+   * Mark the order as paid if the payment completed
+   */
+  private Order applyPayment(Order order, PaymentDTO payment) {
+    if (payment.getStatus() == PaymentStatus.COMPLETED) {
       order.updateStatus(OrderStatus.PAID);
       order = orderRepository.save(order);
       log.debug("Payment successful, order status updated to PAID");
     } else {
-      log.debug("Payment failed, order status remains PENDING");
+      log.debug("Payment not completed, order status remains PENDING");
     }
 
     return order;
@@ -285,15 +696,18 @@ public class OrderServiceImpl extends BaseService implements OrderService {
   private void notifyAndAudit(Order order) {
     log.debug("Sending notifications and creating audit logs");
 
-    // Create notification using NotificationService
-    notificationService.createNotification(
-        order.getUser(),
-        NotificationType.ORDER_CONFIRMATION,
-        "Your order #" + order.getId() + " has been confirmed."
-                                          );
-
-    // Create audit log asynchronously
-    auditService.createLogAsync("Order", order.getId(), order);
+    // Queued once the payment outcome has committed, so a rolled back attempt sends nothing
+    AfterCommit.run(() -> {
+      // Create notification using NotificationService
+      notificationService.createNotification(
+          order.getUser(),
+          NotificationType.ORDER_CONFIRMATION,
+          "Your order #" + order.getId() + " has been confirmed."
+                                            );
+
+      // Create audit log asynchronously
+      auditService.createLogAsync("Order", order.getId(), order);
+    });
   }
 
   @Override
@@ -375,6 +789,7 @@ public class OrderServiceImpl extends BaseService implements OrderService {
   }
 
   @Override
+  @RetryOnConflict("order-cancel")
   @Transactional
   public OrderDTO cancelOrder(Long id) {
     log.debug("Request to cancel Order : {}", id);
@@ -382,26 +797,13 @@ public class OrderServiceImpl extends BaseService implements OrderService {
     // Get order and verify authorization
     Order order = findOrderAndVerifyAccess(id);
 
-    // Check if order can be cancelled
-    if (order.getStatus() != OrderStatus.PENDING
-        && order.getStatus() != OrderStatus.PAID
-        && order.getStatus() != OrderStatus.PROCESSING) {
-      throw new CustomException(ErrorCode.INVALID_REQUEST,
-                                "Cannot cancel order with status: " + order.getStatus());
-    }
-
-    // Update order status to CANCELLED
-    OrderStatus oldStatus = order.getStatus();
-    order.setStatus(OrderStatus.CANCELLED);
-    // Save updated order
+    // Cancel the order; the state machine releases its inventory, notifies the user and audits
+    // the change, or rejects the cancellation once the order has shipped
+    OrderStatus oldStatus = stateMachine.transition(order, OrderStatus.CANCELLED);
     order = orderRepository.save(order);
-
-    // Release reserved inventory
-    releaseInventoryForOrder(order);
-
-    // Create notification and audit log
-    createCancellationNotification(order);
-    auditOrderStatusChange(order, oldStatus);
+    // Surface a concurrent change before anything is published, so a retry starts clean
+    orderRepository.flush();
+    recordStatusChange(order, oldStatus);
 
     // Convert to DTO and send real-time updates
     OrderDTO result = orderMapper.toDto(order);
@@ -411,6 +813,17 @@ public class OrderServiceImpl extends BaseService implements OrderService {
     return result;
   }
 
+  /**
+   * Keep the sales rollups in step with a status change of an order
+   */
+  private void recordStatusChange(Order order, OrderStatus oldStatus) {
+    recordStatusChange(order, oldStatus, order.getStatus());
+  }
+
+  private void recordStatusChange(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+    salesRollupService.recordStatusChange(List.of(order.getId()), oldStatus, newStatus);
+  }
+
   /**
    * Find an order by ID and verify the current user has access to it
    */
@@ -432,32 +845,23 @@ public class OrderServiceImpl extends BaseService implements OrderService {
 
 
   /**
-   * Release reserved inventory for all items in an order
+   * Mark the payment of an order cancelled while PENDING for a refund; the payment may have been
+   * taken, or still be in progress, without having been applied to the order
    */
-  private void releaseInventoryForOrder(Order order) {
-    for (OrderItem item : order.getOrderItems()) {
-      Inventory inventory = inventoryRepository.findByProduct(item.getProduct())
-                                               .orElseThrow(() -> new CustomException(
-                                                   ErrorCode.ENTITY_NOT_FOUND,
-                                                   "Inventory not found for product: " + item
-                                                       .getProduct().getId()));
-
-      inventory.releaseReservation(item.getQuantity());
-      inventoryRepository.save(inventory);
-
-      // Send inventory update
-      webSocketService.sendInventoryUpdate(inventoryMapper.toDto(inventory));
+  private void requestRefund(Order order, OrderStatus previous) {
+    if (previous == OrderStatus.PENDING) {
+      paymentService.requestRefunds(List.of(order.getId()));
     }
   }
 
   /**
    * Create a cancellation notification for an order
    */
-  private void createCancellationNotification(Order order) {
+  private void createCancellationNotification(User user, Long orderId) {
     notificationService.createNotification(
-        order.getUser(),
+        user,
         NotificationType.ORDER_CANCELLATION,
-        "Your order #" + order.getId() + " has been cancelled."
+        "Your order #" + orderId + " has been cancelled."
                                           );
   }
 
@@ -467,23 +871,29 @@ public class OrderServiceImpl extends BaseService implements OrderService {
   private void auditOrderStatusChange(Order order, OrderStatus oldStatus) {
     Order oldOrder = order.cloneObject();
     oldOrder.setStatus(oldStatus);
-    auditService.updateLogAsync("Order", order.getId(),
-                                "Status changed from " + oldStatus + " to " + order.getStatus(),
-                                oldOrder, order);
+    String details = "Status changed from " + oldStatus + " to " + order.getStatus();
+    AfterCommit.run(() -> auditService.updateLogAsync("Order", order.getId(), details,
+                                                      oldOrder, order));
   }
 
   /**
-   * Send real-time status update notifications
+   * Send real-time status update notifications once the change has committed
    */
   private void sendStatusUpdateNotifications(Order order, OrderStatus oldStatus,
                                              OrderDTO orderDTO) {
-    log.info("sending status update notifications for order: {}", order.getId());
-    webSocketService.sendOrderStatusUpdate(order.getUser().getUsername(), orderDTO);
-    log.info("sending admin order status change event for order: {}", order.getId());
-    webSocketService.sendOrderStatusChangeEvent(order.getId(), oldStatus, order.getStatus());
+    Long orderId = order.getId();
+    String username = order.getUser().getUsername();
+    OrderStatus newStatus = order.getStatus();
+    AfterCommit.run(() -> {
+      log.info("sending status update notifications for order: {}", orderId);
+      webSocketService.sendOrderStatusUpdate(username, orderDTO);
+      log.info("sending admin order status change event for order: {}", orderId);
+      webSocketService.sendOrderStatusChangeEvent(orderId, oldStatus, newStatus);
+    });
   }
 
   @Override
+  @RetryOnConflict("order-status-update")
   @Transactional
   public OrderDTO updateOrderStatus(Long id, OrderStatus status) {
     log.debug("Request to update Order status : {}, {}", id, status);
@@ -493,25 +903,18 @@ public class OrderServiceImpl extends BaseService implements OrderService {
                                  .orElseThrow(() -> new CustomException(ErrorCode.ENTITY_NOT_FOUND,
                                                                         "Order not found"));
 
-    // Get current status before update
-    OrderStatus oldStatus = order.getStatus();
-
-    // Update order status
-    order.updateStatus(status);
-
-    // If status didn't change, return early
-    if (oldStatus == order.getStatus()) {
+    // If status doesn't change, return early
+    if (order.getStatus() == status) {
       return orderMapper.toDto(order);
     }
 
-    // Process status-specific actions
-    processStatusSpecificActions(order, status);
+    // Update order status and run the actions of the new status
+    OrderStatus oldStatus = stateMachine.transition(order, status);
 
-    // Save updated order
+    // Save updated order and surface a concurrent change before anything is published
     order = orderRepository.save(order);
-
-    // Create audit log
-    auditOrderStatusChange(order, oldStatus);
+    orderRepository.flush();
+    recordStatusChange(order, oldStatus);
 
     // Convert to DTO and send real-time updates
     OrderDTO result = orderMapper.toDto(order);
@@ -520,120 +923,335 @@ public class OrderServiceImpl extends BaseService implements OrderService {
     return result;
   }
 
+  @Override
+  @Transactional
+  public OrderDTO updateOrderItemStatuses(Long id, Map<Long, OrderItemStatus> statuses) {
+    log.debug("Request to update the status of {} items of Order : {}", statuses.size(), id);
+
+    Order order = orderRepository.findById(id)
+                                 .orElseThrow(() -> new CustomException(ErrorCode.ENTITY_NOT_FOUND,
+                                                                        "Order not found"));
+    Map<Long, OrderItem> items = order.getOrderItems().stream()
+                                      .collect(Collectors.toMap(OrderItem::getId,
+                                                                Function.identity()));
+
+    // Check every item before changing any of them
+    Map<OrderItem, OrderItemStatus> changes = new LinkedHashMap<>();
+    statuses.forEach((itemId, status) -> {
+      OrderItem item = items.get(itemId);
+      if (item == null) {
+        throw new CustomException(ErrorCode.ENTITY_NOT_FOUND,
+                                  "Order item " + itemId + " not found in order #" + id);
+      }
+      if (item.getStatus() == status) {
+        return;
+      }
+      if (!item.getStatus().canTransitionTo(status)) {
+        throw new CustomException(ErrorCode.INVALID_STATUS_TRANSITION,
+                                  "Cannot change status of order item " + itemId + " from "
+                                  + item.getStatus() + " to " + status);
+      }
+      changes.put(item, status);
+    });
+    if (changes.isEmpty()) {
+      return orderMapper.toDto(order);
+    }
+
+    // Move the items and their inventory with one statement
+    moveItems(order, changes);
+
+    // Move the order to the status its items put it in; the item hooks find nothing left to move
+    OrderStatus oldStatus = order.getStatus();
+    OrderStatus newStatus = order.statusFromItems()
+                                 .filter(oldStatus::canTransitionTo)
+                                 .orElse(null);
+    if (newStatus != null) {
+      stateMachine.transition(order, newStatus);
+      order = orderRepository.save(order);
+      recordStatusChange(order, oldStatus);
+    }
+
+    OrderDTO result = orderMapper.toDto(order);
+    if (newStatus != null) {
+      sendStatusUpdateNotifications(order, oldStatus, result);
+    } else {
+      String username = order.getUser().getUsername();
+      AfterCommit.run(() -> webSocketService.sendOrderStatusUpdate(username, result));
+    }
+    return result;
+  }
+
+  @Override
+  @Transactional
+  public BulkOrderStatusResultDTO updateOrderStatuses(List<Long> orderIds, OrderStatus status) {
+    log.debug("Request to update the status of {} orders to {}", orderIds.size(), status);
+
+    List<Long> ids = orderIds.stream().distinct().toList();
+    if (ids.size() > BulkOrderStatusRequest.MAX_ORDERS) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "At most " + BulkOrderStatusRequest.MAX_ORDERS
+                                + " orders can be updated at once");
+    }
+
+    // Lock the orders and read their current status, owner and item statuses
+    Map<Long, Order> lockedOrders = new HashMap<>();
+    Map<Long, Long> ownerIds = new HashMap<>();
+    for (Object[] row : orderRepository.lockStatusesByIdIn(ids)) {
+      Long id = ((Number) row[0]).longValue();
+      lockedOrders.put(id, lockedOrder(id, (String) row[1], (String) row[3]));
+      ownerIds.put(id, ((Number) row[2]).longValue());
+    }
+
+    // Apply the rules and guards of the order state machine to every order
+    Map<Long, OrderStatusResultDTO> results = new LinkedHashMap<>();
+    for (Long id : ids) {
+      results.put(id, resolveStatusChange(id, lockedOrders.get(id), status));
+    }
+    if (status == OrderStatus.DELIVERED) {
+      rejectDeliveriesShortOfStock(results);
+    }
+
+    Map<OrderStatus, List<Long>> updatedByOldStatus = new EnumMap<>(OrderStatus.class);
+    results.values().stream()
+           .filter(result -> result.getOutcome() == OrderStatusResultDTO.Outcome.UPDATED)
+           .forEach(result -> updatedByOldStatus.computeIfAbsent(result.getPreviousStatus(),
+                                                                 s -> new ArrayList<>())
+                                                .add(result.getOrderId()));
+    if (!updatedByOldStatus.isEmpty()) {
+      applyBulkStatusChange(updatedByOldStatus, status, ownerIds);
+    }
+    return BulkOrderStatusResultDTO.of(status, new ArrayList<>(results.values()));
+  }
+
   /**
-   * Process actions specific to each order status
+   * A detached stand-in for a locked order, with one item per distinct item status, enough for the
+   * state machine guards to judge it the way they judge the loaded order
    */
-  private void processStatusSpecificActions(Order order, OrderStatus status) {
-    switch (status) {
-      case PAID:
-        // Process payment confirmation logic would go here
-        createPaymentConfirmationNotification(order);
-        break;
-      case PROCESSING:
-        // Process order fulfillment logic would go here
-        createProcessingNotification(order);
-        break;
-      case SHIPPED:
-        createShippingNotification(order);
-        break;
-      case DELIVERED:
-        fulfillInventoryForOrder(order);
-        break;
-      case CANCELLED:
-        releaseInventoryForOrder(order);
-        break;
-      default:
-        break;
+  private static Order lockedOrder(Long id, String status, String itemStatuses) {
+    List<OrderItem> items = itemStatuses == null
+                            ? new ArrayList<>()
+                            : Arrays.stream(itemStatuses.split(","))
+                                    .map(itemStatus -> OrderItem.builder()
+                                                                .status(OrderItemStatus.valueOf(
+                                                                    itemStatus))
+                                                                .build())
+                                    .collect(Collectors.toCollection(ArrayList::new));
+    return Order.builder().id(id).status(OrderStatus.valueOf(status)).orderItems(items).build();
+  }
+
+  /**
+   * Decide what a bulk update does to one order
+   */
+  private OrderStatusResultDTO resolveStatusChange(Long id, Order order, OrderStatus status) {
+    OrderStatusResultDTO.OrderStatusResultDTOBuilder result =
+        OrderStatusResultDTO.builder().orderId(id);
+    if (order == null) {
+      return result.outcome(OrderStatusResultDTO.Outcome.NOT_FOUND)
+                   .message("Order not found")
+                   .build();
+    }
+    OrderStatus oldStatus = order.getStatus();
+    result.previousStatus(oldStatus);
+    if (oldStatus == status) {
+      return result.status(status)
+                   .outcome(OrderStatusResultDTO.Outcome.UNCHANGED)
+                   .build();
+    }
+    Optional<String> rejection = stateMachine.rejectionReason(order, status);
+    if (rejection.isPresent()) {
+      return result.status(oldStatus)
+                   .outcome(OrderStatusResultDTO.Outcome.REJECTED)
+                   .message(rejection.get())
+                   .build();
+    }
+    return result.status(status)
+                 .outcome(OrderStatusResultDTO.Outcome.UPDATED)
+                 .build();
+  }
+
+  /**
+   * Reject the deliveries that touch a product with less stock reserved than they need, so that
+   * the other orders can still be delivered
+   */
+  private void rejectDeliveriesShortOfStock(Map<Long, OrderStatusResultDTO> results) {
+    List<Long> updatedIds = results.values().stream()
+                                   .filter(result -> result.getOutcome()
+                                                     == OrderStatusResultDTO.Outcome.UPDATED)
+                                   .map(OrderStatusResultDTO::getOrderId)
+                                   .toList();
+    if (updatedIds.isEmpty()) {
+      return;
+    }
+    for (Long id : inventoryRepository.findOrderIdsShortOfReservation(updatedIds)) {
+      OrderStatus oldStatus = results.get(id).getPreviousStatus();
+      results.put(id, OrderStatusResultDTO.builder()
+                                          .orderId(id)
+                                          .previousStatus(oldStatus)
+                                          .status(oldStatus)
+                                          .outcome(OrderStatusResultDTO.Outcome.REJECTED)
+                                          .message("Cannot change status from " + oldStatus
+                                                   + " to " + OrderStatus.DELIVERED
+                                                   + ": less stock is reserved than it needs")
+                                          .build());
+    }
+  }
+
+  /**
+   * Write a bulk status change with set-based updates and emit its side effects in batches
+   */
+  private void applyBulkStatusChange(Map<OrderStatus, List<Long>> updatedByOldStatus,
+                                     OrderStatus status, Map<Long, Long> ownerIds) {
+    List<Long> updatedIds = updatedByOldStatus.values().stream()
+                                              .flatMap(List::stream)
+                                              .toList();
+    String auditor = SecurityUtils.getCurrentUserUserName().orElse("system");
+    Instant now = Instant.now();
+
+    orderRepository.updateStatusByIdIn(updatedIds, status.name(), auditor, now);
+    updatedByOldStatus.forEach(
+        (oldStatus, ids) -> salesRollupService.recordStatusChange(ids, oldStatus, status));
+
+    // Move the open items of all orders, shipping or releasing their reserved stock with one
+    // statement aggregated per product
+    if (status == OrderStatus.SHIPPED) {
+      orderItemRepository.shipItemsForOrders(updatedIds, auditor, now);
+    } else if (status == OrderStatus.DELIVERED) {
+      // The orders short of stock were rejected with their inventory locked, so this cannot
+      // fall short
+      if (inventoryRepository.fulfillReservationsForOrders(updatedIds, auditor, now) > 0) {
+        throw new CustomException(ErrorCode.INVALID_STATUS_TRANSITION,
+                                  "Cannot deliver orders " + updatedIds
+                                  + ": less stock is reserved than they need");
+      }
+      sendInventoryUpdates(updatedIds);
+    } else if (status == OrderStatus.CANCELLED) {
+      inventoryRepository.releaseReservationsForOrders(updatedIds, auditor, now);
+      List<Long> pendingIds = updatedByOldStatus.get(OrderStatus.PENDING);
+      if (pendingIds != null) {
+        paymentService.requestRefunds(pendingIds);
+      }
+      sendInventoryUpdates(updatedIds);
     }
+
+    List<Long> userIds = updatedIds.stream().map(ownerIds::get).distinct().toList();
+    Map<Long, User> owners = userRepository.findAllById(userIds).stream()
+                                           .collect(Collectors.toMap(User::getId,
+                                                                     Function.identity()));
+    List<Runnable> notifications = new ArrayList<>(updatedIds.size());
+    Map<Long, String> auditChanges = new LinkedHashMap<>();
+    List<WebSocketService.OrderStatusChangeEvent> events = new ArrayList<>(updatedIds.size());
+    updatedByOldStatus.forEach((oldStatus, ids) -> {
+      for (Long id : ids) {
+        User owner = owners.get(ownerIds.get(id));
+        switch (status) {
+          case PAID -> notifications.add(() -> createPaymentConfirmationNotification(owner, id));
+          case PROCESSING -> notifications.add(() -> createProcessingNotification(owner, id));
+          case SHIPPED -> notifications.add(() -> createShippingNotification(owner, id));
+          case CANCELLED -> notifications.add(() -> createCancellationNotification(owner, id));
+          default -> {
+          }
+        }
+        auditChanges.put(id, "Status changed from " + oldStatus + " to " + status);
+        events.add(new WebSocketService.OrderStatusChangeEvent(id, oldStatus, status));
+      }
+    });
+    AfterCommit.run(() -> {
+      notifications.forEach(Runnable::run);
+      auditService.updateLogsAsync("Order", auditChanges);
+      webSocketService.sendOrderStatusChangeEvents(events);
+    });
+  }
+
+  /**
+   * Publish the inventory of the products in the given orders once the change has committed
+   */
+  private void sendInventoryUpdates(List<Long> orderIds) {
+    List<InventoryDTO> inventories = inventoryRepository.findAllByOrderIds(orderIds).stream()
+                                                        .map(inventoryMapper::toDto)
+                                                        .toList();
+    AfterCommit.run(() -> inventories.forEach(webSocketService::sendInventoryUpdate));
   }
 
   /**
    * Create a shipping notification for an order
    */
-  private void createShippingNotification(Order order) {
+  private void createShippingNotification(User user, Long orderId) {
     notificationService.createNotification(
-        order.getUser(),
+        user,
         NotificationType.SHIPPING_UPDATE,
-        "Order #" + order.getId() + " has been shipped."
+        "Order #" + orderId + " has been shipped."
                                           );
   }
 
   /**
    * Create a payment confirmation notification for an order
    */
-  private void createPaymentConfirmationNotification(Order order) {
+  private void createPaymentConfirmationNotification(User user, Long orderId) {
     notificationService.createNotification(
-        order.getUser(),
+        user,
         NotificationType.PAYMENT_CONFIRMATION,
-        "Payment for order #" + order.getId() + " has been confirmed."
+        "Payment for order #" + orderId + " has been confirmed."
                                           );
   }
 
   /**
    * Create a processing notification for an order
    */
-  private void createProcessingNotification(Order order) {
+  private void createProcessingNotification(User user, Long orderId) {
     notificationService.createNotification(
-        order.getUser(),
+        user,
         NotificationType.ORDER_CONFIRMATION,
-        "Order #" + order.getId() + " is now being processed."
+        "Order #" + orderId + " is now being processed."
                                           );
   }
 
   /**
-   * Fulfill inventory for all items in an order (reduce reserved quantity)
+   * Move every item of an order that can still move to the given status
    */
-  private void fulfillInventoryForOrder(Order order) {
+  private void moveOpenItems(Order order, OrderItemStatus status) {
+    Map<OrderItem, OrderItemStatus> changes = new LinkedHashMap<>();
     for (OrderItem item : order.getOrderItems()) {
-      Inventory inventory = inventoryRepository.findByProduct(item.getProduct())
-                                               .orElseThrow(() -> new CustomException(
-                                                   ErrorCode.ENTITY_NOT_FOUND,
-                                                   "Inventory not found for product: " + item
-                                                       .getProduct().getId()));
-
-      inventory.fulfill(item.getQuantity());
-      inventoryRepository.save(inventory);
+      if (item.getStatus().canTransitionTo(status)) {
+        changes.put(item, status);
+      }
+    }
+    moveItems(order, changes);
+  }
 
-      // Send inventory update
-      webSocketService.sendInventoryUpdate(inventoryMapper.toDto(inventory));
+  /**
+   * Update items of an order and the inventory they hold with one statement, and publish the
+   * inventory if it changed
+   */
+  private void moveItems(Order order, Map<OrderItem, OrderItemStatus> changes) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    orderItemRepository.updateStatuses(changes);
+    if (changes.values().stream().anyMatch(status -> !status.holdsReservation())) {
+      sendInventoryUpdates(List.of(order.getId()));
     }
   }
 
+  @Override
+  public OrderStateMachineDTO describeStateMachine() {
+    return stateMachine.describe();
+  }
+
   @Override
   @Transactional(readOnly = true)
   public OrderStatus getOrderStatus(Long id) {
     log.debug("Request to get Order status : {}", id);
 
-    return orderRepository.findById(id)
-                          .map(Order::getStatus)
-                          .orElseThrow(() -> new CustomException(ErrorCode.ENTITY_NOT_FOUND,
-                                                                 "Order not found"));
+    return findOrderAndVerifyAccess(id).getStatus();
   }
 
+  @UseDataSource(DataSourcePool.REPORTING)
   @Transactional(readOnly = true)
   @Override
   public List<DailySalesReportDTO> getDailySalesReport(LocalDate startDate, LocalDate endDate) {
-    if (startDate == null) {
-      startDate = LocalDate.now();
-    }
-
-    if (endDate == null) {
-      endDate = LocalDate.now();
-    }
     log.debug("Service request to get daily sales report from {} to {}", startDate, endDate);
 
-    Instant startInstant = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-    Instant endInstant = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-
-    List<Object[]> results = orderRepository.getDailySalesReport(startInstant, endInstant);
-
-    return results.stream()
-                  .map(row -> {
-                    LocalDate date = ((java.sql.Date) row[0]).toLocalDate();
-                    BigDecimal totalSales = (BigDecimal) row[1];
-                    return new DailySalesReportDTO(date, totalSales);
-                  })
-                  .toList();
+    return salesRollupService.getDailySales(startDate, endDate);
   }
 
 }
@@ -9,6 +9,10 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.mapper.PaymentMapper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.GatewayResponse;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.PaymentAuthorization;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.PaymentGatewayClient;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.PaymentGatewayException;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.NotificationRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.PaymentRepository;
@@ -19,14 +23,37 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.service.AuditService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.BaseService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.PaymentService;
-import java.util.Optional;
-import java.util.UUID;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link Payment}.
+ *
+ * <p></p>
+ * Payments are taken in two phases, authorize and capture, through the {@link PaymentGatewayClient}.
+ * Gateway calls are made outside any transaction, so a slow gateway does not hold a database
+ * connection. The payment state is written after every phase with a single statement, and a retry
+ * of {@link #processPayment} with the same idempotency key resumes where the previous attempt
+ * stopped. Checkout cannot be retried that way, since the order's idempotency key is already
+ * taken; payments it leaves AUTHORIZED, or COMPLETED without completing the order, are finished by
+ * the payment reconciler through {@link #resumePayment}.
+ *
+ * <p></p>
+ * Cancelling a PENDING order marks its payment REFUND_PENDING with {@link #requestRefunds}, even
+ * while checkout is still paying it: checkout's next version-checked update then fails instead of
+ * completing the payment, and the reconciler returns the amount through {@link #refundPayment}.
+ *
+ * <p></p>
+ * Checkout uses {@link #processOrderPayment}, which takes the order it has just created and
+ * authorized instead of loading and authorizing it again, so a successful payment costs three
+ * statements: the insert and the two status updates.
  */
 @Service
 @Slf4j
@@ -38,6 +65,8 @@ public class PaymentServiceImpl extends BaseService implements PaymentService {
   private final PaymentMapper paymentMapper;
   private final AuditService auditService;
   private final NotificationService notificationService;
+  private final PaymentGatewayClient paymentGatewayClient;
+  private final TransactionTemplate transactionTemplate;
 
   public PaymentServiceImpl(
       UserRepository userRepository,
@@ -46,7 +75,9 @@ public class PaymentServiceImpl extends BaseService implements PaymentService {
       NotificationRepository notificationRepository,
       PaymentMapper paymentMapper,
       AuditService auditService,
-      NotificationService notificationService) {
+      NotificationService notificationService,
+      PaymentGatewayClient paymentGatewayClient,
+      PlatformTransactionManager transactionManager) {
     super(userRepository);
     this.paymentRepository = paymentRepository;
     this.orderRepository = orderRepository;
@@ -54,16 +85,140 @@ public class PaymentServiceImpl extends BaseService implements PaymentService {
     this.paymentMapper = paymentMapper;
     this.auditService = auditService;
     this.notificationService = notificationService;
+    this.paymentGatewayClient = paymentGatewayClient;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   @Override
-  @Transactional
   public PaymentDTO processPayment(PaymentDTO paymentDTO) {
     log.debug("Request to process Payment : {}", paymentDTO);
 
     // Validate payment data
     validatePaymentRequest(paymentDTO);
 
+    // Phase 1: record the payment attempt
+    Payment payment = transactionTemplate.execute(status -> startPayment(paymentDTO));
+    return settlePayment(payment);
+  }
+
+  @Override
+  public PaymentDTO processOrderPayment(Order order, String paymentMethod,
+                                       String idempotencyKey) {
+    log.debug("Request to process Payment for order: {}", order.getId());
+
+    // Phase 1: record the payment attempt; the caller has already loaded and authorized the order
+    Payment payment = recordPayment(newPayment(order, order.getTotalAmount(), paymentMethod,
+                                               idempotencyKey));
+    return settlePayment(payment);
+  }
+
+  @Override
+  public PaymentDTO resumePayment(Payment payment) {
+    log.debug("Request to resume Payment : {}", payment.getId());
+    if (payment.getStatus() != PaymentStatus.AUTHORIZED) {
+      return paymentMapper.toDto(payment);
+    }
+    return settlePayment(payment);
+  }
+
+  @Override
+  public PaymentDTO refundPayment(Payment payment) {
+    log.debug("Request to refund Payment : {}", payment.getId());
+    if (payment.getStatus() != PaymentStatus.REFUND_PENDING) {
+      return paymentMapper.toDto(payment);
+    }
+
+    // Nothing is held at the gateway without an authorization reference
+    if (payment.getTransactionId() == null) {
+      paymentRepository.updateStatus(payment, PaymentStatus.FAILED);
+      return paymentMapper.toDto(payment);
+    }
+
+    GatewayResponse refund = refund(payment);
+    if (refund == null) {
+      // The outcome is unknown; the payment stays REFUND_PENDING and is refunded again later
+      return paymentMapper.toDto(payment);
+    }
+    if (!refund.approved()) {
+      log.error("Refund of payment ID {} for order ID {} was declined, it needs manual attention: "
+                + "{}", payment.getId(), payment.getOrder().getId(), refund.message());
+      paymentRepository.updateStatus(payment, PaymentStatus.FAILED);
+      return paymentMapper.toDto(payment);
+    }
+
+    log.info("Payment refunded for order ID: {}", payment.getOrder().getId());
+    paymentRepository.updateStatus(payment, PaymentStatus.REFUNDED);
+    Order order = payment.getOrder();
+    notificationService.createNotification(
+        order.getUser(),
+        NotificationType.ORDER_CANCELLATION,
+        "Payment for cancelled order #" + order.getId() + " has been refunded.");
+    auditService.createLogAsync("Payment", payment.getId(), payment);
+    return paymentMapper.toDto(payment);
+  }
+
+  @Override
+  @Transactional
+  public void requestRefunds(Collection<Long> orderIds) {
+    int marked = paymentRepository.markForRefundByOrderIdIn(
+        orderIds, SecurityUtils.getCurrentUserUserName().orElse("system"), Instant.now());
+    if (marked > 0) {
+      log.info("Marked {} payments of cancelled orders for a refund", marked);
+    }
+  }
+
+  /**
+   * Authorize and capture a recorded payment, unless a previous attempt already did
+   */
+  private PaymentDTO settlePayment(Payment payment) {
+    if (payment.getStatus() == PaymentStatus.COMPLETED
+        || payment.getStatus() == PaymentStatus.REFUND_PENDING
+        || payment.getStatus() == PaymentStatus.REFUNDED) {
+      return paymentMapper.toDto(payment);
+    }
+
+    // Phase 2: authorize the amount, unless a previous attempt already did
+    if (payment.getStatus() != PaymentStatus.AUTHORIZED) {
+      GatewayResponse authorization = authorize(payment);
+      if (authorization == null || !authorization.approved()) {
+        log.info("Payment authorization failed for order ID: {}", payment.getOrder().getId());
+        paymentRepository.updateStatus(payment, PaymentStatus.FAILED);
+        return paymentMapper.toDto(payment);
+      }
+      payment.setTransactionId(authorization.reference());
+      try {
+        paymentRepository.updateStatus(payment, PaymentStatus.AUTHORIZED);
+      } catch (OptimisticLockingFailureException e) {
+        // The order was cancelled meanwhile and the payment marked for a refund, which cannot see
+        // this authorization, so release it here
+        voidAuthorization(payment);
+        throw e;
+      }
+    }
+
+    // Phase 3: capture the authorized amount
+    GatewayResponse capture = capture(payment);
+    if (capture == null) {
+      // The outcome is unknown; the payment stays AUTHORIZED and the reconciler captures it later
+      log.info("Payment capture did not complete for order ID: {}", payment.getOrder().getId());
+      return paymentMapper.toDto(payment);
+    }
+    if (!capture.approved()) {
+      log.info("Payment capture declined for order ID: {}", payment.getOrder().getId());
+      voidAuthorization(payment);
+      paymentRepository.updateStatus(payment, PaymentStatus.FAILED);
+      return paymentMapper.toDto(payment);
+    }
+
+    log.info("Payment succeeded for order ID: {}", payment.getOrder().getId());
+    completePayment(payment);
+    return paymentMapper.toDto(payment);
+  }
+
+  /**
+   * Validate the payment against its order and record it
+   */
+  private Payment startPayment(PaymentDTO paymentDTO) {
     // Check if order exists
     Order order = orderRepository.findById(paymentDTO.getOrderId())
                                  .orElseThrow(() -> new CustomException(ErrorCode.ENTITY_NOT_FOUND,
@@ -95,66 +250,128 @@ public class PaymentServiceImpl extends BaseService implements PaymentService {
                                 ", Actual: " + paymentDTO.getAmount());
     }
 
-    String idempotencyKey = paymentDTO.getIdempotencyKey();
-
-    // Check if payment with this idempotency key already exists
-    Optional<Payment> existingPaymentByIdempotencyKey = paymentRepository.findByIdempotencyKey(
-        idempotencyKey);
-    if (existingPaymentByIdempotencyKey.isPresent()) {
-      Payment existingPayment = existingPaymentByIdempotencyKey.get();
-      log.info("Payment with idempotency key {} already exists with status {}",
-               idempotencyKey, existingPayment.getStatus());
+    return recordPayment(newPayment(order, paymentDTO.getAmount(), paymentDTO.getPaymentMethod(),
+                                    paymentDTO.getIdempotencyKey()));
+  }
 
-      // Return the existing payment regardless of its status
-      // This ensures idempotency - same request always returns same result
-      if (existingPayment.getStatus() == PaymentStatus.COMPLETED) {
-        log.info("Returning existing completed payment with idempotency key {}", idempotencyKey);
-        return paymentMapper.toDto(existingPayment);
-      }
+  /**
+   * Insert the payment as PENDING, or return the payment already recorded under the same
+   * idempotency key. The unique index on the key detects the duplicate, so a new payment costs a
+   * single statement.
+   */
+  private Payment recordPayment(Payment payment) {
+    Payment recorded = paymentRepository.insertOrGet(payment);
+    if (recorded == payment) {
+      return recorded;
     }
 
+    log.info("Payment with idempotency key {} already exists with status {}",
+             recorded.getIdempotencyKey(), recorded.getStatus());
 
-    // Create or update payment entity
-    Payment payment;
-    if (existingPaymentByIdempotencyKey.isPresent()) {
-      payment = existingPaymentByIdempotencyKey.get();
-    } else {
-      payment = new Payment();
-      payment.setOrder(order);
-      payment.setAmount(paymentDTO.getAmount());
-      payment.setPaymentMethod(paymentDTO.getPaymentMethod());
-      payment.setStatus(PaymentStatus.PENDING);
+    // A completed or refunded payment is returned as is and an authorized one resumes with the
+    // capture. This ensures idempotency - same request never charges twice
+    if (recorded.getStatus() != PaymentStatus.PENDING
+        && recorded.getStatus() != PaymentStatus.FAILED) {
+      return recorded;
     }
 
-    payment.setTransactionId(UUID.randomUUID().toString());
+    // Any other attempt starts over
+    recorded.setTransactionId(null);
+    paymentRepository.updateStatus(recorded, PaymentStatus.PENDING);
+    return recorded;
+  }
+
+  private static Payment newPayment(Order order, BigDecimal amount, String paymentMethod,
+                                    String idempotencyKey) {
+    Payment payment = new Payment();
+    payment.setOrder(order);
+    payment.setAmount(amount);
+    payment.setPaymentMethod(paymentMethod);
+    payment.setStatus(PaymentStatus.PENDING);
     payment.setIdempotencyKey(idempotencyKey);
-    payment = paymentRepository.save(payment);
-
-    // Process payment (in a real system, this would call a payment gateway)
-    // Simulate payment processing
-    boolean success = processPayment(payment);
-
-    if (success) {
-      // Payment succeeded
-      log.info("Payment succeeded for order ID: {}", order.getId());
-      payment.setStatus(PaymentStatus.COMPLETED);
-      // Create notification using NotificationService
-      notificationService.createNotification(
-          order.getUser(),
-          NotificationType.PAYMENT_CONFIRMATION,
-          "Payment for order #" + order.getId() + " has been confirmed."
-                                            );
-
-      // Create audit logs asynchronously
-      auditService.createLogAsync("Payment", payment.getId(), payment);
-    } else {
-      // Payment failed
-      log.info("Payment failed for order ID: {}", order.getId());
-      payment.setStatus(PaymentStatus.FAILED);
-    }
-    payment = paymentRepository.save(payment);
+    return payment;
+  }
 
-    return paymentMapper.toDto(payment);
+  /**
+   * Mark the payment as captured, notify the user and audit it
+   */
+  private void completePayment(Payment payment) {
+    paymentRepository.updateStatus(payment, PaymentStatus.COMPLETED);
+
+    // Create notification using NotificationService
+    Order order = payment.getOrder();
+    notificationService.createNotification(
+        order.getUser(),
+        NotificationType.PAYMENT_CONFIRMATION,
+        "Payment for order #" + order.getId() + " has been confirmed."
+                                          );
+
+    // Create audit logs asynchronously
+    auditService.createLogAsync("Payment", payment.getId(), payment);
+  }
+
+  /**
+   * Authorize the payment at the gateway, outside any transaction
+   *
+   * @return the response, or {@code null} if the gateway could not be reached
+   */
+  private GatewayResponse authorize(Payment payment) {
+    PaymentAuthorization authorization = new PaymentAuthorization(
+        gatewayIdempotencyKey(payment), payment.getAmount(), payment.getPaymentMethod());
+    try {
+      return paymentGatewayClient.authorize(authorization);
+    } catch (PaymentGatewayException e) {
+      log.warn("Authorization failed for payment ID {}: {}", payment.getId(), e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Capture the authorized payment at the gateway, outside any transaction
+   *
+   * @return the response, or {@code null} if the gateway could not be reached
+   */
+  private GatewayResponse capture(Payment payment) {
+    try {
+      return paymentGatewayClient.capture(payment.getTransactionId(), payment.getAmount());
+    } catch (PaymentGatewayException e) {
+      log.warn("Capture failed for payment ID {}: {}", payment.getId(), e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Return the amount of the payment at the gateway, outside any transaction
+   *
+   * @return the response, or {@code null} if the gateway could not be reached
+   */
+  private GatewayResponse refund(Payment payment) {
+    try {
+      return paymentGatewayClient.refund(payment.getTransactionId(), payment.getAmount());
+    } catch (PaymentGatewayException e) {
+      log.warn("Refund failed for payment ID {}: {}", payment.getId(), e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Release the authorization of a payment that will not be captured
+   */
+  private void voidAuthorization(Payment payment) {
+    try {
+      paymentGatewayClient.voidAuthorization(payment.getTransactionId());
+    } catch (PaymentGatewayException e) {
+      log.warn("Could not void the authorization of payment ID {}: {}", payment.getId(),
+               e.getMessage());
+    }
+  }
+
+  /**
+   * The key the gateway deduplicates authorizations by
+   */
+  private static String gatewayIdempotencyKey(Payment payment) {
+    return payment.getIdempotencyKey() != null
+           ? payment.getIdempotencyKey() : "payment-" + payment.getId();
   }
 
   private void validatePaymentRequest(PaymentDTO paymentDTO) {
@@ -170,18 +387,4 @@ public class PaymentServiceImpl extends BaseService implements PaymentService {
       throw new CustomException(ErrorCode.INVALID_REQUEST, "Payment method must not be empty");
     }
   }
-
-  private boolean processPayment(Payment payment) {
-    // If payment is already completed with this transaction ID, return success
-    if (payment.getStatus() == PaymentStatus.COMPLETED) {
-      log.info("Payment with transaction ID {} is already completed", payment.getTransactionId());
-      return true;
-    }
-
-    // Process payment logic would go here
-
-    return true;
-  }
-
-
 }
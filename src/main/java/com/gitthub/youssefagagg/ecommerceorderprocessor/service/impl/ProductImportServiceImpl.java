@@ -0,0 +1,154 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.batch.ProductImportFormat;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ProductImportConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ProductImportJobConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceContextHolder;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductImportStatusDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.ProductImportService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service Implementation for bulk product and inventory imports.
+ *
+ * <p></p>
+ * Imports are launched on their own virtual thread, so the request returns as soon as the job
+ * execution has been created. Only one import runs at a time.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+  private final Job productImportJob;
+  private final JobExplorer jobExplorer;
+  private final ProductImportConfig productImportConfig;
+  private final TaskExecutorJobLauncher jobLauncher;
+
+  public ProductImportServiceImpl(
+      @Qualifier(ProductImportJobConfiguration.JOB_NAME) Job productImportJob,
+      JobRepository jobRepository,
+      JobExplorer jobExplorer,
+      ProductImportConfig productImportConfig) {
+    this.productImportJob = productImportJob;
+    this.jobExplorer = jobExplorer;
+    this.productImportConfig = productImportConfig;
+
+    SimpleAsyncTaskExecutor launchExecutor = new SimpleAsyncTaskExecutor("product-import-");
+    launchExecutor.setVirtualThreads(true);
+    launchExecutor.setTaskDecorator(
+        task -> () -> DataSourceContextHolder.runWith(DataSourcePool.BACKGROUND, task));
+    this.jobLauncher = new TaskExecutorJobLauncher();
+    this.jobLauncher.setJobRepository(jobRepository);
+    this.jobLauncher.setTaskExecutor(launchExecutor);
+  }
+
+  @Override
+  public ProductImportStatusDTO startImport(String fileName) {
+    Path file = resolveImportFile(fileName);
+    log.info("Starting product import from {}", file);
+
+    JobParameters parameters = new JobParametersBuilder()
+        .addString("file", file.toString())
+        .addLong("requestedAt", System.currentTimeMillis())
+        .addString("requestedBy", SecurityUtils.getCurrentUserUserName().orElse("system"), false)
+        .toJobParameters();
+    return launch(parameters);
+  }
+
+  @Override
+  public ProductImportStatusDTO restartImport(Long executionId) {
+    JobExecution execution = findExecution(executionId);
+    if (execution.getStatus() != BatchStatus.FAILED
+        && execution.getStatus() != BatchStatus.STOPPED) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Only failed or stopped imports can be restarted");
+    }
+    log.info("Restarting product import execution {}", executionId);
+    return launch(execution.getJobParameters());
+  }
+
+  @Override
+  public ProductImportStatusDTO getImportStatus(Long executionId) {
+    return toDto(findExecution(executionId));
+  }
+
+  private ProductImportStatusDTO launch(JobParameters parameters) {
+    if (!jobExplorer.findRunningJobExecutions(ProductImportJobConfiguration.JOB_NAME).isEmpty()) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST, "A product import is already running");
+    }
+    try {
+      return toDto(jobLauncher.run(productImportJob, parameters));
+    } catch (JobExecutionException e) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST, e.getMessage());
+    }
+  }
+
+  private Path resolveImportFile(String fileName) {
+    Path directory = Path.of(productImportConfig.getDirectory()).toAbsolutePath().normalize();
+    Path file = directory.resolve(fileName).normalize();
+    if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Import file not found in the import directory: " + fileName);
+    }
+    try {
+      ProductImportFormat.fromFileName(file.getFileName().toString());
+    } catch (IllegalArgumentException e) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST, e.getMessage());
+    }
+    return file;
+  }
+
+  private JobExecution findExecution(Long executionId) {
+    JobExecution execution = jobExplorer.getJobExecution(executionId);
+    if (execution == null
+        || !ProductImportJobConfiguration.JOB_NAME.equals(execution.getJobInstance().getJobName())) {
+      throw new CustomException(ErrorCode.ENTITY_NOT_FOUND, "Product import not found");
+    }
+    return execution;
+  }
+
+  private ProductImportStatusDTO toDto(JobExecution execution) {
+    long read = 0;
+    long written = 0;
+    long skipped = 0;
+    // Partition counts are only aggregated into the manager step when it ends, so sum them
+    for (StepExecution step : execution.getStepExecutions()) {
+      if (step.getStepName().startsWith(ProductImportJobConfiguration.WORKER_STEP_NAME + ":")) {
+        read += step.getReadCount();
+        written += step.getWriteCount();
+        skipped += step.getSkipCount();
+      }
+    }
+    return ProductImportStatusDTO.builder()
+                                 .executionId(execution.getId())
+                                 .file(execution.getJobParameters().getString("file"))
+                                 .status(execution.getStatus().name())
+                                 .exitCode(execution.getExitStatus().getExitCode())
+                                 .exitDescription(execution.getExitStatus().getExitDescription())
+                                 .readCount(read)
+                                 .writeCount(written)
+                                 .skipCount(skipped)
+                                 .startTime(execution.getStartTime())
+                                 .endTime(execution.getEndTime())
+                                 .build();
+  }
+}
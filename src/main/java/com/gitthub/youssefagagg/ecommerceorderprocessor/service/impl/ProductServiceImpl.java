@@ -13,13 +13,13 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.mapper.ProductMapper;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.retry.RetryOnConflict;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.AuditService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.BaseService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.ProductService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.WebSocketService;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -125,29 +125,14 @@ public class ProductServiceImpl extends BaseService implements ProductService {
   @Transactional(readOnly = true)
   public PaginationResponse<ProductDTO> findAll(Pageable pageable) {
     log.debug("Request to get all Products");
-    Page<Product> result = productRepository.findAll(pageable);
-    Page<ProductDTO> dtoPage = result.map(product -> {
-      ProductDTO productDTO = productMapper.toDto(product);
-      // Add inventory information to the DTO
-      productDTO.setAvailableQuantity(product.getInventory().getAvailableQuantity());
-      return productDTO;
-    });
-    return createPaginationResponse(dtoPage);
+    return createPaginationResponse(productRepository.findCatalog(pageable));
   }
 
   @Override
   @Transactional(readOnly = true)
   public PaginationResponse<ProductDTO> findByNameContaining(String name, Pageable pageable) {
     log.debug("Request to get all Products containing name: {}", name);
-    Page<Product> result = productRepository.findByNameContainingIgnoreCase(name, pageable);
-    Page<ProductDTO> dtoPage = result.map(product -> {
-      ProductDTO productDTO = productMapper.toDto(product);
-      // Add inventory information to the DTO
-      productDTO.setAvailableQuantity(product.getInventory().getAvailableQuantity());
-      return productDTO;
-    });
-
-    return createPaginationResponse(dtoPage);
+    return createPaginationResponse(productRepository.findCatalogByNameContaining(name, pageable));
   }
 
   @Override
@@ -209,6 +194,7 @@ public class ProductServiceImpl extends BaseService implements ProductService {
   }
 
   @Override
+  @RetryOnConflict("inventory-update")
   @Transactional
   public InventoryDTO updateInventory(InventoryDTO inventoryDTO) {
     log.debug("Request to update Inventory : {}", inventoryDTO);
@@ -227,9 +213,10 @@ public class ProductServiceImpl extends BaseService implements ProductService {
     // Clone the existing inventory to preserve old values
     Inventory oldInventory = inventory.cloneObject();
 
-    // Update the inventory
+    // Update the inventory and surface a concurrent change before anything is published
     inventoryMapper.partialUpdate(inventory, inventoryDTO);
     Inventory updatedInventory = inventoryRepository.save(inventory);
+    inventoryRepository.flush();
 
     // Create audit log asynchronously
     auditService.updateLogAsync("Inventory", updatedInventory.getId(), null, oldInventory,
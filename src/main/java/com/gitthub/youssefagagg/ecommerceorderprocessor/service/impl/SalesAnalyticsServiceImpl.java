@@ -0,0 +1,95 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReportingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.UseDataSource;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesAnalyticsDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesDimension;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesGranularity;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesCubeRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesAnalyticsService;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for sales analytics.
+ *
+ * <p></p>
+ * Queries never touch the orders table: they re-bucket the 15-minute cube rows of the requested
+ * range into periods of the requested zone, so their cost depends on the length of the range and
+ * not on the number of orders.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+
+  /**
+   * Longest range, in days, that may be reported hour by hour.
+   */
+  static final long MAX_HOURLY_DAYS = 31;
+
+  private final SalesCubeRepository salesCubeRepository;
+  private final ReportingConfig reportingConfig;
+
+  @UseDataSource(DataSourcePool.REPORTING)
+  @Transactional(readOnly = true)
+  @Override
+  public List<SalesAnalyticsDTO> getSalesAnalytics(LocalDate startDate, LocalDate endDate,
+                                                   SalesGranularity granularity, String zone,
+                                                   SalesDimension dimension,
+                                                   List<OrderStatus> statuses) {
+    ZoneId zoneId = resolveZone(zone);
+    String sqlZone;
+    try {
+      sqlZone = ReportingConfig.toSqlZoneId(zoneId);
+    } catch (IllegalArgumentException e) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST, e.getMessage());
+    }
+
+    LocalDate today = LocalDate.now(zoneId);
+    LocalDate start = startDate != null ? startDate : today;
+    LocalDate end = endDate != null ? endDate : today;
+    SalesGranularity period = granularity != null ? granularity : SalesGranularity.DAY;
+    if (start.isAfter(end)) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Start date must not be after end date");
+    }
+    if (period == SalesGranularity.HOUR && ChronoUnit.DAYS.between(start, end) >= MAX_HOURLY_DAYS) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Hourly analytics are limited to " + MAX_HOURLY_DAYS + " days");
+    }
+
+    log.debug("Service request to get {} sales analytics by {} from {} to {} in {}", period,
+              dimension, start, end, zoneId);
+
+    Instant from = start.atStartOfDay(zoneId).toInstant();
+    Instant to = end.plusDays(1).atStartOfDay(zoneId).toInstant();
+    return salesCubeRepository.aggregate(
+        from, to, period, zoneId, sqlZone,
+        dimension != null ? dimension : SalesDimension.NONE,
+        statuses != null && !statuses.isEmpty() ? statuses : OrderStatus.countedAsSale());
+  }
+
+  private ZoneId resolveZone(String zone) {
+    if (zone == null || zone.isBlank()) {
+      return reportingConfig.getZone();
+    }
+    try {
+      return ZoneId.of(zone);
+    } catch (DateTimeException e) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST, "Unknown time zone: " + zone);
+    }
+  }
+}
@@ -0,0 +1,304 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReportingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourceContextHolder;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.datasource.DataSourcePool;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.DailySales;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.DailySalesRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesCubeRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesRollupDeltaRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesRollupDeltaRepository.Delta;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service Implementation for maintaining the sales rollups: the {@link DailySales} table and the
+ * sales analytics cubes.
+ *
+ * <p></p>
+ * A status change only inserts one row per order into {@code sales_rollup_deltas}, in the same
+ * transaction as the change, so checkouts and cancellations never wait on the hot rollup rows of
+ * the current day and bucket. Every {@code reporting.delta-interval-ms} the folder applies the
+ * oldest changes to the affected sales days and cube cells with set-based upserts on the background
+ * pool and deletes them, so the rollups trail the orders by about one interval.
+ *
+ * <p></p>
+ * The backfill rebuilds a range chunk by chunk: each chunk deletes the rollup rows and recomputes
+ * them from the orders table, then drops the pending changes of the orders it has read, in one
+ * transaction. Folds and chunks exclude each other by locking the rollup tables, cubes first,
+ * before their first query; a chunk then reads under a single repeatable-read snapshot, so every
+ * change is either already part of the orders it reads or still pending afterwards, never both.
+ */
+@Service
+@Slf4j
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+  /**
+   * Batches folded per scheduled run at most, so one run does not hold the scheduler thread.
+   */
+  private static final int MAX_FOLDS_PER_RUN = 20;
+
+  private final DailySalesRepository dailySalesRepository;
+  private final OrderRepository orderRepository;
+  private final SalesCubeRepository salesCubeRepository;
+  private final SalesRollupDeltaRepository salesRollupDeltaRepository;
+  private final ReportingConfig reportingConfig;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate rebuildTransactionTemplate;
+  private final Executor reportingExecutor;
+  private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+  public SalesRollupServiceImpl(
+      DailySalesRepository dailySalesRepository,
+      OrderRepository orderRepository,
+      SalesCubeRepository salesCubeRepository,
+      SalesRollupDeltaRepository salesRollupDeltaRepository,
+      ReportingConfig reportingConfig,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("reportingExecutor") Executor reportingExecutor) {
+    this.dailySalesRepository = dailySalesRepository;
+    this.orderRepository = orderRepository;
+    this.salesCubeRepository = salesCubeRepository;
+    this.salesRollupDeltaRepository = salesRollupDeltaRepository;
+    this.reportingConfig = reportingConfig;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.rebuildTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.rebuildTransactionTemplate.setIsolationLevel(
+        TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.reportingExecutor = reportingExecutor;
+  }
+
+  @Override
+  @Transactional
+  public void recordStatusChange(Collection<Long> orderIds, OrderStatus oldStatus,
+                                 OrderStatus newStatus) {
+    if (orderIds.isEmpty() || oldStatus == newStatus) {
+      return;
+    }
+    log.debug("Recording {} orders moving from {} to {} for the sales rollups", orderIds.size(),
+              oldStatus, newStatus);
+    salesRollupDeltaRepository.append(orderIds, oldStatus, newStatus);
+  }
+
+  @Override
+  public int applyPendingDeltas() {
+    return applyPendingDeltas(true);
+  }
+
+  /**
+   * Fold the recorded status changes into the rollups, batch by batch. A run is skipped while a
+   * rebuild chunk, or a fold on another node, holds the rollups.
+   */
+  @Scheduled(fixedDelayString = "${reporting.delta-interval-ms:1000}")
+  public void foldDeltas() {
+    try {
+      for (int i = 0; i < MAX_FOLDS_PER_RUN; i++) {
+        if (applyPendingDeltas(false) < reportingConfig.getDeltaBatchSize()) {
+          return;
+        }
+      }
+    } catch (PessimisticLockingFailureException e) {
+      log.debug("Sales rollups are locked, folding status changes in the next run");
+    }
+  }
+
+  private int applyPendingDeltas(boolean wait) {
+    Integer applied = DataSourceContextHolder.callWith(
+        DataSourcePool.BACKGROUND,
+        () -> transactionTemplate.execute(status -> {
+          if (wait) {
+            lockRollups();
+          } else {
+            salesCubeRepository.tryLockForRebuild();
+            dailySalesRepository.tryLockForRebuild();
+          }
+          List<Delta> deltas =
+              salesRollupDeltaRepository.findOldest(reportingConfig.getDeltaBatchSize());
+          if (deltas.isEmpty()) {
+            return 0;
+          }
+
+          // An order changing status several times moves once, from its first to its last status
+          Map<Long, OrderStatus> firstStatus = new HashMap<>();
+          Map<Long, OrderStatus> lastStatus = new LinkedHashMap<>();
+          for (Delta delta : deltas) {
+            if (!firstStatus.containsKey(delta.orderId())) {
+              firstStatus.put(delta.orderId(), delta.oldStatus());
+            }
+            lastStatus.put(delta.orderId(), delta.newStatus());
+          }
+          Map<Move, List<Long>> moves = new LinkedHashMap<>();
+          lastStatus.forEach((orderId, newStatus) -> {
+            Move move = new Move(firstStatus.get(orderId), newStatus);
+            if (move.oldStatus() != move.newStatus()) {
+              moves.computeIfAbsent(move, key -> new ArrayList<>()).add(orderId);
+            }
+          });
+          moves.forEach((move, orderIds) -> applyMove(orderIds, move));
+
+          salesRollupDeltaRepository.deleteByIdIn(deltas.stream().map(Delta::id).toList());
+          return deltas.size();
+        }));
+    return applied != null ? applied : 0;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<DailySalesReportDTO> getDailySales(LocalDate startDate, LocalDate endDate) {
+    LocalDate today = LocalDate.now(reportingConfig.getZone());
+    if (startDate == null) {
+      startDate = today;
+    }
+    if (endDate == null) {
+      endDate = today;
+    }
+    List<DailySales> rows = dailySalesRepository
+        .findBySalesDateBetweenAndOrderCountGreaterThanOrderBySalesDateAsc(startDate, endDate, 0L);
+    return rows.stream()
+               .map(row -> new DailySalesReportDTO(row.getSalesDate(), row.getTotalSales()))
+               .toList();
+  }
+
+  @Override
+  public int backfill(LocalDate startDate, LocalDate endDate) {
+    if (startDate.isAfter(endDate)) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "Start date must not be after end date");
+    }
+    log.info("Backfilling sales rollups from {} to {}", startDate, endDate);
+
+    List<String> statuses = OrderStatus.countedAsSaleNames();
+    int chunkDays = Math.max(1, reportingConfig.getBackfillChunkDays());
+    int rows = 0;
+    LocalDate chunkStart = startDate;
+    while (!chunkStart.isAfter(endDate)) {
+      LocalDate chunkEnd = chunkStart.plusDays(chunkDays - 1L);
+      if (chunkEnd.isAfter(endDate)) {
+        chunkEnd = endDate;
+      }
+      rows += rebuildChunk(chunkStart, chunkEnd, statuses);
+      chunkStart = chunkEnd.plusDays(1);
+    }
+
+    log.info("Backfilled sales rollups from {} to {}: {} days with sales", startDate, endDate,
+             rows);
+    return rows;
+  }
+
+  @Override
+  public void startBackfill(LocalDate startDate, LocalDate endDate) {
+    if (!backfillRunning.compareAndSet(false, true)) {
+      throw new CustomException(ErrorCode.INVALID_REQUEST,
+                                "A daily sales backfill is already running");
+    }
+    try {
+      reportingExecutor.execute(() -> {
+        try {
+          backfill(startDate, endDate);
+        } catch (RuntimeException e) {
+          log.error("Daily sales backfill from {} to {} failed", startDate, endDate, e);
+        } finally {
+          backfillRunning.set(false);
+        }
+      });
+    } catch (RuntimeException e) {
+      backfillRunning.set(false);
+      throw e;
+    }
+  }
+
+  /**
+   * Populate empty rollups from the order history, e.g. right after a rollup was introduced. Every
+   * node starting on an empty rollup runs it; their chunks only wait on each other and on the
+   * folder, never on order writes, and rebuilding a chunk twice gives the same rows.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillIfEmpty() {
+    if (!reportingConfig.isBackfillOnStartup()
+        || (dailySalesRepository.count() > 0 && !salesCubeRepository.isEmpty())) {
+      return;
+    }
+    // The cubes hold orders in every status, not only those counted in the daily sales
+    Instant firstOrder =
+        orderRepository.findFirstCreatedDateByStatusIn(EnumSet.allOf(OrderStatus.class));
+    if (firstOrder == null) {
+      return;
+    }
+    startBackfill(firstOrder.atZone(reportingConfig.getZone()).toLocalDate(),
+                  LocalDate.now(reportingConfig.getZone()));
+  }
+
+  private int rebuildChunk(LocalDate chunkStart, LocalDate chunkEnd, List<String> statuses) {
+    Instant from = chunkStart.atStartOfDay(reportingConfig.getZone()).toInstant();
+    Instant to = chunkEnd.plusDays(1).atStartOfDay(reportingConfig.getZone()).toInstant();
+    Integer rows = DataSourceContextHolder.callWith(
+        DataSourcePool.BACKGROUND,
+        () -> rebuildTransactionTemplate.execute(status -> {
+          // Locking takes no snapshot, so the reads below see every fold that committed before
+          lockRollups();
+          salesCubeRepository.rebuildBetween(from, to, zoneId());
+          dailySalesRepository.deleteBetween(chunkStart, chunkEnd);
+          int written =
+              dailySalesRepository.rebuildBetween(chunkStart, chunkEnd, statuses, zoneId());
+          salesRollupDeltaRepository.deleteForOrdersCreatedBetween(from, to);
+          return written;
+        }));
+    return rows != null ? rows : 0;
+  }
+
+  private void applyMove(List<Long> orderIds, Move move) {
+    if (move.oldStatus() != null) {
+      salesCubeRepository.applyDelta(orderIds, move.oldStatus(), -1, zoneId());
+    }
+    if (move.newStatus() != null) {
+      salesCubeRepository.applyDelta(orderIds, move.newStatus(), 1, zoneId());
+    }
+
+    boolean wasCounted = move.oldStatus() != null && move.oldStatus().isCountedAsSale();
+    boolean isCounted = move.newStatus() != null && move.newStatus().isCountedAsSale();
+    if (wasCounted != isCounted) {
+      dailySalesRepository.applyDelta(orderIds, isCounted ? 1 : -1, zoneId());
+    }
+  }
+
+  /**
+   * Lock out other folds and rebuilds until the current transaction ends, always cubes first.
+   */
+  private void lockRollups() {
+    salesCubeRepository.lockForRebuild();
+    dailySalesRepository.lockForRebuild();
+  }
+
+  private String zoneId() {
+    return reportingConfig.sqlZoneId();
+  }
+
+  private record Move(OrderStatus oldStatus, OrderStatus newStatus) {
+  }
+}
@@ -0,0 +1,159 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+/**
+ * A concurrency limit that adapts to the latency of the work it admits, in the manner of TCP's
+ * additive-increase/multiplicative-decrease (AIMD) congestion control.
+ *
+ * <p></p>
+ * Every admitted call holds a permit until it completes and reports whether it was overloaded,
+ * typically because it took longer than its latency target. An overloaded call shrinks the limit by
+ * {@code backoffRatio}; only calls that started after the last decrease may shrink it again, so the
+ * calls already in flight when overload hits count as one signal rather than a burst of them. A
+ * call that completes in time while at least half the limit is in use grows the limit by
+ * {@code 1 / limit}, about one permit per limit's worth of calls. The limit stays between
+ * {@code minLimit} and {@code maxLimit}.
+ *
+ * <p></p>
+ * Callers can be admitted against a share of the limit, so lower-priority work is refused first
+ * when the limit shrinks:
+ * <pre>
+ * if (limiter.tryAcquire(0.5)) {
+ *   long start = System.nanoTime();
+ *   try {
+ *     call();
+ *   } finally {
+ *     limiter.release(start, System.nanoTime() - start > target);
+ *   }
+ * }
+ * </pre>
+ * The limiter publishes {@code concurrency.limit} and {@code concurrency.inflight} gauges tagged
+ * with its name once bound to a {@link MeterRegistry}.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+  @Getter
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile double limit;
+  private long lastDecrease = System.nanoTime();
+
+  /**
+   * Create a new limiter.
+   *
+   * @param name         the name, used for logs and metric tags
+   * @param initialLimit the limit to start with
+   * @param minLimit     the lowest the limit may drop to
+   * @param maxLimit     the highest the limit may grow to
+   * @param backoffRatio the factor the limit is multiplied with on overload, between 0 and 1
+   */
+  public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                    double backoffRatio) {
+    if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("Invalid concurrency limits for " + name);
+    }
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+  }
+
+  /**
+   * Take a permit if fewer calls than the given share of the limit are in flight. A caller that is
+   * given a permit must return it with {@link #release(long, boolean)}.
+   *
+   * @param share the share of the limit the caller may use, between 0 and 1
+   * @return {@code true} if the call may be made
+   */
+  public boolean tryAcquire(double share) {
+    int allowed = Math.max(1, (int) (limit * share));
+    while (true) {
+      int current = inFlight.get();
+      if (current >= allowed) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Return a permit and adjust the limit to the outcome of the call.
+   *
+   * @param startNanos the {@link System#nanoTime()} at which the call started
+   * @param overloaded whether the call showed overload, e.g. by missing its latency target
+   */
+  public void release(long startNanos, boolean overloaded) {
+    int inFlightBefore = inFlight.getAndDecrement();
+    if (overloaded) {
+      decrease(startNanos);
+    } else if (inFlightBefore * 2 >= limit) {
+      increase();
+    }
+  }
+
+  /**
+   * The current limit.
+   *
+   * @return the maximum number of calls in flight
+   */
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  /**
+   * Number of calls currently in flight.
+   *
+   * @return the in-flight count
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void increase() {
+    limit = Math.min(maxLimit, limit + 1 / limit);
+  }
+
+  private synchronized void decrease(long startNanos) {
+    if (startNanos - lastDecrease < 0) {
+      return;
+    }
+    double previous = limit;
+    limit = Math.max(minLimit, limit * backoffRatio);
+    lastDecrease = System.nanoTime();
+    if ((int) previous != (int) limit) {
+      log.debug("Concurrency limit {} decreased from {} to {}", name, (int) previous,
+                (int) limit);
+    }
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Tags tags = Tags.of(Tag.of("name", name));
+
+    Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+         .tags(tags)
+         .description("Current adaptive concurrency limit")
+         .register(registry);
+    Gauge.builder("concurrency.inflight", inFlight, AtomicInteger::get)
+         .tags(tags)
+         .description("Calls currently holding a permit")
+         .register(registry);
+  }
+}
@@ -0,0 +1,39 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects that cannot be rolled back until the current transaction has committed.
+ *
+ * <p></p>
+ * Notifications and asynchronous audit entries leave the transaction as soon as they are queued.
+ * Queued inside a transaction that then rolls back, e.g. an attempt that lost an optimistic
+ * locking conflict and is retried, they would describe a change that never happened, and the
+ * retry would queue them a second time. Deferred here, they run once, after the commit of the
+ * attempt that succeeded, and not at all if it rolls back.
+ */
+public final class AfterCommit {
+
+  private AfterCommit() {
+  }
+
+  /**
+   * Run an action once the current transaction has committed, or right away when the thread has
+   * no transaction synchronization.
+   *
+   * @param action the action
+   */
+  public static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
@@ -0,0 +1,330 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics.ExecutorQueueWaitEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.NonNull;
+
+/**
+ * A {@link TaskExecutor} that runs tasks on virtual threads behind a semaphore bulkhead.
+ *
+ * <p></p>
+ * Virtual threads are cheap, so the executor does not pool them; what it limits is the number of
+ * tasks running at once ({@code maxConcurrency}), which keeps a workload from holding more database
+ * connections than it has been given. Tasks that cannot start immediately wait in a bounded queue.
+ * When that queue is full the configured {@link RejectionPolicy} decides what happens; only
+ * {@link RejectionPolicy#ABORT} surfaces a burst as a {@link TaskRejectedException} in the
+ * submitting thread, for callers that would rather fail fast than wait or run the task themselves.
+ *
+ * <p></p>
+ * The executor publishes {@code executor.*} meters tagged with its name once bound to a
+ * {@link MeterRegistry}, and records the queue wait of every task as an
+ * {@link ExecutorQueueWaitEvent}.
+ */
+@Slf4j
+public class BulkheadExecutor implements TaskExecutor, MeterBinder, DisposableBean {
+
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+  @Getter
+  private final String name;
+  @Getter
+  private final int maxConcurrency;
+  @Getter
+  private final RejectionPolicy rejectionPolicy;
+  private final TaskDecorator taskDecorator;
+  private final ThreadFactory threadFactory;
+  private final Semaphore permits;
+  private final BlockingDeque<QueuedTask> queue;
+  private final BlockingQueue<QueuedTask> outbox;
+
+  private final AtomicInteger active = new AtomicInteger();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder callerRuns = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder spilled = new LongAdder();
+  private final LongAdder aborted = new LongAdder();
+
+  private volatile Timer waitTimer;
+  private volatile Timer executionTimer;
+
+  /**
+   * Create a new executor whose outbox, if it spills, holds as many tasks as its queue.
+   *
+   * @param name            the workload name, used for thread names and metric tags
+   * @param maxConcurrency  the maximum number of tasks running at once
+   * @param queueCapacity   the maximum number of tasks waiting for a permit
+   * @param rejectionPolicy what to do with a task when the queue is full
+   * @param taskDecorator   decorator applied to every task on submission, may be {@code null}
+   */
+  public BulkheadExecutor(String name, int maxConcurrency, int queueCapacity,
+                          RejectionPolicy rejectionPolicy, TaskDecorator taskDecorator) {
+    this(name, maxConcurrency, queueCapacity, queueCapacity, rejectionPolicy, taskDecorator);
+  }
+
+  /**
+   * Create a new executor.
+   *
+   * @param name            the workload name, used for thread names and metric tags
+   * @param maxConcurrency  the maximum number of tasks running at once
+   * @param queueCapacity   the maximum number of tasks waiting for a permit
+   * @param outboxCapacity  the maximum number of tasks spilled by
+   *                        {@link RejectionPolicy#SPILL_TO_OUTBOX}
+   * @param rejectionPolicy what to do with a task when the queue is full
+   * @param taskDecorator   decorator applied to every task on submission, may be {@code null}
+   */
+  public BulkheadExecutor(String name, int maxConcurrency, int queueCapacity, int outboxCapacity,
+                          RejectionPolicy rejectionPolicy, TaskDecorator taskDecorator) {
+    this.name = name;
+    this.maxConcurrency = maxConcurrency;
+    this.rejectionPolicy = rejectionPolicy;
+    this.taskDecorator = taskDecorator;
+    this.threadFactory = Thread.ofVirtual().name(name + "-", 0).factory();
+    this.permits = new Semaphore(maxConcurrency);
+    this.queue = new LinkedBlockingDeque<>(queueCapacity);
+    this.outbox = new LinkedBlockingQueue<>(outboxCapacity);
+  }
+
+  @Override
+  public void execute(@NonNull Runnable task) {
+    Runnable decorated = taskDecorator != null ? taskDecorator.decorate(task) : task;
+    QueuedTask queued = new QueuedTask(decorated, System.nanoTime());
+
+    if (!queue.offerLast(queued) && !reject(queued)) {
+      return;
+    }
+    startWorkers();
+  }
+
+  /**
+   * Number of tasks currently running.
+   *
+   * @return the active task count
+   */
+  public int getActiveCount() {
+    return active.get();
+  }
+
+  /**
+   * Number of tasks waiting to run, including spilled tasks.
+   *
+   * @return the pending task count
+   */
+  public int getQueuedCount() {
+    return queue.size() + outbox.size();
+  }
+
+  /**
+   * Apply the rejection policy to a task that did not fit in the queue.
+   *
+   * @param task the rejected task
+   * @return {@code true} if the task (or a replacement) was queued and workers may need starting
+   * @throws TaskRejectedException if the policy is {@link RejectionPolicy#ABORT}
+   */
+  private boolean reject(QueuedTask task) {
+    switch (rejectionPolicy) {
+      case CALLER_RUNS -> {
+        callerRuns.increment();
+        run(task);
+        return false;
+      }
+      case DROP_OLDEST -> {
+        QueuedTask oldest = queue.pollFirst();
+        if (oldest != null) {
+          dropped.increment();
+          log.warn("Executor {} is saturated, dropped its oldest queued task", name);
+        }
+        if (!queue.offerLast(task)) {
+          dropped.increment();
+          log.warn("Executor {} is saturated, dropped the submitted task", name);
+        }
+        return true;
+      }
+      case SPILL_TO_OUTBOX -> {
+        if (outbox.offer(task)) {
+          spilled.increment();
+          return true;
+        }
+        // The outbox is full as well: slow the submitter down rather than lose the task
+        callerRuns.increment();
+        log.warn("Executor {} is saturated and its outbox is full, running the task on the "
+                 + "submitting thread", name);
+        run(task);
+        return false;
+      }
+      case ABORT -> {
+        aborted.increment();
+        throw new TaskRejectedException("Executor " + name + " is saturated, rejected the task");
+      }
+      default -> throw new IllegalStateException("Unknown rejection policy: " + rejectionPolicy);
+    }
+  }
+
+  private void startWorkers() {
+    while (hasPendingWork() && permits.tryAcquire()) {
+      threadFactory.newThread(this::drain).start();
+    }
+  }
+
+  private void drain() {
+    try {
+      QueuedTask task;
+      while ((task = nextTask()) != null) {
+        run(task);
+      }
+    } finally {
+      permits.release();
+      // A task may have been queued after the last poll but before the permit was released.
+      if (hasPendingWork()) {
+        startWorkers();
+      }
+    }
+  }
+
+  private QueuedTask nextTask() {
+    QueuedTask task = queue.pollFirst();
+    return task != null ? task : outbox.poll();
+  }
+
+  private boolean hasPendingWork() {
+    return !queue.isEmpty() || !outbox.isEmpty();
+  }
+
+  private void run(QueuedTask task) {
+    long start = System.nanoTime();
+    long queueWait = start - task.submittedAt();
+    Timer wait = waitTimer;
+    if (wait != null) {
+      wait.record(queueWait, TimeUnit.NANOSECONDS);
+    }
+    ExecutorQueueWaitEvent.record(name, queueWait, getQueuedCount());
+
+    active.incrementAndGet();
+    try {
+      task.runnable().run();
+      completed.increment();
+    } catch (Throwable ex) {
+      failed.increment();
+      log.error("Task failed in executor {}", name, ex);
+    } finally {
+      active.decrementAndGet();
+      Timer execution = executionTimer;
+      if (execution != null) {
+        execution.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Tags tags = Tags.of(Tag.of("name", name));
+
+    Gauge.builder("executor.active", active, AtomicInteger::get)
+         .tags(tags)
+         .description("Tasks currently running")
+         .register(registry);
+    Gauge.builder("executor.queued", this, BulkheadExecutor::getQueuedCount)
+         .tags(tags)
+         .description("Tasks waiting for a bulkhead permit")
+         .register(registry);
+    Gauge.builder("executor.bulkhead.available", permits, Semaphore::availablePermits)
+         .tags(tags)
+         .description("Free bulkhead permits")
+         .register(registry);
+    FunctionCounter.builder("executor.completed", completed, LongAdder::sum)
+                   .tags(tags)
+                   .description("Tasks completed successfully")
+                   .register(registry);
+    FunctionCounter.builder("executor.failed", failed, LongAdder::sum)
+                   .tags(tags)
+                   .description("Tasks that threw an exception")
+                   .register(registry);
+    FunctionCounter.builder("executor.rejected", callerRuns, LongAdder::sum)
+                   .tags(tags.and("policy", "caller-runs"))
+                   .description("Tasks run by the submitting thread because the queue was full")
+                   .register(registry);
+    FunctionCounter.builder("executor.rejected", dropped, LongAdder::sum)
+                   .tags(tags.and("policy", "drop-oldest"))
+                   .description("Tasks discarded because the queue was full")
+                   .register(registry);
+    FunctionCounter.builder("executor.rejected", spilled, LongAdder::sum)
+                   .tags(tags.and("policy", "spill-to-outbox"))
+                   .description("Tasks moved to the overflow outbox because the queue was full")
+                   .register(registry);
+    FunctionCounter.builder("executor.rejected", aborted, LongAdder::sum)
+                   .tags(tags.and("policy", "abort"))
+                   .description("Tasks refused to the submitting thread because the queue was full")
+                   .register(registry);
+
+    waitTimer = Timer.builder("executor.queue.wait")
+                     .tags(tags)
+                     .description("Time tasks spent queued before running")
+                     .register(registry);
+    executionTimer = Timer.builder("executor.execution")
+                          .tags(tags)
+                          .description("Task execution time")
+                          .register(registry);
+  }
+
+  /**
+   * Wait for queued and running tasks to finish before the application context closes.
+   */
+  @Override
+  public void destroy() throws InterruptedException {
+    long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+    while ((hasPendingWork() || active.get() > 0) && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    if (hasPendingWork()) {
+      log.warn("Executor {} shut down with {} tasks still queued", name, getQueuedCount());
+    }
+  }
+
+  /**
+   * What to do with a task submitted while the queue is full.
+   */
+  public enum RejectionPolicy {
+    /**
+     * Run the task on the submitting thread.
+     */
+    CALLER_RUNS,
+    /**
+     * Discard the oldest queued task to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * Move the task to a bounded overflow outbox that is drained once the queue is empty, or run
+     * it on the submitting thread when the outbox is full as well.
+     */
+    SPILL_TO_OUTBOX,
+    /**
+     * Refuse the task by throwing a {@link TaskRejectedException} to the submitting thread.
+     */
+    ABORT
+  }
+
+  private record QueuedTask(Runnable runnable, long submittedAt) {
+  }
+}
@@ -0,0 +1,232 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+/**
+ * A count-based circuit breaker for calls to a remote dependency.
+ *
+ * <p></p>
+ * While {@link State#CLOSED} the outcome of the last {@code slidingWindowSize} calls is recorded;
+ * once at least {@code minimumCalls} are recorded and the share of failures reaches
+ * {@code failureRateThreshold} percent the breaker opens. While {@link State#OPEN} every call is
+ * refused, so a struggling dependency is not hammered and callers fail fast instead of waiting for
+ * timeouts. After {@code openDuration} the breaker lets {@code halfOpenCalls} trial calls through:
+ * if they all succeed it closes again, the first failure opens it again.
+ *
+ * <p></p>
+ * Callers ask for a permission before each call and report its outcome:
+ * <pre>
+ * if (breaker.tryAcquirePermission()) {
+ *   try {
+ *     call();
+ *     breaker.onSuccess();
+ *   } catch (RuntimeException e) {
+ *     breaker.onFailure();
+ *   }
+ * }
+ * </pre>
+ * The breaker publishes {@code circuit.breaker.*} meters tagged with its name once bound to a
+ * {@link MeterRegistry}.
+ */
+@Slf4j
+public class CircuitBreaker implements MeterBinder {
+
+  @Getter
+  private final String name;
+  private final int failureRateThreshold;
+  private final int minimumCalls;
+  private final long openDurationNanos;
+  private final int halfOpenCalls;
+  private final boolean[] window;
+
+  private State state = State.CLOSED;
+  private int windowIndex;
+  private int windowCount;
+  private int windowFailures;
+  private long openedAt;
+  private int halfOpenPermits;
+  private int halfOpenSuccesses;
+
+  private final LongAdder successful = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder notPermitted = new LongAdder();
+
+  /**
+   * Create a new, closed breaker.
+   *
+   * @param name                 the dependency name, used for logs and metric tags
+   * @param failureRateThreshold the failure percentage that opens the breaker
+   * @param slidingWindowSize    the number of most recent calls the failure rate is computed over
+   * @param minimumCalls         the number of calls needed before the failure rate is evaluated
+   * @param openDuration         how long the breaker stays open before it allows trial calls
+   * @param halfOpenCalls        the number of trial calls that must succeed to close the breaker
+   */
+  public CircuitBreaker(String name, int failureRateThreshold, int slidingWindowSize,
+                        int minimumCalls, Duration openDuration, int halfOpenCalls) {
+    this.name = name;
+    this.failureRateThreshold = failureRateThreshold;
+    this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+    this.openDurationNanos = openDuration.toNanos();
+    this.halfOpenCalls = halfOpenCalls;
+    this.window = new boolean[slidingWindowSize];
+  }
+
+  /**
+   * Ask whether a call may be made now. A caller that is given a permission must report the
+   * outcome with {@link #onSuccess()} or {@link #onFailure()}, or give it back with
+   * {@link #releasePermission()} if the call was never made.
+   *
+   * @return {@code true} if the call may be made
+   */
+  public synchronized boolean tryAcquirePermission() {
+    if (state == State.OPEN) {
+      if (System.nanoTime() - openedAt < openDurationNanos) {
+        notPermitted.increment();
+        return false;
+      }
+      transitionTo(State.HALF_OPEN);
+      halfOpenPermits = halfOpenCalls;
+      halfOpenSuccesses = 0;
+    }
+    if (state == State.HALF_OPEN) {
+      if (halfOpenPermits == 0) {
+        notPermitted.increment();
+        return false;
+      }
+      halfOpenPermits--;
+    }
+    return true;
+  }
+
+  /**
+   * Record a successful call.
+   */
+  public synchronized void onSuccess() {
+    successful.increment();
+    if (state == State.HALF_OPEN) {
+      if (++halfOpenSuccesses >= halfOpenCalls) {
+        transitionTo(State.CLOSED);
+      }
+    } else if (state == State.CLOSED) {
+      record(false);
+    }
+  }
+
+  /**
+   * Record a failed call.
+   */
+  public synchronized void onFailure() {
+    failed.increment();
+    if (state == State.HALF_OPEN) {
+      open();
+    } else if (state == State.CLOSED) {
+      record(true);
+      if (windowCount >= minimumCalls
+          && windowFailures * 100 >= failureRateThreshold * windowCount) {
+        open();
+      }
+    }
+  }
+
+  /**
+   * Give back a permission whose call was never made, so that it counts neither as a success nor
+   * as a failure.
+   */
+  public synchronized void releasePermission() {
+    if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+      halfOpenPermits++;
+    }
+  }
+
+  /**
+   * The current state. An open breaker whose open duration has passed is reported as open until
+   * the next call asks for a permission.
+   *
+   * @return the state
+   */
+  public synchronized State getState() {
+    return state;
+  }
+
+  private void record(boolean failure) {
+    if (windowCount == window.length) {
+      if (window[windowIndex]) {
+        windowFailures--;
+      }
+    } else {
+      windowCount++;
+    }
+    window[windowIndex] = failure;
+    if (failure) {
+      windowFailures++;
+    }
+    windowIndex = (windowIndex + 1) % window.length;
+  }
+
+  private void open() {
+    openedAt = System.nanoTime();
+    transitionTo(State.OPEN);
+  }
+
+  private void transitionTo(State newState) {
+    if (newState == State.OPEN) {
+      log.warn("Circuit breaker {} changed from {} to {}", name, state, newState);
+    } else {
+      log.info("Circuit breaker {} changed from {} to {}", name, state, newState);
+    }
+    state = newState;
+    windowIndex = 0;
+    windowCount = 0;
+    windowFailures = 0;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    Tags tags = Tags.of(Tag.of("name", name));
+
+    Gauge.builder("circuit.breaker.state", this, breaker -> breaker.getState().ordinal())
+         .tags(tags)
+         .description("Breaker state: 0 closed, 1 open, 2 half-open")
+         .register(registry);
+    FunctionCounter.builder("circuit.breaker.calls", successful, LongAdder::sum)
+                   .tags(tags.and("outcome", "successful"))
+                   .description("Calls made through the breaker")
+                   .register(registry);
+    FunctionCounter.builder("circuit.breaker.calls", failed, LongAdder::sum)
+                   .tags(tags.and("outcome", "failed"))
+                   .description("Calls made through the breaker")
+                   .register(registry);
+    FunctionCounter.builder("circuit.breaker.calls", notPermitted, LongAdder::sum)
+                   .tags(tags.and("outcome", "not-permitted"))
+                   .description("Calls refused because the breaker was open")
+                   .register(registry);
+  }
+
+  /**
+   * Circuit breaker states.
+   */
+  public enum State {
+    /**
+     * Calls are allowed and their outcomes recorded.
+     */
+    CLOSED,
+    /**
+     * Calls are refused.
+     */
+    OPEN,
+    /**
+     * A limited number of trial calls are allowed.
+     */
+    HALF_OPEN
+  }
+}
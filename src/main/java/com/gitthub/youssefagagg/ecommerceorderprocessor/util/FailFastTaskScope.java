@@ -0,0 +1,156 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs subtasks on virtual threads and cancels them all as soon as one fails.
+ *
+ * <p></p>
+ * This is the shutdown-on-failure policy of {@code StructuredTaskScope}, which is still a preview
+ * API in Java 21. The thread that opens the scope forks its subtasks, then waits for them in
+ * {@link #join()}: once every subtask has completed, or as soon as one fails, in which case the
+ * others are interrupted and the first failure is rethrown. No subtask outlives the scope:
+ * {@link #close()} interrupts the subtasks still running and waits for them to end.
+ *
+ * <p></p>
+ * Subtasks run with the {@link RequestDeadline} of the thread that forked them, decorated by the
+ * given {@link TaskDecorator}, e.g. to carry the security context. {@link #join()} gives up with
+ * {@link ErrorCode#DEADLINE_EXCEEDED} when the deadline passes before the subtasks complete.
+ * A scope is used by the thread that opened it only.
+ */
+public class FailFastTaskScope implements AutoCloseable {
+
+  private final String name;
+  private final TaskDecorator taskDecorator;
+  private final ThreadFactory threadFactory;
+  private final List<Thread> threads = new CopyOnWriteArrayList<>();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private boolean joined;
+
+  /**
+   * Open a scope.
+   *
+   * @param name          the name of the work, used for thread names and error messages
+   * @param taskDecorator decorator applied to every subtask, may be {@code null}
+   */
+  public FailFastTaskScope(String name, TaskDecorator taskDecorator) {
+    this.name = name;
+    this.taskDecorator = taskDecorator;
+    this.threadFactory = Thread.ofVirtual().name(name + "-", 0).factory();
+  }
+
+  /**
+   * Start a subtask on a new virtual thread.
+   *
+   * @param task the subtask
+   * @param <T>  the type of its result
+   * @return the result of the subtask, available once {@link #join()} has returned
+   */
+  public <T> Supplier<T> fork(Supplier<T> task) {
+    if (joined) {
+      throw new IllegalStateException("Scope " + name + " has already been joined");
+    }
+    AtomicReference<T> result = new AtomicReference<>();
+    Runnable body = RequestDeadline.propagating(() -> {
+      if (failure.get() != null) {
+        return;
+      }
+      try {
+        result.set(task.get());
+      } catch (Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+          shutdown();
+        }
+      }
+    });
+    Thread thread = threadFactory.newThread(taskDecorator != null ? taskDecorator.decorate(body)
+                                                                  : body);
+    threads.add(thread);
+    thread.start();
+    if (failure.get() != null) {
+      // A subtask failed while this one was being forked
+      thread.interrupt();
+    }
+    return () -> {
+      if (!joined) {
+        throw new IllegalStateException("Subtask of " + name + " has not completed");
+      }
+      return result.get();
+    };
+  }
+
+  /**
+   * Wait for every subtask, or for the first one to fail.
+   *
+   * @throws RuntimeException the failure of the first subtask that failed
+   * @throws CustomException  with {@link ErrorCode#DEADLINE_EXCEEDED} if the request deadline
+   *                          passed before the subtasks completed
+   */
+  public void join() {
+    joined = true;
+    RequestDeadline deadline = RequestDeadline.current();
+    try {
+      for (Thread thread : threads) {
+        if (deadline == null) {
+          thread.join();
+        } else if (!thread.join(deadline.remaining())) {
+          shutdown();
+          throw new CustomException(ErrorCode.DEADLINE_EXCEEDED,
+                                    "Request deadline of " + deadline.getTimeout().toMillis()
+                                    + " ms exceeded while waiting for " + name);
+        }
+      }
+    } catch (InterruptedException e) {
+      shutdown();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for " + name, e);
+    }
+
+    Throwable first = failure.get();
+    if (first instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    if (first instanceof Error error) {
+      throw error;
+    }
+    if (first != null) {
+      throw new IllegalStateException("Subtask of " + name + " failed", first);
+    }
+  }
+
+  /**
+   * Interrupt the subtasks still running and wait for them to end.
+   */
+  @Override
+  public void close() {
+    shutdown();
+    boolean interrupted = false;
+    for (Thread thread : threads) {
+      while (thread.isAlive()) {
+        try {
+          thread.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void shutdown() {
+    for (Thread thread : threads) {
+      if (thread != Thread.currentThread()) {
+        thread.interrupt();
+      }
+    }
+  }
+}
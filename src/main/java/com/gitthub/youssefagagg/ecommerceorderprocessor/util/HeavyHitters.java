@@ -0,0 +1,210 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * Tracks the most frequent keys of a stream in constant memory, with counts that decay over time.
+ *
+ * <p></p>
+ * Every key is counted in a Count-Min sketch of {@code depth} rows of {@code width} counters: a
+ * key increments one counter per row, chosen by a hash seeded per row, and its estimate is the
+ * smallest of those counters. The estimate never undercounts and overcounts by at most
+ * {@code 2 / width} of the total with probability {@code 1 - 2^-depth}. Only the sketch is kept
+ * for most keys; the {@code capacity} keys with the highest estimates are also kept in a min-heap,
+ * so the heavy hitters can be listed without having seen the keys in advance.
+ *
+ * <p></p>
+ * {@link #decay()} halves every count, the sketch's and the heap's alike. Called at a fixed
+ * interval it turns the counts into exponentially decayed frequencies with that interval as their
+ * half-life, so a key that was hot an hour ago does not crowd out the keys that are hot now.
+ *
+ * <p></p>
+ * Adding a key updates the sketch without locking; the heap is locked only when the key is already
+ * in it or its estimate beats the smallest one there. Counts added while {@link #decay()} runs may
+ * be halved or not, which the estimates tolerate.
+ */
+public class HeavyHitters {
+
+  /**
+   * The largest supported sketch depth.
+   */
+  public static final int MAX_DEPTH = 8;
+
+  private static final long[] SEEDS = {
+      0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+      0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x85EBCA77C2B2AE63L
+  };
+
+  @Getter
+  private final int capacity;
+  private final int depth;
+  private final int width;
+  private final AtomicLongArray counters;
+  private final LongAdder total = new LongAdder();
+
+  private final Map<String, Candidate> candidates;
+  private final PriorityQueue<Candidate> heap;
+  private volatile long smallestCandidate;
+
+  /**
+   * Create an empty tracker.
+   *
+   * @param depth    the number of rows of the sketch, at most {@value #MAX_DEPTH}
+   * @param width    the number of counters per row
+   * @param capacity the number of heavy hitters kept
+   */
+  public HeavyHitters(int depth, int width, int capacity) {
+    if (depth < 1 || depth > MAX_DEPTH || width < 1 || capacity < 1) {
+      throw new IllegalArgumentException("Invalid sketch dimensions: depth " + depth + ", width "
+                                         + width + ", capacity " + capacity);
+    }
+    this.depth = depth;
+    this.width = width;
+    this.capacity = capacity;
+    this.counters = new AtomicLongArray(depth * width);
+    this.candidates = new HashMap<>(capacity * 2);
+    this.heap = new PriorityQueue<>(capacity, Comparator.comparingLong(Candidate::count));
+  }
+
+  /**
+   * Count one occurrence of a key.
+   *
+   * @param key the key
+   */
+  public void add(String key) {
+    add(key, 1);
+  }
+
+  /**
+   * Count occurrences of a key.
+   *
+   * @param key    the key
+   * @param weight the number of occurrences
+   */
+  public void add(String key, long weight) {
+    long hash = key.hashCode();
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counters.addAndGet(index(row, hash), weight));
+    }
+    total.add(weight);
+    if (estimate > smallestCandidate) {
+      offer(key, estimate);
+    }
+  }
+
+  /**
+   * The estimated, decayed count of a key.
+   *
+   * @param key the key
+   * @return the estimate, never less than the key's actual decayed count
+   */
+  public long estimate(String key) {
+    long hash = key.hashCode();
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counters.get(index(row, hash)));
+    }
+    return estimate;
+  }
+
+  /**
+   * The decayed count of all keys.
+   *
+   * @return the total
+   */
+  public long total() {
+    return total.sum();
+  }
+
+  /**
+   * The heavy hitters, most frequent first.
+   *
+   * @return at most {@link #getCapacity()} keys with their estimated, decayed counts
+   */
+  public synchronized List<HeavyHitter> top() {
+    List<HeavyHitter> top = new ArrayList<>(heap.size());
+    for (Candidate candidate : heap) {
+      top.add(new HeavyHitter(candidate.key(), candidate.count()));
+    }
+    top.sort(Comparator.comparingLong(HeavyHitter::count).reversed()
+                       .thenComparing(HeavyHitter::key));
+    return top;
+  }
+
+  /**
+   * Halve every count. Keys whose count drops to zero leave the heavy hitters.
+   */
+  public synchronized void decay() {
+    for (int i = 0; i < counters.length(); i++) {
+      counters.getAndUpdate(i, count -> count >> 1);
+    }
+    long halved = total.sumThenReset() >> 1;
+    total.add(halved);
+
+    List<Candidate> decayed = new ArrayList<>(heap.size());
+    for (Candidate candidate : heap) {
+      if (candidate.count() > 1) {
+        decayed.add(new Candidate(candidate.key(), candidate.count() >> 1));
+      }
+    }
+    heap.clear();
+    candidates.clear();
+    decayed.forEach(this::put);
+    updateSmallest();
+  }
+
+  private synchronized void offer(String key, long estimate) {
+    Candidate existing = candidates.get(key);
+    if (existing != null) {
+      if (estimate > existing.count()) {
+        heap.remove(existing);
+        put(new Candidate(key, estimate));
+      }
+    } else if (heap.size() < capacity) {
+      put(new Candidate(key, estimate));
+    } else if (estimate > heap.peek().count()) {
+      candidates.remove(heap.poll().key());
+      put(new Candidate(key, estimate));
+    }
+    updateSmallest();
+  }
+
+  private void put(Candidate candidate) {
+    heap.add(candidate);
+    candidates.put(candidate.key(), candidate);
+  }
+
+  private void updateSmallest() {
+    Candidate smallest = heap.peek();
+    smallestCandidate = smallest != null && heap.size() >= capacity ? smallest.count() : 0;
+  }
+
+  private int index(int row, long hash) {
+    long mixed = (hash ^ SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+    mixed ^= mixed >>> 31;
+    mixed *= 0x94D049BB133111EBL;
+    mixed ^= mixed >>> 29;
+    return row * width + (int) Math.floorMod(mixed, (long) width);
+  }
+
+  /**
+   * A frequent key.
+   *
+   * @param key   the key
+   * @param count its estimated, decayed count
+   */
+  public record HeavyHitter(String key, long count) {
+  }
+
+  private record Candidate(String key, long count) {
+  }
+}
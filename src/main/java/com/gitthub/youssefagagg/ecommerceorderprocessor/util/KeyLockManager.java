@@ -1,5 +1,6 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics.KeyLockEvent;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
 import java.util.concurrent.ConcurrentHashMap;
@@ -19,9 +20,21 @@ public class KeyLockManager {
    * Runs an action under a key-based lock and returns a value.
    */
   public <T> T withLock(String key, Supplier<T> action) {
+    return withLock(key, action, () -> {
+    });
+  }
+
+  /**
+   * Runs an action under a key-based lock and returns a value, calling {@code onRejected} before
+   * failing if the key is already locked. Every attempt is recorded as a {@link KeyLockEvent}.
+   */
+  public <T> T withLock(String key, Supplier<T> action, Runnable onRejected) {
+    KeyLockEvent event = KeyLockEvent.start(key);
     ReentrantLock lock = lockMap.computeIfAbsent(key, k -> new ReentrantLock());
     boolean locked = lock.tryLock();
     if (!locked) {
+      event.rejected();
+      onRejected.run();
       throw new CustomException(ErrorCode.GLOBAL_ERROR,
                                 " Lock is already acquired for key: " + key);
     }
@@ -30,6 +43,7 @@ public class KeyLockManager {
       return action.get();
     } finally {
       lock.unlock();
+      event.released();
       log.info("Released lock for key: {}", key);
       if (!lock.isLocked()) {
         lockMap.remove(key, lock);
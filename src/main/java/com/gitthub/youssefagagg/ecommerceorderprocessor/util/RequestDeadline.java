@@ -0,0 +1,165 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.Getter;
+
+/**
+ * The point in time by which the work of a request must be done, held for the current thread.
+ *
+ * <p></p>
+ * A deadline is set when a request arrives and travels with its work: the transaction manager
+ * bounds every transaction by the time remaining, connections bound every statement by it, and
+ * executors configured to propagate it hand it to the tasks they run. Code that is about to start
+ * work the client may no longer wait for calls {@link #checkCurrent(String)}, which throws a
+ * {@link ErrorCode#DEADLINE_EXCEEDED} {@link CustomException} once the deadline has passed.
+ *
+ * <p></p>
+ * Threads without a deadline, e.g. scheduled jobs, are not bounded.
+ */
+public final class RequestDeadline {
+
+  private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+  @Getter
+  private final Duration timeout;
+  private final long expiresAtNanos;
+
+  private RequestDeadline(Duration timeout, long expiresAtNanos) {
+    this.timeout = timeout;
+    this.expiresAtNanos = expiresAtNanos;
+  }
+
+  /**
+   * A deadline the given timeout from now.
+   *
+   * @param timeout the time the work may take
+   * @return the deadline
+   */
+  public static RequestDeadline after(Duration timeout) {
+    return new RequestDeadline(timeout, System.nanoTime() + timeout.toNanos());
+  }
+
+  /**
+   * Get the deadline of the current thread.
+   *
+   * @return the deadline, or {@code null} if the thread has none
+   */
+  public static RequestDeadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Set the deadline of the current thread.
+   *
+   * @param deadline the deadline, may be {@code null} to run without one
+   * @return the previous deadline, to be passed to {@link #restore(RequestDeadline)}
+   */
+  public static RequestDeadline select(RequestDeadline deadline) {
+    RequestDeadline previous = CURRENT.get();
+    if (deadline == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(deadline);
+    }
+    return previous;
+  }
+
+  /**
+   * Restore the deadline that was set before {@link #select(RequestDeadline)}.
+   *
+   * @param previous the previous deadline, may be {@code null}
+   */
+  public static void restore(RequestDeadline previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+
+  /**
+   * Run an action with the given deadline.
+   *
+   * @param deadline the deadline, may be {@code null} to run without one
+   * @param action   the action to run
+   * @param <T>      the result type
+   * @return the result of the action
+   */
+  public static <T> T callWith(RequestDeadline deadline, Supplier<T> action) {
+    RequestDeadline previous = select(deadline);
+    try {
+      return action.get();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /**
+   * Wrap a task so it runs with the deadline of the thread creating it.
+   *
+   * @param task the task
+   * @return the task bound to the current deadline, or the task itself if there is none
+   */
+  public static Runnable propagating(Runnable task) {
+    RequestDeadline deadline = current();
+    if (deadline == null) {
+      return task;
+    }
+    return () -> callWith(deadline, () -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Throw if the deadline of the current thread has passed.
+   *
+   * @param work what was about to be done, for the error message
+   * @throws CustomException with {@link ErrorCode#DEADLINE_EXCEEDED} if the deadline has passed
+   */
+  public static void checkCurrent(String work) {
+    RequestDeadline deadline = current();
+    if (deadline != null && deadline.isExpired()) {
+      throw new CustomException(ErrorCode.DEADLINE_EXCEEDED,
+                                "Request deadline of " + deadline.timeout.toMillis()
+                                + " ms exceeded before " + work);
+    }
+  }
+
+  /**
+   * The time left until the deadline.
+   *
+   * @return the remaining time, negative once the deadline has passed
+   */
+  public Duration remaining() {
+    return Duration.ofNanos(expiresAtNanos - System.nanoTime());
+  }
+
+  /**
+   * The time left until the deadline in whole seconds, rounded up, as JDBC and transaction
+   * timeouts are given.
+   *
+   * @return the remaining seconds, or {@code 0} once the deadline has passed
+   */
+  public int remainingSeconds() {
+    long nanos = expiresAtNanos - System.nanoTime();
+    if (nanos <= 0) {
+      return 0;
+    }
+    return (int) Math.min(Integer.MAX_VALUE,
+                          (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+  }
+
+  /**
+   * Whether the deadline has passed.
+   *
+   * @return {@code true} if no time is left
+   */
+  public boolean isExpired() {
+    return expiresAtNanos - System.nanoTime() <= 0;
+  }
+}
@@ -0,0 +1,64 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+/**
+ * Limits the retries of an operation to a share of its calls.
+ *
+ * <p></p>
+ * The budget is a balance of retry tokens. Every call deposits {@code ratio} tokens and every
+ * retry withdraws one, so under sustained failure at most {@code ratio} retries are made per call;
+ * the balance never exceeds {@code capacity}, which is also what it starts with, so an operation
+ * that has not failed for a while may retry a short burst of calls. A plain per-call attempt limit
+ * multiplies the load by the attempt count exactly when the system is least able to take it; a
+ * budget bounds that multiplication.
+ */
+public class RetryBudget {
+
+  private final double ratio;
+  private final double capacity;
+  private double balance;
+
+  /**
+   * Create a full budget.
+   *
+   * @param ratio    the retry tokens deposited per call, at least 0
+   * @param capacity the most tokens the budget holds, at least 1
+   */
+  public RetryBudget(double ratio, int capacity) {
+    if (ratio < 0 || capacity < 1) {
+      throw new IllegalArgumentException("Invalid retry budget: ratio " + ratio + ", capacity "
+                                         + capacity);
+    }
+    this.ratio = ratio;
+    this.capacity = capacity;
+    this.balance = capacity;
+  }
+
+  /**
+   * Deposit the tokens of a call.
+   */
+  public synchronized void onCall() {
+    balance = Math.min(capacity, balance + ratio);
+  }
+
+  /**
+   * Withdraw a token for a retry, if one is left.
+   *
+   * @return {@code true} if the retry may be made
+   */
+  public synchronized boolean tryRetry() {
+    if (balance < 1) {
+      return false;
+    }
+    balance -= 1;
+    return true;
+  }
+
+  /**
+   * The tokens currently available.
+   *
+   * @return the balance
+   */
+  public synchronized double getBalance() {
+    return balance;
+  }
+}
@@ -0,0 +1,149 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.LoadSheddingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.LoadSheddingConfig.Priority;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.LoadSheddingConfig.PriorityLimit;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter admitting API requests against an {@link AdaptiveConcurrencyLimiter} and shedding the
+ * rest with a fast {@code 503 Service Unavailable}.
+ *
+ * <p></p>
+ * Unlike the {@link RateLimitFilter}, which caps the request rate of each client, this filter caps
+ * the number of requests the application works on at once, whoever sends them, so an overload
+ * is refused at the door instead of queueing for threads and database connections until requests
+ * time out. The limit adapts to latency: a request slower than the latency target of its
+ * {@link Priority} shrinks it, requests completing in time let it grow back.
+ *
+ * <p></p>
+ * Each priority may only fill its share of the limit. When the limit shrinks, admin reports and
+ * catalog browsing are shed first while checkout can still use the whole limit. The limiter's
+ * gauges are published under the name {@code api}, together with {@code load.shedding.inflight}
+ * and {@code load.shedding.rejected} per priority.
+ */
+@Component
+@Slf4j
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+  private static final String API_PREFIX = "/api/v1/";
+
+  private final LoadSheddingConfig config;
+  private final ObjectMapper objectMapper;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final Map<Priority, AtomicInteger> inFlight = new EnumMap<>(Priority.class);
+  private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+  public LoadSheddingFilter(LoadSheddingConfig config,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+    this.config = config;
+    this.objectMapper = objectMapper;
+    this.limiter = new AdaptiveConcurrencyLimiter("api", config.getInitialLimit(),
+                                                  config.getMinLimit(), config.getMaxLimit(),
+                                                  config.getBackoffRatio());
+    limiter.bindTo(meterRegistry);
+    for (Priority priority : Priority.values()) {
+      String tag = priority.name().toLowerCase(Locale.ROOT);
+      AtomicInteger count = new AtomicInteger();
+      inFlight.put(priority, count);
+      Gauge.builder("load.shedding.inflight", count, AtomicInteger::get)
+           .tag("priority", tag)
+           .description("API requests of the priority in flight")
+           .register(meterRegistry);
+      rejected.put(priority, Counter.builder("load.shedding.rejected")
+                                    .tag("priority", tag)
+                                    .description("API requests of the priority shed with a 503")
+                                    .register(meterRegistry));
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return !config.isEnabled() || !request.getRequestURI().startsWith(API_PREFIX);
+  }
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                  @NonNull HttpServletResponse response,
+                                  @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    Priority priority = priorityOf(request);
+    PriorityLimit priorityLimit = config.limitOf(priority);
+
+    if (!limiter.tryAcquire(priorityLimit.getShare())) {
+      rejected.get(priority).increment();
+      log.debug("Shedding {} {} at a concurrency limit of {}", request.getMethod(),
+                request.getRequestURI(), limiter.getLimit());
+      writeServiceUnavailable(response);
+      return;
+    }
+
+    AtomicInteger count = inFlight.get(priority);
+    count.incrementAndGet();
+    long start = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      long latency = System.nanoTime() - start;
+      count.decrementAndGet();
+      limiter.release(start, latency > priorityLimit.getLatencyTarget().toNanos());
+    }
+  }
+
+  /**
+   * Classify a request by the endpoints it targets.
+   *
+   * @param request the request
+   * @return its priority
+   */
+  private static Priority priorityOf(HttpServletRequest request) {
+    String path = request.getRequestURI();
+    if (path.startsWith(API_PREFIX + "admin/")) {
+      return Priority.ADMIN;
+    }
+    if (HttpMethod.POST.matches(request.getMethod())
+        && (path.equals(API_PREFIX + "orders") || path.equals(API_PREFIX + "orders/"))) {
+      return Priority.CHECKOUT;
+    }
+    if (path.startsWith(API_PREFIX + "products")) {
+      return Priority.CATALOG;
+    }
+    return Priority.STANDARD;
+  }
+
+  private void writeServiceUnavailable(HttpServletResponse response) throws IOException {
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()));
+
+    Map<String, Object> errorDetails = new HashMap<>();
+    errorDetails.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+    errorDetails.put("error", "Service Unavailable");
+    errorDetails.put("message", "The server is overloaded. Try again in "
+                                + config.getRetryAfterSeconds() + " seconds");
+    response.getWriter().write(objectMapper.writeValueAsString(errorDetails));
+  }
+}
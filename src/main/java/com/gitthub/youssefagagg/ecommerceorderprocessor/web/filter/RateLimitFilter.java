@@ -1,6 +1,7 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.web.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.RateLimitService;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
@@ -19,7 +20,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
- * Filter to apply rate limiting to API requests.
+ * Filter to apply rate limiting to API requests. Every API request is also counted per client by
+ * the {@link HotKeyTracker}, whether it is allowed or not.
  */
 @Component
 @RequiredArgsConstructor
@@ -27,6 +29,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class RateLimitFilter extends OncePerRequestFilter {
 
   private final RateLimitService rateLimitService;
+  private final HotKeyTracker hotKeyTracker;
   private final ObjectMapper objectMapper;
 
   @Override
@@ -44,6 +47,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
     // Get client IP address
     String clientIp = getClientIP(request);
     String method = request.getMethod();
+    hotKeyTracker.recordClient(clientIp);
 
     log.debug("Rate limiting request: {} {} from IP: {}", method, path, clientIp);
 
@@ -0,0 +1,125 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.web.filter;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.RequestDeadlineConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.RequestDeadlineConfig.EndpointTimeout;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Filter giving every API request a {@link RequestDeadline}.
+ *
+ * <p></p>
+ * The timeout is the number of milliseconds the client sent in the
+ * {@code request-deadline.header} header, capped at {@code request-deadline.max-timeout}, or else
+ * the timeout of the first matching {@code request-deadline.endpoints} entry, or else
+ * {@code request-deadline.default-timeout}. The filter runs ahead of security and the other
+ * filters, so the deadline counts from the moment the request arrived.
+ *
+ * <p></p>
+ * A request still running when its deadline passes is counted in
+ * {@code request.deadline.exceeded}, tagged with its method and the URI pattern of the endpoint
+ * that handled it, whether it failed on the deadline or completed late.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+  private static final String API_PREFIX = "/api/v1/";
+
+  private final RequestDeadlineConfig config;
+  private final MeterRegistry meterRegistry;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  public RequestDeadlineFilter(RequestDeadlineConfig config, MeterRegistry meterRegistry) {
+    this.config = config;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return !config.isEnabled() || !request.getRequestURI().startsWith(API_PREFIX);
+  }
+
+  @Override
+  protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                  @NonNull HttpServletResponse response,
+                                  @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    RequestDeadline deadline = RequestDeadline.after(timeoutOf(request));
+    RequestDeadline previous = RequestDeadline.select(deadline);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestDeadline.restore(previous);
+      if (deadline.isExpired()) {
+        String endpoint = endpointOf(request);
+        log.debug("Request {} {} exceeded its deadline of {} ms", request.getMethod(), endpoint,
+                  deadline.getTimeout().toMillis());
+        Counter.builder("request.deadline.exceeded")
+               .tag("method", request.getMethod())
+               .tag("uri", endpoint)
+               .description("API requests still running when their deadline passed")
+               .register(meterRegistry)
+               .increment();
+      }
+    }
+  }
+
+  /**
+   * The timeout of a request: the client's, or else the default of its endpoint.
+   *
+   * @param request the request
+   * @return the timeout
+   */
+  Duration timeoutOf(HttpServletRequest request) {
+    String header = request.getHeader(config.getHeader());
+    if (StringUtils.hasText(header)) {
+      try {
+        long millis = Long.parseLong(header.trim());
+        if (millis > 0) {
+          Duration requested = Duration.ofMillis(millis);
+          return requested.compareTo(config.getMaxTimeout()) > 0 ? config.getMaxTimeout()
+                                                                 : requested;
+        }
+      } catch (NumberFormatException e) {
+        // fall through to the endpoint default
+      }
+      log.debug("Ignoring invalid {} header: {}", config.getHeader(), header);
+    }
+
+    String path = request.getRequestURI();
+    for (EndpointTimeout endpoint : config.getEndpoints()) {
+      boolean methodMatches = endpoint.getMethod() == null
+                              || endpoint.getMethod().equalsIgnoreCase(request.getMethod());
+      if (methodMatches && pathMatcher.match(endpoint.getPath(), path)) {
+        return endpoint.getTimeout();
+      }
+    }
+    return config.getDefaultTimeout();
+  }
+
+  /**
+   * The URI pattern of the endpoint that handled a request, keeping the number of tag values small.
+   */
+  private static String endpointOf(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : "UNKNOWN";
+  }
+}
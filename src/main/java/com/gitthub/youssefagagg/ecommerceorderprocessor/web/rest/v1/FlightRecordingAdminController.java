@@ -0,0 +1,135 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.web.rest.v1;
+
+import static com.gitthub.youssefagagg.ecommerceorderprocessor.util.Constants.OPEN_API_SECURITY_REQUIREMENT;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.FlightRecordingDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.FlightRecordingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for starting, stopping and dumping JDK Flight Recorder recordings.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/diagnostics/recordings")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Diagnostics Admin Operations")
+public class FlightRecordingAdminController {
+
+  private final FlightRecordingService flightRecordingService;
+
+  /**
+   * {@code GET  /} : Get the open recordings.
+   *
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the recordings in body
+   */
+  @GetMapping
+  @Operation(
+      summary = "Get the open flight recordings (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<List<FlightRecordingDTO>> getRecordings() {
+    log.debug("REST request to get flight recordings");
+    return ResponseEntity.ok().body(flightRecordingService.getRecordings());
+  }
+
+  /**
+   * {@code POST  /} : Start a recording.
+   *
+   * @param name     the name of the recording
+   * @param settings the Flight Recorder configuration, {@code default} or {@code profile}
+   * @param maxAge   how long the recording keeps its oldest data, e.g. {@code PT30M}
+   * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the
+   *     recording
+   */
+  @PostMapping
+  @Operation(
+      summary = "Start a flight recording (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<FlightRecordingDTO> startRecording(
+      @RequestParam(required = false) String name,
+      @RequestParam(required = false) String settings,
+      @RequestParam(required = false) Duration maxAge) {
+    log.debug("REST request to start a flight recording with settings {}", settings);
+    FlightRecordingDTO result = flightRecordingService.startRecording(name, settings, maxAge);
+    return ResponseEntity.status(HttpStatus.CREATED).body(result);
+  }
+
+  /**
+   * {@code POST  /{id}/stop} : Stop a recording.
+   *
+   * @param id the ID of the recording
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the recording
+   */
+  @PostMapping("/{id}/stop")
+  @Operation(
+      summary = "Stop a flight recording (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<FlightRecordingDTO> stopRecording(@PathVariable Long id) {
+    log.debug("REST request to stop flight recording {}", id);
+    return ResponseEntity.ok().body(flightRecordingService.stopRecording(id));
+  }
+
+  /**
+   * {@code GET  /{id}/dump} : Download the data of a recording as a {@code .jfr} file.
+   *
+   * @param id the ID of the recording
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the recording data in body
+   */
+  @GetMapping("/{id}/dump")
+  @Operation(
+      summary = "Download a flight recording (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<Resource> dumpRecording(@PathVariable Long id) {
+    log.debug("REST request to dump flight recording {}", id);
+    Resource dump = flightRecordingService.dumpRecording(id);
+    ContentDisposition disposition = ContentDisposition.attachment()
+                                                       .filename("recording-" + id + ".jfr")
+                                                       .build();
+    return ResponseEntity.ok()
+                         .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                         .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                         .body(dump);
+  }
+
+  /**
+   * {@code DELETE  /{id}} : Close a recording and release its data.
+   *
+   * @param id the ID of the recording
+   * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}
+   */
+  @DeleteMapping("/{id}")
+  @Operation(
+      summary = "Close a flight recording (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<Void> closeRecording(@PathVariable Long id) {
+    log.debug("REST request to close flight recording {}", id);
+    flightRecordingService.closeRecording(id);
+    return ResponseEntity.noContent().build();
+  }
+}
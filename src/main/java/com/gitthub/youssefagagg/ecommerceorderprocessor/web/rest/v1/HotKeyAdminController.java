@@ -0,0 +1,71 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.web.rest.v1;
+
+import static com.gitthub.youssefagagg.ecommerceorderprocessor.util.Constants.OPEN_API_SECURITY_REQUIREMENT;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.HotKeyDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker.Category;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the keys that dominate traffic.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/diagnostics/hot-keys")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Diagnostics Admin Operations")
+public class HotKeyAdminController {
+
+  private final HotKeyTracker hotKeyTracker;
+
+  /**
+   * {@code GET  /} : Get the most frequent keys of every category.
+   *
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the keys per category in
+   *     body
+   */
+  @GetMapping
+  @Operation(
+      summary = "Get the most frequent clients, products and keys (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<Map<Category, List<HotKeyDTO>>> getHotKeys() {
+    log.debug("REST request to get hot keys");
+    Map<Category, List<HotKeyDTO>> hotKeys = new EnumMap<>(Category.class);
+    for (Category category : Category.values()) {
+      hotKeys.put(category, hotKeyTracker.getHotKeys(category));
+    }
+    return ResponseEntity.ok().body(hotKeys);
+  }
+
+  /**
+   * {@code GET  /{category}} : Get the most frequent keys of a category.
+   *
+   * @param category the category
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the keys in body
+   */
+  @GetMapping("/{category}")
+  @Operation(
+      summary = "Get the most frequent keys of a category (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<List<HotKeyDTO>> getHotKeys(@PathVariable Category category) {
+    log.debug("REST request to get hot {} keys", category);
+    return ResponseEntity.ok().body(hotKeyTracker.getHotKeys(category));
+  }
+}
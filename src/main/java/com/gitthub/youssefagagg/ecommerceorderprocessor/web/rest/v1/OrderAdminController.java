@@ -2,18 +2,31 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.web.rest.v1;
 
 import static com.gitthub.youssefagagg.ecommerceorderprocessor.util.Constants.OPEN_API_SECURITY_REQUIREMENT;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemStatusRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStateMachineDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesAnalyticsDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesDimension;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesGranularity;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesAnalyticsService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
@@ -22,7 +35,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -39,6 +54,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class OrderAdminController {
 
   private final OrderService orderService;
+  private final SalesRollupService salesRollupService;
+  private final SalesAnalyticsService salesAnalyticsService;
 
   /**
    * {@code GET  /orders} : Get all orders.
@@ -86,6 +103,67 @@ public class OrderAdminController {
     return ResponseEntity.ok().body(result);
   }
 
+  /**
+   * {@code PUT  /orders/{id}/items/status} : Update the status of items of an order.
+   *
+   * @param id      the id of the order
+   * @param request the items and their new statuses
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated order
+   */
+  @PutMapping("/orders/{id}/items/status")
+  @Operation(
+      summary = "Update the status of items of an order, e.g. to ship it in parts (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<OrderDTO> updateOrderItemStatuses(
+      @PathVariable Long id,
+      @Valid @RequestBody OrderItemStatusRequest request) {
+    log.debug("REST request to update the status of {} items of Order : {}",
+              request.getItems().size(), id);
+    Map<Long, OrderItemStatus> statuses = new LinkedHashMap<>();
+    request.getItems().forEach(item -> statuses.put(item.getItemId(), item.getStatus()));
+    OrderDTO result = orderService.updateOrderItemStatuses(id, statuses);
+    return ResponseEntity.ok().body(result);
+  }
+
+  /**
+   * {@code PUT  /orders/status} : Update the status of several orders at once.
+   *
+   * @param request the order ids and the new status
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome for
+   *     every order
+   */
+  @PutMapping("/orders/status")
+  @Operation(
+      summary = "Update the status of up to " + BulkOrderStatusRequest.MAX_ORDERS
+                + " orders (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<BulkOrderStatusResultDTO> updateOrderStatuses(
+      @Valid @RequestBody BulkOrderStatusRequest request) {
+    log.debug("REST request to update the status of {} Orders to {}",
+              request.getOrderIds().size(), request.getStatus());
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(request.getOrderIds(),
+                                                                       request.getStatus());
+    return ResponseEntity.ok().body(result);
+  }
+
+  /**
+   * {@code GET  /orders/state-machine} : Describe the order lifecycle.
+   *
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body every status with
+   *     the statuses it can move to and the guards and hooks of entering it
+   */
+  @GetMapping("/orders/state-machine")
+  @Operation(
+      summary = "Describe the order status transitions (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<OrderStateMachineDTO> getOrderStateMachine() {
+    log.debug("REST request to describe the Order state machine");
+    return ResponseEntity.ok().body(orderService.describeStateMachine());
+  }
+
   /**
    * {@code GET  /reports/daily} : Get daily sales report.
    *
@@ -109,5 +187,56 @@ public class OrderAdminController {
     return ResponseEntity.ok().body(report);
   }
 
+  /**
+   * {@code GET  /reports/sales} : Get sales analytics.
+   *
+   * @param startDate   the first day, in the given zone
+   * @param endDate     the last day, in the given zone
+   * @param granularity the period length
+   * @param zone        the time zone ID, defaults to the reporting zone
+   * @param dimension   the breakdown within each period
+   * @param status      the order statuses to include, defaults to the statuses counted as sales
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the analytics
+   */
+  @GetMapping("/reports/sales")
+  @Operation(
+      summary = "Get sales analytics by period, product, status or customer cohort (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<List<SalesAnalyticsDTO>> getSalesAnalytics(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      LocalDate endDate,
+      @RequestParam(defaultValue = "DAY") SalesGranularity granularity,
+      @RequestParam(required = false) String zone,
+      @RequestParam(defaultValue = "NONE") SalesDimension dimension,
+      @RequestParam(required = false) List<OrderStatus> status) {
+    log.debug("REST request to get {} sales analytics by {} from {} to {}", granularity,
+              dimension, startDate, endDate);
+    List<SalesAnalyticsDTO> result = salesAnalyticsService.getSalesAnalytics(
+        startDate, endDate, granularity, zone, dimension, status);
+    return ResponseEntity.ok().body(result);
+  }
 
+  /**
+   * {@code POST  /reports/daily/backfill} : Rebuild the sales rollups from the orders table.
+   *
+   * @param startDate the first day to rebuild
+   * @param endDate   the last day to rebuild, defaults to today
+   * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}
+   */
+  @PostMapping("/reports/daily/backfill")
+  @Operation(
+      summary = "Rebuild the sales rollups in the background (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<Void> backfillDailySales(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      LocalDate endDate) {
+    log.debug("REST request to backfill daily sales from {} to {}", startDate, endDate);
+    salesRollupService.startBackfill(startDate, endDate != null ? endDate : LocalDate.now());
+    return ResponseEntity.accepted().build();
+  }
 }
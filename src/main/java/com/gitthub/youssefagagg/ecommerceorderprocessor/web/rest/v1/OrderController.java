@@ -13,6 +13,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.net.URI;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -38,15 +40,25 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Order Management")
 public class OrderController {
 
+  private static final String PREFER = "Prefer";
+  private static final String PREFERENCE_APPLIED = "Preference-Applied";
+  private static final String RESPOND_ASYNC = "respond-async";
+
   private final OrderService orderService;
 
   /**
    * {@code POST  /} : Create a new order.
    *
+   * <p></p>
+   * With a {@code Prefer: respond-async} header the order is only validated and queued: the
+   * response is {@code 202 (Accepted)} with the pending order, and the outcome is published on
+   * {@code /topic/orders/{username}} and reported by {@code GET /{id}/status}.
+   *
    * @param orderDTO the order to create. Clients can provide an idempotencyKey to prevent duplicate
    *                 order processing.
+   * @param prefer   the {@code Prefer} request header
    * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new
-   *     order
+   *     order, or with status {@code 202 (Accepted)} and with body the pending order
    */
   @PostMapping
   @Operation(
@@ -54,10 +66,21 @@ public class OrderController {
       description = "Create a new order with the provided details. " +
                     "Clients can provide an idempotencyKey to prevent duplicate order processing. "
                     +
-                    "If not provided, a random idempotencyKey will be generated.",
+                    "If not provided, a random idempotencyKey will be generated. " +
+                    "Send 'Prefer: respond-async' to queue the order and get 202 Accepted.",
       security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
   )
-  public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO) {
+  public ResponseEntity<OrderDTO> createOrder(
+      @Valid @RequestBody OrderDTO orderDTO,
+      @RequestHeader(name = PREFER, required = false) String prefer) {
+    if (RESPOND_ASYNC.equalsIgnoreCase(prefer)) {
+      log.debug("REST request to submit Order : {}", orderDTO);
+      OrderDTO result = orderService.submitOrder(orderDTO);
+      return ResponseEntity.accepted()
+                           .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                           .location(URI.create("/api/v1/orders/" + result.getId() + "/status"))
+                           .body(result);
+    }
     log.debug("REST request to save Order : {}", orderDTO);
     OrderDTO result = orderService.createOrder(orderDTO);
     return ResponseEntity.status(HttpStatus.CREATED).body(result);
@@ -0,0 +1,87 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.web.rest.v1;
+
+import static com.gitthub.youssefagagg.ecommerceorderprocessor.util.Constants.OPEN_API_SECURITY_REQUIREMENT;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductImportStatusDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for launching and monitoring bulk product imports.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/products/import")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Product Admin Operations")
+public class ProductImportAdminController {
+
+  private final ProductImportService productImportService;
+
+  /**
+   * {@code POST  /} : Start importing products and inventory from a file.
+   *
+   * @param file the CSV or JSON-lines file, relative to the import directory
+   * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the import
+   *     status
+   */
+  @PostMapping
+  @Operation(
+      summary = "Start a bulk product and inventory import (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<ProductImportStatusDTO> startImport(@RequestParam String file) {
+    log.debug("REST request to import products from {}", file);
+    ProductImportStatusDTO result = productImportService.startImport(file);
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+  }
+
+  /**
+   * {@code POST  /{executionId}/restart} : Restart a failed import.
+   *
+   * @param executionId the execution ID of the failed import
+   * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the import
+   *     status
+   */
+  @PostMapping("/{executionId}/restart")
+  @Operation(
+      summary = "Restart a failed product import (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<ProductImportStatusDTO> restartImport(@PathVariable Long executionId) {
+    log.debug("REST request to restart product import {}", executionId);
+    ProductImportStatusDTO result = productImportService.restartImport(executionId);
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+  }
+
+  /**
+   * {@code GET  /{executionId}} : Get the progress of an import.
+   *
+   * @param executionId the execution ID
+   * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import
+   *     status
+   */
+  @GetMapping("/{executionId}")
+  @Operation(
+      summary = "Get the progress of a product import (admin only)",
+      security = @SecurityRequirement(name = OPEN_API_SECURITY_REQUIREMENT)
+  )
+  public ResponseEntity<ProductImportStatusDTO> getImportStatus(@PathVariable Long executionId) {
+    log.debug("REST request to get product import {}", executionId);
+    return ResponseEntity.ok().body(productImportService.getImportStatus(executionId));
+  }
+}
@@ -0,0 +1,146 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts the JDBC statements the current thread sends to the database.
+ *
+ * <p></p>
+ * Every statement prepared or created on a connection of a {@link #wrap wrapped} data source is
+ * one database round trip. Statements are recorded per thread, and only between a
+ * {@link #reset()} and the end of the test, so background work such as schedulers and async
+ * executors does not disturb a measurement taken on the test thread.
+ *
+ * <p></p>
+ * {@link #statements()} returns the SQL of the recorded statements, which
+ * {@link StatementsAssert} checks against a budget per kind of statement.
+ */
+public final class StatementCounter {
+
+  private static final Set<String> STATEMENT_METHODS =
+      Set.of("prepareStatement", "createStatement", "prepareCall");
+
+  /**
+   * The SQL of a statement created without any, which only arrives when it is executed.
+   */
+  static final String UNPREPARED = "(unprepared statement)";
+
+  private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+  private StatementCounter() {
+  }
+
+  /**
+   * Start a new measurement on the current thread.
+   */
+  public static void reset() {
+    RECORDED.set(new ArrayList<>());
+  }
+
+  /**
+   * The number of statements the current thread has sent since the last {@link #reset()}.
+   *
+   * @return the statement count
+   */
+  public static int count() {
+    List<String> recorded = RECORDED.get();
+    return recorded == null ? 0 : recorded.size();
+  }
+
+  /**
+   * The statements the current thread has sent since the last {@link #reset()}.
+   *
+   * @return the recorded statements, in the order they were sent
+   */
+  public static Statements statements() {
+    List<String> recorded = RECORDED.get();
+    return new Statements(recorded == null ? List.of() : List.copyOf(recorded));
+  }
+
+  /**
+   * Record the statements an action sends.
+   *
+   * @param action the action to measure
+   * @return the statements the action sent
+   */
+  public static Statements measure(Runnable action) {
+    reset();
+    action.run();
+    return statements();
+  }
+
+  /**
+   * Record the statements an action sends, keeping its result.
+   *
+   * @param action the action to measure
+   * @param <T>    the type of the result
+   * @return the result of the action and the statements it sent
+   */
+  public static <T> Measured<T> measure(Supplier<T> action) {
+    reset();
+    T result = action.get();
+    return new Measured<>(result, statements());
+  }
+
+  /**
+   * The result of a measured action with the statements it sent.
+   *
+   * @param result     the result of the action
+   * @param statements the statements the action sent
+   * @param <T>        the type of the result
+   */
+  public record Measured<T>(T result, Statements statements) {
+  }
+
+  /**
+   * Wrap a data source so the statements sent over its connections are counted.
+   *
+   * @param dataSource the data source to wrap
+   * @return the counting data source
+   */
+  public static DataSource wrap(DataSource dataSource) {
+    return new DelegatingDataSource(dataSource) {
+      @Override
+      public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+      }
+
+      @Override
+      public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+      }
+    };
+  }
+
+  private static Connection countingConnection(Connection target) {
+    return (Connection) Proxy.newProxyInstance(
+        StatementCounter.class.getClassLoader(), new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          if ("equals".equals(method.getName())) {
+            return proxy == args[0];
+          }
+          if ("hashCode".equals(method.getName())) {
+            return System.identityHashCode(proxy);
+          }
+          List<String> recorded = RECORDED.get();
+          if (recorded != null && STATEMENT_METHODS.contains(method.getName())) {
+            recorded.add(args != null && args.length > 0 && args[0] instanceof String sql
+                         ? sql : UNPREPARED);
+          }
+          try {
+            return method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+        });
+  }
+}
@@ -0,0 +1,26 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Wraps the primary data source with a {@link StatementCounter}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCountingConfiguration {
+
+  @Bean
+  static BeanPostProcessor statementCountingPostProcessor() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+          return StatementCounter.wrap(dataSource);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,131 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The statements recorded by a {@link StatementCounter}, in the order they were sent.
+ *
+ * <p></p>
+ * Statements are classified by their leading keyword, or by the statement a {@code WITH} clause
+ * leads to. Their shape is the SQL with literals and parameter lists collapsed, so the same query
+ * sent for different rows has one shape; a shape sent many times in one call is the usual sign of
+ * an N+1.
+ *
+ * @param sql the SQL of every statement
+ */
+public record Statements(List<String> sql) {
+
+  private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+  private static final Pattern MODIFYING = Pattern.compile("\\b(insert|update|delete)\\b");
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern PARAMETER_LIST =
+      Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  /**
+   * The kind of a statement.
+   */
+  public enum Type {
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    OTHER
+  }
+
+  /**
+   * The number of statements.
+   *
+   * @return the statement count
+   */
+  public int count() {
+    return sql.size();
+  }
+
+  /**
+   * The number of statements of a kind.
+   *
+   * @param type the kind of statement
+   * @return the number of statements of that kind
+   */
+  public int count(Type type) {
+    return (int) sql.stream().filter(statement -> typeOf(statement) == type).count();
+  }
+
+  /**
+   * How often each statement shape was sent, in the order the shapes first appeared.
+   *
+   * @return the number of statements per shape
+   */
+  public Map<String, Integer> shapes() {
+    Map<String, Integer> shapes = new LinkedHashMap<>();
+    for (String statement : sql) {
+      shapes.merge(shapeOf(statement), 1, Integer::sum);
+    }
+    return shapes;
+  }
+
+  /**
+   * A report of the statements by kind and shape, for failure messages and for reading what a
+   * call sends.
+   *
+   * @return the report
+   */
+  public String report() {
+    StringBuilder report = new StringBuilder().append(count()).append(" statements");
+    for (Type type : Type.values()) {
+      int count = count(type);
+      if (count > 0) {
+        report.append(", ").append(count).append(' ').append(type);
+      }
+    }
+    shapes().forEach((shape, count) -> report.append(System.lineSeparator())
+                                             .append(String.format("%4dx %s", count, shape)));
+    return report.toString();
+  }
+
+  /**
+   * Classify a statement by its leading keyword.
+   *
+   * @param statement the SQL of the statement
+   * @return the kind of statement
+   */
+  static Type typeOf(String statement) {
+    String normalized = COMMENTS.matcher(statement).replaceAll(" ").strip()
+                                .toLowerCase(Locale.ROOT);
+    while (normalized.startsWith("(")) {
+      normalized = normalized.substring(1).stripLeading();
+    }
+    if (normalized.startsWith("with")) {
+      Matcher modifying = MODIFYING.matcher(STRING_LITERAL.matcher(normalized).replaceAll("?"));
+      return modifying.find() ? Type.valueOf(modifying.group(1).toUpperCase(Locale.ROOT))
+                              : Type.SELECT;
+    }
+    for (Type type : Type.values()) {
+      if (normalized.startsWith(type.name().toLowerCase(Locale.ROOT))) {
+        return type;
+      }
+    }
+    return Type.OTHER;
+  }
+
+  /**
+   * The shape of a statement: its SQL with literals and parameter lists collapsed.
+   *
+   * @param statement the SQL of the statement
+   * @return the shape
+   */
+  static String shapeOf(String statement) {
+    String shape = COMMENTS.matcher(statement).replaceAll(" ");
+    shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+    return WHITESPACE.matcher(shape).replaceAll(" ").strip();
+  }
+}
@@ -0,0 +1,113 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor;
+
+import org.assertj.core.api.AbstractAssert;
+
+/**
+ * Assertions on the statements a call sends, so a test can hold a call to a statement budget.
+ *
+ * <p></p>
+ * Exact counts pin a call that should send a fixed number of statements; maximum counts leave
+ * room for statements the test does not care about. Every failure message carries the
+ * {@link Statements#report() report} of the statements, with the shape of each query, so an
+ * N+1 is visible without rerunning the test with SQL logging.
+ *
+ * <pre>{@code
+ * Statements statements = StatementCounter.measure(() -> orderService.getOrder(id));
+ * assertThatStatements(statements).hasSelects(2).hasNoWrites();
+ * }</pre>
+ */
+public class StatementsAssert extends AbstractAssert<StatementsAssert, Statements> {
+
+  private StatementsAssert(Statements actual) {
+    super(actual, StatementsAssert.class);
+  }
+
+  public static StatementsAssert assertThatStatements(Statements actual) {
+    return new StatementsAssert(actual);
+  }
+
+  public StatementsAssert hasCount(int expected) {
+    isNotNull();
+    if (actual.count() != expected) {
+      failWithMessage("Expected %d statements but got %s", expected, actual.report());
+    }
+    return this;
+  }
+
+  public StatementsAssert hasCountAtMost(int max) {
+    isNotNull();
+    if (actual.count() > max) {
+      failWithMessage("Expected at most %d statements but got %s", max, actual.report());
+    }
+    return this;
+  }
+
+  public StatementsAssert has(Statements.Type type, int expected) {
+    isNotNull();
+    if (actual.count(type) != expected) {
+      failWithMessage("Expected %d %s statements but got %s", expected, type, actual.report());
+    }
+    return this;
+  }
+
+  public StatementsAssert hasAtMost(Statements.Type type, int max) {
+    isNotNull();
+    if (actual.count(type) > max) {
+      failWithMessage("Expected at most %d %s statements but got %s", max, type,
+                      actual.report());
+    }
+    return this;
+  }
+
+  public StatementsAssert hasSelects(int expected) {
+    return has(Statements.Type.SELECT, expected);
+  }
+
+  public StatementsAssert hasSelectsAtMost(int max) {
+    return hasAtMost(Statements.Type.SELECT, max);
+  }
+
+  public StatementsAssert hasInserts(int expected) {
+    return has(Statements.Type.INSERT, expected);
+  }
+
+  public StatementsAssert hasInsertsAtMost(int max) {
+    return hasAtMost(Statements.Type.INSERT, max);
+  }
+
+  public StatementsAssert hasUpdates(int expected) {
+    return has(Statements.Type.UPDATE, expected);
+  }
+
+  public StatementsAssert hasUpdatesAtMost(int max) {
+    return hasAtMost(Statements.Type.UPDATE, max);
+  }
+
+  /**
+   * The call only reads.
+   *
+   * @return this assertion
+   */
+  public StatementsAssert hasNoWrites() {
+    return has(Statements.Type.INSERT, 0).has(Statements.Type.UPDATE, 0)
+                                         .has(Statements.Type.DELETE, 0);
+  }
+
+  /**
+   * No statement shape was sent more often than the given number of times, which catches a query
+   * repeated per row whatever the number of rows.
+   *
+   * @param max how often a shape may be sent
+   * @return this assertion
+   */
+  public StatementsAssert hasNoShapeRepeatedMoreThan(int max) {
+    isNotNull();
+    actual.shapes().forEach((shape, count) -> {
+      if (count > max) {
+        failWithMessage("Expected no statement sent more than %d times but got %s", max,
+                        actual.report());
+      }
+    });
+    return this;
+  }
+}
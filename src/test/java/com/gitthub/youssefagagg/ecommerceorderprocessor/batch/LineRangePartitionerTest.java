@@ -0,0 +1,78 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+class LineRangePartitionerTest {
+
+  @TempDir
+  private Path tempDir;
+
+  @Test
+  @DisplayName("Should split the records after the header into contiguous ranges")
+  void shouldSplitRecordsIntoContiguousRanges() throws IOException {
+    // Given
+    Path file = writeLines("products.csv", 11);
+
+    // When
+    Map<String, ExecutionContext> partitions =
+        new LineRangePartitioner(file, 1).partition(4);
+
+    // Then
+    List<int[]> ranges = partitions.values().stream()
+                                   .map(context -> new int[] {
+                                       context.getInt(LineRangePartitioner.MIN_ITEM),
+                                       context.getInt(LineRangePartitioner.MAX_ITEM)})
+                                   .sorted(Comparator.comparingInt(range -> range[0]))
+                                   .toList();
+    assertThat(ranges).extracting(range -> range[0]).containsExactly(0, 3, 6, 9);
+    assertThat(ranges).extracting(range -> range[1]).containsExactly(3, 6, 9, 10);
+  }
+
+  @Test
+  @DisplayName("Should create fewer partitions than the grid size for small files")
+  void shouldNotCreateEmptyPartitions() throws IOException {
+    // Given
+    Path file = writeLines("products.jsonl", 2);
+
+    // When
+    Map<String, ExecutionContext> partitions =
+        new LineRangePartitioner(file, 0).partition(4);
+
+    // Then
+    assertThat(partitions).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Should create a single empty partition for a file without records")
+  void shouldHandleFileWithoutRecords() throws IOException {
+    // Given
+    Path file = writeLines("products.csv", 1);
+
+    // When
+    Map<String, ExecutionContext> partitions =
+        new LineRangePartitioner(file, 1).partition(4);
+
+    // Then
+    assertThat(partitions).hasSize(1);
+    ExecutionContext context = partitions.values().iterator().next();
+    assertThat(context.getInt(LineRangePartitioner.MIN_ITEM)).isZero();
+    assertThat(context.getInt(LineRangePartitioner.MAX_ITEM)).isZero();
+  }
+
+  private Path writeLines(String name, int count) throws IOException {
+    return Files.write(tempDir.resolve(name),
+                       IntStream.range(0, count).mapToObj(i -> "line " + i).toList());
+  }
+}
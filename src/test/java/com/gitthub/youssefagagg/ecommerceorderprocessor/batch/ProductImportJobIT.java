@@ -0,0 +1,156 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ProductImportJobConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The job commits its own chunks, so these tests are not transactional and clean up after
+ * themselves.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+class ProductImportJobIT {
+
+  @Autowired
+  private JobLauncher jobLauncher;
+
+  @Autowired
+  @Qualifier(ProductImportJobConfiguration.JOB_NAME)
+  private Job productImportJob;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private InventoryRepository inventoryRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @TempDir
+  private Path tempDir;
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM inventory WHERE product_id IN "
+                        + "(SELECT id FROM products WHERE name LIKE 'Import %')");
+    jdbcTemplate.update("DELETE FROM products WHERE name LIKE 'Import %'");
+    jdbcTemplate.update("DELETE FROM audit_logs WHERE entity_type = ?",
+                        ProductImportWriter.AUDIT_ENTITY_TYPE);
+  }
+
+  @Test
+  @DisplayName("Should upsert products and inventory from CSV and skip bad lines")
+  void shouldImportCsv() throws Exception {
+    // Given
+    Product existing = productRepository.save(Product.builder()
+                                                     .name("Import Mouse")
+                                                     .description("Old description")
+                                                     .price(BigDecimal.valueOf(9.99))
+                                                     .build());
+    inventoryRepository.save(Inventory.builder()
+                                      .product(existing)
+                                      .quantity(1)
+                                      .reservedQuantity(1)
+                                      .build());
+    Path file = Files.write(tempDir.resolve("catalog.csv"), List.of(
+        "name,description,price,quantity",
+        "Import Keyboard,Mechanical keyboard,49.99,10",
+        "Import Mouse,\"Wireless, silent\",19.99,25",
+        "Ab,Name too short,5.00,1",
+        "Import Monitor,27 inch,not-a-price,3",
+        "Import Monitor,27 inch,199.00,3"));
+
+    // When
+    JobExecution execution = runImport(file);
+
+    // Then
+    assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+    assertThat(sumWorkerCounts(execution, StepExecution::getWriteCount)).isEqualTo(3);
+    assertThat(sumWorkerCounts(execution, StepExecution::getSkipCount)).isEqualTo(2);
+
+    Map<String, Object> mouse = jdbcTemplate.queryForMap(
+        "SELECT p.description, p.price, i.quantity, i.reserved_quantity FROM products p "
+        + "JOIN inventory i ON i.product_id = p.id WHERE p.name = 'Import Mouse'");
+    assertThat(mouse.get("description")).isEqualTo("Wireless, silent");
+    assertThat((BigDecimal) mouse.get("price")).isEqualByComparingTo("19.99");
+    assertThat(mouse.get("quantity")).isEqualTo(25);
+    assertThat(mouse.get("reserved_quantity")).isEqualTo(1);
+
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM products p JOIN inventory i ON i.product_id = p.id "
+        + "WHERE p.name LIKE 'Import %'", Integer.class)).isEqualTo(3);
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM audit_logs WHERE entity_type = ? AND entity_id = ?",
+        Integer.class, ProductImportWriter.AUDIT_ENTITY_TYPE, execution.getId()))
+        .isBetween(1, 4);
+  }
+
+  @Test
+  @DisplayName("Should import JSON lines and leave unchanged products alone")
+  void shouldImportJsonLines() throws Exception {
+    // Given
+    Path file = Files.write(tempDir.resolve("catalog.jsonl"), List.of(
+        "{\"name\":\"Import Lamp\",\"description\":\"Desk lamp\",\"price\":24.50,\"quantity\":7}",
+        "{not json",
+        "{\"name\":\"Import Chair\",\"price\":89.00,\"quantity\":2}"));
+    runImport(file);
+    Integer versionBefore = jdbcTemplate.queryForObject(
+        "SELECT version FROM products WHERE name = 'Import Lamp'", Integer.class);
+
+    // When
+    JobExecution execution = runImport(file);
+
+    // Then
+    assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+    assertThat(sumWorkerCounts(execution, StepExecution::getWriteCount)).isEqualTo(2);
+    assertThat(sumWorkerCounts(execution, StepExecution::getSkipCount)).isEqualTo(1);
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT version FROM products WHERE name = 'Import Lamp'", Integer.class))
+        .isEqualTo(versionBefore);
+  }
+
+  private JobExecution runImport(Path file) throws Exception {
+    return jobLauncher.run(productImportJob, new JobParametersBuilder()
+        .addString("file", file.toAbsolutePath().toString())
+        .addLong("requestedAt", System.nanoTime())
+        .toJobParameters());
+  }
+
+  private static long sumWorkerCounts(JobExecution execution,
+                                      ToLongFunction<StepExecution> count) {
+    return execution.getStepExecutions().stream()
+                    .filter(step -> step.getStepName()
+                                        .startsWith(ProductImportJobConfiguration.WORKER_STEP_NAME))
+                    .mapToLong(count)
+                    .sum();
+  }
+}
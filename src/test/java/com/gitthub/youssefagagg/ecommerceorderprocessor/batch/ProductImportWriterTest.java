@@ -0,0 +1,68 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.CreateProductDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.AuditLog;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.AuditLogRepository;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportWriterTest {
+
+  @Mock
+  private NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Mock
+  private AuditLogRepository auditLogRepository;
+
+  @Test
+  @DisplayName("Should upsert every chunk in name order so concurrent partitions lock alike")
+  void shouldWriteChunkInNameOrder() {
+    // Given
+    when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class)))
+        .thenReturn(new int[] {1, 1, 1});
+    ProductImportWriter writer = new ProductImportWriter(jdbcTemplate, auditLogRepository, 1L,
+                                                         "products.csv", "admin");
+    Chunk<CreateProductDTO> chunk = new Chunk<>(product("Mouse"), product("Keyboard"),
+                                                product("Monitor"));
+
+    // When
+    writer.write(chunk);
+
+    // Then
+    ArgumentCaptor<SqlParameterSource[]> batches =
+        ArgumentCaptor.forClass(SqlParameterSource[].class);
+    verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture());
+    for (SqlParameterSource[] batch : batches.getAllValues()) {
+      assertThat(Arrays.stream(batch).map(row -> row.getValue("name")).toList())
+          .isEqualTo(List.of("Keyboard", "Monitor", "Mouse"));
+    }
+    verify(auditLogRepository).save(any(AuditLog.class));
+  }
+
+  private static CreateProductDTO product(String name) {
+    return CreateProductDTO.builder()
+                           .name(name)
+                           .description(name + " description")
+                           .price(BigDecimal.TEN)
+                           .quantity(5)
+                           .build();
+  }
+}
@@ -0,0 +1,95 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.DataSourceConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+class DataSourceRoutingInterceptorTest {
+
+  private RoutedService service;
+  private ReportingService reportingService;
+
+  @BeforeEach
+  void setUp() {
+    service = proxy(new RoutedService());
+    reportingService = proxy(new ReportingService());
+  }
+
+  @Test
+  @DisplayName("Should select the pool declared on the method for the duration of the call")
+  void shouldRouteAnnotatedMethod() {
+    assertThat(service.background()).isEqualTo(DataSourcePool.BACKGROUND);
+    assertThat(DataSourceContextHolder.getCurrentPool()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should leave unannotated methods on the default pool")
+  void shouldNotRouteUnannotatedMethod() {
+    assertThat(service.unrouted()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should apply a class-level declaration and let methods override it")
+  void shouldRouteAnnotatedClass() {
+    assertThat(reportingService.report()).isEqualTo(DataSourcePool.REPORTING);
+    assertThat(reportingService.write()).isEqualTo(DataSourcePool.OLTP);
+  }
+
+  @Test
+  @DisplayName("Should restore the outer pool after a nested call and after an exception")
+  void shouldRestorePreviousPool() {
+    DataSourcePool previous = DataSourceContextHolder.select(DataSourcePool.REPORTING);
+    try {
+      assertThat(service.background()).isEqualTo(DataSourcePool.BACKGROUND);
+      assertThat(DataSourceContextHolder.getCurrentPool()).isEqualTo(DataSourcePool.REPORTING);
+
+      assertThatThrownBy(service::failing).isInstanceOf(IllegalStateException.class);
+      assertThat(DataSourceContextHolder.getCurrentPool()).isEqualTo(DataSourcePool.REPORTING);
+    } finally {
+      DataSourceContextHolder.restore(previous);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(T target) {
+    ProxyFactory factory = new ProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAdvisor(DataSourceConfiguration.dataSourceRoutingAdvisor());
+    return (T) factory.getProxy();
+  }
+
+  static class RoutedService {
+
+    @UseDataSource(DataSourcePool.BACKGROUND)
+    public DataSourcePool background() {
+      return DataSourceContextHolder.getCurrentPool();
+    }
+
+    @UseDataSource(DataSourcePool.BACKGROUND)
+    public void failing() {
+      throw new IllegalStateException("failure");
+    }
+
+    public DataSourcePool unrouted() {
+      return DataSourceContextHolder.getCurrentPool();
+    }
+  }
+
+  @UseDataSource(DataSourcePool.REPORTING)
+  static class ReportingService {
+
+    public DataSourcePool report() {
+      return DataSourceContextHolder.getCurrentPool();
+    }
+
+    @UseDataSource(DataSourcePool.OLTP)
+    public DataSourcePool write() {
+      return DataSourceContextHolder.getCurrentPool();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.RequestDeadline;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+class DeadlineAwareJpaTransactionManagerTest {
+
+  private final DeadlineAwareJpaTransactionManager transactionManager =
+      new DeadlineAwareJpaTransactionManager();
+
+  @AfterEach
+  void tearDown() {
+    RequestDeadline.restore(null);
+  }
+
+  @Test
+  @DisplayName("Should keep the transaction's own timeout without a deadline")
+  void shouldKeepTimeoutWithoutDeadline() {
+    // Given
+    DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+    definition.setTimeout(7);
+
+    // When
+    int timeout = transactionManager.determineTimeout(definition);
+
+    // Then
+    assertThat(timeout).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Should bound a transaction without a timeout by the time left until the deadline")
+  void shouldUseRemainingTime() {
+    // Given
+    RequestDeadline.select(RequestDeadline.after(Duration.ofMillis(4500)));
+
+    // When
+    int timeout = transactionManager.determineTimeout(new DefaultTransactionDefinition());
+
+    // Then
+    assertThat(timeout).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should keep a transaction timeout shorter than the time left")
+  void shouldKeepShorterTimeout() {
+    // Given
+    RequestDeadline.select(RequestDeadline.after(Duration.ofSeconds(30)));
+    DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+    definition.setTimeout(2);
+
+    // When
+    int timeout = transactionManager.determineTimeout(definition);
+
+    // Then
+    assertThat(timeout).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should not start a transaction once the deadline has passed")
+  void shouldRefuseTransactionAfterDeadline() {
+    // Given
+    RequestDeadline.select(RequestDeadline.after(Duration.ZERO));
+    TransactionDefinition definition = new DefaultTransactionDefinition();
+
+    // When / Then
+    assertThatThrownBy(() -> transactionManager.determineTimeout(definition))
+        .isInstanceOf(TransactionTimedOutException.class);
+  }
+}
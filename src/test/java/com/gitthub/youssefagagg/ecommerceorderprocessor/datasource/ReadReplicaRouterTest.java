@@ -0,0 +1,109 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReadRoutingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRouterTest {
+
+  @Mock
+  private ReplicaLagMonitor lagMonitor;
+
+  private ReadRoutingConfig config;
+  private ReadYourWritesTracker tracker;
+  private ReadReplicaRouter router;
+
+  @BeforeEach
+  void setUp() {
+    config = new ReadRoutingConfig();
+    config.setEnabled(true);
+    tracker = new ReadYourWritesTracker(config);
+    router = new ReadReplicaRouter(config, lagMonitor, tracker);
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("alice", null));
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Should route read-only transactions to a healthy replica")
+  void shouldRouteReadOnlyToReplica() {
+    // Given
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+    // When / Then
+    assertThat(router.routeToReplica()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should keep read-write transactions on the primary")
+  void shouldKeepReadWriteOnPrimary() {
+    assertThat(router.routeToReplica()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should keep reads on the primary while routing is disabled")
+  void shouldNotRouteWhenDisabled() {
+    // Given
+    config.setEnabled(false);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    // When / Then
+    assertThat(router.routeToReplica()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should fall back to the primary when the replica lags")
+  void shouldFallBackWhenReplicaLags() {
+    // Given
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    router.bindTo(registry);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+    // When
+    boolean routed = router.routeToReplica();
+
+    // Then
+    assertThat(routed).isFalse();
+    assertThat(registry.get("datasource.read.routing").tag("reason", "replica-lag")
+                       .functionCounter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should keep a user who just wrote on the primary")
+  void shouldPinUserAfterWrite() {
+    // Given
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    when(lagMonitor.isReplicaUsable()).thenReturn(true);
+    tracker.pin("alice");
+
+    // When
+    boolean aliceRouted = router.routeToReplica();
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("bob", null));
+    boolean bobRouted = router.routeToReplica();
+
+    // Then
+    assertThat(aliceRouted).isFalse();
+    assertThat(bobRouted).isTrue();
+  }
+}
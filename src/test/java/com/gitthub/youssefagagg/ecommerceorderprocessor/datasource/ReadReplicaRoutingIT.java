@@ -0,0 +1,185 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Runs against two PostgreSQL nodes: the primary from {@link TestcontainersConfiguration} and a
+ * second container standing in for the replica. Each node is identified by its database name.
+ */
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest(properties = "datasource.read-routing.enabled=true")
+@Testcontainers
+class ReadReplicaRoutingIT {
+
+  private static final String REPLICA_DATABASE = "replica";
+
+  @Container
+  static PostgreSQLContainer<?> replica =
+      new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"))
+          .withDatabaseName(REPLICA_DATABASE);
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ReplicaLagMonitor lagMonitor;
+
+  @Autowired
+  private ReadYourWritesTracker readYourWritesTracker;
+
+  @Autowired
+  private ObjectProvider<OpenEntityManagerInViewInterceptor> openInViewInterceptor;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private String primaryDatabase;
+
+  @DynamicPropertySource
+  static void replicaProperties(DynamicPropertyRegistry registry) {
+    registry.add("datasource.pools.reporting.url", replica::getJdbcUrl);
+    registry.add("datasource.pools.reporting.username", replica::getUsername);
+    registry.add("datasource.pools.reporting.password", replica::getPassword);
+  }
+
+  @BeforeEach
+  void setUp() {
+    lagMonitor.checkLag();
+    primaryDatabase = currentDatabase(false);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Should send read-only transactions to the replica")
+  void shouldRouteReadOnlyTransactionsToReplica() {
+    assertThat(lagMonitor.isReplicaUsable()).isTrue();
+    assertThat(currentDatabase(true)).isEqualTo(REPLICA_DATABASE);
+  }
+
+  @Test
+  @DisplayName("Should keep read-write transactions on the primary")
+  void shouldKeepReadWriteTransactionsOnPrimary() {
+    assertThat(primaryDatabase).isNotEqualTo(REPLICA_DATABASE);
+  }
+
+  @Test
+  @DisplayName("Should pin a user to the primary after they write")
+  void shouldPinUserToPrimaryAfterWrite() {
+    // Given
+    authenticate("alice");
+    currentDatabase(false);
+
+    // When
+    String aliceRead = currentDatabase(true);
+    authenticate("bob");
+    String bobRead = currentDatabase(true);
+
+    // Then
+    assertThat(readYourWritesTracker.isPinned("alice")).isTrue();
+    assertThat(aliceRead).isEqualTo(primaryDatabase);
+    assertThat(bobRead).isEqualTo(REPLICA_DATABASE);
+  }
+
+  @Test
+  @DisplayName("Should honour an explicit pool selection over read-only routing")
+  void shouldPreferExplicitPoolSelection() {
+    String database = DataSourceContextHolder.callWith(DataSourcePool.OLTP,
+                                                       () -> currentDatabase(true));
+
+    assertThat(database).isEqualTo(primaryDatabase);
+  }
+
+  @Test
+  @DisplayName("Should read a user's own write back from the primary")
+  void shouldReadOwnWriteFromPrimary() {
+    // Given: the products table only exists on the primary
+    authenticate("carol");
+    Long productId = inTransaction(false, () -> jdbcTemplate.queryForObject(
+        "INSERT INTO products (name, description, price, created_by, last_modified_by) "
+        + "VALUES ('Routing Product', 'Routing Description', 10, 'carol', 'carol') RETURNING id",
+        Long.class));
+
+    try {
+      // When
+      String name = inTransaction(true, () -> jdbcTemplate.queryForObject(
+          "SELECT name FROM products WHERE id = ?", String.class, productId));
+
+      // Then
+      assertThat(name).isEqualTo("Routing Product");
+    } finally {
+      inTransaction(false, () -> jdbcTemplate.update("DELETE FROM products WHERE id = ?",
+                                                     productId));
+    }
+  }
+
+  @Test
+  @DisplayName("Should send a write after a read-only transaction to the primary")
+  void shouldWriteToPrimaryAfterReadOnlyTransaction() {
+    // Given: no session spans the request, so each transaction gets its own connection
+    assertThat(openInViewInterceptor.getIfAvailable()).isNull();
+    authenticate("dave");
+
+    // When: a request reads, then writes
+    String read = inTransaction(true, () -> entityManagerDatabase());
+    String written = inTransaction(false, () -> entityManagerDatabase());
+
+    // Then
+    assertThat(read).isEqualTo(REPLICA_DATABASE);
+    assertThat(written).isEqualTo(primaryDatabase);
+  }
+
+  private String entityManagerDatabase() {
+    return (String) entityManager.createNativeQuery("SELECT current_database()")
+                                 .getSingleResult();
+  }
+
+  private <T> T inTransaction(boolean readOnly, Supplier<T> action) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(readOnly);
+    return transactionTemplate.execute(status -> action.get());
+  }
+
+  private String currentDatabase(boolean readOnly) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(readOnly);
+    return transactionTemplate.execute(
+        status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+  }
+
+  private static void authenticate(String username) {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(username, null));
+  }
+}
@@ -0,0 +1,190 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.PaymentGatewayConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.BulkheadExecutor;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.BulkheadExecutor.RejectionPolicy;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.CircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PaymentGatewayClientTest {
+
+  private final PaymentAuthorization authorization =
+      new PaymentAuthorization("key-1", BigDecimal.TEN, "Credit Card");
+
+  private PaymentGateway gateway;
+  private PaymentGatewayConfig config;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    gateway = mock(PaymentGateway.class);
+    config = new PaymentGatewayConfig();
+    config.setTimeout(Duration.ofMillis(200));
+    config.setRetryBackoff(Duration.ofMillis(1));
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  private PaymentGatewayClient client() {
+    return client(Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  private PaymentGatewayClient client(Executor executor) {
+    return new PaymentGatewayClient(gateway, config, meterRegistry, executor);
+  }
+
+  @Test
+  @DisplayName("Should retry a failed call and return the first answer")
+  void shouldRetryFailedCall() {
+    // Given
+    when(gateway.authorize(authorization))
+        .thenThrow(new PaymentGatewayException("Bad gateway"))
+        .thenReturn(GatewayResponse.approved("auth-1"));
+
+    // When
+    GatewayResponse response = client().authorize(authorization);
+
+    // Then
+    assertThat(response.approved()).isTrue();
+    assertThat(response.reference()).isEqualTo("auth-1");
+    verify(gateway, times(2)).authorize(authorization);
+    assertThat(meterRegistry.get("payment.gateway.retries").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should not retry a declined call")
+  void shouldNotRetryDeclinedCall() {
+    // Given
+    when(gateway.authorize(authorization)).thenReturn(GatewayResponse.declined("Declined"));
+
+    // When
+    GatewayResponse response = client().authorize(authorization);
+
+    // Then
+    assertThat(response.approved()).isFalse();
+    verify(gateway, times(1)).authorize(authorization);
+  }
+
+  @Test
+  @DisplayName("Should give up on a call that does not answer in time")
+  void shouldTimeOutSlowCall() {
+    // Given
+    config.setMaxAttempts(1);
+    when(gateway.capture(any(), any())).thenAnswer(invocation -> {
+      Thread.sleep(Duration.ofSeconds(5));
+      return GatewayResponse.approved("capture-1");
+    });
+    PaymentGatewayClient client = client();
+
+    // When/Then
+    assertThatThrownBy(() -> client.capture("auth-1", BigDecimal.TEN))
+        .isInstanceOf(PaymentGatewayException.class)
+        .hasMessageContaining("timed out");
+    assertThat(meterRegistry.get("payment.gateway.calls").tag("outcome", "timeout")
+                            .timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should time a call from when it starts rather than from when it was queued")
+  void shouldNotCountQueueWaitTowardsTimeout() throws Exception {
+    // Given
+    config.setMaxAttempts(1);
+    config.setTimeout(Duration.ofMillis(500));
+    when(gateway.authorize(authorization)).thenAnswer(invocation -> {
+      Thread.sleep(Duration.ofMillis(300));
+      return GatewayResponse.approved("auth-1");
+    });
+    PaymentGatewayClient client = client(
+        new BulkheadExecutor("payment", 1, 2, RejectionPolicy.ABORT, null));
+
+    // When: the second call waits for the first before running
+    CompletableFuture<GatewayResponse> first =
+        CompletableFuture.supplyAsync(() -> client.authorize(authorization));
+    CompletableFuture<GatewayResponse> second =
+        CompletableFuture.supplyAsync(() -> client.authorize(authorization));
+
+    // Then
+    assertThat(first.get(5, TimeUnit.SECONDS).approved()).isTrue();
+    assertThat(second.get(5, TimeUnit.SECONDS).approved()).isTrue();
+    assertThat(meterRegistry.find("payment.gateway.calls").tag("outcome", "timeout")
+                            .timer()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should fail a call at once when the bulkhead is full without opening the breaker")
+  void shouldRejectCallWhenBulkheadIsFull() throws Exception {
+    // Given
+    config.setMaxAttempts(1);
+    config.setTimeout(Duration.ofSeconds(5));
+    CountDownLatch release = new CountDownLatch(1);
+    when(gateway.authorize(authorization)).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return GatewayResponse.approved("auth-1");
+    });
+    BulkheadExecutor executor = new BulkheadExecutor("payment", 1, 1, RejectionPolicy.ABORT, null);
+    PaymentGatewayClient client = client(executor);
+    CompletableFuture<GatewayResponse> running =
+        CompletableFuture.supplyAsync(() -> client.authorize(authorization));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (executor.getActiveCount() < 1 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    CompletableFuture<GatewayResponse> queued =
+        CompletableFuture.supplyAsync(() -> client.authorize(authorization));
+    while (executor.getQueuedCount() < 1 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+
+    // When/Then
+    try {
+      assertThatThrownBy(() -> client.authorize(authorization))
+          .isInstanceOf(PaymentGatewayException.class)
+          .hasMessageContaining("rejected");
+      assertThat(meterRegistry.get("circuit.breaker.calls").tag("outcome", "failed")
+                              .functionCounter().count()).isZero();
+    } finally {
+      release.countDown();
+    }
+    assertThat(running.get(5, TimeUnit.SECONDS).approved()).isTrue();
+    assertThat(queued.get(5, TimeUnit.SECONDS).approved()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should fail fast once the circuit breaker is open")
+  void shouldFailFastWhenCircuitBreakerIsOpen() {
+    // Given
+    config.setMaxAttempts(1);
+    config.getCircuitBreaker().setMinimumCalls(2);
+    config.getCircuitBreaker().setSlidingWindowSize(2);
+    when(gateway.authorize(authorization)).thenThrow(new PaymentGatewayException("Bad gateway"));
+    PaymentGatewayClient client = client();
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> client.authorize(authorization))
+          .isInstanceOf(PaymentGatewayException.class);
+    }
+    assertThat(client.getCircuitBreaker().getState()).isEqualTo(State.OPEN);
+
+    // When/Then
+    assertThatThrownBy(() -> client.authorize(authorization))
+        .isInstanceOf(PaymentGatewayException.class)
+        .hasMessageContaining("circuit breaker");
+    verify(gateway, times(2)).authorize(authorization);
+  }
+}
@@ -0,0 +1,138 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ConflictRetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ConflictRetryInterceptorTest {
+
+  private ConflictRetryConfig config;
+  private SimpleMeterRegistry meterRegistry;
+  private ConflictingService target;
+  private ConflictingService service;
+
+  @BeforeEach
+  void setUp() {
+    config = new ConflictRetryConfig();
+    config.setInitialBackoff(Duration.ofMillis(1));
+    config.setMaxBackoff(Duration.ofMillis(2));
+    meterRegistry = new SimpleMeterRegistry();
+    target = new ConflictingService();
+
+    ProxyFactory factory = new ProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAdvice(new ConflictRetryInterceptor(() -> config, () -> meterRegistry));
+    service = (ConflictingService) factory.getProxy();
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+  }
+
+  @Test
+  @DisplayName("Should run the operation again until it no longer conflicts")
+  void shouldRetryConflicts() {
+    // Given
+    target.conflicts = 2;
+
+    // When
+    String result = service.update();
+
+    // Then
+    assertThat(result).isEqualTo("updated");
+    assertThat(target.calls).isEqualTo(3);
+    assertThat(meterRegistry.get("conflict.retry.attempts").tag("operation", "update").counter()
+                            .count()).isEqualTo(2.0);
+    assertThat(meterRegistry.get("conflict.retry.calls").tag("outcome", "recovered").counter()
+                            .count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should rethrow the conflict once every attempt has been made")
+  void shouldGiveUpAfterMaxAttempts() {
+    // Given
+    target.conflicts = 5;
+
+    // When / Then
+    assertThatThrownBy(() -> service.update())
+        .isInstanceOf(OptimisticLockingFailureException.class);
+    assertThat(target.calls).isEqualTo(3);
+    assertThat(meterRegistry.get("conflict.retry.calls").tag("outcome", "exhausted").counter()
+                            .count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should stop retrying once the operation's budget is spent")
+  void shouldRespectBudget() {
+    // Given
+    config.setBudgetCapacity(1);
+    config.setBudgetRatio(0);
+    target.conflicts = 5;
+
+    // When / Then
+    assertThatThrownBy(() -> service.update())
+        .isInstanceOf(OptimisticLockingFailureException.class);
+    assertThat(target.calls).isEqualTo(2);
+    assertThat(meterRegistry.get("conflict.retry.calls").tag("outcome", "budget-exhausted")
+                            .counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should not retry a call that joined a caller's transaction")
+  void shouldNotRetryInsideTransaction() {
+    // Given
+    target.conflicts = 1;
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+
+    // When / Then
+    assertThatThrownBy(() -> service.update())
+        .isInstanceOf(OptimisticLockingFailureException.class);
+    assertThat(target.calls).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should leave methods without the annotation alone")
+  void shouldNotRetryUnannotatedMethod() {
+    // Given
+    target.conflicts = 1;
+
+    // When / Then
+    assertThatThrownBy(() -> service.unannotated())
+        .isInstanceOf(OptimisticLockingFailureException.class);
+    assertThat(target.calls).isEqualTo(1);
+  }
+
+  static class ConflictingService {
+
+    int conflicts;
+    int calls;
+
+    @RetryOnConflict("update")
+    public String update() {
+      return attempt();
+    }
+
+    public String unannotated() {
+      return attempt();
+    }
+
+    private String attempt() {
+      calls++;
+      if (calls <= conflicts) {
+        throw new OptimisticLockingFailureException("Row was updated by another transaction");
+      }
+      return "updated";
+    }
+  }
+}
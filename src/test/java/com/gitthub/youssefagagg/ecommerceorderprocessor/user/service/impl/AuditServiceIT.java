@@ -1,8 +1,11 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
 
+import static com.gitthub.youssefagagg.ecommerceorderprocessor.StatementsAssert.assertThatStatements;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCounter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCountingConfiguration;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.AuditLogDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
@@ -28,7 +31,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
-@Import(TestcontainersConfiguration.class)
+@Import({TestcontainersConfiguration.class, StatementCountingConfiguration.class})
 @SpringBootTest
 @Transactional
 class AuditServiceIT {
@@ -221,4 +224,28 @@ class AuditServiceIT {
     assertThat(auditLog.getEntityId()).isEqualTo(entityId);
     assertThat(auditLog.getAction()).isEqualTo("CREATE");
   }
+
+  @Test
+  @DisplayName("Should read the audit logs of an entity without a statement per log")
+  void shouldReadAuditLogsWithoutStatementPerLog() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      auditLogRepository.save(AuditLog.createLog("Product", testProduct.getId(),
+                                                 "{\"version\":" + i + "}"));
+    }
+    auditLogRepository.flush();
+
+    // When
+    var logs = StatementCounter.measure(() -> auditService.getAuditLogsForEntity(
+        "Product", testProduct.getId(), PageRequest.of(0, 10)));
+    Long logId = logs.result().data().get(0).getId();
+    var log = StatementCounter.measure(() -> auditService.getAuditLog(logId));
+
+    // Then
+    assertThat(logs.result().data()).hasSize(5);
+    assertThat(log.result().getId()).isEqualTo(logId);
+    assertThatStatements(logs.statements()).hasNoWrites().hasSelects(1);
+    // The log is still in the persistence context
+    assertThatStatements(log.statements()).hasNoWrites().hasSelectsAtMost(1);
+  }
 }
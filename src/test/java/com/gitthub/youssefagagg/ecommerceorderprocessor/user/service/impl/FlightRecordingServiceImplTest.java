@@ -0,0 +1,128 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.FlightRecorderConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.diagnostics.KeyLockEvent;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.FlightRecordingDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl.FlightRecordingServiceImpl;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.KeyLockManager;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FlightRecordingServiceImplTest {
+
+  @TempDir
+  private Path tempDir;
+
+  private FlightRecorderConfig config;
+  private FlightRecordingServiceImpl flightRecordingService;
+
+  @BeforeEach
+  void setUp() {
+    config = new FlightRecorderConfig();
+    config.setMaxRecordings(2);
+    flightRecordingService = new FlightRecordingServiceImpl(config);
+  }
+
+  @AfterEach
+  void tearDown() {
+    flightRecordingService.closeAll();
+  }
+
+  @Test
+  @DisplayName("Should start a recording with the configured defaults")
+  void startRecording_withDefaults() {
+    FlightRecordingDTO recording = flightRecordingService.startRecording(null, null, null);
+
+    assertThat(recording.getState()).isEqualTo("RUNNING");
+    assertThat(recording.getSettings()).isEqualTo("default");
+    assertThat(recording.getName()).startsWith("ecommerce-");
+    assertThat(recording.getMaxAge()).isEqualTo(config.getMaxAge());
+    assertThat(recording.getMaxSize()).isEqualTo(config.getMaxSize().toBytes());
+    assertThat(flightRecordingService.getRecordings()).extracting(FlightRecordingDTO::getId)
+                                                      .containsExactly(recording.getId());
+  }
+
+  @Test
+  @DisplayName("Should reject unknown settings")
+  void startRecording_unknownSettings() {
+    assertThatThrownBy(() -> flightRecordingService.startRecording("test", "unknown", null))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+    assertThat(flightRecordingService.getRecordings()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reject recordings beyond the configured maximum")
+  void startRecording_tooMany() {
+    flightRecordingService.startRecording("first", null, Duration.ofMinutes(1));
+    flightRecordingService.startRecording("second", null, Duration.ofMinutes(1));
+
+    assertThatThrownBy(() -> flightRecordingService.startRecording("third", null, null))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+  }
+
+  @Test
+  @DisplayName("Should dump the application's events of a stopped recording")
+  void dumpRecording_containsKeyLockEvents() throws Exception {
+    FlightRecordingDTO recording = flightRecordingService.startRecording("test", null, null);
+    KeyLockManager keyLockManager = new KeyLockManager();
+    keyLockManager.withLock("order-key", () -> "done");
+
+    FlightRecordingDTO stopped = flightRecordingService.stopRecording(recording.getId());
+    Path dump = tempDir.resolve("dump.jfr");
+    try (InputStream in = flightRecordingService.dumpRecording(recording.getId())
+                                                .getInputStream()) {
+      Files.copy(in, dump, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    assertThat(stopped.getState()).isEqualTo("STOPPED");
+    List<RecordedEvent> keyLocks = RecordingFile.readAllEvents(dump).stream()
+        .filter(event -> event.getEventType().getName().equals(KeyLockEvent.NAME))
+        .toList();
+    assertThat(keyLocks).anySatisfy(event -> {
+      assertThat(event.getInt("keyHash")).isEqualTo("order-key".hashCode());
+      assertThat(event.getBoolean("acquired")).isTrue();
+    });
+  }
+
+  @Test
+  @DisplayName("Should only stop running recordings")
+  void stopRecording_alreadyStopped() {
+    FlightRecordingDTO recording = flightRecordingService.startRecording("test", null, null);
+    flightRecordingService.stopRecording(recording.getId());
+
+    assertThatThrownBy(() -> flightRecordingService.stopRecording(recording.getId()))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+  }
+
+  @Test
+  @DisplayName("Should forget a closed recording")
+  void closeRecording() {
+    FlightRecordingDTO recording = flightRecordingService.startRecording("test", null, null);
+
+    flightRecordingService.closeRecording(recording.getId());
+
+    assertThat(flightRecordingService.getRecordings()).isEmpty();
+    assertThatThrownBy(() -> flightRecordingService.dumpRecording(recording.getId()))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ENTITY_NOT_FOUND);
+  }
+}
@@ -0,0 +1,93 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.HotKeysConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.HotKeyDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker.Category;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker.HotKeyEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HotKeyTrackerTest {
+
+  private final List<Object> publishedEvents = new ArrayList<>();
+  private SimpleMeterRegistry meterRegistry;
+  private HotKeyTracker hotKeyTracker;
+
+  @BeforeEach
+  void setUp() {
+    HotKeysConfig config = new HotKeysConfig();
+    config.setMinCount(50);
+    config.setHotShare(0.2);
+    meterRegistry = new SimpleMeterRegistry();
+    hotKeyTracker = new HotKeyTracker(config, publishedEvents::add, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Should publish a product once when it becomes hot")
+  void shouldPublishHotProduct() {
+    // Given
+    for (int i = 0; i < 100; i++) {
+      hotKeyTracker.recordProduct(1L);
+      hotKeyTracker.recordProduct(100L + i);
+    }
+
+    // When
+    hotKeyTracker.refresh();
+    hotKeyTracker.refresh();
+
+    // Then
+    assertThat(hotKeyTracker.isHotProduct(1L)).isTrue();
+    assertThat(hotKeyTracker.isHotProduct(100L)).isFalse();
+    assertThat(publishedEvents).singleElement()
+                               .isInstanceOfSatisfying(HotKeyEvent.class, event -> {
+                                 assertThat(event.category()).isEqualTo(Category.PRODUCT);
+                                 assertThat(event.key()).isEqualTo("1");
+                                 assertThat(event.share()).isEqualTo(0.5);
+                               });
+    assertThat(meterRegistry.get("hotkeys.detected").tag("category", "product")
+                            .counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("hotkeys.top.share").tag("category", "product")
+                            .gauge().value()).isEqualTo(0.5);
+  }
+
+  @Test
+  @DisplayName("Should not make a key hot below the minimum count")
+  void shouldIgnoreQuietCategories() {
+    // Given
+    for (int i = 0; i < 10; i++) {
+      hotKeyTracker.recordClient("10.0.0.1");
+    }
+
+    // When
+    hotKeyTracker.refresh();
+
+    // Then
+    assertThat(hotKeyTracker.isHot(Category.CLIENT, "10.0.0.1")).isFalse();
+    assertThat(hotKeyTracker.getHotKeys(Category.CLIENT))
+        .containsExactly(new HotKeyDTO("10.0.0.1", 10, 1.0, false));
+    assertThat(publishedEvents).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should track categories separately")
+  void shouldTrackCategoriesSeparately() {
+    // When
+    hotKeyTracker.recordInventoryConflict(7L);
+    hotKeyTracker.recordIdempotencyKey("key-1");
+    hotKeyTracker.recordIdempotencyKey(null);
+
+    // Then
+    assertThat(hotKeyTracker.getHotKeys(Category.INVENTORY_CONFLICT))
+        .extracting(HotKeyDTO::getKey).containsExactly("7");
+    assertThat(hotKeyTracker.getHotKeys(Category.IDEMPOTENCY_KEY))
+        .extracting(HotKeyDTO::getKey).containsExactly("key-1");
+    assertThat(hotKeyTracker.getHotKeys(Category.PRODUCT)).isEmpty();
+  }
+}
@@ -0,0 +1,161 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.NotificationDispatchConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.NotificationBatchDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PendingNotification;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.NotificationRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationDispatcher;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.WebSocketService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+  private MockedStatic<SecurityUtils> securityUtilsMock;
+
+  @Mock
+  private NotificationRepository notificationRepository;
+
+  @Mock
+  private WebSocketService webSocketService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private NotificationDispatchConfig config;
+  private User alice;
+  private User bob;
+
+  @BeforeEach
+  void setUp() {
+    securityUtilsMock = mockStatic(SecurityUtils.class);
+    securityUtilsMock.when(SecurityUtils::getCurrentUserUserName)
+                     .thenReturn(Optional.of("admin"));
+
+    meterRegistry = new SimpleMeterRegistry();
+    config = new NotificationDispatchConfig();
+
+    alice = new User();
+    alice.setId(1L);
+    alice.setUsername("alice");
+
+    bob = new User();
+    bob.setId(2L);
+    bob.setUsername("bob");
+
+    when(notificationRepository.insertAll(anyList())).thenAnswer(invocation -> {
+      List<PendingNotification> batch = invocation.getArgument(0);
+      return LongStream.rangeClosed(1, batch.size()).boxed().toList();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    securityUtilsMock.close();
+  }
+
+  @Test
+  @DisplayName("Should write a flush with one insert and send one frame per user")
+  void shouldCoalesceFramesPerUser() {
+    // Given
+    NotificationDispatcher dispatcher = new NotificationDispatcher(
+        notificationRepository, webSocketService, config, meterRegistry, Runnable::run,
+        Runnable::run);
+    when(notificationRepository.countUnreadByUserIds(any())).thenReturn(
+        List.of(new Object[] {1L, 5L}, new Object[] {2L, 1L}));
+
+    dispatcher.enqueue(alice, NotificationType.ORDER_CONFIRMATION, "Order #1 confirmed");
+    dispatcher.enqueue(alice, NotificationType.PAYMENT_CONFIRMATION, "Payment #1 confirmed");
+    dispatcher.enqueue(bob, NotificationType.ORDER_CONFIRMATION, "Order #2 confirmed");
+    dispatcher.enqueue(alice, NotificationType.SHIPPING_UPDATE, "Order #1 shipped");
+
+    // When
+    dispatcher.flush();
+
+    // Then
+    verify(notificationRepository, times(1)).insertAll(anyList());
+    verify(notificationRepository, times(1)).countUnreadByUserIds(any());
+
+    ArgumentCaptor<NotificationBatchDTO> aliceFrame =
+        ArgumentCaptor.forClass(NotificationBatchDTO.class);
+    verify(webSocketService).sendNotificationBatch(eq("alice"), aliceFrame.capture());
+    assertThat(aliceFrame.getValue().getNotifications()).hasSize(3);
+    assertThat(aliceFrame.getValue().getUnreadCount()).isEqualTo(5L);
+
+    ArgumentCaptor<NotificationBatchDTO> bobFrame =
+        ArgumentCaptor.forClass(NotificationBatchDTO.class);
+    verify(webSocketService).sendNotificationBatch(eq("bob"), bobFrame.capture());
+    assertThat(bobFrame.getValue().getNotifications()).hasSize(1);
+    assertThat(bobFrame.getValue().getUnreadCount()).isEqualTo(1L);
+
+    assertThat(meterRegistry.get("notification.dispatch.written").counter().count())
+        .isEqualTo(4.0);
+  }
+
+  @Test
+  @DisplayName("Should split a flush into batches of the configured size")
+  void shouldSplitIntoBatches() {
+    // Given
+    config.setMaxBatchSize(2);
+    NotificationDispatcher dispatcher = new NotificationDispatcher(
+        notificationRepository, webSocketService, config, meterRegistry, Runnable::run,
+        Runnable::run);
+    for (int i = 0; i < 5; i++) {
+      dispatcher.enqueue(alice, NotificationType.ORDER_CONFIRMATION, "Order #" + i);
+    }
+
+    // When
+    dispatcher.flush();
+
+    // Then
+    verify(notificationRepository, times(3)).insertAll(anyList());
+    verify(webSocketService, times(3)).sendNotificationBatch(eq("alice"),
+                                                             any(NotificationBatchDTO.class));
+  }
+
+  @Test
+  @DisplayName("Should write synchronously and count overflow when the queue is full")
+  void shouldWriteSynchronouslyOnOverflow() {
+    // Given
+    config.setQueueCapacity(1);
+    NotificationDispatcher dispatcher = new NotificationDispatcher(
+        notificationRepository, webSocketService, config, meterRegistry, Runnable::run,
+        Runnable::run);
+    dispatcher.enqueue(alice, NotificationType.ORDER_CONFIRMATION, "Order #1 confirmed");
+    verify(notificationRepository, never()).insertAll(anyList());
+
+    // When
+    dispatcher.enqueue(bob, NotificationType.ORDER_CONFIRMATION, "Order #2 confirmed");
+
+    // Then
+    verify(notificationRepository, times(1)).insertAll(anyList());
+    verify(webSocketService).sendNotificationBatch(eq("bob"), any(NotificationBatchDTO.class));
+    assertThat(meterRegistry.get("notification.dispatch.overflow").counter().count())
+        .isEqualTo(1.0);
+    assertThat(meterRegistry.get("notification.dispatch.queue.size").gauge().value())
+        .isEqualTo(1.0);
+  }
+}
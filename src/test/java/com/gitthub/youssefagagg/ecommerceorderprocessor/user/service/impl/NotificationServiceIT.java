@@ -1,7 +1,10 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
 
+import static com.gitthub.youssefagagg.ecommerceorderprocessor.StatementsAssert.assertThatStatements;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCounter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCountingConfiguration;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.NotificationDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
@@ -26,7 +29,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.transaction.annotation.Transactional;
 
-@Import(TestcontainersConfiguration.class)
+@Import({TestcontainersConfiguration.class, StatementCountingConfiguration.class})
 @SpringBootTest
 @Transactional
 class NotificationServiceIT {
@@ -178,4 +181,78 @@ class NotificationServiceIT {
     // Then
     assertThat(result).isEqualTo(4); // 1 original + 3 new notifications
   }
+
+  @Test
+  @DisplayName("Should read a page of notifications without a statement per notification")
+  @WithMockUser(username = "testuser")
+  void shouldReadNotificationPageWithoutStatementPerNotification() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      Notification newNotification = new Notification();
+      newNotification.setUser(testUser);
+      newNotification.setType(NotificationType.SHIPPING_UPDATE);
+      newNotification.setContent("Your order has been shipped");
+      newNotification.setIsRead(false);
+      notificationRepository.save(newNotification);
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    var page = StatementCounter.measure(
+        () -> notificationService.getCurrentUserNotifications(PageRequest.of(0, 10)));
+
+    // Then
+    assertThat(page.result().data()).hasSize(6)
+                                    .allSatisfy(n -> assertThat(n.getUserId())
+                                        .isEqualTo(testUser.getId()));
+    // The current user, the page and possibly its count
+    assertThatStatements(page.statements()).hasNoWrites()
+                                           .hasNoShapeRepeatedMoreThan(1)
+                                           .hasSelectsAtMost(3);
+  }
+
+  @Test
+  @DisplayName("Should mark all notifications as read with a single update")
+  @WithMockUser(username = "testuser")
+  void shouldMarkAllNotificationsAsReadWithSingleUpdate() {
+    // Given
+    for (int i = 0; i < 3; i++) {
+      Notification newNotification = new Notification();
+      newNotification.setUser(testUser);
+      newNotification.setType(NotificationType.SHIPPING_UPDATE);
+      newNotification.setContent("Your order has been shipped");
+      newNotification.setIsRead(false);
+      notificationRepository.save(newNotification);
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    var marked = StatementCounter.measure(() -> notificationService.markAllAsRead());
+
+    // Then
+    assertThat(marked.result()).isEqualTo(4);
+    // The current user, then one bulk update whatever the number of notifications
+    assertThatStatements(marked.statements()).hasUpdates(1)
+                                             .hasInserts(0)
+                                             .hasSelectsAtMost(1);
+  }
+
+  @Test
+  @DisplayName("Should count unread notifications without loading them")
+  @WithMockUser(username = "testuser")
+  void shouldCountUnreadNotificationsWithoutLoadingThem() {
+    // Given
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    var unread = StatementCounter.measure(() -> notificationService.countUnreadNotifications());
+
+    // Then
+    assertThat(unread.result()).isEqualTo(1);
+    // The current user and the count
+    assertThatStatements(unread.statements()).hasNoWrites().hasSelects(2);
+  }
 }
@@ -22,6 +22,7 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.mapper.NotificationMappe
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.NotificationRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationDispatcher;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.WebSocketService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl.NotificationServiceImpl;
 import java.util.ArrayList;
@@ -60,6 +61,9 @@ class NotificationServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private NotificationDispatcher notificationDispatcher;
+
   private TestNotificationServiceImpl notificationService;
 
   private User user;
@@ -123,6 +127,7 @@ class NotificationServiceImplTest {
         notificationRepository,
         notificationMapper,
         webSocketService,
+        notificationDispatcher,
         user
     );
 
@@ -245,43 +250,17 @@ class NotificationServiceImplTest {
   }
 
   @Test
-  @DisplayName("Should create notification")
+  @DisplayName("Should hand new notifications to the dispatcher")
   void shouldCreateNotification() {
-    // Given
-    when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
-      Notification savedNotification = invocation.getArgument(0);
-      savedNotification.setId(1L);
-      return savedNotification;
-    });
-    when(notificationRepository.countByUserAndIsReadFalse(user)).thenReturn(1L);
-
-    // Create a DTO for the notification
-    NotificationDTO createdNotificationDTO = new NotificationDTO();
-    createdNotificationDTO.setId(1L);
-    createdNotificationDTO.setUserId(user.getId());
-    createdNotificationDTO.setType(NotificationType.ORDER_CONFIRMATION);
-    createdNotificationDTO.setContent("Your order has been confirmed");
-    createdNotificationDTO.setIsRead(false);
-
-    // Create a DTO for the count notification
-    NotificationDTO countNotificationDTO = new NotificationDTO();
-    countNotificationDTO.setUserId(user.getId());
-    countNotificationDTO.setType(NotificationType.UNREAD_COUNT);
-    countNotificationDTO.setContent("1");
-    countNotificationDTO.setIsRead(true);
-
-    // Mock the mapper to return the created notification DTO
-    when(notificationMapper.toDto(any(Notification.class))).thenReturn(createdNotificationDTO);
-
     // When
     notificationService.createNotification(user, NotificationType.ORDER_CONFIRMATION,
                                            "Your order has been confirmed");
 
     // Then
-    verify(notificationRepository).save(any(Notification.class));
-    verify(notificationRepository).countByUserAndIsReadFalse(user);
-    verify(webSocketService, times(2)).sendNotification(eq(user.getUsername()),
-                                                        any(NotificationDTO.class));
+    verify(notificationDispatcher).enqueue(user, NotificationType.ORDER_CONFIRMATION,
+                                           "Your order has been confirmed");
+    verify(notificationRepository, never()).save(any(Notification.class));
+    verify(webSocketService, never()).sendNotification(any(), any(NotificationDTO.class));
   }
 
   @Test
@@ -307,8 +286,10 @@ class NotificationServiceImplTest {
         NotificationRepository notificationRepository,
         NotificationMapper notificationMapper,
         WebSocketService webSocketService,
+        NotificationDispatcher notificationDispatcher,
         User currentUser) {
-      super(userRepository, notificationRepository, notificationMapper, webSocketService);
+      super(userRepository, notificationRepository, notificationMapper, webSocketService,
+            notificationDispatcher);
       this.currentUser = currentUser;
     }
 
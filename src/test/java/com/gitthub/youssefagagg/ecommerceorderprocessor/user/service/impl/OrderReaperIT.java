@@ -0,0 +1,163 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderItemRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderReaper;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+@Transactional
+class OrderReaperIT {
+
+  @Autowired
+  private OrderReaper orderReaper;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderItemRepository orderItemRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private InventoryRepository inventoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private User testUser;
+  private Product testProduct;
+
+  @BeforeEach
+  void setUp() {
+    orderItemRepository.deleteAll();
+    orderRepository.deleteAll();
+    inventoryRepository.deleteAll();
+    productRepository.deleteAll();
+
+    testUser = new User();
+    testUser.setUsername("testuser");
+    testUser.setEmail("testuser@example.com");
+    testUser.setFirstName("Test");
+    testUser.setLastName("User");
+    // Password must be exactly 60 characters long
+    testUser.setPassword("$2a$10$eDhncK/4cNH2KE.Y51AWpeL8/5TCTWBpxmVhvZuLfCPIb4SLQtEP6");
+    testUser = userRepository.save(testUser);
+
+    testProduct = new Product();
+    testProduct.setName("Test Product");
+    testProduct.setDescription("Test Description");
+    testProduct.setPrice(BigDecimal.valueOf(99.99));
+    testProduct = productRepository.save(testProduct);
+
+    Inventory inventory = new Inventory();
+    inventory.setProduct(testProduct);
+    inventory.setQuantity(10);
+    inventory.setReservedQuantity(0);
+    inventoryRepository.save(inventory);
+  }
+
+  @Test
+  @DisplayName("Should cancel expired pending orders and release their reservations")
+  void shouldCancelExpiredPendingOrders() {
+    // Given
+    Long expired = createPendingOrder(3, Duration.ofHours(2));
+    Long recent = createPendingOrder(2, Duration.ZERO);
+
+    // When
+    orderReaper.reapExpiredOrders();
+
+    // Then
+    assertThat(statusOf(expired)).isEqualTo(OrderStatus.CANCELLED.name());
+    assertThat(statusOf(recent)).isEqualTo(OrderStatus.PENDING.name());
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT reserved_quantity FROM inventory WHERE product_id = ?", Integer.class,
+        testProduct.getId())).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should not cancel expired orders whose payment was authorized or captured")
+  void shouldNotCancelOrdersWithTakenPayment() {
+    // Given
+    Long authorized = createPendingOrder(3, Duration.ofHours(2));
+    Long captured = createPendingOrder(2, Duration.ofHours(2));
+    createPayment(authorized, "AUTHORIZED");
+    createPayment(captured, "COMPLETED");
+
+    // When
+    orderReaper.reapExpiredOrders();
+
+    // Then
+    assertThat(statusOf(authorized)).isEqualTo(OrderStatus.PENDING.name());
+    assertThat(statusOf(captured)).isEqualTo(OrderStatus.PENDING.name());
+    assertThat(jdbcTemplate.queryForObject(
+        "SELECT reserved_quantity FROM inventory WHERE product_id = ?", Integer.class,
+        testProduct.getId())).isEqualTo(5);
+  }
+
+  private void createPayment(Long orderId, String status) {
+    jdbcTemplate.update("INSERT INTO payments (order_id, amount, status, payment_method, "
+                        + "transaction_id, idempotency_key, created_by, last_modified_by, "
+                        + "version) "
+                        + "SELECT id, total_amount, ?, 'Credit Card', ?, ?, 'system', 'system', 0 "
+                        + "FROM orders WHERE id = ?",
+                        status, "auth-" + orderId, UUID.randomUUID().toString(), orderId);
+  }
+
+  private Long createPendingOrder(int quantity, Duration age) {
+    Order order = new Order();
+    order.setUser(testUser);
+    order.setStatus(OrderStatus.PENDING);
+    order.setTotalAmount(testProduct.getPrice().multiply(BigDecimal.valueOf(quantity)));
+    order.setIdempotencyKey(UUID.randomUUID().toString());
+    order = orderRepository.save(order);
+
+    OrderItem item = new OrderItem();
+    item.setOrder(order);
+    item.setProduct(testProduct);
+    item.setQuantity(quantity);
+    item.setPrice(testProduct.getPrice());
+    orderItemRepository.saveAndFlush(item);
+
+    jdbcTemplate.update("UPDATE orders SET created_date = ? WHERE id = ?",
+                        Timestamp.from(Instant.now().minus(age)), order.getId());
+    jdbcTemplate.update("UPDATE inventory SET reserved_quantity = reserved_quantity + ? "
+                        + "WHERE product_id = ?", quantity, testProduct.getId());
+    return order.getId();
+  }
+
+  private String statusOf(Long orderId) {
+    return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class,
+                                       orderId);
+  }
+}
@@ -0,0 +1,176 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.OrderReaperConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderReaper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderReaperTest {
+
+  @Mock
+  private OrderRepository orderRepository;
+
+  @Mock
+  private InventoryRepository inventoryRepository;
+
+  @Mock
+  private SalesRollupService salesRollupService;
+
+  @Mock
+  private NotificationService notificationService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OrderReaperConfig config;
+  private OrderReaper orderReaper;
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    config = new OrderReaperConfig();
+    config.setBatchSize(2);
+    orderReaper = new OrderReaper(orderRepository, inventoryRepository, salesRollupService,
+                                  notificationService, config, transactionManager,
+                                  meterRegistry);
+
+    user = new User();
+    user.setId(1L);
+    user.setUsername("testuser");
+  }
+
+  @Test
+  @DisplayName("Should cancel batches until a batch comes back short")
+  void shouldReapUntilShortBatch() {
+    // Given
+    when(orderRepository.lockExpiredPendingOrderIds(any(Instant.class), eq(2)))
+        .thenReturn(List.of(1L, 2L), List.of(3L));
+    when(inventoryRepository.releaseReservationsForOrders(anyCollection(), anyString(),
+                                                          any(Instant.class)))
+        .thenReturn(2, 1);
+    when(orderRepository.findAllWithUserByIdIn(List.of(1L, 2L)))
+        .thenReturn(List.of(order(1L), order(2L)));
+    when(orderRepository.findAllWithUserByIdIn(List.of(3L))).thenReturn(List.of(order(3L)));
+
+    // When
+    orderReaper.reapExpiredOrders();
+
+    // Then
+    verify(orderRepository).updateStatusByIdIn(eq(List.of(1L, 2L)), eq("CANCELLED"), anyString(),
+                                               any(Instant.class));
+    verify(orderRepository).updateStatusByIdIn(eq(List.of(3L)), eq("CANCELLED"), anyString(),
+                                               any(Instant.class));
+    verify(salesRollupService).recordStatusChange(List.of(1L, 2L), OrderStatus.PENDING,
+                                                  OrderStatus.CANCELLED);
+    verify(salesRollupService).recordStatusChange(List.of(3L), OrderStatus.PENDING,
+                                                  OrderStatus.CANCELLED);
+    verify(notificationService, times(3)).createNotification(
+        eq(user), eq(NotificationType.ORDER_CANCELLATION), anyString());
+    assertThat(meterRegistry.get("order.reaper.cancelled").counter().count()).isEqualTo(3.0);
+    assertThat(meterRegistry.get("order.reaper.inventory.released").counter().count())
+        .isEqualTo(3.0);
+  }
+
+  @Test
+  @DisplayName("Should stop after the configured number of batches per run")
+  void shouldStopAfterMaxBatches() {
+    // Given
+    config.setMaxBatchesPerRun(2);
+    when(orderRepository.lockExpiredPendingOrderIds(any(Instant.class), anyInt()))
+        .thenReturn(List.of(1L, 2L));
+    when(orderRepository.findAllWithUserByIdIn(List.of(1L, 2L)))
+        .thenReturn(List.of(order(1L), order(2L)));
+
+    // When
+    orderReaper.reapExpiredOrders();
+
+    // Then
+    verify(orderRepository, times(2)).lockExpiredPendingOrderIds(any(Instant.class), anyInt());
+    verify(orderRepository, times(2)).updateStatusByIdIn(anyCollection(), anyString(),
+                                                         anyString(), any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Should not touch inventory or orders when nothing has expired")
+  void shouldDoNothingWhenNothingExpired() {
+    // Given
+    when(orderRepository.lockExpiredPendingOrderIds(any(Instant.class), anyInt()))
+        .thenReturn(List.of());
+
+    // When
+    orderReaper.reapExpiredOrders();
+
+    // Then
+    verifyNoInteractions(inventoryRepository, salesRollupService, notificationService);
+    verify(orderRepository, never()).updateStatusByIdIn(anyCollection(), anyString(),
+                                                        anyString(), any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Should not run when disabled")
+  void shouldNotRunWhenDisabled() {
+    // Given
+    config.setEnabled(false);
+
+    // When
+    orderReaper.reapExpiredOrders();
+
+    // Then
+    verifyNoInteractions(orderRepository, inventoryRepository, transactionManager);
+  }
+
+  @Test
+  @DisplayName("Should report how far the oldest pending order is past its TTL")
+  void shouldReportLag() {
+    // Given
+    config.setPendingTtl(Duration.ofMinutes(30));
+    when(orderRepository.findFirstCreatedDateByStatusIn(List.of(OrderStatus.PENDING)))
+        .thenReturn(Instant.now().minus(Duration.ofMinutes(40)));
+
+    // When
+    double lag = meterRegistry.get("order.reaper.lag").gauge().value();
+
+    // Then
+    assertThat(lag).isBetween(599.0, 601.0);
+  }
+
+  private Order order(Long id) {
+    Order order = new Order();
+    order.setId(id);
+    order.setUser(user);
+    order.setStatus(OrderStatus.PENDING);
+    return order;
+  }
+}
@@ -1,25 +1,38 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
 
+import static com.gitthub.youssefagagg.ecommerceorderprocessor.StatementsAssert.assertThatStatements;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCounter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCountingConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.Statements;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderSubmission;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderItemRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderSubmissionRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,10 +42,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.transaction.annotation.Transactional;
 
-@Import(TestcontainersConfiguration.class)
+@Import({TestcontainersConfiguration.class, StatementCountingConfiguration.class})
 @SpringBootTest
 @Transactional
 class OrderServiceIT {
@@ -55,6 +69,15 @@ class OrderServiceIT {
   @Autowired
   private UserRepository userRepository;
 
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private OrderSubmissionRepository orderSubmissionRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
   private User testUser;
   private User testAdminUser;
   private Product testProduct;
@@ -348,6 +371,192 @@ class OrderServiceIT {
     assertThat(updatedInventory.getQuantity()).isEqualTo(9); // 10 - 1
   }
 
+  @Test
+  @DisplayName("Should deliver several orders at once and fulfil their inventory per product")
+  @WithMockUser(username = "testadmin",
+                roles = {"ADMIN"})
+  void shouldUpdateOrderStatusesInBulk() {
+    // Given
+    OrderDTO firstOrder = orderService.createOrder(orderDTO);
+    orderDTO.setIdempotencyKey(UUID.randomUUID().toString());
+    OrderDTO secondOrder = orderService.createOrder(orderDTO);
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(
+        List.of(firstOrder.getId(), secondOrder.getId(), Long.MAX_VALUE), OrderStatus.DELIVERED);
+
+    // Then
+    assertThat(result.getUpdated()).isEqualTo(2);
+    assertThat(result.getNotFound()).isEqualTo(1);
+
+    // Read through JDBC, the bulk update bypasses the persistence context
+    assertThat(jdbcTemplate.queryForList("SELECT status FROM orders WHERE id IN (?, ?)",
+                                         String.class, firstOrder.getId(), secondOrder.getId()))
+        .containsOnly(OrderStatus.DELIVERED.name());
+    assertThat(jdbcTemplate.queryForMap(
+        "SELECT quantity, reserved_quantity FROM inventory WHERE product_id = ?",
+        testProduct.getId()))
+        .containsEntry("quantity", 8)
+        .containsEntry("reserved_quantity", 0);
+  }
+
+  @Test
+  @DisplayName("Should not cancel an order in bulk once part of it has shipped")
+  @WithMockUser(username = "testadmin",
+                roles = {"ADMIN"})
+  void shouldRejectBulkCancellationOfShippedOrder() {
+    // Given
+    OrderItemDTO secondItem = new OrderItemDTO();
+    secondItem.setProductId(testProduct.getId());
+    secondItem.setQuantity(2);
+    orderDTO.getOrderItems().add(secondItem);
+    OrderDTO createdOrder = orderService.createOrder(orderDTO);
+    orderService.updateOrderItemStatuses(
+        createdOrder.getId(),
+        Map.of(createdOrder.getOrderItems().get(0).getId(), OrderItemStatus.SHIPPED));
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(
+        List.of(createdOrder.getId()), OrderStatus.CANCELLED);
+
+    // Then
+    assertThat(result.getRejected()).isEqualTo(1);
+    assertThat(jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?",
+                                           String.class, createdOrder.getId()))
+        .isNotEqualTo(OrderStatus.CANCELLED.name());
+  }
+
+  @Test
+  @DisplayName("Should reject the bulk deliveries short of reserved stock and deliver the rest")
+  @WithMockUser(username = "testadmin",
+                roles = {"ADMIN"})
+  void shouldRejectBulkDeliveryShortOfReservedStock() {
+    // Given
+    OrderDTO shortOrder = orderService.createOrder(orderDTO);
+    Product otherProduct = new Product();
+    otherProduct.setName("Other Product");
+    otherProduct.setDescription("Other Description");
+    otherProduct.setPrice(BigDecimal.TEN);
+    otherProduct = productRepository.save(otherProduct);
+    Inventory otherInventory = new Inventory();
+    otherInventory.setProduct(otherProduct);
+    otherInventory.setQuantity(10);
+    otherInventory.setReservedQuantity(0);
+    otherProduct.setInventory(inventoryRepository.save(otherInventory));
+    productRepository.save(otherProduct);
+    orderDTO.setIdempotencyKey(UUID.randomUUID().toString());
+    orderDTO.getOrderItems().get(0).setProductId(otherProduct.getId());
+    OrderDTO otherOrder = orderService.createOrder(orderDTO);
+    entityManager.flush();
+    jdbcTemplate.update("UPDATE inventory SET reserved_quantity = 0 WHERE product_id = ?",
+                        testProduct.getId());
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(
+        List.of(shortOrder.getId(), otherOrder.getId()), OrderStatus.DELIVERED);
+
+    // Then
+    assertThat(result.getUpdated()).isEqualTo(1);
+    assertThat(result.getRejected()).isEqualTo(1);
+    assertThat(jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?",
+                                           String.class, shortOrder.getId()))
+        .isNotEqualTo(OrderStatus.DELIVERED.name());
+    assertThat(jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?",
+                                           String.class, otherOrder.getId()))
+        .isEqualTo(OrderStatus.DELIVERED.name());
+    assertThat(jdbcTemplate.queryForMap(
+        "SELECT quantity, reserved_quantity FROM inventory WHERE product_id = ?",
+        otherProduct.getId()))
+        .containsEntry("quantity", 9)
+        .containsEntry("reserved_quantity", 0);
+  }
+
+  @Test
+  @DisplayName("Should fail delivering an item when less stock is reserved than it needs")
+  @WithMockUser(username = "testadmin",
+                roles = {"ADMIN"})
+  void shouldFailItemDeliveryShortOfReservedStock() {
+    // Given
+    OrderDTO createdOrder = orderService.createOrder(orderDTO);
+    entityManager.flush();
+    jdbcTemplate.update("UPDATE inventory SET reserved_quantity = 0 WHERE product_id = ?",
+                        testProduct.getId());
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.updateOrderItemStatuses(
+        createdOrder.getId(),
+        Map.of(createdOrder.getOrderItems().get(0).getId(), OrderItemStatus.DELIVERED)))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION);
+  }
+
+  @Test
+  @DisplayName("Should ship an order in parts and move the inventory of each item")
+  @WithMockUser(username = "testadmin",
+                roles = {"ADMIN"})
+  void shouldUpdateOrderItemStatuses() {
+    // Given
+    OrderItemDTO secondItem = new OrderItemDTO();
+    secondItem.setProductId(testProduct.getId());
+    secondItem.setQuantity(2);
+    orderDTO.getOrderItems().add(secondItem);
+    OrderDTO createdOrder = orderService.createOrder(orderDTO);
+    Long firstItemId = createdOrder.getOrderItems().get(0).getId();
+    Long secondItemId = createdOrder.getOrderItems().get(1).getId();
+    assertThat(createdOrder.getOrderItems()).extracting(OrderItemDTO::getStatus)
+                                            .containsOnly(OrderItemStatus.RESERVED);
+
+    // When: the first item is delivered
+    OrderDTO partial = orderService.updateOrderItemStatuses(
+        createdOrder.getId(), Map.of(firstItemId, OrderItemStatus.DELIVERED));
+
+    // Then: only its quantity leaves the stock
+    assertThat(partial.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+    assertThat(jdbcTemplate.queryForMap(
+        "SELECT quantity, reserved_quantity FROM inventory WHERE product_id = ?",
+        testProduct.getId()))
+        .containsEntry("quantity", 9)
+        .containsEntry("reserved_quantity", 2);
+
+    // When: the second item is cancelled
+    OrderDTO result = orderService.updateOrderItemStatuses(
+        createdOrder.getId(), Map.of(secondItemId, OrderItemStatus.CANCELLED));
+
+    // Then: its reservation is released and the order is delivered
+    assertThat(result.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+    assertThat(jdbcTemplate.queryForList("SELECT status FROM order_items WHERE order_id = ? "
+                                         + "ORDER BY id", String.class, createdOrder.getId()))
+        .containsExactly(OrderItemStatus.DELIVERED.name(), OrderItemStatus.CANCELLED.name());
+    Inventory inventory = inventoryRepository.findByProduct(testProduct).orElseThrow();
+    assertThat(inventory.getQuantity()).isEqualTo(9);
+    assertThat(inventory.getReservedQuantity()).isEqualTo(0);
+  }
+
+  @Test
+  @DisplayName("Should queue a submitted order and process it with the order creation steps")
+  @WithMockUser(username = "testuser")
+  void shouldSubmitAndProcessOrder() {
+    // Given
+    OrderDTO submitted = orderService.submitOrder(orderDTO);
+    assertThat(submitted.getStatus()).isEqualTo(OrderStatus.PENDING);
+    assertThat(orderService.getOrderStatus(submitted.getId())).isEqualTo(OrderStatus.PENDING);
+    OrderSubmission submission = orderSubmissionRepository.findAll().stream()
+                                                          .filter(s -> s.getOrderId().equals(
+                                                              submitted.getId()))
+                                                          .findFirst()
+                                                          .orElseThrow();
+
+    // When
+    OrderDTO processed = orderService.processSubmittedOrder(submitted.getId(),
+                                                            submission.getItems());
+
+    // Then
+    assertThat(processed.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+    assertThat(processed.getOrderItems()).hasSize(1);
+    Inventory inventory = inventoryRepository.findByProduct(testProduct).orElseThrow();
+    assertThat(inventory.getReservedQuantity()).isEqualTo(1);
+  }
+
   // These tests are now covered by more focused tests:
   // shouldVerifyInventoryAfterCancellation
   // shouldVerifyInventoryAfterPaidStatus
@@ -403,4 +612,81 @@ class OrderServiceIT {
     assertThat(inventoryAfterShipped.getAvailableQuantity()).isEqualTo(9);
   }
 
+  @Test
+  @DisplayName("Should read a page of orders without a statement per order")
+  @WithMockUser(username = "testadmin",
+                roles = {"ADMIN"})
+  void shouldReadOrderPageWithoutStatementPerOrder() {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      orderDTO.setIdempotencyKey(UUID.randomUUID().toString());
+      orderService.createOrder(orderDTO);
+    }
+    // Start from an empty persistence context, as a new request would
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    StatementCounter.Measured<PaginationResponse<OrderDTO>> page = StatementCounter.measure(
+        () -> orderService.getAllOrders(PageRequest.of(0, 10)));
+
+    // Then
+    assertThat(page.result().data()).hasSize(5)
+                                    .allSatisfy(order -> assertThat(order.getOrderItems())
+                                        .hasSize(1));
+    // The orders, then their items, products and users in one batch each
+    assertThatStatements(page.statements()).hasNoWrites()
+                                           .hasNoShapeRepeatedMoreThan(1)
+                                           .hasSelectsAtMost(6);
+  }
+
+  @Test
+  @DisplayName("Should create an order with the same selects whatever its number of items")
+  @WithMockUser(username = "testuser")
+  void shouldCreateOrderWithSelectsIndependentOfItems() {
+    // Given
+    List<OrderItemDTO> threeItems = new ArrayList<>(orderDTO.getOrderItems());
+    for (int i = 0; i < 2; i++) {
+      threeItems.add(OrderItemDTO.builder()
+                                 .productId(createProduct("Other Product " + i).getId())
+                                 .quantity(1)
+                                 .build());
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    Statements oneItem = StatementCounter.measure(() -> {
+      orderService.createOrder(orderDTO);
+      entityManager.flush();
+    });
+    entityManager.clear();
+
+    orderDTO.setIdempotencyKey(UUID.randomUUID().toString());
+    orderDTO.setOrderItems(threeItems);
+    Statements threeItemStatements = StatementCounter.measure(() -> {
+      orderService.createOrder(orderDTO);
+      entityManager.flush();
+    });
+
+    // Then
+    // Products are read in one select; each extra item costs its insert and inventory update
+    assertThatStatements(threeItemStatements)
+        .hasSelects(oneItem.count(Statements.Type.SELECT))
+        .hasCountAtMost(oneItem.count() + 2 * 2);
+  }
+
+  private Product createProduct(String name) {
+    Product product = productRepository.save(Product.builder()
+                                                    .name(name)
+                                                    .description("Test Description")
+                                                    .price(BigDecimal.valueOf(19.99))
+                                                    .build());
+    inventoryRepository.save(Inventory.builder()
+                                      .product(product)
+                                      .quantity(10)
+                                      .reservedQuantity(0)
+                                      .build());
+    return product;
+  }
 }
@@ -3,24 +3,40 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutValidator;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.checkout.CheckoutVerdict;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.CheckoutConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ConflictRetryConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.HotKeysConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.HotKeyDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaymentDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.NotificationType;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderSubmission;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Role;
@@ -35,42 +51,64 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.mapper.OrderMapperImpl;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderItemRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderSubmissionRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.retry.ConflictRetryInterceptor;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.security.AuthoritiesRole;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.security.SecurityUtils;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.AuditService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.HotKeyTracker;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderPipelineMetrics;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.PaymentService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.WebSocketService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl.OrderServiceImpl;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.util.KeyLockManager;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import java.math.BigDecimal;
-import java.sql.Date;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+import org.aopalliance.intercept.MethodInterceptor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 @ExtendWith(MockitoExtension.class)
 @ExtendWith(SpringExtension.class)
@@ -82,6 +120,10 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 class OrderServiceImplTest {
 
   private final KeyLockManager keyLockManager = new KeyLockManager();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final HotKeyTracker hotKeyTracker =
+      new HotKeyTracker(new HotKeysConfig(), event -> { }, meterRegistry);
+  private final List<CheckoutValidator> checkoutValidators = new ArrayList<>();
   private MockedStatic<SecurityUtils> securityUtilsMock;
   @Autowired
   private OrderMapper orderMapper;
@@ -105,6 +147,12 @@ class OrderServiceImplTest {
   private PaymentService paymentService;
   @Mock
   private NotificationService notificationService;
+  @Mock
+  private SalesRollupService salesRollupService;
+  @Mock
+  private OrderSubmissionRepository orderSubmissionRepository;
+  @Mock
+  private PlatformTransactionManager transactionManager;
   private TestOrderServiceImpl orderService;
 
   private User user;
@@ -229,10 +277,50 @@ class OrderServiceImplTest {
         paymentService,
         notificationService,
         keyLockManager,
+        salesRollupService,
+        orderSubmissionRepository,
+        transactionManager,
+        pipelineMetrics(),
+        hotKeyTracker,
+        checkoutValidators,
         user
     );
   }
 
+  private OrderPipelineMetrics pipelineMetrics() {
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+    observationRegistry.observationConfig()
+                       .observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+    return new OrderPipelineMetrics(observationRegistry, meterRegistry);
+  }
+
+  /**
+   * Run every call in a stand-in transaction that commits when the call returns
+   */
+  private static MethodInterceptor transactionPerAttempt() {
+    return invocation -> {
+      TransactionSynchronizationManager.initSynchronization();
+      try {
+        Object result = invocation.proceed();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        return result;
+      } finally {
+        TransactionSynchronizationManager.clearSynchronization();
+      }
+    };
+  }
+
+  /**
+   * Let the mocked repository apply item status changes to the items, like the real one does
+   */
+  private void applyItemStatusChanges() {
+    doAnswer(invocation -> {
+      Map<OrderItem, OrderItemStatus> changes = invocation.getArgument(0);
+      changes.forEach(OrderItem::setStatus);
+      return null;
+    }).when(orderItemRepository).updateStatuses(any());
+  }
+
   @AfterEach
   void tearDown() {
     if (securityUtilsMock != null) {
@@ -262,7 +350,8 @@ class OrderServiceImplTest {
       savedOrderItem.setId(1L); // Simulate generated ID
       return savedOrderItem;
     });
-    when(paymentService.processPayment(any(PaymentDTO.class))).thenReturn(paymentDTO);
+    when(paymentService.processOrderPayment(any(Order.class), anyString(), anyString()))
+        .thenReturn(paymentDTO);
 
 
     // When
@@ -273,10 +362,156 @@ class OrderServiceImplTest {
     verify(orderRepository, times(4)).save(any(Order.class));
     verify(inventoryRepository).save(any(Inventory.class));
     verify(orderItemRepository).save(any(OrderItem.class));
-    verify(paymentService).processPayment(any(PaymentDTO.class));
+    verify(paymentService).processOrderPayment(any(Order.class), anyString(), anyString());
     verify(notificationService).createNotification(any(User.class), any(), anyString());
     verify(auditService).createLogAsync(anyString(), anyLong(), any(Order.class));
     verify(webSocketService).sendOrderStatusUpdate(eq("testuser"), any(OrderDTO.class));
+
+    // Every stage is timed once, under a successful order with one item
+    assertThat(meterRegistry.get("order.create").tag("outcome", "success").tag("items", "1")
+                            .timer().count()).isEqualTo(1);
+    for (OrderPipelineMetrics.Stage stage : OrderPipelineMetrics.Stage.values()) {
+      String tag = stage.name().toLowerCase(Locale.ROOT);
+      assertThat(meterRegistry.get("order.create.stage").tag("stage", tag)
+                              .tag("outcome", "success").timer().count()).isEqualTo(1);
+      assertThat(meterRegistry.get("order.create.stage.statements").tag("stage", tag)
+                              .summary().count()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  @DisplayName("Should create a pending order and queue it when an order is submitted")
+  void shouldSubmitOrder() {
+    // Given
+    when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+      Order savedOrder = invocation.getArgument(0);
+      savedOrder.setId(1L);
+      return savedOrder;
+    });
+
+    // When
+    OrderDTO result = orderService.submitOrder(orderDTO);
+
+    // Then
+    assertThat(result.getId()).isEqualTo(1L);
+    assertThat(result.getStatus()).isEqualTo(OrderStatus.PENDING);
+
+    ArgumentCaptor<OrderSubmission> submission = ArgumentCaptor.forClass(OrderSubmission.class);
+    verify(orderSubmissionRepository).save(submission.capture());
+    assertThat(submission.getValue().getOrderId()).isEqualTo(1L);
+    assertThat(submission.getValue().getItems()).isEqualTo(orderDTO.getOrderItems());
+    verify(salesRollupService, never()).recordStatusChange(anyCollection(), any(), any());
+    verify(productRepository, never()).findByIdInWithInventory(any());
+    verify(paymentService, never()).processOrderPayment(any(Order.class), anyString(),
+                                                        anyString());
+  }
+
+  @Test
+  @DisplayName("Should refuse to process a submitted order that is no longer pending")
+  void shouldNotProcessSubmittedOrderThatIsNoLongerPending() {
+    // Given
+    order.getOrderItems().clear();
+    order.setStatus(OrderStatus.CANCELLED);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.processSubmittedOrder(order.getId(),
+                                                                List.of(orderItemDTO)))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+    verify(paymentService, never()).processOrderPayment(any(Order.class), anyString(),
+                                                        anyString());
+  }
+
+  @Test
+  @DisplayName("Should cancel a rejected submitted order and tell the user why")
+  void shouldRejectSubmittedOrder() {
+    // Given
+    order.getOrderItems().clear();
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    when(orderRepository.save(any(Order.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+
+    // When
+    boolean rejected = orderService.rejectSubmittedOrder(order.getId(), "Not enough inventory");
+
+    // Then
+    assertThat(rejected).isTrue();
+    assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    verify(salesRollupService).recordStatusChange(List.of(order.getId()), null,
+                                                  OrderStatus.CANCELLED);
+    verify(notificationService).createNotification(
+        user, NotificationType.ORDER_CANCELLATION,
+        "Your order #1 could not be placed: Not enough inventory");
+    verify(webSocketService).sendOrderStatusUpdate(eq("testuser"), any(OrderDTO.class));
+  }
+
+  @Test
+  @DisplayName("Should resume a submitted order whose items an earlier attempt reserved")
+  void shouldResumeReservedSubmittedOrder() {
+    // Given
+    order.setIdempotencyKey(orderDTO.getIdempotencyKey());
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    when(orderRepository.save(any(Order.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    when(paymentService.processOrderPayment(order, "Credit Card", order.getIdempotencyKey()))
+        .thenReturn(paymentDTO);
+
+    // When
+    OrderDTO result = orderService.processSubmittedOrder(order.getId(), List.of(orderItemDTO));
+
+    // Then
+    assertThat(result.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+    verify(productRepository, never()).findByIdInWithInventory(any());
+    verify(orderItemRepository, never()).save(any(OrderItem.class));
+    verify(salesRollupService).recordStatusChange(List.of(order.getId()), OrderStatus.PENDING,
+                                                  OrderStatus.PROCESSING);
+    verify(salesRollupService, never()).recordStatusChange(List.of(order.getId()), null,
+                                                           OrderStatus.PENDING);
+  }
+
+  @Test
+  @DisplayName("Should cancel a rejected submitted order with reserved items through its lifecycle")
+  void shouldReleaseReservedItemsOfRejectedSubmittedOrder() {
+    // Given
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    when(orderRepository.save(any(Order.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    applyItemStatusChanges();
+    when(inventoryRepository.findAllByOrderIds(List.of(order.getId()))).thenReturn(
+        List.of(inventory));
+
+    // When
+    boolean rejected = orderService.rejectSubmittedOrder(order.getId(), "timeout");
+
+    // Then
+    assertThat(rejected).isTrue();
+    assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    verify(orderItemRepository).updateStatuses(Map.of(orderItem, OrderItemStatus.CANCELLED));
+    verify(paymentService).requestRefunds(List.of(order.getId()));
+    verify(salesRollupService).recordStatusChange(List.of(order.getId()), OrderStatus.PENDING,
+                                                  OrderStatus.CANCELLED);
+    verify(notificationService).createNotification(eq(user),
+                                                   eq(NotificationType.ORDER_CANCELLATION),
+                                                   anyString());
+    verify(webSocketService).sendOrderStatusUpdate(eq("testuser"), any(OrderDTO.class));
+  }
+
+  @Test
+  @DisplayName("Should not reject a submitted order that was processed meanwhile")
+  void shouldNotRejectProcessedSubmittedOrder() {
+    // Given
+    order.setStatus(OrderStatus.PROCESSING);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+    // When
+    boolean rejected = orderService.rejectSubmittedOrder(order.getId(), "timeout");
+
+    // Then
+    assertThat(rejected).isFalse();
+    assertThat(order.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+    verify(orderRepository, never()).save(any(Order.class));
+    verify(notificationService, never()).createNotification(any(), any(), anyString());
   }
 
   @Test
@@ -300,6 +535,131 @@ class OrderServiceImplTest {
     verify(orderRepository).save(any(Order.class));
     verify(inventoryRepository, never()).save(any(Inventory.class));
     verify(orderItemRepository, never()).save(any(OrderItem.class));
+    assertThat(meterRegistry.get("order.inventory.shortages").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("order.create").tag("outcome", "rejected").timer().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("order.create.stage").tag("stage", "add_items")
+                            .tag("outcome", "rejected").timer().count()).isEqualTo(1);
+    assertThat(hotKeyTracker.getHotKeys(HotKeyTracker.Category.INVENTORY_CONFLICT))
+        .extracting(HotKeyDTO::getKey)
+        .containsExactly(String.valueOf(product.getId()));
+  }
+
+  @Test
+  @DisplayName("Should reject an order a checkout validator does not approve before writing it")
+  void shouldRejectOrderFailingCheckoutValidation() {
+    // Given
+    checkoutValidators.add(new CheckoutValidator() {
+      @Override
+      public String getName() {
+        return "fraud";
+      }
+
+      @Override
+      public CheckoutVerdict validate(CheckoutRequest request) {
+        return CheckoutVerdict.rejected("Too risky");
+      }
+    });
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.createOrder(orderDTO))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.CHECKOUT_REJECTED);
+
+    verify(orderRepository, never()).save(any(Order.class));
+    verify(productRepository, never()).findByIdInWithInventory(any());
+    assertThat(meterRegistry.get("order.checkout.validation").tag("validator", "fraud")
+                            .tag("outcome", "rejected").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("order.create.stage").tag("stage", "prepare")
+                            .tag("outcome", "rejected").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should reject an order whose idempotency key was already used")
+  void shouldRejectDuplicateOrder() {
+    // Given
+    when(orderRepository.existsByIdempotencyKey(orderDTO.getIdempotencyKey())).thenReturn(true);
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.createOrder(orderDTO))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DUPLICATE_ORDER);
+
+    verify(orderRepository, never()).save(any(Order.class));
+    verify(paymentService, never()).processOrderPayment(any(Order.class), anyString(),
+                                                        anyString());
+  }
+
+  @Test
+  @DisplayName("Should check the idempotency key on the calling thread and interrupt only the "
+               + "validators")
+  void shouldKeepLookupsOnCallingThread() {
+    // Given
+    Thread caller = Thread.currentThread();
+    AtomicReference<Thread> lookupThread = new AtomicReference<>();
+    AtomicBoolean interrupted = new AtomicBoolean();
+    checkoutValidators.add(new CheckoutValidator() {
+      @Override
+      public String getName() {
+        return "fraud";
+      }
+
+      @Override
+      public CheckoutVerdict validate(CheckoutRequest request) {
+        try {
+          Thread.sleep(Duration.ofSeconds(30));
+        } catch (InterruptedException e) {
+          interrupted.set(true);
+          Thread.currentThread().interrupt();
+        }
+        return CheckoutVerdict.approved();
+      }
+    });
+    when(orderRepository.existsByIdempotencyKey(orderDTO.getIdempotencyKey())).thenAnswer(
+        invocation -> {
+          lookupThread.set(Thread.currentThread());
+          return true;
+        });
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.createOrder(orderDTO))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DUPLICATE_ORDER);
+    assertThat(lookupThread.get()).isSameAs(caller);
+    assertThat(interrupted).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should validate a submitted order before pricing it")
+  void shouldValidateSubmittedOrder() {
+    // Given
+    order.getOrderItems().clear();
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    List<CheckoutRequest> requests = new CopyOnWriteArrayList<>();
+    checkoutValidators.add(new CheckoutValidator() {
+      @Override
+      public String getName() {
+        return "fraud";
+      }
+
+      @Override
+      public CheckoutVerdict validate(CheckoutRequest request) {
+        requests.add(request);
+        return CheckoutVerdict.rejected("Too risky");
+      }
+    });
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.processSubmittedOrder(order.getId(),
+                                                                List.of(orderItemDTO)))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.CHECKOUT_REJECTED);
+    assertThat(requests).singleElement().satisfies(request -> {
+      assertThat(request.username()).isEqualTo("testuser");
+      assertThat(request.items()).containsExactly(orderItemDTO);
+    });
+    verify(productRepository, never()).findByIdInWithInventory(any());
+    verify(salesRollupService, never()).recordStatusChange(anyCollection(), any(), any());
   }
 
   @Test
@@ -448,7 +808,9 @@ class OrderServiceImplTest {
       order.setStatus(OrderStatus.CANCELLED);
       return order;
     });
-    when(inventoryRepository.findByProduct(product)).thenReturn(Optional.of(inventory));
+    applyItemStatusChanges();
+    when(inventoryRepository.findAllByOrderIds(List.of(order.getId()))).thenReturn(
+        List.of(inventory));
 
     // When
     OrderDTO result = orderService.cancelOrder(order.getId());
@@ -459,8 +821,12 @@ class OrderServiceImplTest {
 
     verify(orderRepository).findById(order.getId());
     verify(orderRepository).save(order);
-    verify(inventoryRepository).findByProduct(product);
-    verify(inventoryRepository).save(inventory);
+    verify(orderItemRepository).updateStatuses(Map.of(orderItem, OrderItemStatus.CANCELLED));
+    assertThat(orderItem.getStatus()).isEqualTo(OrderItemStatus.CANCELLED);
+    verify(webSocketService).sendInventoryUpdate(any());
+    verify(salesRollupService).recordStatusChange(List.of(order.getId()), OrderStatus.PENDING,
+                                                  OrderStatus.CANCELLED);
+    verify(paymentService).requestRefunds(List.of(order.getId()));
     verify(notificationService).createNotification(any(User.class), any(), anyString());
     verify(auditService).updateLogAsync(anyString(), anyLong(), anyString(), any(Order.class),
                                         any(Order.class));
@@ -495,10 +861,12 @@ class OrderServiceImplTest {
     // When/Then
     assertThatThrownBy(() -> orderService.cancelOrder(order.getId()))
         .isInstanceOf(CustomException.class)
-        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION);
 
     verify(orderRepository).findById(order.getId());
     verify(orderRepository, never()).save(any(Order.class));
+    verify(inventoryRepository, never()).save(any(Inventory.class));
+    verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
   }
 
   @Test
@@ -524,6 +892,8 @@ class OrderServiceImplTest {
 
     verify(orderRepository).findById(order.getId());
     verify(orderRepository).save(order);
+    verify(salesRollupService).recordStatusChange(List.of(order.getId()), OrderStatus.PENDING,
+                                                  newStatus);
     verify(auditService).updateLogAsync(anyString(), anyLong(), anyString(), any(Order.class),
                                         any(Order.class));
     verify(webSocketService).sendOrderStatusUpdate(eq("testuser"), any(OrderDTO.class));
@@ -531,6 +901,387 @@ class OrderServiceImplTest {
                                                         any(OrderStatus.class));
   }
 
+  @Test
+  @DisplayName("Should notify and audit once when a status change is retried after a conflict")
+  void shouldNotifyOnceAfterConflictRetry() {
+    // Given: the first attempt loses a conflict when it flushes, the retry reads the order again
+    Order reloaded = order.cloneObject();
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order),
+                                                             Optional.of(reloaded));
+    when(orderRepository.save(any(Order.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    doThrow(new OptimisticLockingFailureException("Order was updated concurrently"))
+        .doNothing()
+        .when(orderRepository).flush();
+    ConflictRetryConfig retryConfig = new ConflictRetryConfig();
+    retryConfig.setInitialBackoff(Duration.ofMillis(1));
+    retryConfig.setMaxBackoff(Duration.ofMillis(2));
+    ProxyFactory factory = new ProxyFactory(orderService);
+    factory.addAdvice(new ConflictRetryInterceptor(() -> retryConfig, () -> meterRegistry));
+    factory.addAdvice(transactionPerAttempt());
+    OrderService service = (OrderService) factory.getProxy();
+
+    // When
+    OrderDTO result = service.updateOrderStatus(order.getId(), OrderStatus.PAID);
+
+    // Then
+    assertThat(result.getStatus()).isEqualTo(OrderStatus.PAID);
+    verify(orderRepository, times(2)).flush();
+    verify(notificationService, times(1)).createNotification(
+        eq(user), eq(NotificationType.PAYMENT_CONFIRMATION), anyString());
+    verify(auditService, times(1)).updateLogAsync(anyString(), anyLong(), anyString(),
+                                                  any(Order.class), any(Order.class));
+  }
+
+  @Test
+  @DisplayName("Should reject a status change the order lifecycle does not allow")
+  void shouldRejectInvalidStatusTransition() {
+    // Given
+    order.setStatus(OrderStatus.SHIPPED);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.updateOrderStatus(order.getId(), OrderStatus.PAID))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION)
+        .hasMessageContaining("Cannot change status from SHIPPED to PAID");
+
+    assertThat(order.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+    verify(orderRepository, never()).save(any(Order.class));
+    verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
+    verify(auditService, never()).updateLogAsync(anyString(), anyLong(), anyString(), any(),
+                                                 any());
+  }
+
+  @Test
+  @DisplayName("Should not ship an order without items")
+  void shouldRejectShippingOrderWithoutItems() {
+    // Given
+    order.getOrderItems().clear();
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.updateOrderStatus(order.getId(), OrderStatus.SHIPPED))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION)
+        .hasMessageContaining("the order has no items");
+
+    assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+    verify(orderRepository, never()).save(any(Order.class));
+  }
+
+  @Test
+  @DisplayName("Should fulfil the inventory of an order when it is delivered")
+  void shouldFulfillInventoryWhenDelivered() {
+    // Given
+    order.setStatus(OrderStatus.SHIPPED);
+    orderItem.setStatus(OrderItemStatus.SHIPPED);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    when(orderRepository.save(any(Order.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    applyItemStatusChanges();
+    when(inventoryRepository.findAllByOrderIds(List.of(order.getId()))).thenReturn(
+        List.of(inventory));
+
+    // When
+    OrderDTO result = orderService.updateOrderStatus(order.getId(), OrderStatus.DELIVERED);
+
+    // Then
+    assertThat(result.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+    assertThat(result.getOrderItems()).extracting(OrderItemDTO::getStatus)
+                                      .containsExactly(OrderItemStatus.DELIVERED);
+    verify(orderItemRepository).updateStatuses(Map.of(orderItem, OrderItemStatus.DELIVERED));
+    verify(webSocketService).sendInventoryUpdate(any());
+    verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
+    verify(auditService).updateLogAsync(eq("Order"), eq(order.getId()),
+                                        eq("Status changed from SHIPPED to DELIVERED"),
+                                        any(Order.class), any(Order.class));
+  }
+
+  @Test
+  @DisplayName("Should ship an order in parts and derive the order status from its items")
+  void shouldShipOrderInParts() {
+    // Given
+    OrderItem secondItem = new OrderItem();
+    secondItem.setId(2L);
+    secondItem.setOrder(order);
+    secondItem.setProduct(product);
+    secondItem.setQuantity(2);
+    secondItem.setPrice(BigDecimal.valueOf(99.99));
+    order.getOrderItems().add(secondItem);
+    order.setStatus(OrderStatus.PAID);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    when(orderRepository.save(any(Order.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    applyItemStatusChanges();
+
+    // When: the first item ships
+    OrderDTO partial = orderService.updateOrderItemStatuses(
+        order.getId(), Map.of(orderItem.getId(), OrderItemStatus.SHIPPED));
+
+    // Then: the order is being processed
+    assertThat(partial.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+    assertThat(partial.getOrderItems()).extracting(OrderItemDTO::getStatus)
+                                       .containsExactly(OrderItemStatus.SHIPPED,
+                                                        OrderItemStatus.RESERVED);
+    verify(orderItemRepository).updateStatuses(Map.of(orderItem, OrderItemStatus.SHIPPED));
+    verify(salesRollupService).recordStatusChange(List.of(order.getId()), OrderStatus.PAID,
+                                                  OrderStatus.PROCESSING);
+
+    // When: the second item ships
+    OrderDTO shipped = orderService.updateOrderItemStatuses(
+        order.getId(), Map.of(secondItem.getId(), OrderItemStatus.SHIPPED));
+
+    // Then: the order has shipped, without moving its items again
+    assertThat(shipped.getStatus()).isEqualTo(OrderStatus.SHIPPED);
+    verify(orderItemRepository).updateStatuses(Map.of(secondItem, OrderItemStatus.SHIPPED));
+    verify(orderItemRepository, times(2)).updateStatuses(any());
+    verify(notificationService).createNotification(eq(user), eq(NotificationType.SHIPPING_UPDATE),
+                                                   anyString());
+    verify(inventoryRepository, never()).findAllByOrderIds(any());
+  }
+
+  @Test
+  @DisplayName("Should cancel an order once all of its items are cancelled")
+  void shouldCancelOrderWhenAllItemsAreCancelled() {
+    // Given
+    order.setStatus(OrderStatus.PROCESSING);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+    when(orderRepository.save(any(Order.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    applyItemStatusChanges();
+    when(inventoryRepository.findAllByOrderIds(List.of(order.getId()))).thenReturn(
+        List.of(inventory));
+
+    // When
+    OrderDTO result = orderService.updateOrderItemStatuses(
+        order.getId(), Map.of(orderItem.getId(), OrderItemStatus.CANCELLED));
+
+    // Then
+    assertThat(result.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    verify(orderItemRepository, times(1)).updateStatuses(any());
+    verify(webSocketService).sendInventoryUpdate(any());
+    verify(notificationService).createNotification(eq(user),
+                                                   eq(NotificationType.ORDER_CANCELLATION),
+                                                   anyString());
+  }
+
+  @Test
+  @DisplayName("Should reject item changes the item lifecycle does not allow")
+  void shouldRejectInvalidItemStatusChange() {
+    // Given
+    orderItem.setStatus(OrderItemStatus.SHIPPED);
+    order.setStatus(OrderStatus.PROCESSING);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.updateOrderItemStatuses(
+        order.getId(), Map.of(orderItem.getId(), OrderItemStatus.CANCELLED)))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION);
+    assertThatThrownBy(() -> orderService.updateOrderItemStatuses(
+        order.getId(), Map.of(99L, OrderItemStatus.SHIPPED)))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ENTITY_NOT_FOUND);
+
+    verify(orderItemRepository, never()).updateStatuses(any());
+    verify(orderRepository, never()).save(any(Order.class));
+  }
+
+  @Test
+  @DisplayName("Should not cancel an order once part of it has shipped")
+  void shouldRejectCancellingPartiallyShippedOrder() {
+    // Given
+    orderItem.setStatus(OrderItemStatus.SHIPPED);
+    order.setStatus(OrderStatus.PROCESSING);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.cancelOrder(order.getId()))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION)
+        .hasMessageContaining("part of the order has already shipped");
+    verify(orderItemRepository, never()).updateStatuses(any());
+  }
+
+  @Test
+  @DisplayName("Should release the inventory of orders cancelled in bulk")
+  void shouldReleaseInventoryForBulkCancellation() {
+    // Given
+    when(orderRepository.lockStatusesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+        new Object[] {1L, "PAID", 1L, "RESERVED"},
+        new Object[] {2L, "SHIPPED", 1L, "SHIPPED"}));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+    when(inventoryRepository.findAllByOrderIds(List.of(1L))).thenReturn(List.of(inventory));
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(List.of(1L, 2L),
+                                                                       OrderStatus.CANCELLED);
+
+    // Then
+    assertThat(result.getUpdated()).isEqualTo(1);
+    assertThat(result.getRejected()).isEqualTo(1);
+    verify(inventoryRepository).releaseReservationsForOrders(eq(List.of(1L)), eq("testuser"),
+                                                             any(Instant.class));
+    verify(paymentService, never()).requestRefunds(anyCollection());
+    verify(webSocketService).sendInventoryUpdate(any());
+    verify(notificationService).createNotification(eq(user),
+                                                   eq(NotificationType.ORDER_CANCELLATION),
+                                                   anyString());
+  }
+
+  @Test
+  @DisplayName("Should not cancel orders in bulk once part of them has shipped")
+  void shouldRejectBulkCancellationOfShippedOrders() {
+    // Given
+    when(orderRepository.lockStatusesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+        new Object[] {1L, "PAID", 1L, "RESERVED"},
+        new Object[] {2L, "PROCESSING", 1L, "RESERVED,SHIPPED"}));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+    when(inventoryRepository.findAllByOrderIds(List.of(1L))).thenReturn(List.of(inventory));
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(List.of(1L, 2L),
+                                                                       OrderStatus.CANCELLED);
+
+    // Then
+    assertThat(result.getUpdated()).isEqualTo(1);
+    assertThat(result.getResults()).extracting(OrderStatusResultDTO::getOutcome)
+                                   .containsExactly(OrderStatusResultDTO.Outcome.UPDATED,
+                                                    OrderStatusResultDTO.Outcome.REJECTED);
+    assertThat(result.getResults().get(1).getMessage())
+        .contains("part of the order has already shipped");
+    verify(orderRepository).updateStatusByIdIn(eq(List.of(1L)), eq("CANCELLED"), eq("testuser"),
+                                               any(Instant.class));
+    verify(inventoryRepository).releaseReservationsForOrders(eq(List.of(1L)), eq("testuser"),
+                                                             any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Should update the status of several orders with one update and report each order")
+  void shouldUpdateOrderStatusesInBulk() {
+    // Given
+    when(orderRepository.lockStatusesByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+        new Object[] {1L, "PROCESSING", 1L, "RESERVED"},
+        new Object[] {2L, "CANCELLED", 1L, "CANCELLED"}));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(List.of(1L, 2L, 3L, 1L),
+                                                                       OrderStatus.SHIPPED);
+
+    // Then
+    assertThat(result.getUpdated()).isEqualTo(1);
+    assertThat(result.getRejected()).isEqualTo(1);
+    assertThat(result.getNotFound()).isEqualTo(1);
+    assertThat(result.getResults()).extracting(OrderStatusResultDTO::getOutcome)
+                                   .containsExactly(OrderStatusResultDTO.Outcome.UPDATED,
+                                                    OrderStatusResultDTO.Outcome.REJECTED,
+                                                    OrderStatusResultDTO.Outcome.NOT_FOUND);
+
+    verify(orderRepository).updateStatusByIdIn(eq(List.of(1L)), eq("SHIPPED"), eq("testuser"),
+                                               any(Instant.class));
+    verify(salesRollupService).recordStatusChange(List.of(1L), OrderStatus.PROCESSING,
+                                                  OrderStatus.SHIPPED);
+    verify(notificationService).createNotification(eq(user), eq(NotificationType.SHIPPING_UPDATE),
+                                                   anyString());
+    verify(auditService).updateLogsAsync("Order",
+                                         Map.of(1L, "Status changed from PROCESSING to SHIPPED"));
+    verify(webSocketService).sendOrderStatusChangeEvents(List.of(
+        new WebSocketService.OrderStatusChangeEvent(1L, OrderStatus.PROCESSING,
+                                                    OrderStatus.SHIPPED)));
+    verify(orderItemRepository).shipItemsForOrders(eq(List.of(1L)), eq("testuser"),
+                                                   any(Instant.class));
+    verify(inventoryRepository, never()).fulfillReservationsForOrders(any(), anyString(),
+                                                                      any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Should fulfil the inventory of delivered orders once per product")
+  void shouldFulfillInventoryForBulkDelivery() {
+    // Given
+    when(orderRepository.lockStatusesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+        new Object[] {1L, "SHIPPED", 1L, "SHIPPED"},
+        new Object[] {2L, "SHIPPED", 1L, "SHIPPED"}));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+    when(inventoryRepository.findAllByOrderIds(List.of(1L, 2L))).thenReturn(List.of(inventory));
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(List.of(1L, 2L),
+                                                                       OrderStatus.DELIVERED);
+
+    // Then
+    assertThat(result.getUpdated()).isEqualTo(2);
+    verify(inventoryRepository).fulfillReservationsForOrders(eq(List.of(1L, 2L)), eq("testuser"),
+                                                             any(Instant.class));
+    verify(webSocketService, times(1)).sendInventoryUpdate(any());
+    verify(salesRollupService).recordStatusChange(List.of(1L, 2L), OrderStatus.SHIPPED,
+                                                  OrderStatus.DELIVERED);
+    verify(notificationService, never()).createNotification(any(), any(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should reject the bulk deliveries short of reserved stock and deliver the rest")
+  void shouldRejectBulkDeliveryShortOfReservedStock() {
+    // Given
+    when(orderRepository.lockStatusesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+        new Object[] {1L, "SHIPPED", 1L, "SHIPPED"},
+        new Object[] {2L, "SHIPPED", 1L, "SHIPPED"}));
+    when(inventoryRepository.findOrderIdsShortOfReservation(List.of(1L, 2L)))
+        .thenReturn(List.of(1L));
+    when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(user));
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(List.of(1L, 2L),
+                                                                       OrderStatus.DELIVERED);
+
+    // Then
+    assertThat(result.getResults()).extracting(OrderStatusResultDTO::getOutcome)
+                                   .containsExactly(OrderStatusResultDTO.Outcome.REJECTED,
+                                                    OrderStatusResultDTO.Outcome.UPDATED);
+    assertThat(result.getResults().get(0).getMessage())
+        .contains("less stock is reserved than it needs");
+    verify(orderRepository).updateStatusByIdIn(eq(List.of(2L)), eq("DELIVERED"), eq("testuser"),
+                                               any(Instant.class));
+    verify(inventoryRepository).fulfillReservationsForOrders(eq(List.of(2L)), eq("testuser"),
+                                                             any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Should not ship orders in bulk that have no items")
+  void shouldRejectBulkShippingOfOrdersWithoutItems() {
+    // Given
+    when(orderRepository.lockStatusesByIdIn(List.of(1L))).thenReturn(List.<Object[]>of(
+        new Object[] {1L, "PROCESSING", 1L, null}));
+
+    // When
+    BulkOrderStatusResultDTO result = orderService.updateOrderStatuses(List.of(1L),
+                                                                       OrderStatus.SHIPPED);
+
+    // Then
+    assertThat(result.getRejected()).isEqualTo(1);
+    assertThat(result.getResults().get(0).getMessage()).contains("the order has no items");
+    verify(orderRepository, never()).updateStatusByIdIn(any(), anyString(), anyString(),
+                                                        any(Instant.class));
+    verify(orderItemRepository, never()).shipItemsForOrders(any(), anyString(),
+                                                            any(Instant.class));
+  }
+
+  @Test
+  @DisplayName("Should reject bulk status updates above the order limit")
+  void shouldRejectTooManyOrdersInBulk() {
+    // Given
+    List<Long> ids = LongStream.rangeClosed(1, BulkOrderStatusRequest.MAX_ORDERS + 1)
+                               .boxed()
+                               .toList();
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.updateOrderStatuses(ids, OrderStatus.SHIPPED))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+    verify(orderRepository, never()).lockStatusesByIdIn(any());
+  }
+
   @Test
   @DisplayName("Should get order status")
   void shouldGetOrderStatus() {
@@ -547,18 +1298,33 @@ class OrderServiceImplTest {
   }
 
   @Test
-  @DisplayName("Should get daily sales report")
+  @DisplayName("Should not show the status of another user's order")
+  void shouldNotGetOrderStatusOfAnotherUser() {
+    // Given
+    User otherUser = new User();
+    otherUser.setId(3L);
+    otherUser.setUsername("otheruser");
+    order.setUser(otherUser);
+    when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+    // When/Then
+    assertThatThrownBy(() -> orderService.getOrderStatus(order.getId()))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCESS_DENIED);
+  }
+
+  @Test
+  @DisplayName("Should get daily sales report from the rollup")
   void shouldGetDailySalesReport() {
     // Given
     LocalDate startDate = LocalDate.now().minusDays(7);
     LocalDate endDate = LocalDate.now();
 
-    List<Object[]> reportData = new ArrayList<>();
-    reportData.add(new Object[] {Date.valueOf(startDate), BigDecimal.valueOf(199.98)});
-    reportData.add(new Object[] {Date.valueOf(startDate.plusDays(1)), BigDecimal.valueOf(299.97)});
+    List<DailySalesReportDTO> reportData = List.of(
+        new DailySalesReportDTO(startDate, BigDecimal.valueOf(199.98)),
+        new DailySalesReportDTO(startDate.plusDays(1), BigDecimal.valueOf(299.97)));
 
-    when(orderRepository.getDailySalesReport(any(Instant.class), any(Instant.class))).thenReturn(
-        reportData);
+    when(salesRollupService.getDailySales(startDate, endDate)).thenReturn(reportData);
 
     // When
     List<DailySalesReportDTO> result = orderService.getDailySalesReport(startDate, endDate);
@@ -571,7 +1337,7 @@ class OrderServiceImplTest {
     assertThat(result.get(1).getDate()).isEqualTo(startDate.plusDays(1));
     assertThat(result.get(1).getTotalSales()).isEqualTo(BigDecimal.valueOf(299.97));
 
-    verify(orderRepository).getDailySalesReport(any(Instant.class), any(Instant.class));
+    verify(salesRollupService).getDailySales(startDate, endDate);
   }
 
   // Test subclass that overrides getCurrentUser to avoid static mocking
@@ -591,10 +1357,18 @@ class OrderServiceImplTest {
         PaymentService paymentService,
         NotificationService notificationService,
         KeyLockManager keyLockManager,
+        SalesRollupService salesRollupService,
+        OrderSubmissionRepository orderSubmissionRepository,
+        PlatformTransactionManager transactionManager,
+        OrderPipelineMetrics pipelineMetrics,
+        HotKeyTracker hotKeyTracker,
+        List<CheckoutValidator> checkoutValidators,
         User currentUser) {
       super(userRepository, orderRepository, productRepository, inventoryRepository,
             orderItemRepository, orderMapper, inventoryMapper,
-            webSocketService, auditService, paymentService, notificationService, keyLockManager);
+            webSocketService, auditService, paymentService, notificationService, keyLockManager,
+            salesRollupService, orderSubmissionRepository, transactionManager, pipelineMetrics,
+            hotKeyTracker, checkoutValidators, new CheckoutConfig(), null);
       this.currentUser = currentUser;
     }
 
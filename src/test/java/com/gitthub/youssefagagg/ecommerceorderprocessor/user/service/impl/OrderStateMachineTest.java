@@ -0,0 +1,205 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStateMachineDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderStateMachine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Checks the order lifecycle over every pair of statuses and over random walks, against a
+ * description of the lifecycle that does not use the transition table.
+ */
+class OrderStateMachineTest {
+
+  private static final List<OrderStatus> FORWARD = List.of(
+      OrderStatus.PENDING, OrderStatus.PAID, OrderStatus.PROCESSING, OrderStatus.SHIPPED,
+      OrderStatus.DELIVERED);
+
+  private final List<String> calls = new ArrayList<>();
+  private OrderStateMachine stateMachine;
+
+  static Stream<Arguments> allTransitions() {
+    return Arrays.stream(OrderStatus.values())
+                 .flatMap(from -> Arrays.stream(OrderStatus.values())
+                                        .map(to -> Arguments.of(from, to)));
+  }
+
+  /**
+   * The lifecycle in words: terminal statuses never change, an order can be cancelled until it has
+   * shipped, and otherwise it only moves forward.
+   */
+  private static boolean expectedAllowed(OrderStatus from, OrderStatus to) {
+    if (from == to || from == OrderStatus.DELIVERED || from == OrderStatus.CANCELLED) {
+      return false;
+    }
+    if (to == OrderStatus.CANCELLED) {
+      return FORWARD.indexOf(from) < FORWARD.indexOf(OrderStatus.SHIPPED);
+    }
+    return FORWARD.indexOf(to) > FORWARD.indexOf(from);
+  }
+
+  @BeforeEach
+  void setUp() {
+    OrderStateMachine.Builder builder = OrderStateMachine.builder();
+    for (OrderStatus status : OrderStatus.values()) {
+      builder.onEnter(status, "enter-" + status, order -> calls.add("enter " + order.getStatus()));
+    }
+    stateMachine = builder.onTransition("record", (order, previous) -> calls.add(
+                              "transition " + previous + " -> " + order.getStatus()))
+                          .build();
+  }
+
+  @ParameterizedTest(name = "{0} -> {1}")
+  @MethodSource("allTransitions")
+  @DisplayName("Should allow exactly the transitions of the order lifecycle")
+  void shouldMatchLifecycle(OrderStatus from, OrderStatus to) {
+    assertThat(from.canTransitionTo(to)).isEqualTo(expectedAllowed(from, to));
+    assertThat(Order.isTransitionAllowed(from, to)).isEqualTo(expectedAllowed(from, to));
+    assertThat(from.allowedTransitions().contains(to)).isEqualTo(expectedAllowed(from, to));
+  }
+
+  @ParameterizedTest(name = "{0} -> {1}")
+  @MethodSource("allTransitions")
+  @DisplayName("Should either apply a transition and run its hooks or reject it untouched")
+  void shouldApplyOrRejectTransition(OrderStatus from, OrderStatus to) {
+    // Given
+    Order order = orderIn(from);
+
+    if (expectedAllowed(from, to)) {
+      // When
+      OrderStatus previous = stateMachine.transition(order, to);
+
+      // Then
+      assertThat(previous).isEqualTo(from);
+      assertThat(order.getStatus()).isEqualTo(to);
+      assertThat(calls).containsExactly("enter " + to, "transition " + from + " -> " + to);
+    } else {
+      // When/Then
+      assertThatThrownBy(() -> stateMachine.transition(order, to))
+          .isInstanceOf(CustomException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION);
+      assertThat(order.getStatus()).isEqualTo(from);
+      assertThat(calls).isEmpty();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(OrderStatus.class)
+  @DisplayName("Should treat a status as terminal exactly when it allows no transition")
+  void shouldReportTerminalStatuses(OrderStatus status) {
+    assertThat(status.isTerminal()).isEqualTo(status.allowedTransitions().isEmpty());
+    assertThat(status.isTerminal())
+        .isEqualTo(status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED);
+    assertThat(status.canTransitionTo(null)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should never move an order backwards on random walks through the lifecycle")
+  void shouldOnlyMoveForwardOnRandomWalks() {
+    Random random = new Random(42);
+    OrderStatus[] statuses = OrderStatus.values();
+
+    for (int walk = 0; walk < 1_000; walk++) {
+      Order order = orderIn(OrderStatus.PENDING);
+      int transitions = 0;
+
+      for (int step = 0; step < 20; step++) {
+        OrderStatus before = order.getStatus();
+        OrderStatus target = statuses[random.nextInt(statuses.length)];
+        boolean allowed = stateMachine.rejectionReason(order, target).isEmpty();
+
+        assertThat(order.updateStatus(target)).isEqualTo(allowed);
+        if (allowed) {
+          transitions++;
+          assertThat(order.getStatus()).isEqualTo(target);
+          if (target != OrderStatus.CANCELLED) {
+            assertThat(FORWARD.indexOf(target)).isGreaterThan(FORWARD.indexOf(before));
+          }
+        } else {
+          assertThat(order.getStatus()).isEqualTo(before);
+        }
+        if (before.isTerminal()) {
+          assertThat(order.getStatus()).isEqualTo(before);
+        }
+      }
+
+      // PENDING, PAID, PROCESSING, SHIPPED, DELIVERED is the longest path
+      assertThat(transitions).isLessThanOrEqualTo(FORWARD.size() - 1);
+    }
+  }
+
+  @Test
+  @DisplayName("Should reject a transition whose guard does not hold")
+  void shouldRejectTransitionFailingGuard() {
+    // Given
+    OrderStateMachine guarded = OrderStateMachine.builder()
+                                                 .guard("has-items",
+                                                        order -> !order.getOrderItems().isEmpty(),
+                                                        "the order has no items",
+                                                        OrderStatus.SHIPPED)
+                                                 .onEnter(OrderStatus.SHIPPED, "ship",
+                                                          order -> calls.add("ship"))
+                                                 .build();
+    Order empty = orderIn(OrderStatus.PAID);
+    Order withItems = orderIn(OrderStatus.PAID);
+    withItems.getOrderItems().add(new OrderItem());
+
+    // When/Then
+    assertThatThrownBy(() -> guarded.transition(empty, OrderStatus.SHIPPED))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_STATUS_TRANSITION)
+        .hasMessageContaining("the order has no items");
+    assertThat(empty.getStatus()).isEqualTo(OrderStatus.PAID);
+    assertThat(calls).isEmpty();
+
+    assertThat(guarded.transition(withItems, OrderStatus.SHIPPED)).isEqualTo(OrderStatus.PAID);
+    assertThat(calls).containsExactly("ship");
+
+    // The guard only applies to the statuses it was registered for
+    assertThat(guarded.rejectionReason(empty, OrderStatus.PROCESSING)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should describe every status with its transitions, guards and hooks")
+  void shouldDescribeEveryStatus() {
+    // When
+    OrderStateMachineDTO description = stateMachine.describe();
+
+    // Then
+    assertThat(description.getStates()).extracting(OrderStateMachineDTO.State::getStatus)
+                                        .containsExactly(OrderStatus.values());
+    for (OrderStateMachineDTO.State state : description.getStates()) {
+      assertThat(state.getTransitions()).isEqualTo(state.getStatus().allowedTransitions());
+      assertThat(state.isTerminal()).isEqualTo(state.getStatus().isTerminal());
+      assertThat(state.getHooks()).containsExactly("enter-" + state.getStatus());
+      assertThat(state.getGuards()).isEmpty();
+    }
+    assertThat(description.getTransitionHooks()).containsExactly("record");
+  }
+
+  private static Order orderIn(OrderStatus status) {
+    Order order = new Order();
+    order.setId(1L);
+    order.setStatus(status);
+    order.setOrderItems(new ArrayList<>());
+    return order;
+  }
+}
@@ -0,0 +1,167 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.OrderSubmissionConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderSubmission;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderSubmissionRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderSubmissionWorker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class OrderSubmissionWorkerTest {
+
+  @Mock
+  private OrderSubmissionRepository orderSubmissionRepository;
+
+  @Mock
+  private OrderService orderService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry meterRegistry;
+  private OrderSubmissionWorker worker;
+  private OrderSubmission submission;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    worker = new OrderSubmissionWorker(orderSubmissionRepository, orderService,
+                                       new OrderSubmissionConfig(), transactionManager,
+                                       meterRegistry, Runnable::run);
+
+    OrderItemDTO item = new OrderItemDTO();
+    item.setProductId(1L);
+    item.setQuantity(2);
+    submission = OrderSubmission.builder()
+                                .id(10L)
+                                .orderId(1L)
+                                .items(List.of(item))
+                                .availableAt(Instant.now())
+                                .createdDate(Instant.now())
+                                .build();
+  }
+
+  @Test
+  @DisplayName("Should process a claimed submission and remove it from the queue")
+  void shouldProcessClaimedSubmission() {
+    // Given
+    when(orderSubmissionRepository.claimNext(any(Instant.class)))
+        .thenReturn(Optional.of(submission), Optional.empty());
+    Instant claimedAt = Instant.now();
+
+    // When
+    worker.poll();
+
+    // Then
+    assertThat(submission.getAvailableAt()).isAfter(claimedAt);
+    verify(orderService).processSubmittedOrder(1L, submission.getItems());
+    verify(orderSubmissionRepository).deleteById(10L);
+    assertThat(meterRegistry.get("order.submission.completed").counter().count())
+        .isEqualTo(1.0);
+    assertThat(meterRegistry.get("order.submission.latency").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should reject the order at once when processing fails for a business reason")
+  void shouldRejectOnBusinessFailure() {
+    // Given
+    when(orderSubmissionRepository.claimNext(any(Instant.class)))
+        .thenReturn(Optional.of(submission), Optional.empty());
+    when(orderService.processSubmittedOrder(eq(1L), anyList()))
+        .thenThrow(new CustomException(ErrorCode.INVALID_REQUEST, "Not enough inventory"));
+    when(orderService.rejectSubmittedOrder(1L, "Not enough inventory")).thenReturn(true);
+
+    // When
+    worker.poll();
+
+    // Then
+    verify(orderSubmissionRepository).deleteById(10L);
+    verify(orderService).rejectSubmittedOrder(1L, "Not enough inventory");
+    verify(orderSubmissionRepository, never()).reschedule(anyLong(), any(Instant.class),
+                                                          anyString());
+    assertThat(meterRegistry.get("order.submission.rejected").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should not count an order processed or cancelled meanwhile as rejected")
+  void shouldNotCountOrderNoLongerPendingAsRejected() {
+    // Given
+    when(orderSubmissionRepository.claimNext(any(Instant.class)))
+        .thenReturn(Optional.of(submission), Optional.empty());
+    when(orderService.processSubmittedOrder(eq(1L), anyList()))
+        .thenThrow(new CustomException(ErrorCode.INVALID_REQUEST, "No longer waiting"));
+
+    // When
+    worker.poll();
+
+    // Then
+    verify(orderSubmissionRepository).deleteById(10L);
+    verify(orderService).rejectSubmittedOrder(1L, "No longer waiting");
+    assertThat(meterRegistry.get("order.submission.rejected").counter().count())
+        .isEqualTo(0.0);
+  }
+
+  @Test
+  @DisplayName("Should put the submission back in the queue when processing fails unexpectedly")
+  void shouldRetryOnUnexpectedFailure() {
+    // Given
+    when(orderSubmissionRepository.claimNext(any(Instant.class)))
+        .thenReturn(Optional.of(submission), Optional.empty());
+    when(orderService.processSubmittedOrder(eq(1L), anyList()))
+        .thenThrow(new QueryTimeoutException("timeout"));
+
+    // When
+    worker.poll();
+
+    // Then
+    verify(orderSubmissionRepository).reschedule(eq(10L), any(Instant.class), eq("timeout"));
+    verify(orderService, never()).rejectSubmittedOrder(anyLong(), anyString());
+    assertThat(meterRegistry.get("order.submission.retried").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should reject the order once the attempts are used up")
+  void shouldRejectAfterMaxAttempts() {
+    // Given
+    submission.setAttempts(2);
+    when(orderSubmissionRepository.claimNext(any(Instant.class)))
+        .thenReturn(Optional.of(submission), Optional.empty());
+    when(orderService.processSubmittedOrder(eq(1L), anyList()))
+        .thenThrow(new QueryTimeoutException("timeout"));
+
+    // When
+    worker.poll();
+
+    // Then
+    verify(orderService).rejectSubmittedOrder(1L, "timeout");
+    verify(orderSubmissionRepository, never()).reschedule(anyLong(), any(Instant.class),
+                                                          anyString());
+  }
+}
@@ -0,0 +1,182 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItem;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderItemRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.PaymentReconciler;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+@Transactional
+class PaymentReconcilerIT {
+
+  @Autowired
+  private PaymentReconciler paymentReconciler;
+
+  @Autowired
+  private OrderService orderService;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private OrderItemRepository orderItemRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private InventoryRepository inventoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private User testUser;
+  private Product testProduct;
+
+  @BeforeEach
+  void setUp() {
+    testUser = new User();
+    testUser.setUsername("testuser");
+    testUser.setEmail("testuser@example.com");
+    testUser.setFirstName("Test");
+    testUser.setLastName("User");
+    // Password must be exactly 60 characters long
+    testUser.setPassword("$2a$10$eDhncK/4cNH2KE.Y51AWpeL8/5TCTWBpxmVhvZuLfCPIb4SLQtEP6");
+    testUser = userRepository.save(testUser);
+
+    testProduct = new Product();
+    testProduct.setName("Test Product");
+    testProduct.setDescription("Test Description");
+    testProduct.setPrice(BigDecimal.valueOf(99.99));
+    testProduct = productRepository.save(testProduct);
+
+    Inventory inventory = new Inventory();
+    inventory.setProduct(testProduct);
+    inventory.setQuantity(10);
+    inventory.setReservedQuantity(0);
+    inventoryRepository.save(inventory);
+  }
+
+  @Test
+  @DisplayName("Should capture a payment whose checkout capture timed out and complete its order")
+  void shouldCompleteOrderOfPaymentWhoseCaptureTimedOut() {
+    // Given: checkout could not learn the outcome of the capture
+    Long orderId = createPendingOrder(2);
+    Long paymentId = createPayment(orderId, PaymentStatus.AUTHORIZED, Duration.ofHours(1));
+
+    // When
+    paymentReconciler.reconcilePayments();
+    orderRepository.flush();
+
+    // Then
+    assertThat(paymentStatusOf(paymentId)).isEqualTo(PaymentStatus.COMPLETED.name());
+    assertThat(orderStatusOf(orderId)).isEqualTo(OrderStatus.PROCESSING.name());
+  }
+
+  @Test
+  @DisplayName("Should leave a recent payment to the checkout still paying it")
+  void shouldNotSettleRecentPayment() {
+    // Given
+    Long orderId = createPendingOrder(2);
+    Long paymentId = createPayment(orderId, PaymentStatus.AUTHORIZED, Duration.ZERO);
+
+    // When
+    paymentReconciler.reconcilePayments();
+
+    // Then
+    assertThat(paymentStatusOf(paymentId)).isEqualTo(PaymentStatus.AUTHORIZED.name());
+    assertThat(orderStatusOf(orderId)).isEqualTo(OrderStatus.PENDING.name());
+  }
+
+  @Test
+  @DisplayName("Should refund the payment of an order cancelled while it was being paid")
+  @WithMockUser(username = "testuser")
+  void shouldRefundPaymentOfOrderCancelledDuringPayment() {
+    // Given: the payment was captured, then the order was cancelled before checkout applied it
+    Long orderId = createPendingOrder(2);
+    Long paymentId = createPayment(orderId, PaymentStatus.COMPLETED, Duration.ZERO);
+    orderService.cancelOrder(orderId);
+    assertThat(paymentStatusOf(paymentId)).isEqualTo(PaymentStatus.REFUND_PENDING.name());
+    jdbcTemplate.update("UPDATE payments SET last_modified_date = ? WHERE id = ?",
+                        Timestamp.from(Instant.now().minus(Duration.ofHours(1))), paymentId);
+
+    // When
+    paymentReconciler.reconcilePayments();
+    orderRepository.flush();
+
+    // Then
+    assertThat(paymentStatusOf(paymentId)).isEqualTo(PaymentStatus.REFUNDED.name());
+    assertThat(orderStatusOf(orderId)).isEqualTo(OrderStatus.CANCELLED.name());
+  }
+
+  private Long createPendingOrder(int quantity) {
+    Order order = new Order();
+    order.setUser(testUser);
+    order.setStatus(OrderStatus.PENDING);
+    order.setTotalAmount(testProduct.getPrice().multiply(BigDecimal.valueOf(quantity)));
+    order.setIdempotencyKey(UUID.randomUUID().toString());
+    order = orderRepository.save(order);
+
+    OrderItem item = new OrderItem();
+    item.setOrder(order);
+    item.setProduct(testProduct);
+    item.setQuantity(quantity);
+    item.setPrice(testProduct.getPrice());
+    order.getOrderItems().add(orderItemRepository.saveAndFlush(item));
+
+    jdbcTemplate.update("UPDATE inventory SET reserved_quantity = reserved_quantity + ? "
+                        + "WHERE product_id = ?", quantity, testProduct.getId());
+    return order.getId();
+  }
+
+  private Long createPayment(Long orderId, PaymentStatus status, Duration age) {
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO payments (order_id, amount, status, payment_method, transaction_id, "
+        + "idempotency_key, created_by, last_modified_by, last_modified_date, version) "
+        + "SELECT id, total_amount, ?, 'Credit Card', ?, ?, 'system', 'system', ?, 0 "
+        + "FROM orders WHERE id = ? RETURNING id",
+        Long.class, status.name(), "auth-" + UUID.randomUUID(), UUID.randomUUID().toString(),
+        Timestamp.from(Instant.now().minus(age)), orderId);
+  }
+
+  private String paymentStatusOf(Long paymentId) {
+    return jdbcTemplate.queryForObject("SELECT status FROM payments WHERE id = ?", String.class,
+                                       paymentId);
+  }
+
+  private String orderStatusOf(Long orderId) {
+    return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class,
+                                       orderId);
+  }
+}
@@ -0,0 +1,187 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.PaymentReconciliationConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaymentDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Payment;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.PaymentRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.PaymentReconciler;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconcilerTest {
+
+  @Mock
+  private PaymentRepository paymentRepository;
+
+  @Mock
+  private PaymentService paymentService;
+
+  @Mock
+  private OrderService orderService;
+
+  private SimpleMeterRegistry meterRegistry;
+  private PaymentReconciliationConfig config;
+  private PaymentReconciler paymentReconciler;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    config = new PaymentReconciliationConfig();
+    paymentReconciler = new PaymentReconciler(paymentRepository, paymentService, orderService,
+                                              config, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Should capture a payment left authorized by a capture timeout and complete its "
+               + "order")
+  void shouldCompleteOrderOfPaymentWhoseCaptureTimedOut() {
+    // Given
+    Payment payment = payment(1L, OrderStatus.PENDING, PaymentStatus.AUTHORIZED);
+    PaymentDTO captured = PaymentDTO.builder().id(1L).status(PaymentStatus.COMPLETED).build();
+    when(paymentRepository.findUnsettled(any(Instant.class), any(Limit.class)))
+        .thenReturn(List.of(payment));
+    when(paymentService.resumePayment(payment)).thenReturn(captured);
+
+    // When
+    paymentReconciler.reconcilePayments();
+
+    // Then
+    verify(orderService).completePaidOrder(1L, captured);
+    verify(paymentService, never()).refundPayment(any(Payment.class));
+    assertThat(count("completed")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should complete the order of a payment captured before checkout failed")
+  void shouldCompleteOrderOfCompletedPayment() {
+    // Given
+    Payment payment = payment(1L, OrderStatus.PENDING, PaymentStatus.COMPLETED);
+    PaymentDTO completed = PaymentDTO.builder().id(1L).status(PaymentStatus.COMPLETED).build();
+    when(paymentRepository.findUnsettled(any(Instant.class), any(Limit.class)))
+        .thenReturn(List.of(payment));
+    when(paymentService.resumePayment(payment)).thenReturn(completed);
+
+    // When
+    paymentReconciler.reconcilePayments();
+
+    // Then
+    verify(orderService).completePaidOrder(1L, completed);
+  }
+
+  @Test
+  @DisplayName("Should leave the order pending while the capture still has no outcome")
+  void shouldLeaveOrderPendingWhileCaptureFails() {
+    // Given
+    Payment payment = payment(1L, OrderStatus.PENDING, PaymentStatus.AUTHORIZED);
+    when(paymentRepository.findUnsettled(any(Instant.class), any(Limit.class)))
+        .thenReturn(List.of(payment));
+    when(paymentService.resumePayment(payment))
+        .thenReturn(PaymentDTO.builder().id(1L).status(PaymentStatus.AUTHORIZED).build());
+
+    // When
+    paymentReconciler.reconcilePayments();
+
+    // Then
+    verify(orderService, never()).completePaidOrder(anyLong(), any(PaymentDTO.class));
+    assertThat(count("unknown")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should refund the payment of an order cancelled during the payment")
+  void shouldRefundPaymentOfOrderCancelledDuringPayment() {
+    // Given
+    Payment payment = payment(1L, OrderStatus.CANCELLED, PaymentStatus.REFUND_PENDING);
+    when(paymentRepository.findUnsettled(any(Instant.class), any(Limit.class)))
+        .thenReturn(List.of(payment));
+    when(paymentService.refundPayment(payment))
+        .thenReturn(PaymentDTO.builder().id(1L).status(PaymentStatus.REFUNDED).build());
+
+    // When
+    paymentReconciler.reconcilePayments();
+
+    // Then
+    verify(paymentService, never()).resumePayment(any(Payment.class));
+    verify(orderService, never()).completePaidOrder(anyLong(), any(PaymentDTO.class));
+    assertThat(count("refunded")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should settle the remaining payments when one of them conflicts")
+  void shouldContinueAfterConflict() {
+    // Given
+    Payment conflicting = payment(1L, OrderStatus.PENDING, PaymentStatus.AUTHORIZED);
+    Payment refundable = payment(2L, OrderStatus.CANCELLED, PaymentStatus.REFUND_PENDING);
+    when(paymentRepository.findUnsettled(any(Instant.class), any(Limit.class)))
+        .thenReturn(List.of(conflicting, refundable));
+    when(paymentService.resumePayment(conflicting))
+        .thenThrow(new OptimisticLockingFailureException("Payment 1 was updated concurrently"));
+    when(paymentService.refundPayment(refundable))
+        .thenReturn(PaymentDTO.builder().id(2L).status(PaymentStatus.REFUNDED).build());
+
+    // When
+    paymentReconciler.reconcilePayments();
+
+    // Then
+    assertThat(count("error")).isEqualTo(1);
+    assertThat(count("refunded")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should not run when disabled")
+  void shouldNotRunWhenDisabled() {
+    // Given
+    config.setEnabled(false);
+
+    // When
+    paymentReconciler.reconcilePayments();
+
+    // Then
+    verifyNoInteractions(paymentRepository, paymentService, orderService);
+  }
+
+  private Payment payment(Long id, OrderStatus orderStatus, PaymentStatus status) {
+    Order order = new Order();
+    order.setId(id);
+    order.setStatus(orderStatus);
+    order.setTotalAmount(BigDecimal.TEN);
+
+    Payment payment = new Payment();
+    payment.setId(id);
+    payment.setOrder(order);
+    payment.setAmount(BigDecimal.TEN);
+    payment.setStatus(status);
+    payment.setTransactionId("auth-" + id);
+    return payment;
+  }
+
+  private double count(String outcome) {
+    return meterRegistry.get("payment.reconciliation.payments")
+                        .tag("outcome", outcome)
+                        .counter()
+                        .count();
+  }
+}
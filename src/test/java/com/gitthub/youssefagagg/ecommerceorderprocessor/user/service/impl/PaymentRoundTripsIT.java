@@ -0,0 +1,128 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCounter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCountingConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaymentDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Order;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.PaymentStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.PaymentService;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Compares the database round trips of the general payment path with the checkout fast path.
+ */
+@Import({TestcontainersConfiguration.class, StatementCountingConfiguration.class})
+@SpringBootTest
+@Transactional
+class PaymentRoundTripsIT {
+
+  @Autowired
+  private PaymentService paymentService;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private User testUser;
+
+  @BeforeEach
+  void setUp() {
+    testUser = new User();
+    testUser.setUsername("testuser");
+    testUser.setEmail("testuser@example.com");
+    testUser.setFirstName("Test");
+    testUser.setLastName("User");
+    // Password must be exactly 60 characters long
+    testUser.setPassword("$2a$10$eDhncK/4cNH2KE.Y51AWpeL8/5TCTWBpxmVhvZuLfCPIb4SLQtEP6");
+    testUser = userRepository.save(testUser);
+  }
+
+  @Test
+  @DisplayName("Should pay a checkout order with fewer statements than the general path")
+  @WithMockUser(username = "testuser")
+  void shouldPayCheckoutOrderWithFewerStatements() {
+    // Given
+    Order generalOrder = createOrder();
+    Order checkoutOrder = createOrder();
+    // Start from an empty persistence context, as a new request would
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    StatementCounter.reset();
+    PaymentDTO general = paymentService.processPayment(
+        PaymentDTO.builder()
+                  .orderId(generalOrder.getId())
+                  .amount(generalOrder.getTotalAmount())
+                  .paymentMethod("Credit Card")
+                  .idempotencyKey(UUID.randomUUID().toString())
+                  .build());
+    entityManager.flush();
+    int generalStatements = StatementCounter.count();
+
+    StatementCounter.reset();
+    PaymentDTO checkout = paymentService.processOrderPayment(
+        checkoutOrder, "Credit Card", UUID.randomUUID().toString());
+    entityManager.flush();
+    int checkoutStatements = StatementCounter.count();
+
+    // Then
+    assertThat(general.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+    assertThat(checkout.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+    // One insert and two status updates; the general path also loads the order
+    assertThat(checkoutStatements).isEqualTo(3);
+    assertThat(generalStatements).isGreaterThan(checkoutStatements);
+  }
+
+  @Test
+  @DisplayName("Should detect a repeated checkout payment with the unique idempotency key")
+  @WithMockUser(username = "testuser")
+  void shouldDetectRepeatedCheckoutPayment() {
+    // Given
+    Order order = createOrder();
+    String idempotencyKey = UUID.randomUUID().toString();
+    PaymentDTO first = paymentService.processOrderPayment(order, "Credit Card", idempotencyKey);
+
+    // When
+    StatementCounter.reset();
+    PaymentDTO second = paymentService.processOrderPayment(order, "Credit Card", idempotencyKey);
+    int statements = StatementCounter.count();
+
+    // Then
+    assertThat(second.getId()).isEqualTo(first.getId());
+    assertThat(second.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+    // The conflicting insert and the lookup of the existing payment
+    assertThat(statements).isEqualTo(2);
+  }
+
+  private Order createOrder() {
+    Order order = new Order();
+    order.setUser(testUser);
+    order.setStatus(OrderStatus.PENDING);
+    order.setTotalAmount(BigDecimal.valueOf(99.99));
+    order.setIdempotencyKey(UUID.randomUUID().toString());
+    return orderRepository.save(order);
+  }
+}
@@ -6,9 +6,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -23,6 +23,10 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.mapper.PaymentMapper;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.GatewayResponse;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.PaymentAuthorization;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.PaymentGatewayClient;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.payment.PaymentGatewayException;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.NotificationRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.PaymentRepository;
@@ -34,6 +38,7 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.service.NotificationServ
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl.PaymentServiceImpl;
 import java.math.BigDecimal;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -42,9 +47,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentServiceImplTest {
@@ -72,6 +80,12 @@ class PaymentServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private PaymentGatewayClient paymentGatewayClient;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
   private TestPaymentServiceImpl paymentService;
 
   private User user;
@@ -152,6 +166,8 @@ class PaymentServiceImplTest {
         paymentMapper,
         auditService,
         notificationService,
+        paymentGatewayClient,
+        transactionManager,
         user
     );
   }
@@ -168,14 +184,16 @@ class PaymentServiceImplTest {
   void shouldProcessPaymentSuccessfully() {
     // Given
     when(orderRepository.findById(paymentDTO.getOrderId())).thenReturn(Optional.of(order));
-    when(paymentRepository.findByIdempotencyKey(paymentDTO.getIdempotencyKey())).thenReturn(
-        Optional.empty());
-    when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
-      Payment savedPayment = invocation.getArgument(0);
-      savedPayment.setId(1L);
-      return savedPayment;
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenAnswer(invocation -> {
+      Payment insertedPayment = invocation.getArgument(0);
+      insertedPayment.setId(1L);
+      return insertedPayment;
     });
     when(paymentMapper.toDto(any(Payment.class))).thenReturn(paymentDTO);
+    when(paymentGatewayClient.authorize(any(PaymentAuthorization.class)))
+        .thenReturn(GatewayResponse.approved("auth-1"));
+    when(paymentGatewayClient.capture("auth-1", paymentDTO.getAmount()))
+        .thenReturn(GatewayResponse.approved("capture-1"));
 
     // When
     PaymentDTO result = paymentService.processPayment(paymentDTO);
@@ -187,8 +205,14 @@ class PaymentServiceImplTest {
     assertThat(result.getAmount()).isEqualTo(paymentDTO.getAmount());
 
     verify(orderRepository).findById(paymentDTO.getOrderId());
-    verify(paymentRepository).findByIdempotencyKey(paymentDTO.getIdempotencyKey());
-    verify(paymentRepository, times(2)).save(any(Payment.class));
+    verify(paymentRepository).insertOrGet(any(Payment.class));
+    verify(paymentRepository).updateStatus(any(Payment.class), eq(PaymentStatus.AUTHORIZED));
+    verify(paymentRepository).updateStatus(any(Payment.class), eq(PaymentStatus.COMPLETED));
+    verify(paymentRepository, never()).findByIdempotencyKey(anyString());
+    verify(paymentRepository, never()).save(any(Payment.class));
+    verify(paymentGatewayClient).authorize(
+        new PaymentAuthorization(paymentDTO.getIdempotencyKey(), paymentDTO.getAmount(),
+                                 paymentDTO.getPaymentMethod()));
     verify(notificationService).createNotification(any(User.class),
                                                    eq(NotificationType.PAYMENT_CONFIRMATION),
                                                    anyString());
@@ -201,8 +225,7 @@ class PaymentServiceImplTest {
     // Given
     payment.setStatus(PaymentStatus.COMPLETED);
     when(orderRepository.findById(paymentDTO.getOrderId())).thenReturn(Optional.of(order));
-    when(paymentRepository.findByIdempotencyKey(paymentDTO.getIdempotencyKey())).thenReturn(
-        Optional.of(payment));
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenReturn(payment);
     when(paymentMapper.toDto(payment)).thenReturn(paymentDTO);
 
     // When
@@ -213,12 +236,227 @@ class PaymentServiceImplTest {
     assertThat(result.getId()).isEqualTo(paymentDTO.getId());
 
     verify(orderRepository).findById(paymentDTO.getOrderId());
-    verify(paymentRepository).findByIdempotencyKey(paymentDTO.getIdempotencyKey());
-    verify(paymentRepository, never()).save(any(Payment.class));
+    verify(paymentRepository).insertOrGet(any(Payment.class));
+    verify(paymentRepository, never()).updateStatus(any(Payment.class), any(PaymentStatus.class));
+    verify(paymentGatewayClient, never()).authorize(any(PaymentAuthorization.class));
     verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
     verify(auditService, never()).createLogAsync(anyString(), anyLong(), any());
   }
 
+  @Test
+  @DisplayName("Should mark payment as failed when the gateway declines the authorization")
+  void shouldFailPaymentWhenAuthorizationIsDeclined() {
+    // Given
+    when(orderRepository.findById(paymentDTO.getOrderId())).thenReturn(Optional.of(order));
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    when(paymentGatewayClient.authorize(any(PaymentAuthorization.class)))
+        .thenReturn(GatewayResponse.declined("Insufficient funds"));
+    ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+    when(paymentMapper.toDto(saved.capture())).thenReturn(paymentDTO);
+
+    // When
+    paymentService.processPayment(paymentDTO);
+
+    // Then
+    verify(paymentRepository).updateStatus(saved.getValue(), PaymentStatus.FAILED);
+    verify(paymentGatewayClient, never()).capture(anyString(), any(BigDecimal.class));
+    verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should keep payment authorized when the capture cannot reach the gateway")
+  void shouldKeepPaymentAuthorizedWhenCaptureFails() {
+    // Given
+    when(orderRepository.findById(paymentDTO.getOrderId())).thenReturn(Optional.of(order));
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    when(paymentGatewayClient.authorize(any(PaymentAuthorization.class)))
+        .thenReturn(GatewayResponse.approved("auth-1"));
+    when(paymentGatewayClient.capture("auth-1", paymentDTO.getAmount()))
+        .thenThrow(new PaymentGatewayException("Payment gateway capture timed out"));
+    ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+    when(paymentMapper.toDto(saved.capture())).thenReturn(paymentDTO);
+
+    // When
+    paymentService.processPayment(paymentDTO);
+
+    // Then
+    verify(paymentRepository).updateStatus(saved.getValue(), PaymentStatus.AUTHORIZED);
+    verify(paymentRepository, never()).updateStatus(saved.getValue(), PaymentStatus.FAILED);
+    assertThat(saved.getValue().getTransactionId()).isEqualTo("auth-1");
+    verify(paymentGatewayClient, never()).voidAuthorization(anyString());
+    verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should resume an authorized payment with the capture")
+  void shouldResumeAuthorizedPaymentWithCapture() {
+    // Given
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setTransactionId("auth-1");
+    when(orderRepository.findById(paymentDTO.getOrderId())).thenReturn(Optional.of(order));
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenReturn(payment);
+    when(paymentGatewayClient.capture("auth-1", payment.getAmount()))
+        .thenReturn(GatewayResponse.approved("capture-1"));
+    when(paymentMapper.toDto(payment)).thenReturn(paymentDTO);
+
+    // When
+    paymentService.processPayment(paymentDTO);
+
+    // Then
+    verify(paymentRepository).updateStatus(payment, PaymentStatus.COMPLETED);
+    verify(paymentGatewayClient, never()).authorize(any(PaymentAuthorization.class));
+    verify(notificationService).createNotification(any(User.class),
+                                                   eq(NotificationType.PAYMENT_CONFIRMATION),
+                                                   anyString());
+  }
+
+  @Test
+  @DisplayName("Should restart a failed payment recorded under the same idempotency key")
+  void shouldRestartFailedPaymentWithSameIdempotencyKey() {
+    // Given
+    payment.setStatus(PaymentStatus.FAILED);
+    payment.setTransactionId("auth-0");
+    when(orderRepository.findById(paymentDTO.getOrderId())).thenReturn(Optional.of(order));
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenReturn(payment);
+    when(paymentGatewayClient.authorize(any(PaymentAuthorization.class)))
+        .thenReturn(GatewayResponse.declined("Insufficient funds"));
+    when(paymentMapper.toDto(payment)).thenReturn(paymentDTO);
+
+    // When
+    paymentService.processPayment(paymentDTO);
+
+    // Then
+    verify(paymentRepository).updateStatus(payment, PaymentStatus.PENDING);
+    verify(paymentRepository).updateStatus(payment, PaymentStatus.FAILED);
+    assertThat(payment.getTransactionId()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should pay a checkout order without loading or authorizing it again")
+  void shouldProcessOrderPaymentWithoutReloadingOrder() {
+    // Given
+    ArgumentCaptor<Payment> inserted = ArgumentCaptor.forClass(Payment.class);
+    when(paymentRepository.insertOrGet(inserted.capture())).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    when(paymentGatewayClient.authorize(any(PaymentAuthorization.class)))
+        .thenReturn(GatewayResponse.approved("auth-1"));
+    when(paymentGatewayClient.capture("auth-1", order.getTotalAmount()))
+        .thenReturn(GatewayResponse.approved("capture-1"));
+    when(paymentMapper.toDto(any(Payment.class))).thenReturn(paymentDTO);
+
+    // When
+    paymentService.processOrderPayment(order, "Credit Card", "key-1");
+
+    // Then
+    assertThat(inserted.getValue().getOrder()).isSameAs(order);
+    assertThat(inserted.getValue().getAmount()).isEqualTo(order.getTotalAmount());
+    assertThat(inserted.getValue().getIdempotencyKey()).isEqualTo("key-1");
+    verify(paymentRepository).updateStatus(inserted.getValue(), PaymentStatus.AUTHORIZED);
+    verify(paymentRepository).updateStatus(inserted.getValue(), PaymentStatus.COMPLETED);
+    verify(orderRepository, never()).findById(anyLong());
+    verify(paymentRepository, never()).findByIdempotencyKey(anyString());
+    securityUtilsMock.verify(
+        () -> SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesRole.ROLE_ADMIN.getValue()),
+        never());
+    verify(notificationService).createNotification(eq(user),
+                                                   eq(NotificationType.PAYMENT_CONFIRMATION),
+                                                   anyString());
+  }
+
+  @Test
+  @DisplayName("Should capture a payment whose checkout capture timed out when it is resumed")
+  void shouldCaptureAuthorizedPaymentWhenResumed() {
+    // Given
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setTransactionId("auth-1");
+    when(paymentGatewayClient.capture("auth-1", payment.getAmount()))
+        .thenReturn(GatewayResponse.approved("capture-1"));
+    when(paymentMapper.toDto(payment)).thenReturn(paymentDTO);
+
+    // When
+    paymentService.resumePayment(payment);
+
+    // Then
+    verify(paymentRepository).updateStatus(payment, PaymentStatus.COMPLETED);
+    verify(paymentGatewayClient, never()).authorize(any(PaymentAuthorization.class));
+    verify(notificationService).createNotification(eq(user),
+                                                   eq(NotificationType.PAYMENT_CONFIRMATION),
+                                                   anyString());
+  }
+
+  @Test
+  @DisplayName("Should release the authorization when the order is cancelled during the payment")
+  void shouldVoidAuthorizationWhenOrderIsCancelledDuringPayment() {
+    // Given
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+    when(paymentGatewayClient.authorize(any(PaymentAuthorization.class)))
+        .thenReturn(GatewayResponse.approved("auth-1"));
+    doThrow(new OptimisticLockingFailureException("Payment 1 was updated concurrently"))
+        .when(paymentRepository).updateStatus(any(Payment.class), eq(PaymentStatus.AUTHORIZED));
+
+    // When/Then
+    assertThatThrownBy(() -> paymentService.processOrderPayment(order, "Credit Card", "key-1"))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+
+    verify(paymentGatewayClient).voidAuthorization("auth-1");
+    verify(paymentGatewayClient, never()).capture(anyString(), any(BigDecimal.class));
+    verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should refund a captured payment of an order cancelled during the payment")
+  void shouldRefundPaymentMarkedForRefund() {
+    // Given
+    payment.setStatus(PaymentStatus.REFUND_PENDING);
+    payment.setTransactionId("auth-1");
+    order.setStatus(OrderStatus.CANCELLED);
+    when(paymentGatewayClient.refund("auth-1", payment.getAmount()))
+        .thenReturn(GatewayResponse.approved("refund-1"));
+    when(paymentMapper.toDto(payment)).thenReturn(paymentDTO);
+
+    // When
+    paymentService.refundPayment(payment);
+
+    // Then
+    verify(paymentRepository).updateStatus(payment, PaymentStatus.REFUNDED);
+    verify(notificationService).createNotification(eq(user),
+                                                   eq(NotificationType.ORDER_CANCELLATION),
+                                                   anyString());
+    verify(auditService).createLogAsync("Payment", payment.getId(), payment);
+  }
+
+  @Test
+  @DisplayName("Should keep a payment waiting for its refund when the gateway cannot be reached")
+  void shouldKeepRefundPendingWhenRefundFails() {
+    // Given
+    payment.setStatus(PaymentStatus.REFUND_PENDING);
+    payment.setTransactionId("auth-1");
+    when(paymentGatewayClient.refund("auth-1", payment.getAmount()))
+        .thenThrow(new PaymentGatewayException("Payment gateway refund timed out"));
+    when(paymentMapper.toDto(payment)).thenReturn(paymentDTO);
+
+    // When
+    paymentService.refundPayment(payment);
+
+    // Then
+    verify(paymentRepository, never()).updateStatus(any(Payment.class), any(PaymentStatus.class));
+    verify(notificationService, never()).createNotification(any(User.class), any(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should mark the payments of cancelled orders for a refund with one update")
+  void shouldRequestRefunds() {
+    // When
+    paymentService.requestRefunds(List.of(1L, 2L));
+
+    // Then
+    verify(paymentRepository).markForRefundByOrderIdIn(eq(List.of(1L, 2L)), eq("testuser"),
+                                                       any());
+  }
+
   @Test
   @DisplayName("Should throw exception when order not found")
   void shouldThrowExceptionWhenOrderNotFound() {
@@ -231,7 +469,7 @@ class PaymentServiceImplTest {
         .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ENTITY_NOT_FOUND);
 
     verify(orderRepository).findById(paymentDTO.getOrderId());
-    verify(paymentRepository, never()).save(any(Payment.class));
+    verify(paymentRepository, never()).insertOrGet(any(Payment.class));
   }
 
   @Test
@@ -251,7 +489,7 @@ class PaymentServiceImplTest {
         .hasFieldOrPropertyWithValue("errorCode", ErrorCode.ACCESS_DENIED);
 
     verify(orderRepository).findById(paymentDTO.getOrderId());
-    verify(paymentRepository, never()).save(any(Payment.class));
+    verify(paymentRepository, never()).insertOrGet(any(Payment.class));
   }
 
   @Test
@@ -276,18 +514,22 @@ class PaymentServiceImplTest {
         paymentMapper,
         auditService,
         notificationService,
+        paymentGatewayClient,
+        transactionManager,
         adminUser
     );
 
     when(orderRepository.findById(paymentDTO.getOrderId())).thenReturn(Optional.of(order));
-    when(paymentRepository.findByIdempotencyKey(paymentDTO.getIdempotencyKey())).thenReturn(
-        Optional.empty());
-    when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> {
-      Payment savedPayment = invocation.getArgument(0);
-      savedPayment.setId(1L);
-      return savedPayment;
+    when(paymentRepository.insertOrGet(any(Payment.class))).thenAnswer(invocation -> {
+      Payment insertedPayment = invocation.getArgument(0);
+      insertedPayment.setId(1L);
+      return insertedPayment;
     });
     when(paymentMapper.toDto(any(Payment.class))).thenReturn(paymentDTO);
+    when(paymentGatewayClient.authorize(any(PaymentAuthorization.class)))
+        .thenReturn(GatewayResponse.approved("auth-1"));
+    when(paymentGatewayClient.capture("auth-1", paymentDTO.getAmount()))
+        .thenReturn(GatewayResponse.approved("capture-1"));
 
     // When
     PaymentDTO result = paymentService.processPayment(paymentDTO);
@@ -296,8 +538,8 @@ class PaymentServiceImplTest {
     assertThat(result).isNotNull();
 
     verify(orderRepository).findById(paymentDTO.getOrderId());
-    verify(paymentRepository).findByIdempotencyKey(paymentDTO.getIdempotencyKey());
-    verify(paymentRepository, times(2)).save(any(Payment.class));
+    verify(paymentRepository).insertOrGet(any(Payment.class));
+    verify(paymentRepository).updateStatus(any(Payment.class), eq(PaymentStatus.COMPLETED));
   }
 
   @Test
@@ -313,7 +555,7 @@ class PaymentServiceImplTest {
         .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
 
     verify(orderRepository).findById(paymentDTO.getOrderId());
-    verify(paymentRepository, never()).save(any(Payment.class));
+    verify(paymentRepository, never()).insertOrGet(any(Payment.class));
   }
 
   @Test
@@ -329,7 +571,7 @@ class PaymentServiceImplTest {
         .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
 
     verify(orderRepository).findById(paymentDTO.getOrderId());
-    verify(paymentRepository, never()).save(any(Payment.class));
+    verify(paymentRepository, never()).insertOrGet(any(Payment.class));
   }
 
   // Test subclass that overrides getCurrentUser to avoid static mocking
@@ -344,9 +586,12 @@ class PaymentServiceImplTest {
         PaymentMapper paymentMapper,
         AuditService auditService,
         NotificationService notificationService,
+        PaymentGatewayClient paymentGatewayClient,
+        PlatformTransactionManager transactionManager,
         User currentUser) {
       super(userRepository, paymentRepository, orderRepository, notificationRepository,
-            paymentMapper, auditService, notificationService);
+            paymentMapper, auditService, notificationService, paymentGatewayClient,
+            transactionManager);
       this.currentUser = currentUser;
     }
 
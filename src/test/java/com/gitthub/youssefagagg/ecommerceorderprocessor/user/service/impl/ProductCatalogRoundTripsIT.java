@@ -0,0 +1,144 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCounter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCountingConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.ProductService;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks that a catalog page is read with a fixed number of statements, whatever its size.
+ */
+@Import({TestcontainersConfiguration.class, StatementCountingConfiguration.class})
+@SpringBootTest
+@Transactional
+class ProductCatalogRoundTripsIT {
+
+  private static final int PRODUCTS = 25;
+  private static final int PAGE_SIZE = 20;
+
+  @Autowired
+  private ProductService productService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private InventoryRepository inventoryRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @BeforeEach
+  void setUp() {
+    for (int i = 0; i < PRODUCTS; i++) {
+      Product product = productRepository.save(Product.builder()
+                                                      .name("Catalog Product " + i)
+                                                      .description("Catalog Description")
+                                                      .price(BigDecimal.valueOf(10 + i))
+                                                      .build());
+      inventoryRepository.save(Inventory.builder()
+                                        .product(product)
+                                        .quantity(10 + i)
+                                        .reservedQuantity(i % 3)
+                                        .build());
+    }
+    // Start from an empty persistence context, as a new request would
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  @DisplayName("Should read a catalog page with one select and one count")
+  void shouldReadCatalogPageWithTwoStatements() {
+    // Given
+    Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "id"));
+
+    // When
+    StatementCounter.reset();
+    PaginationResponse<ProductDTO> result = productService.findAll(pageable);
+    int statements = StatementCounter.count();
+
+    // Then
+    assertThat(result.data()).hasSize(PAGE_SIZE);
+    assertThat(result.totalCount()).isGreaterThanOrEqualTo(PRODUCTS);
+    assertThat(result.data()).allSatisfy(product -> assertThat(product.getAvailableQuantity())
+        .isEqualTo(availableQuantity(product.getId())));
+    assertThat(statements).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should search the catalog with one select and one count")
+  void shouldSearchCatalogWithTwoStatements() {
+    // Given
+    Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("name"));
+
+    // When
+    StatementCounter.reset();
+    PaginationResponse<ProductDTO> result =
+        productService.findByNameContaining("catalog product", pageable);
+    int statements = StatementCounter.count();
+
+    // Then
+    assertThat(result.data()).hasSize(PAGE_SIZE);
+    assertThat(result.totalCount()).isEqualTo(PRODUCTS);
+    assertThat(result.data()).allSatisfy(product -> {
+      assertThat(product.getName()).startsWith("Catalog Product");
+      assertThat(product.getAvailableQuantity()).isEqualTo(availableQuantity(product.getId()));
+    });
+    assertThat(statements).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should treat wildcards in the search text literally")
+  void shouldEscapeWildcardsInSearch() {
+    // When
+    PaginationResponse<ProductDTO> result =
+        productService.findByNameContaining("catalog%product", PageRequest.of(0, PAGE_SIZE));
+
+    // Then
+    assertThat(result.data()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should load the inventory of every product when reading entities")
+  void shouldLoadInventoryPerProductWhenReadingEntities() {
+    // Given
+    Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "id"));
+
+    // When
+    StatementCounter.reset();
+    Page<Product> page = productRepository.findAll(pageable);
+    page.forEach(product -> product.getInventory().getAvailableQuantity());
+    int statements = StatementCounter.count();
+
+    // Then
+    // The inverse one-to-one costs extra selects on top of the page and the count
+    assertThat(statements).isGreaterThan(2);
+  }
+
+  private Integer availableQuantity(Long productId) {
+    Product product = productRepository.findById(productId).orElseThrow();
+    return inventoryRepository.findByProduct(product).orElseThrow().getAvailableQuantity();
+  }
+}
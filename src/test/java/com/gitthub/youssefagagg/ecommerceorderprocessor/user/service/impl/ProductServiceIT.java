@@ -1,7 +1,10 @@
 package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
 
+import static com.gitthub.youssefagagg.ecommerceorderprocessor.StatementsAssert.assertThatStatements;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCounter;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.StatementCountingConfiguration;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.CreateProductDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.InventoryDTO;
@@ -12,6 +15,7 @@ import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.ProductService;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,7 +27,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
-@Import(TestcontainersConfiguration.class)
+@Import({TestcontainersConfiguration.class, StatementCountingConfiguration.class})
 @SpringBootTest
 @Transactional
 class ProductServiceIT {
@@ -37,6 +41,9 @@ class ProductServiceIT {
   @Autowired
   private InventoryRepository inventoryRepository;
 
+  @Autowired
+  private EntityManager entityManager;
+
   private CreateProductDTO createProductDTO;
   private ProductDTO savedProduct;
 
@@ -186,4 +193,74 @@ class ProductServiceIT {
     assertThat(result.getReservedQuantity()).isEqualTo(5);
     assertThat(result.getAvailableQuantity()).isEqualTo(15);
   }
+
+  @Test
+  @DisplayName("Should save a product with one insert for it and one for its inventory")
+  void shouldSaveProductWithTwoInserts() {
+    // Given
+    CreateProductDTO newProductDTO = new CreateProductDTO();
+    newProductDTO.setName("New Product");
+    newProductDTO.setDescription("New Description");
+    newProductDTO.setPrice(BigDecimal.valueOf(49.99));
+    newProductDTO.setQuantity(5);
+    entityManager.flush();
+
+    // When
+    var saved = StatementCounter.measure(() -> {
+      ProductDTO result = productService.save(newProductDTO);
+      entityManager.flush();
+      return result;
+    });
+
+    // Then
+    assertThat(saved.result().getId()).isNotNull();
+    assertThatStatements(saved.statements()).hasInserts(2).hasCount(2);
+  }
+
+  @Test
+  @DisplayName("Should read a product and its inventory without writing")
+  void shouldReadProductWithoutWriting() {
+    // Given
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    var product = StatementCounter.measure(() -> productService.findOne(savedProduct.getId()));
+    entityManager.clear();
+    var inventory = StatementCounter.measure(
+        () -> productService.getInventory(savedProduct.getId()));
+
+    // Then
+    assertThat(product.result().getAvailableQuantity()).isEqualTo(10);
+    assertThat(inventory.result().getAvailableQuantity()).isEqualTo(10);
+    // The product, and its inventory if it is not joined in
+    assertThatStatements(product.statements()).hasNoWrites().hasSelectsAtMost(2);
+    assertThatStatements(inventory.statements()).hasNoWrites().hasSelectsAtMost(2);
+  }
+
+  @Test
+  @DisplayName("Should update an inventory with one select and one update")
+  void shouldUpdateInventoryWithOneUpdate() {
+    // Given
+    Inventory inventory = inventoryRepository.findByProduct(
+        productRepository.findById(savedProduct.getId()).orElseThrow()).orElseThrow();
+    InventoryDTO updateInventoryDTO = new InventoryDTO();
+    updateInventoryDTO.setId(inventory.getId());
+    updateInventoryDTO.setProductId(savedProduct.getId());
+    updateInventoryDTO.setQuantity(20);
+    updateInventoryDTO.setReservedQuantity(5);
+    entityManager.flush();
+    entityManager.clear();
+
+    // When
+    var updated = StatementCounter.measure(() -> {
+      InventoryDTO result = productService.updateInventory(updateInventoryDTO);
+      entityManager.flush();
+      return result;
+    });
+
+    // Then
+    assertThat(updated.result().getAvailableQuantity()).isEqualTo(15);
+    assertThatStatements(updated.statements()).hasUpdates(1).hasInserts(0);
+  }
 }
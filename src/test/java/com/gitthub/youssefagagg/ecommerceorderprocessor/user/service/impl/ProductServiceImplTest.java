@@ -257,11 +257,11 @@ class ProductServiceImplTest {
   void shouldFindAllProductsWithPagination() {
     // Given
     Pageable pageable = PageRequest.of(0, 10);
-    List<Product> products = new ArrayList<>();
-    products.add(product);
-    Page<Product> page = new PageImpl<>(products, pageable, products.size());
+    List<ProductDTO> products = new ArrayList<>();
+    products.add(productDTO);
+    Page<ProductDTO> page = new PageImpl<>(products, pageable, products.size());
 
-    when(productRepository.findAll(pageable)).thenReturn(page);
+    when(productRepository.findCatalog(pageable)).thenReturn(page);
 
     // When
     PaginationResponse<ProductDTO> result = productService.findAll(pageable);
@@ -275,7 +275,8 @@ class ProductServiceImplTest {
         product.getInventory().getAvailableQuantity());
     assertThat(result.totalCount()).isEqualTo(1);
 
-    verify(productRepository).findAll(pageable);
+    verify(productRepository).findCatalog(pageable);
+    verify(productRepository, never()).findAll(any(Pageable.class));
   }
 
   @Test
@@ -284,11 +285,11 @@ class ProductServiceImplTest {
     // Given
     String searchName = "Test";
     Pageable pageable = PageRequest.of(0, 10);
-    List<Product> products = new ArrayList<>();
-    products.add(product);
-    Page<Product> page = new PageImpl<>(products, pageable, products.size());
+    List<ProductDTO> products = new ArrayList<>();
+    products.add(productDTO);
+    Page<ProductDTO> page = new PageImpl<>(products, pageable, products.size());
 
-    when(productRepository.findByNameContainingIgnoreCase(searchName, pageable)).thenReturn(page);
+    when(productRepository.findCatalogByNameContaining(searchName, pageable)).thenReturn(page);
 
     // When
     PaginationResponse<ProductDTO> result = productService.findByNameContaining(searchName,
@@ -303,7 +304,7 @@ class ProductServiceImplTest {
         product.getInventory().getAvailableQuantity());
     assertThat(result.totalCount()).isEqualTo(1);
 
-    verify(productRepository).findByNameContainingIgnoreCase(searchName, pageable);
+    verify(productRepository).findCatalogByNameContaining(searchName, pageable);
   }
 
   @Test
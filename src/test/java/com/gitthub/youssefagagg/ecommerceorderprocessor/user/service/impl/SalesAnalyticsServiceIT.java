@@ -0,0 +1,230 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReportingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesAnalyticsDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesDimension;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesGranularity;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderItemRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesAnalyticsService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+@Transactional
+class SalesAnalyticsServiceIT {
+
+  private static final List<OrderStatus> ALL_STATUSES = List.of(OrderStatus.values());
+
+  @Autowired
+  private SalesAnalyticsService salesAnalyticsService;
+
+  @Autowired
+  private SalesRollupService salesRollupService;
+
+  @Autowired
+  private OrderService orderService;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private InventoryRepository inventoryRepository;
+
+  @Autowired
+  private OrderItemRepository orderItemRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ReportingConfig reportingConfig;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Product testProduct;
+  private LocalDate today;
+
+  @BeforeEach
+  void setUp() {
+    clearCubes();
+    orderItemRepository.deleteAll();
+    orderRepository.deleteAll();
+    inventoryRepository.deleteAll();
+    productRepository.deleteAll();
+
+    User testUser = new User();
+    testUser.setUsername("testuser");
+    testUser.setEmail("testuser@example.com");
+    testUser.setFirstName("Test");
+    testUser.setLastName("User");
+    // Password must be exactly 60 characters long
+    testUser.setPassword("$2a$10$eDhncK/4cNH2KE.Y51AWpeL8/5TCTWBpxmVhvZuLfCPIb4SLQtEP6");
+    userRepository.save(testUser);
+
+    testProduct = new Product();
+    testProduct.setName("Test Product");
+    testProduct.setDescription("Test Description");
+    testProduct.setPrice(BigDecimal.valueOf(99.99));
+    testProduct = productRepository.save(testProduct);
+
+    Inventory inventory = new Inventory();
+    inventory.setProduct(testProduct);
+    inventory.setQuantity(10);
+    inventory.setReservedQuantity(0);
+    inventory = inventoryRepository.save(inventory);
+    testProduct.setInventory(inventory);
+    testProduct = productRepository.save(testProduct);
+
+    today = LocalDate.now(reportingConfig.getZone());
+  }
+
+  @Test
+  @DisplayName("Should report order count, units, revenue and average order value per day")
+  @WithMockUser(username = "testuser")
+  void shouldReportDailyTotals() {
+    // Given
+    createOrder(1);
+    createOrder(3);
+    salesRollupService.applyPendingDeltas();
+
+    // When
+    List<SalesAnalyticsDTO> result = salesAnalyticsService.getSalesAnalytics(
+        today, today, SalesGranularity.DAY, null, SalesDimension.NONE, null);
+
+    // Then
+    assertThat(result).hasSize(1);
+    SalesAnalyticsDTO row = result.get(0);
+    assertThat(row.getPeriodStart().toLocalDate()).isEqualTo(today);
+    assertThat(row.getOrderCount()).isEqualTo(2);
+    assertThat(row.getUnits()).isEqualTo(4);
+    assertThat(row.getRevenue()).isEqualByComparingTo("399.96");
+    assertThat(row.getAverageOrderValue()).isEqualByComparingTo("199.98");
+  }
+
+  @Test
+  @DisplayName("Should bucket hours in the requested zone")
+  @WithMockUser(username = "testuser")
+  void shouldBucketHoursInRequestedZone() {
+    // Given
+    createOrder(2);
+    salesRollupService.applyPendingDeltas();
+    ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+    LocalDate tokyoToday = LocalDate.now(tokyo);
+
+    // When
+    List<SalesAnalyticsDTO> result = salesAnalyticsService.getSalesAnalytics(
+        tokyoToday, tokyoToday, SalesGranularity.HOUR, "Asia/Tokyo", SalesDimension.NONE, null);
+
+    // Then
+    assertThat(result).hasSize(1);
+    assertThat(result.get(0).getPeriodStart().getOffset().getId()).isEqualTo("+09:00");
+    assertThat(result.get(0).getPeriodStart().getMinute()).isZero();
+    assertThat(result.get(0).getOrderCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should break sales down by product, status and cohort")
+  @WithMockUser(username = "testuser")
+  void shouldBreakDownByDimension() {
+    // Given
+    createOrder(1);
+    OrderDTO cancelled = createOrder(2);
+    orderService.cancelOrder(cancelled.getId());
+    salesRollupService.applyPendingDeltas();
+
+    // When
+    List<SalesAnalyticsDTO> byProduct = salesAnalyticsService.getSalesAnalytics(
+        today, today, SalesGranularity.DAY, null, SalesDimension.PRODUCT, null);
+    List<SalesAnalyticsDTO> byStatus = salesAnalyticsService.getSalesAnalytics(
+        today, today, SalesGranularity.DAY, null, SalesDimension.STATUS, ALL_STATUSES);
+    List<SalesAnalyticsDTO> byCohort = salesAnalyticsService.getSalesAnalytics(
+        today, today, SalesGranularity.MONTH, null, SalesDimension.COHORT, null);
+
+    // Then
+    assertThat(byProduct).singleElement().satisfies(row -> {
+      assertThat(row.getKey()).isEqualTo(testProduct.getId().toString());
+      assertThat(row.getLabel()).isEqualTo("Test Product");
+      assertThat(row.getUnits()).isEqualTo(1);
+    });
+    assertThat(byStatus).extracting(SalesAnalyticsDTO::getKey)
+                        .containsExactly(OrderStatus.CANCELLED.name(), OrderStatus.PAID.name());
+    assertThat(byCohort).singleElement().satisfies(row -> {
+      assertThat(row.getKey()).isEqualTo(YearMonth.now(reportingConfig.getZone()).toString());
+      assertThat(row.getOrderCount()).isEqualTo(1);
+    });
+  }
+
+  @Test
+  @DisplayName("Should rebuild the same cubes as the incremental updates")
+  @WithMockUser(username = "testuser")
+  void shouldBackfillSameCubesAsIncrementalUpdates() {
+    // Given
+    createOrder(1);
+    createOrder(3);
+    OrderDTO cancelled = createOrder(2);
+    orderService.cancelOrder(cancelled.getId());
+    salesRollupService.applyPendingDeltas();
+    List<SalesAnalyticsDTO> incremental = salesAnalyticsService.getSalesAnalytics(
+        today, today, SalesGranularity.HOUR, null, SalesDimension.STATUS, ALL_STATUSES);
+
+    // When
+    clearCubes();
+    salesRollupService.backfill(today.minusDays(1), today.plusDays(1));
+
+    // Then
+    List<SalesAnalyticsDTO> rebuilt = salesAnalyticsService.getSalesAnalytics(
+        today, today, SalesGranularity.HOUR, null, SalesDimension.STATUS, ALL_STATUSES);
+    assertThat(rebuilt).usingRecursiveFieldByFieldElementComparator()
+                       .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                       .containsExactlyElementsOf(incremental);
+  }
+
+  private void clearCubes() {
+    jdbcTemplate.update("DELETE FROM sales_cube_orders");
+    jdbcTemplate.update("DELETE FROM sales_cube_products");
+  }
+
+  private OrderDTO createOrder(int quantity) {
+    OrderItemDTO item = new OrderItemDTO();
+    item.setProductId(testProduct.getId());
+    item.setQuantity(quantity);
+
+    OrderDTO orderDTO = new OrderDTO();
+    orderDTO.setIdempotencyKey(UUID.randomUUID().toString());
+    orderDTO.setOrderItems(List.of(item));
+    return orderService.createOrder(orderDTO);
+  }
+}
@@ -0,0 +1,119 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReportingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesAnalyticsDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesDimension;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesGranularity;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesCubeRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl.SalesAnalyticsServiceImpl;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SalesAnalyticsServiceImplTest {
+
+  @Mock
+  private SalesCubeRepository salesCubeRepository;
+
+  private ReportingConfig reportingConfig;
+  private SalesAnalyticsServiceImpl salesAnalyticsService;
+
+  @BeforeEach
+  void setUp() {
+    reportingConfig = new ReportingConfig();
+    reportingConfig.setZone(ZoneId.of("Europe/Berlin"));
+    salesAnalyticsService = new SalesAnalyticsServiceImpl(salesCubeRepository, reportingConfig);
+  }
+
+  @Test
+  @DisplayName("Should query whole days of the requested zone")
+  void shouldQueryWholeDaysOfRequestedZone() {
+    // Given
+    LocalDate day = LocalDate.of(2025, 3, 9);
+    SalesAnalyticsDTO row = SalesAnalyticsDTO.builder().orderCount(1).build();
+    when(salesCubeRepository.aggregate(
+        Instant.parse("2025-03-09T08:00:00Z"), Instant.parse("2025-03-10T07:00:00Z"),
+        SalesGranularity.HOUR, ZoneId.of("America/Los_Angeles"), "America/Los_Angeles",
+        SalesDimension.STATUS, List.of(OrderStatus.PAID)))
+        .thenReturn(List.of(row));
+
+    // When
+    List<SalesAnalyticsDTO> result = salesAnalyticsService.getSalesAnalytics(
+        day, day, SalesGranularity.HOUR, "America/Los_Angeles", SalesDimension.STATUS,
+        List.of(OrderStatus.PAID));
+
+    // Then
+    assertThat(result).containsExactly(row);
+  }
+
+  @Test
+  @DisplayName("Should default to daily totals of counted orders in the reporting zone")
+  void shouldApplyDefaults() {
+    // Given
+    LocalDate day = LocalDate.of(2025, 1, 15);
+
+    // When
+    salesAnalyticsService.getSalesAnalytics(day, day, null, null, null, null);
+
+    // Then
+    verify(salesCubeRepository).aggregate(
+        Instant.parse("2025-01-14T23:00:00Z"), Instant.parse("2025-01-15T23:00:00Z"),
+        SalesGranularity.DAY, ZoneId.of("Europe/Berlin"), "Europe/Berlin", SalesDimension.NONE,
+        OrderStatus.countedAsSale());
+  }
+
+  @Test
+  @DisplayName("Should reject an unknown time zone")
+  void shouldRejectUnknownZone() {
+    assertThatThrownBy(() -> salesAnalyticsService.getSalesAnalytics(
+        null, null, SalesGranularity.DAY, "Mars/Olympus", null, null))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+
+    verifyNoInteractions(salesCubeRepository);
+  }
+
+  @Test
+  @DisplayName("Should reject a non-zero fixed offset")
+  void shouldRejectFixedOffset() {
+    assertThatThrownBy(() -> salesAnalyticsService.getSalesAnalytics(
+        null, null, SalesGranularity.DAY, "+02:00", null, null))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+  }
+
+  @Test
+  @DisplayName("Should reject an inverted range and overlong hourly ranges")
+  void shouldRejectInvalidRanges() {
+    LocalDate start = LocalDate.of(2025, 1, 1);
+
+    assertThatThrownBy(() -> salesAnalyticsService.getSalesAnalytics(
+        start, start.minusDays(1), SalesGranularity.DAY, null, null, null))
+        .isInstanceOf(CustomException.class);
+    assertThatThrownBy(() -> salesAnalyticsService.getSalesAnalytics(
+        start, start.plusDays(31), SalesGranularity.HOUR, null, null, null))
+        .isInstanceOf(CustomException.class);
+
+    verify(salesCubeRepository, never()).aggregate(any(), any(), any(), any(), any(), any(),
+                                                   any());
+  }
+}
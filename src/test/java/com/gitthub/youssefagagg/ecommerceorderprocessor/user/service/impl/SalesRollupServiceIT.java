@@ -0,0 +1,223 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.TestcontainersConfiguration;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReportingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.DailySales;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Inventory;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.Product;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.User;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.DailySalesRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.InventoryRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderItemRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.ProductRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.UserRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+@Import(TestcontainersConfiguration.class)
+@SpringBootTest
+@Transactional
+class SalesRollupServiceIT {
+
+  @Autowired
+  private SalesRollupService salesRollupService;
+
+  @Autowired
+  private OrderService orderService;
+
+  @Autowired
+  private DailySalesRepository dailySalesRepository;
+
+  @Autowired
+  private OrderRepository orderRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private InventoryRepository inventoryRepository;
+
+  @Autowired
+  private OrderItemRepository orderItemRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ReportingConfig reportingConfig;
+
+  private Product testProduct;
+  private LocalDate today;
+
+  @BeforeEach
+  void setUp() {
+    dailySalesRepository.deleteAll();
+    orderItemRepository.deleteAll();
+    orderRepository.deleteAll();
+    inventoryRepository.deleteAll();
+    productRepository.deleteAll();
+
+    User testUser = new User();
+    testUser.setUsername("testuser");
+    testUser.setEmail("testuser@example.com");
+    testUser.setFirstName("Test");
+    testUser.setLastName("User");
+    // Password must be exactly 60 characters long
+    testUser.setPassword("$2a$10$eDhncK/4cNH2KE.Y51AWpeL8/5TCTWBpxmVhvZuLfCPIb4SLQtEP6");
+    userRepository.save(testUser);
+
+    testProduct = new Product();
+    testProduct.setName("Test Product");
+    testProduct.setDescription("Test Description");
+    testProduct.setPrice(BigDecimal.valueOf(99.99));
+    testProduct = productRepository.save(testProduct);
+
+    Inventory inventory = new Inventory();
+    inventory.setProduct(testProduct);
+    inventory.setQuantity(10);
+    inventory.setReservedQuantity(0);
+    inventory = inventoryRepository.save(inventory);
+    testProduct.setInventory(inventory);
+    testProduct = productRepository.save(testProduct);
+
+    today = LocalDate.now(reportingConfig.getZone());
+  }
+
+  @Test
+  @DisplayName("Should add a paid order to the rollup")
+  @WithMockUser(username = "testuser")
+  void shouldAddPaidOrderToRollup() {
+    // When
+    createOrder(2);
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    DailySales row = dailySalesRepository.findById(today).orElseThrow();
+    assertThat(row.getOrderCount()).isEqualTo(1L);
+    assertThat(row.getTotalSales()).isEqualByComparingTo("199.98");
+
+    List<DailySalesReportDTO> report = orderService.getDailySalesReport(today, today);
+    assertThat(report).hasSize(1);
+    assertThat(report.get(0).getTotalSales()).isEqualByComparingTo("199.98");
+  }
+
+  @Test
+  @DisplayName("Should remove a cancelled order from the rollup")
+  @WithMockUser(username = "testuser")
+  void shouldRemoveCancelledOrderFromRollup() {
+    // Given
+    OrderDTO kept = createOrder(1);
+    OrderDTO cancelled = createOrder(2);
+
+    // When
+    orderService.cancelOrder(cancelled.getId());
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    DailySales row = dailySalesRepository.findById(today).orElseThrow();
+    assertThat(row.getOrderCount()).isEqualTo(1L);
+    assertThat(row.getTotalSales()).isEqualByComparingTo(kept.getTotalAmount());
+  }
+
+  @Test
+  @DisplayName("Should omit days without counted orders from the report")
+  @WithMockUser(username = "testuser")
+  void shouldOmitDaysWithoutSales() {
+    // Given
+    OrderDTO order = createOrder(1);
+
+    // When
+    orderService.cancelOrder(order.getId());
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    assertThat(orderService.getDailySalesReport(today, today)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should rebuild the same rollup as the incremental updates")
+  @WithMockUser(username = "testuser")
+  void shouldBackfillSameRollupAsIncrementalUpdates() {
+    // Given
+    createOrder(1);
+    createOrder(3);
+    OrderDTO cancelled = createOrder(2);
+    orderService.cancelOrder(cancelled.getId());
+    salesRollupService.applyPendingDeltas();
+    DailySales incremental = dailySalesRepository.findById(today).orElseThrow();
+
+    // When
+    dailySalesRepository.deleteAll();
+    dailySalesRepository.flush();
+    int rows = salesRollupService.backfill(today.minusDays(1), today.plusDays(1));
+
+    // Then
+    assertThat(rows).isEqualTo(1);
+    DailySales rebuilt = dailySalesRepository.findById(today).orElseThrow();
+    assertThat(rebuilt.getOrderCount()).isEqualTo(incremental.getOrderCount());
+    assertThat(rebuilt.getTotalSales()).isEqualByComparingTo(incremental.getTotalSales());
+  }
+
+  @Test
+  @DisplayName("Should update the rollup only once the status changes are folded in")
+  @WithMockUser(username = "testuser")
+  void shouldFoldStatusChangesLater() {
+    // Given
+    createOrder(2);
+    assertThat(dailySalesRepository.findById(today)).isEmpty();
+
+    // When
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    DailySales row = dailySalesRepository.findById(today).orElseThrow();
+    assertThat(row.getOrderCount()).isEqualTo(1L);
+    assertThat(row.getTotalSales()).isEqualByComparingTo("199.98");
+  }
+
+  @Test
+  @DisplayName("Should not apply status changes again once a backfill has counted them")
+  @WithMockUser(username = "testuser")
+  void shouldDropChangesCountedByBackfill() {
+    // Given
+    createOrder(2);
+
+    // When
+    salesRollupService.backfill(today.minusDays(1), today.plusDays(1));
+
+    // Then
+    salesRollupService.applyPendingDeltas();
+    DailySales row = dailySalesRepository.findById(today).orElseThrow();
+    assertThat(row.getOrderCount()).isEqualTo(1L);
+    assertThat(row.getTotalSales()).isEqualByComparingTo("199.98");
+  }
+
+  private OrderDTO createOrder(int quantity) {
+    OrderItemDTO item = new OrderItemDTO();
+    item.setProductId(testProduct.getId());
+    item.setQuantity(quantity);
+
+    OrderDTO orderDTO = new OrderDTO();
+    orderDTO.setIdempotencyKey(UUID.randomUUID().toString());
+    orderDTO.setOrderItems(List.of(item));
+    return orderService.createOrder(orderDTO);
+  }
+}
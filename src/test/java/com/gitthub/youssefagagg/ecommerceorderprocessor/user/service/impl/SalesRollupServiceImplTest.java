@@ -0,0 +1,318 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.config.ReportingConfig;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.DailySales;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.DailySalesRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.OrderRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesCubeRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesRollupDeltaRepository;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.repository.SalesRollupDeltaRepository.Delta;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.impl.SalesRollupServiceImpl;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceImplTest {
+
+  @Mock
+  private DailySalesRepository dailySalesRepository;
+
+  @Mock
+  private OrderRepository orderRepository;
+
+  @Mock
+  private SalesCubeRepository salesCubeRepository;
+
+  @Mock
+  private SalesRollupDeltaRepository salesRollupDeltaRepository;
+
+  private ReportingConfig reportingConfig;
+  private SalesRollupServiceImpl salesRollupService;
+
+  @BeforeEach
+  void setUp() {
+    reportingConfig = new ReportingConfig();
+    reportingConfig.setZone(ZoneId.of("Europe/Berlin"));
+    salesRollupService = new SalesRollupServiceImpl(
+        dailySalesRepository, orderRepository, salesCubeRepository, salesRollupDeltaRepository,
+        reportingConfig, mock(PlatformTransactionManager.class), Runnable::run);
+  }
+
+  @Test
+  @DisplayName("Should only queue a status change for the rollups")
+  void shouldQueueStatusChange() {
+    // When
+    salesRollupService.recordStatusChange(List.of(1L, 2L), OrderStatus.PENDING, OrderStatus.PAID);
+
+    // Then
+    verify(salesRollupDeltaRepository).append(List.of(1L, 2L), OrderStatus.PENDING,
+                                              OrderStatus.PAID);
+    verify(salesCubeRepository, never()).applyDelta(anyList(), any(), anyInt(), anyString());
+    verify(dailySalesRepository, never()).applyDelta(anyList(), anyInt(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should ignore a change to the same status")
+  void shouldIgnoreUnchangedStatus() {
+    // When
+    salesRollupService.recordStatusChange(List.of(1L), OrderStatus.PAID, OrderStatus.PAID);
+
+    // Then
+    verify(salesRollupDeltaRepository, never()).append(anyList(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should add orders entering a counted status")
+  void shouldAddOrdersEnteringCountedStatus() {
+    // Given
+    givenDeltas(new Delta(1L, 1L, OrderStatus.PENDING, OrderStatus.PAID),
+                new Delta(2L, 2L, OrderStatus.PENDING, OrderStatus.PAID));
+
+    // When
+    int applied = salesRollupService.applyPendingDeltas();
+
+    // Then
+    assertThat(applied).isEqualTo(2);
+    verify(dailySalesRepository).applyDelta(List.of(1L, 2L), 1, "Europe/Berlin");
+    verify(salesCubeRepository).applyDelta(List.of(1L, 2L), OrderStatus.PENDING, -1,
+                                           "Europe/Berlin");
+    verify(salesCubeRepository).applyDelta(List.of(1L, 2L), OrderStatus.PAID, 1,
+                                           "Europe/Berlin");
+    verify(salesRollupDeltaRepository).deleteByIdIn(List.of(1L, 2L));
+  }
+
+  @Test
+  @DisplayName("Should add new orders to the cubes only")
+  void shouldAddNewOrdersToCubes() {
+    // Given
+    givenDeltas(new Delta(1L, 1L, null, OrderStatus.PENDING));
+
+    // When
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    verify(salesCubeRepository).applyDelta(List.of(1L), OrderStatus.PENDING, 1, "Europe/Berlin");
+    verify(salesCubeRepository, times(1)).applyDelta(anyList(), any(), anyInt(), anyString());
+    verify(dailySalesRepository, never()).applyDelta(anyList(), anyInt(), anyString());
+  }
+
+  @Test
+  @DisplayName("Should remove orders leaving a counted status")
+  void shouldRemoveOrdersLeavingCountedStatus() {
+    // Given
+    givenDeltas(new Delta(1L, 1L, OrderStatus.PROCESSING, OrderStatus.CANCELLED));
+
+    // When
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    verify(dailySalesRepository).applyDelta(List.of(1L), -1, "Europe/Berlin");
+  }
+
+  @Test
+  @DisplayName("Should move orders between cube cells without touching the daily rollup")
+  void shouldIgnoreChangesBetweenCountedStatuses() {
+    // Given
+    givenDeltas(new Delta(1L, 1L, OrderStatus.PAID, OrderStatus.PROCESSING),
+                new Delta(2L, 2L, OrderStatus.PENDING, OrderStatus.CANCELLED));
+
+    // When
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    verify(dailySalesRepository, never()).applyDelta(anyList(), anyInt(), anyString());
+    verify(salesCubeRepository).applyDelta(List.of(1L), OrderStatus.PAID, -1, "Europe/Berlin");
+    verify(salesCubeRepository).applyDelta(List.of(1L), OrderStatus.PROCESSING, 1,
+                                           "Europe/Berlin");
+    verify(salesCubeRepository).applyDelta(List.of(2L), OrderStatus.PENDING, -1,
+                                           "Europe/Berlin");
+    verify(salesCubeRepository).applyDelta(List.of(2L), OrderStatus.CANCELLED, 1,
+                                           "Europe/Berlin");
+  }
+
+  @Test
+  @DisplayName("Should move an order changing status several times once")
+  void shouldCollapseChangesOfOneOrder() {
+    // Given
+    givenDeltas(new Delta(1L, 1L, null, OrderStatus.PENDING),
+                new Delta(2L, 1L, OrderStatus.PENDING, OrderStatus.PAID));
+
+    // When
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    verify(salesCubeRepository).applyDelta(List.of(1L), OrderStatus.PAID, 1, "Europe/Berlin");
+    verify(salesCubeRepository, times(1)).applyDelta(anyList(), any(), anyInt(), anyString());
+    verify(dailySalesRepository).applyDelta(List.of(1L), 1, "Europe/Berlin");
+    verify(salesRollupDeltaRepository).deleteByIdIn(List.of(1L, 2L));
+  }
+
+  @Test
+  @DisplayName("Should lock the rollups before reading the status changes")
+  void shouldLockRollupsBeforeFolding() {
+    // Given
+    givenDeltas();
+
+    // When
+    int applied = salesRollupService.applyPendingDeltas();
+
+    // Then
+    assertThat(applied).isZero();
+    InOrder inOrder = inOrder(salesCubeRepository, dailySalesRepository,
+                              salesRollupDeltaRepository);
+    inOrder.verify(salesCubeRepository).lockForRebuild();
+    inOrder.verify(dailySalesRepository).lockForRebuild();
+    inOrder.verify(salesRollupDeltaRepository).findOldest(1000);
+    verify(salesRollupDeltaRepository, never()).deleteByIdIn(anyList());
+  }
+
+  @Test
+  @DisplayName("Should skip a scheduled fold while the rollups are locked")
+  void shouldSkipFoldWhileRollupsAreLocked() {
+    // Given
+    doThrow(new CannotAcquireLockException("locked")).when(salesCubeRepository)
+                                                      .tryLockForRebuild();
+
+    // When
+    salesRollupService.foldDeltas();
+
+    // Then
+    verify(salesRollupDeltaRepository, never()).findOldest(anyInt());
+  }
+
+  @Test
+  @DisplayName("Should map a zero offset to UTC for the database")
+  void shouldMapZeroOffsetToUtc() {
+    // Given
+    reportingConfig.setZone(ZoneId.of("Z"));
+    givenDeltas(new Delta(1L, 1L, OrderStatus.PENDING, OrderStatus.PAID));
+
+    // When
+    salesRollupService.applyPendingDeltas();
+
+    // Then
+    verify(dailySalesRepository).applyDelta(List.of(1L), 1, "UTC");
+  }
+
+  @Test
+  @DisplayName("Should read the report from the rollup")
+  void shouldReadReportFromRollup() {
+    // Given
+    LocalDate day = LocalDate.of(2025, 6, 1);
+    when(dailySalesRepository.findBySalesDateBetweenAndOrderCountGreaterThanOrderBySalesDateAsc(
+        day, day.plusDays(6), 0L))
+        .thenReturn(List.of(new DailySales(day, BigDecimal.valueOf(199.98), 2L)));
+
+    // When
+    List<DailySalesReportDTO> result = salesRollupService.getDailySales(day, day.plusDays(6));
+
+    // Then
+    assertThat(result).containsExactly(new DailySalesReportDTO(day, BigDecimal.valueOf(199.98)));
+  }
+
+  @Test
+  @DisplayName("Should rebuild a range in chunks")
+  void shouldBackfillInChunks() {
+    // Given
+    reportingConfig.setBackfillChunkDays(10);
+    LocalDate start = LocalDate.of(2025, 1, 1);
+    LocalDate end = LocalDate.of(2025, 1, 25);
+
+    // When
+    salesRollupService.backfill(start, end);
+
+    // Then
+    verify(dailySalesRepository, times(3)).lockForRebuild();
+    verify(salesCubeRepository, times(3)).lockForRebuild();
+    verify(salesCubeRepository).rebuildBetween(Instant.parse("2025-01-20T23:00:00Z"),
+                                               Instant.parse("2025-01-25T23:00:00Z"),
+                                               "Europe/Berlin");
+    verify(dailySalesRepository).deleteBetween(start, LocalDate.of(2025, 1, 10));
+    verify(dailySalesRepository).deleteBetween(LocalDate.of(2025, 1, 11),
+                                               LocalDate.of(2025, 1, 20));
+    verify(dailySalesRepository).deleteBetween(LocalDate.of(2025, 1, 21), end);
+    verify(dailySalesRepository).rebuildBetween(eq(LocalDate.of(2025, 1, 21)), eq(end),
+                                                eq(OrderStatus.countedAsSaleNames()),
+                                                eq("Europe/Berlin"));
+    verify(salesRollupDeltaRepository).deleteForOrdersCreatedBetween(
+        Instant.parse("2025-01-20T23:00:00Z"), Instant.parse("2025-01-25T23:00:00Z"));
+  }
+
+  @Test
+  @DisplayName("Should lock the rollups in the same order as the folds when rebuilding")
+  void shouldLockCubesBeforeDailySales() {
+    // Given
+    LocalDate day = LocalDate.of(2025, 1, 1);
+
+    // When
+    salesRollupService.backfill(day, day);
+
+    // Then
+    InOrder inOrder = inOrder(salesCubeRepository, dailySalesRepository);
+    inOrder.verify(salesCubeRepository).lockForRebuild();
+    inOrder.verify(dailySalesRepository).lockForRebuild();
+  }
+
+  @Test
+  @DisplayName("Should backfill empty rollups from the first order in any status")
+  void shouldBackfillFromFirstOrderOfAnyStatus() {
+    // Given
+    when(dailySalesRepository.count()).thenReturn(0L);
+    when(orderRepository.findFirstCreatedDateByStatusIn(EnumSet.allOf(OrderStatus.class)))
+        .thenReturn(Instant.parse("2025-01-01T10:00:00Z"));
+
+    // When
+    salesRollupService.backfillIfEmpty();
+
+    // Then
+    verify(salesCubeRepository).rebuildBetween(eq(Instant.parse("2024-12-31T23:00:00Z")),
+                                               any(), eq("Europe/Berlin"));
+  }
+
+  @Test
+  @DisplayName("Should reject a backfill with an inverted range")
+  void shouldRejectInvertedBackfillRange() {
+    assertThatThrownBy(() -> salesRollupService.backfill(LocalDate.of(2025, 2, 1),
+                                                         LocalDate.of(2025, 1, 1)))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.INVALID_REQUEST);
+
+    verify(dailySalesRepository, never()).deleteBetween(any(), any());
+  }
+
+  private void givenDeltas(Delta... deltas) {
+    when(salesRollupDeltaRepository.findOldest(1000)).thenReturn(List.of(deltas));
+  }
+}
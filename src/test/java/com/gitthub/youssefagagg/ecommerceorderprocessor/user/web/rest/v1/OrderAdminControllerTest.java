@@ -5,24 +5,38 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.BulkOrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.DailySalesReportDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderItemStatusRequest;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStateMachineDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.OrderStatusResultDTO;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.PaginationResponse;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesAnalyticsDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesDimension;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.SalesGranularity;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderItemStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.entity.OrderStatus;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.service.OrderService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesAnalyticsService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.SalesRollupService;
 import com.gitthub.youssefagagg.ecommerceorderprocessor.web.rest.v1.OrderAdminController;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -42,6 +56,12 @@ class OrderAdminControllerTest {
   @Mock
   private OrderService orderService;
 
+  @Mock
+  private SalesRollupService salesRollupService;
+
+  @Mock
+  private SalesAnalyticsService salesAnalyticsService;
+
   private OrderDTO orderDTO;
   private OrderItemDTO orderItemDTO;
   private DailySalesReportDTO dailySalesReportDTO;
@@ -53,7 +73,8 @@ class OrderAdminControllerTest {
   @BeforeEach
   void setUp() {
     // Initialize controller
-    orderAdminController = new OrderAdminController(orderService);
+    orderAdminController = new OrderAdminController(orderService, salesRollupService,
+                                                    salesAnalyticsService);
 
     // Setup MockMvc with PageableHandlerMethodArgumentResolver to handle Pageable parameters
     mockMvc = MockMvcBuilders.standaloneSetup(orderAdminController)
@@ -181,6 +202,87 @@ class OrderAdminControllerTest {
     verify(orderService).updateOrderStatus(eq(orderId), eq(newStatus));
   }
 
+  @Test
+  @DisplayName("Should describe the order state machine")
+  void shouldDescribeOrderStateMachine() throws Exception {
+    // Given
+    OrderStateMachineDTO stateMachine = OrderStateMachineDTO.builder()
+        .states(List.of(OrderStateMachineDTO.State.builder()
+                                                  .status(OrderStatus.SHIPPED)
+                                                  .terminal(false)
+                                                  .transitions(Set.of(OrderStatus.DELIVERED))
+                                                  .guards(List.of("has-items"))
+                                                  .hooks(List.of("shipping-notification"))
+                                                  .build()))
+        .transitionHooks(List.of("audit"))
+        .build();
+    when(orderService.describeStateMachine()).thenReturn(stateMachine);
+
+    // When/Then
+    mockMvc.perform(get("/api/v1/admin/orders/state-machine"))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.states[0].status").value("SHIPPED"))
+           .andExpect(jsonPath("$.states[0].transitions[0]").value("DELIVERED"))
+           .andExpect(jsonPath("$.states[0].guards[0]").value("has-items"))
+           .andExpect(jsonPath("$.transitionHooks[0]").value("audit"));
+  }
+
+  @Test
+  @DisplayName("Should update the status of several orders and return a result per order")
+  void shouldUpdateOrderStatusesSuccessfully() throws Exception {
+    // Given
+    BulkOrderStatusRequest request = new BulkOrderStatusRequest(List.of(1L, 2L),
+                                                                OrderStatus.SHIPPED);
+    BulkOrderStatusResultDTO result = BulkOrderStatusResultDTO.of(OrderStatus.SHIPPED, List.of(
+        OrderStatusResultDTO.builder()
+                            .orderId(1L)
+                            .previousStatus(OrderStatus.PROCESSING)
+                            .status(OrderStatus.SHIPPED)
+                            .outcome(OrderStatusResultDTO.Outcome.UPDATED)
+                            .build(),
+        OrderStatusResultDTO.builder()
+                            .orderId(2L)
+                            .outcome(OrderStatusResultDTO.Outcome.NOT_FOUND)
+                            .message("Order not found")
+                            .build()));
+    when(orderService.updateOrderStatuses(List.of(1L, 2L), OrderStatus.SHIPPED))
+        .thenReturn(result);
+
+    // When/Then
+    mockMvc.perform(put("/api/v1/admin/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.updated").value(1))
+           .andExpect(jsonPath("$.notFound").value(1))
+           .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+           .andExpect(jsonPath("$.results[1].orderId").value(2));
+
+    verify(orderService).updateOrderStatuses(List.of(1L, 2L), OrderStatus.SHIPPED);
+  }
+
+  @Test
+  @DisplayName("Should update the status of items of an order")
+  void shouldUpdateOrderItemStatusesSuccessfully() throws Exception {
+    // Given
+    OrderItemStatusRequest request = new OrderItemStatusRequest(List.of(
+        new OrderItemStatusRequest.ItemStatus(1L, OrderItemStatus.SHIPPED)));
+    orderItemDTO.setStatus(OrderItemStatus.SHIPPED);
+    orderDTO.setStatus(OrderStatus.SHIPPED);
+    when(orderService.updateOrderItemStatuses(1L, Map.of(1L, OrderItemStatus.SHIPPED)))
+        .thenReturn(orderDTO);
+
+    // When/Then
+    mockMvc.perform(put("/api/v1/admin/orders/1/items/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.status").value("SHIPPED"))
+           .andExpect(jsonPath("$.orderItems[0].status").value("SHIPPED"));
+
+    verify(orderService).updateOrderItemStatuses(1L, Map.of(1L, OrderItemStatus.SHIPPED));
+  }
+
   @Test
   @DisplayName("Should get daily sales report successfully")
   void shouldGetDailySalesReportSuccessfully() throws Exception {
@@ -208,4 +310,54 @@ class OrderAdminControllerTest {
 
     verify(orderService).getDailySalesReport(eq(startDate), eq(endDate));
   }
+
+  @Test
+  @DisplayName("Should accept a daily sales backfill")
+  void shouldAcceptDailySalesBackfill() throws Exception {
+    // Given
+    LocalDate startDate = LocalDate.now().minusDays(30);
+    LocalDate endDate = LocalDate.now();
+
+    // When/Then
+    mockMvc.perform(post("/api/v1/admin/reports/daily/backfill")
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString()))
+           .andExpect(status().isAccepted());
+
+    verify(salesRollupService).startBackfill(eq(startDate), eq(endDate));
+  }
+
+  @Test
+  @DisplayName("Should get sales analytics successfully")
+  void shouldGetSalesAnalyticsSuccessfully() throws Exception {
+    // Given
+    LocalDate startDate = LocalDate.of(2025, 6, 1);
+    LocalDate endDate = LocalDate.of(2025, 6, 30);
+    SalesAnalyticsDTO row = SalesAnalyticsDTO.builder()
+                                             .key("1")
+                                             .label("Test Product")
+                                             .orderCount(2)
+                                             .units(3)
+                                             .revenue(BigDecimal.valueOf(149.97))
+                                             .averageOrderValue(BigDecimal.valueOf(74.99))
+                                             .build();
+    when(salesAnalyticsService.getSalesAnalytics(
+        startDate, endDate, SalesGranularity.WEEK, "Asia/Tokyo", SalesDimension.PRODUCT,
+        List.of(OrderStatus.PAID, OrderStatus.SHIPPED))).thenReturn(List.of(row));
+
+    // When/Then
+    mockMvc.perform(get("/api/v1/admin/reports/sales")
+                        .param("startDate", startDate.toString())
+                        .param("endDate", endDate.toString())
+                        .param("granularity", "WEEK")
+                        .param("zone", "Asia/Tokyo")
+                        .param("dimension", "PRODUCT")
+                        .param("status", "PAID", "SHIPPED")
+                        .contentType(MediaType.APPLICATION_JSON))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.length()").value(1))
+           .andExpect(jsonPath("$[0].key").value("1"))
+           .andExpect(jsonPath("$[0].units").value(3))
+           .andExpect(jsonPath("$[0].averageOrderValue").value(74.99));
+  }
 }
@@ -2,10 +2,13 @@ package com.gitthub.youssefagagg.ecommerceorderprocessor.user.web.rest.v1;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -111,6 +114,28 @@ class OrderControllerTest {
                orderItemDTO.getSubtotal().doubleValue()));
   }
 
+  @Test
+  @DisplayName("Should queue the order and return 202 when async processing is preferred")
+  void shouldSubmitOrderAsynchronously() throws Exception {
+    // Given
+    orderDTO.setStatus(OrderStatus.PENDING);
+    when(orderService.submitOrder(any(OrderDTO.class))).thenReturn(orderDTO);
+
+    // When/Then
+    mockMvc.perform(post("/api/v1/orders")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderDTO)))
+           .andExpect(status().isAccepted())
+           .andExpect(header().string("Preference-Applied", "respond-async"))
+           .andExpect(header().string("Location",
+                                      "/api/v1/orders/" + orderDTO.getId() + "/status"))
+           .andExpect(jsonPath("$.id").value(orderDTO.getId()))
+           .andExpect(jsonPath("$.status").value("PENDING"));
+
+    verify(orderService, never()).createOrder(any(OrderDTO.class));
+  }
+
   @Test
   @DisplayName("Should get all orders for current user successfully")
   void shouldGetAllOrdersForCurrentUserSuccessfully() throws Exception {
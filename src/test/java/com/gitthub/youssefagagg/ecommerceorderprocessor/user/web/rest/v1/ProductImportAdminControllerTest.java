@@ -0,0 +1,87 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.user.web.rest.v1;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.dto.ProductImportStatusDTO;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.service.ProductImportService;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.web.rest.v1.ProductImportAdminController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportAdminControllerTest {
+
+  private MockMvc mockMvc;
+
+  @Mock
+  private ProductImportService productImportService;
+
+  private ProductImportStatusDTO statusDTO;
+
+  @BeforeEach
+  void setUp() {
+    mockMvc = MockMvcBuilders.standaloneSetup(
+        new ProductImportAdminController(productImportService)).build();
+
+    statusDTO = ProductImportStatusDTO.builder()
+                                      .executionId(7L)
+                                      .file("/import/catalog.csv")
+                                      .status("STARTED")
+                                      .readCount(1000)
+                                      .writeCount(990)
+                                      .skipCount(10)
+                                      .build();
+  }
+
+  @Test
+  @DisplayName("Should accept a product import")
+  void shouldStartImport() throws Exception {
+    // Given
+    when(productImportService.startImport("catalog.csv")).thenReturn(statusDTO);
+
+    // When/Then
+    mockMvc.perform(post("/api/v1/admin/products/import").param("file", "catalog.csv"))
+           .andExpect(status().isAccepted())
+           .andExpect(jsonPath("$.executionId").value(7))
+           .andExpect(jsonPath("$.status").value("STARTED"));
+
+    verify(productImportService).startImport("catalog.csv");
+  }
+
+  @Test
+  @DisplayName("Should accept the restart of a failed import")
+  void shouldRestartImport() throws Exception {
+    // Given
+    when(productImportService.restartImport(7L)).thenReturn(statusDTO);
+
+    // When/Then
+    mockMvc.perform(post("/api/v1/admin/products/import/{executionId}/restart", 7L))
+           .andExpect(status().isAccepted());
+
+    verify(productImportService).restartImport(7L);
+  }
+
+  @Test
+  @DisplayName("Should get the progress of an import")
+  void shouldGetImportStatus() throws Exception {
+    // Given
+    when(productImportService.getImportStatus(7L)).thenReturn(statusDTO);
+
+    // When/Then
+    mockMvc.perform(get("/api/v1/admin/products/import/{executionId}", 7L))
+           .andExpect(status().isOk())
+           .andExpect(jsonPath("$.writeCount").value(990))
+           .andExpect(jsonPath("$.skipCount").value(10));
+  }
+}
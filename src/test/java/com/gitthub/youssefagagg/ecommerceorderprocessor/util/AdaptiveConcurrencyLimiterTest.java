@@ -0,0 +1,108 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  @DisplayName("Should refuse calls beyond the limit until a permit is released")
+  void shouldCapCallsInFlight() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 0.5);
+
+    // When
+    boolean first = limiter.tryAcquire(1.0);
+    boolean second = limiter.tryAcquire(1.0);
+    boolean third = limiter.tryAcquire(1.0);
+
+    // Then
+    assertThat(first).isTrue();
+    assertThat(second).isTrue();
+    assertThat(third).isFalse();
+    limiter.release(System.nanoTime(), false);
+    assertThat(limiter.tryAcquire(1.0)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should admit lower priorities only up to their share of the limit")
+  void shouldShedLowerSharesFirst() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 10, 0.5);
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire(1.0)).isTrue();
+    }
+
+    // When / Then
+    assertThat(limiter.tryAcquire(0.5)).isFalse();
+    assertThat(limiter.tryAcquire(1.0)).isTrue();
+    assertThat(limiter.getInFlight()).isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("Should decrease once for the calls in flight when overload is detected")
+  void shouldDecreaseOncePerOverload() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 20, 1, 20, 0.5);
+    long start = System.nanoTime();
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire(1.0);
+    }
+
+    // When
+    limiter.release(start, true);
+    limiter.release(start, true);
+    limiter.release(start, true);
+
+    // Then
+    assertThat(limiter.getLimit()).isEqualTo(10);
+    assertThat(limiter.getInFlight()).isZero();
+
+    // A call started after the decrease can decrease it again
+    limiter.tryAcquire(1.0);
+    limiter.release(System.nanoTime(), true);
+    assertThat(limiter.getLimit()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should grow the limit while it is used and calls complete in time")
+  void shouldIncreaseWhenUtilized() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 5, 0.5);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    limiter.bindTo(registry);
+
+    // When
+    for (int i = 0; i < 20; i++) {
+      for (int j = 0; j < 3; j++) {
+        limiter.tryAcquire(1.0);
+      }
+      for (int j = 0; j < 3; j++) {
+        limiter.release(System.nanoTime(), false);
+      }
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isEqualTo(5);
+    assertThat(registry.get("concurrency.limit").gauge().value()).isEqualTo(5.0);
+  }
+
+  @Test
+  @DisplayName("Should not grow the limit while most of it is unused")
+  void shouldNotIncreaseWhenIdle() {
+    // Given
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 100, 0.5);
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      limiter.tryAcquire(1.0);
+      limiter.release(System.nanoTime(), false);
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+}
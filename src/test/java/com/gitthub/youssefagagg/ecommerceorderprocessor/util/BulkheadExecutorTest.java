@@ -0,0 +1,198 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.BulkheadExecutor.RejectionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+class BulkheadExecutorTest {
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+  }
+
+  @Test
+  @DisplayName("Should never run more tasks at once than the bulkhead allows")
+  void shouldLimitConcurrency() throws InterruptedException {
+    // Given
+    BulkheadExecutor executor = new BulkheadExecutor("test", 2, 100,
+                                                     RejectionPolicy.CALLER_RUNS, null);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(20);
+
+    // When
+    for (int i = 0; i < 20; i++) {
+      executor.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        sleep(5);
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+
+    // Then
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should run the task on the caller thread when the queue is full")
+  void shouldRunOnCallerWhenSaturated() {
+    // Given
+    BulkheadExecutor executor = new BulkheadExecutor("test", 1, 1,
+                                                     RejectionPolicy.CALLER_RUNS, null);
+    executor.execute(this::awaitRelease);
+    waitUntilActive(executor, 1);
+    executor.execute(this::awaitRelease);
+
+    // When
+    List<String> threads = new CopyOnWriteArrayList<>();
+    executor.execute(() -> threads.add(Thread.currentThread().getName()));
+
+    // Then
+    assertThat(threads).containsExactly(Thread.currentThread().getName());
+  }
+
+  @Test
+  @DisplayName("Should drop the oldest queued task when the queue is full")
+  void shouldDropOldestWhenSaturated() throws InterruptedException {
+    // Given
+    BulkheadExecutor executor = new BulkheadExecutor("test", 1, 1,
+                                                     RejectionPolicy.DROP_OLDEST, null);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    executor.bindTo(registry);
+    List<String> executed = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(1);
+
+    executor.execute(this::awaitRelease);
+    waitUntilActive(executor, 1);
+    executor.execute(() -> executed.add("oldest"));
+
+    // When
+    executor.execute(() -> {
+      executed.add("newest");
+      done.countDown();
+    });
+    release.countDown();
+
+    // Then
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(executed).containsExactly("newest");
+    assertThat(registry.get("executor.rejected").tag("policy", "drop-oldest")
+                       .functionCounter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should spill to the outbox and run spilled tasks once the queue drains")
+  void shouldSpillToOutboxWhenSaturated() throws InterruptedException {
+    // Given
+    BulkheadExecutor executor = new BulkheadExecutor("test", 1, 1,
+                                                     RejectionPolicy.SPILL_TO_OUTBOX, null);
+    List<String> executed = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(2);
+
+    executor.execute(this::awaitRelease);
+    waitUntilActive(executor, 1);
+    executor.execute(() -> {
+      executed.add("queued");
+      done.countDown();
+    });
+
+    // When
+    executor.execute(() -> {
+      executed.add("spilled");
+      done.countDown();
+    });
+    assertThat(executor.getQueuedCount()).isEqualTo(2);
+    release.countDown();
+
+    // Then
+    assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(executed).containsExactly("queued", "spilled");
+  }
+
+  @Test
+  @DisplayName("Should run the task on the caller once the outbox is full as well")
+  void shouldRunOnCallerWhenOutboxIsFull() {
+    // Given
+    BulkheadExecutor executor = new BulkheadExecutor("test", 1, 1, 1,
+                                                     RejectionPolicy.SPILL_TO_OUTBOX, null);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    executor.bindTo(registry);
+    executor.execute(this::awaitRelease);
+    waitUntilActive(executor, 1);
+    executor.execute(() -> { });
+    executor.execute(() -> { });
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    // When
+    executor.execute(() -> threads.add(Thread.currentThread()));
+
+    // Then
+    assertThat(threads).containsExactly(Thread.currentThread());
+    assertThat(executor.getQueuedCount()).isEqualTo(2);
+    assertThat(registry.get("executor.rejected").tag("policy", "spill-to-outbox")
+                       .functionCounter().count()).isEqualTo(1.0);
+    assertThat(registry.get("executor.rejected").tag("policy", "caller-runs")
+                       .functionCounter().count()).isEqualTo(1.0);
+    release.countDown();
+  }
+
+  @Test
+  @DisplayName("Should refuse the task to the caller when the queue is full and the policy aborts")
+  void shouldAbortWhenSaturated() {
+    // Given
+    BulkheadExecutor executor = new BulkheadExecutor("test", 1, 1, RejectionPolicy.ABORT, null);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    executor.bindTo(registry);
+    executor.execute(this::awaitRelease);
+    waitUntilActive(executor, 1);
+    executor.execute(this::awaitRelease);
+
+    // When/Then
+    List<String> executed = new CopyOnWriteArrayList<>();
+    assertThatThrownBy(() -> executor.execute(() -> executed.add("rejected")))
+        .isInstanceOf(TaskRejectedException.class);
+    assertThat(executed).isEmpty();
+    assertThat(executor.getQueuedCount()).isEqualTo(1);
+    assertThat(registry.get("executor.rejected").tag("policy", "abort")
+                       .functionCounter().count()).isEqualTo(1.0);
+  }
+
+  private void awaitRelease() {
+    try {
+      release.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void waitUntilActive(BulkheadExecutor executor, int active) {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (executor.getActiveCount() < active && System.nanoTime() < deadline) {
+      sleep(1);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.CircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  @Test
+  @DisplayName("Should stay closed until the minimum number of calls is recorded")
+  void shouldWaitForMinimumCalls() {
+    // Given
+    CircuitBreaker breaker = new CircuitBreaker("test", 50, 10, 4, Duration.ofMinutes(1), 1);
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      assertThat(breaker.tryAcquirePermission()).isTrue();
+      breaker.onFailure();
+    }
+
+    // Then
+    assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  @DisplayName("Should open and refuse calls once the failure rate reaches the threshold")
+  void shouldOpenWhenFailureRateIsReached() {
+    // Given
+    CircuitBreaker breaker = new CircuitBreaker("test", 50, 10, 4, Duration.ofMinutes(1), 1);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    breaker.bindTo(registry);
+
+    // When
+    breaker.tryAcquirePermission();
+    breaker.onSuccess();
+    breaker.tryAcquirePermission();
+    breaker.onSuccess();
+    breaker.tryAcquirePermission();
+    breaker.onFailure();
+    breaker.tryAcquirePermission();
+    breaker.onFailure();
+
+    // Then
+    assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+    assertThat(registry.get("circuit.breaker.calls").tag("outcome", "not-permitted")
+                       .functionCounter().count()).isEqualTo(1.0);
+    assertThat(registry.get("circuit.breaker.state").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should only count the calls in the sliding window")
+  void shouldForgetCallsOutsideTheWindow() {
+    // Given
+    CircuitBreaker breaker = new CircuitBreaker("test", 50, 4, 4, Duration.ofMinutes(1), 1);
+    breaker.onFailure();
+    breaker.onFailure();
+    breaker.onSuccess();
+
+    // When
+    for (int i = 0; i < 4; i++) {
+      breaker.onSuccess();
+    }
+    breaker.onFailure();
+
+    // Then
+    assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  @DisplayName("Should close after the trial calls succeed")
+  void shouldCloseAfterSuccessfulTrialCalls() {
+    // Given
+    CircuitBreaker breaker = new CircuitBreaker("test", 50, 2, 2, Duration.ZERO, 2);
+    breaker.onFailure();
+    breaker.onFailure();
+    assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+    // When
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+    assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+    breaker.onSuccess();
+    breaker.onSuccess();
+
+    // Then
+    assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  @DisplayName("Should open again when a trial call fails")
+  void shouldReopenWhenTrialCallFails() {
+    // Given
+    CircuitBreaker breaker = new CircuitBreaker("test", 50, 2, 2, Duration.ZERO, 2);
+    breaker.onFailure();
+    breaker.onFailure();
+
+    // When
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    breaker.onFailure();
+
+    // Then
+    assertThat(breaker.getState()).isEqualTo(State.OPEN);
+  }
+}
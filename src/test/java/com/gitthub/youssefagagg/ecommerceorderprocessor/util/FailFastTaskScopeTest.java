@@ -0,0 +1,116 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FailFastTaskScopeTest {
+
+  @AfterEach
+  void tearDown() {
+    RequestDeadline.restore(null);
+  }
+
+  @Test
+  @DisplayName("Should return the results of every subtask once all have completed")
+  void shouldJoinAllSubtasks() {
+    // Given
+    Supplier<String> user;
+    Supplier<Integer> stock;
+    try (FailFastTaskScope scope = new FailFastTaskScope("test", null)) {
+      user = scope.fork(() -> "testuser");
+      stock = scope.fork(() -> 10);
+
+      // When
+      scope.join();
+    }
+
+    // Then
+    assertThat(user.get()).isEqualTo("testuser");
+    assertThat(stock.get()).isEqualTo(10);
+  }
+
+  @Test
+  @DisplayName("Should interrupt the other subtasks and rethrow the first failure")
+  void shouldCancelOnFirstFailure() throws InterruptedException {
+    // Given
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicBoolean interrupted = new AtomicBoolean();
+    long start = System.nanoTime();
+
+    try (FailFastTaskScope scope = new FailFastTaskScope("test", null)) {
+      scope.fork(() -> {
+        started.countDown();
+        try {
+          Thread.sleep(Duration.ofSeconds(30));
+        } catch (InterruptedException e) {
+          interrupted.set(true);
+        }
+        return null;
+      });
+      assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+      scope.fork(() -> {
+        throw new CustomException(ErrorCode.CHECKOUT_REJECTED, "Rejected");
+      });
+
+      // When / Then
+      assertThatThrownBy(scope::join)
+          .isInstanceOf(CustomException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.CHECKOUT_REJECTED);
+    }
+    assertThat(interrupted).isTrue();
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+  }
+
+  @Test
+  @DisplayName("Should stop waiting for the subtasks once the request deadline has passed")
+  void shouldGiveUpAtDeadline() {
+    // Given
+    RequestDeadline.select(RequestDeadline.after(Duration.ofMillis(50)));
+
+    try (FailFastTaskScope scope = new FailFastTaskScope("test", null)) {
+      scope.fork(() -> {
+        try {
+          Thread.sleep(Duration.ofSeconds(30));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return null;
+      });
+
+      // When / Then
+      assertThatThrownBy(scope::join)
+          .isInstanceOf(CustomException.class)
+          .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DEADLINE_EXCEEDED);
+    }
+  }
+
+  @Test
+  @DisplayName("Should run subtasks with the deadline of the thread that forked them")
+  void shouldPropagateDeadline() {
+    // Given
+    RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(10));
+    RequestDeadline.select(deadline);
+    Supplier<RequestDeadline> seen;
+
+    try (FailFastTaskScope scope = new FailFastTaskScope("test", null)) {
+      seen = scope.fork(RequestDeadline::current);
+
+      // When
+      scope.join();
+    }
+
+    // Then
+    assertThat(seen.get()).isSameAs(deadline);
+  }
+}
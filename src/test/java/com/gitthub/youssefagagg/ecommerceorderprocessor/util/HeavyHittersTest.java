@@ -0,0 +1,88 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.util.HeavyHitters.HeavyHitter;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+
+  @Test
+  @DisplayName("Should find the heavy hitters among many rare keys")
+  void shouldFindHeavyHitters() {
+    // Given
+    HeavyHitters heavyHitters = new HeavyHitters(4, 1024, 5);
+    Random random = new Random(42);
+
+    // When
+    for (int i = 0; i < 100_000; i++) {
+      if (random.nextInt(10) < 3) {
+        heavyHitters.add("hot-" + random.nextInt(3));
+      } else {
+        heavyHitters.add("key-" + random.nextInt(50_000));
+      }
+    }
+
+    // Then
+    assertThat(heavyHitters.top()).hasSize(5);
+    assertThat(heavyHitters.top().subList(0, 3)).extracting(HeavyHitter::key)
+                                                .containsExactlyInAnyOrder("hot-0", "hot-1",
+                                                                           "hot-2");
+    assertThat(heavyHitters.total()).isEqualTo(100_000);
+  }
+
+  @Test
+  @DisplayName("Should never estimate less than the actual count")
+  void shouldNotUndercount() {
+    // Given
+    HeavyHitters heavyHitters = new HeavyHitters(2, 16, 2);
+
+    // When
+    for (int i = 0; i < 1_000; i++) {
+      heavyHitters.add("key-" + i % 100);
+    }
+    heavyHitters.add("weighted", 25);
+
+    // Then
+    for (int i = 0; i < 100; i++) {
+      assertThat(heavyHitters.estimate("key-" + i)).isGreaterThanOrEqualTo(10);
+    }
+    assertThat(heavyHitters.estimate("weighted")).isGreaterThanOrEqualTo(25);
+  }
+
+  @Test
+  @DisplayName("Should halve all counts on decay and forget keys that decay to zero")
+  void shouldDecay() {
+    // Given
+    HeavyHitters heavyHitters = new HeavyHitters(4, 1024, 5);
+    heavyHitters.add("frequent", 8);
+    heavyHitters.add("rare");
+
+    // When
+    heavyHitters.decay();
+
+    // Then
+    assertThat(heavyHitters.estimate("frequent")).isEqualTo(4);
+    assertThat(heavyHitters.estimate("rare")).isZero();
+    assertThat(heavyHitters.total()).isEqualTo(4);
+    assertThat(heavyHitters.top()).containsExactly(new HeavyHitter("frequent", 4));
+  }
+
+  @Test
+  @DisplayName("Should let a newly frequent key replace the least frequent heavy hitter")
+  void shouldReplaceLeastFrequent() {
+    // Given
+    HeavyHitters heavyHitters = new HeavyHitters(4, 1024, 2);
+    heavyHitters.add("a", 10);
+    heavyHitters.add("b", 5);
+
+    // When
+    heavyHitters.add("c", 7);
+
+    // Then
+    assertThat(heavyHitters.top()).containsExactly(new HeavyHitter("a", 10),
+                                                   new HeavyHitter("c", 7));
+  }
+}
@@ -0,0 +1,98 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.ErrorCode;
+import com.gitthub.youssefagagg.ecommerceorderprocessor.exception.custom.CustomException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RequestDeadlineTest {
+
+  @AfterEach
+  void tearDown() {
+    RequestDeadline.restore(null);
+  }
+
+  @Test
+  @DisplayName("Should round the remaining time up to whole seconds")
+  void shouldRoundRemainingSecondsUp() {
+    // Given
+    RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(2500));
+
+    // When
+    int remaining = deadline.remainingSeconds();
+
+    // Then
+    assertThat(remaining).isEqualTo(3);
+    assertThat(deadline.isExpired()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should report no time left once the deadline has passed")
+  void shouldExpire() {
+    // Given
+    RequestDeadline deadline = RequestDeadline.after(Duration.ZERO);
+
+    // Then
+    assertThat(deadline.isExpired()).isTrue();
+    assertThat(deadline.remainingSeconds()).isZero();
+    assertThat(deadline.remaining()).isNotPositive();
+  }
+
+  @Test
+  @DisplayName("Should refuse work once the deadline of the current thread has passed")
+  void shouldRefuseWorkAfterDeadline() {
+    // Given
+    RequestDeadline.select(RequestDeadline.after(Duration.ZERO));
+
+    // When / Then
+    assertThatThrownBy(() -> RequestDeadline.checkCurrent("the report"))
+        .isInstanceOf(CustomException.class)
+        .hasFieldOrPropertyWithValue("errorCode", ErrorCode.DEADLINE_EXCEEDED)
+        .hasMessageContaining("before the report");
+  }
+
+  @Test
+  @DisplayName("Should not bound threads without a deadline")
+  void shouldAllowWorkWithoutDeadline() {
+    assertThatCode(() -> RequestDeadline.checkCurrent("the report")).doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Should restore the previous deadline after running with another one")
+  void shouldRestorePreviousDeadline() {
+    // Given
+    RequestDeadline outer = RequestDeadline.after(Duration.ofSeconds(5));
+    RequestDeadline.select(outer);
+
+    // When
+    RequestDeadline inner = RequestDeadline.callWith(null, RequestDeadline::current);
+
+    // Then
+    assertThat(inner).isNull();
+    assertThat(RequestDeadline.current()).isSameAs(outer);
+  }
+
+  @Test
+  @DisplayName("Should hand the deadline of the submitting thread to a propagating task")
+  void shouldPropagateDeadlineToTask() {
+    // Given
+    RequestDeadline deadline = RequestDeadline.after(Duration.ofSeconds(5));
+    AtomicReference<RequestDeadline> seen = new AtomicReference<>();
+    Runnable task = RequestDeadline.callWith(
+        deadline, () -> RequestDeadline.propagating(() -> seen.set(RequestDeadline.current())));
+
+    // When
+    CompletableFuture.runAsync(task).join();
+
+    // Then
+    assertThat(seen.get()).isSameAs(deadline);
+  }
+}
@@ -0,0 +1,61 @@
+package com.gitthub.youssefagagg.ecommerceorderprocessor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  @Test
+  @DisplayName("Should allow a burst of retries up to the capacity")
+  void shouldAllowBurstUpToCapacity() {
+    // Given
+    RetryBudget budget = new RetryBudget(0.1, 3);
+
+    // When
+    int retries = 0;
+    while (budget.tryRetry()) {
+      retries++;
+    }
+
+    // Then
+    assertThat(retries).isEqualTo(3);
+    assertThat(budget.getBalance()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should earn back one retry per 1 / ratio calls once spent")
+  void shouldLimitRetriesToShareOfCalls() {
+    // Given
+    RetryBudget budget = new RetryBudget(0.25, 1);
+    budget.tryRetry();
+
+    // When
+    int retries = 0;
+    for (int call = 0; call < 100; call++) {
+      budget.onCall();
+      if (budget.tryRetry()) {
+        retries++;
+      }
+    }
+
+    // Then
+    assertThat(retries).isEqualTo(25);
+  }
+
+  @Test
+  @DisplayName("Should not hold more tokens than its capacity")
+  void shouldCapBalance() {
+    // Given
+    RetryBudget budget = new RetryBudget(0.5, 2);
+
+    // When
+    for (int call = 0; call < 10; call++) {
+      budget.onCall();
+    }
+
+    // Then
+    assertThat(budget.getBalance()).isEqualTo(2.0);
+  }
+}